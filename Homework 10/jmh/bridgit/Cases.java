@@ -0,0 +1,29 @@
+package bridgit;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+//finds the cases a benchmark class of the game builds for a board size
+//JMH will not run a benchmark in the default package, and a class in a package cannot name
+//a class in the default package, where the game is, so the cases are found by reflection,
+//once for each trial, and run through LongSupplier, which BenchmarkCase extends
+class Cases {
+
+  //returns the cases the static cases(int) of the given class builds for the given size
+  @SuppressWarnings("unchecked")
+  static Map<String, ? extends LongSupplier> of(String owner, int size) throws Exception {
+    Method cases = Class.forName(owner).getDeclaredMethod("cases", int.class);
+    cases.setAccessible(true);
+    return (Map<String, ? extends LongSupplier>) cases.invoke(null, size);
+  }
+
+  //returns the case of the given name, which must be one of the given cases
+  static LongSupplier get(Map<String, ? extends LongSupplier> cases, String name) {
+    LongSupplier result = cases.get(name);
+    if (result == null) {
+      throw new IllegalArgumentException("No benchmark case " + name);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,53 @@
+package bridgit;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//times each case of DatabaseBenchmark, looking the positions of a game up in a solution
+//database and asking it for the best move
+//run with: gradle jmh -Pincludes=DatabaseLookupBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DatabaseLookupBenchmark {
+  @Param({"5", "7"})
+  public int size;
+  //the case of each benchmark, built for the size
+  LongSupplier lookupsOfAGame;
+  LongSupplier bestMove;
+
+  //EFFECT: builds the cases of the size, once for each trial
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    Map<String, ? extends LongSupplier> cases = Cases.of("DatabaseBenchmark", this.size);
+    this.lookupsOfAGame = Cases.get(cases, "lookups of a game");
+    this.bestMove = Cases.get(cases, "bestMove");
+  }
+
+  @Benchmark
+  public long lookupsOfAGame() {
+    return this.lookupsOfAGame.getAsLong();
+  }
+
+  @Benchmark
+  public long bestMove() {
+    return this.bestMove.getAsLong();
+  }
+}
@@ -0,0 +1,53 @@
+package bridgit;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//times each case of DequeBenchmark but the deque that walks its list for its size, filling
+//and draining the counted linked Deque and the RingDeque with as many items as the size
+//run with: gradle jmh -Pincludes=DequeDrainBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DequeDrainBenchmark {
+  @Param({"1000", "10000", "100000", "1000000", "10000000"})
+  public int size;
+  //the case of each benchmark, built for the size
+  LongSupplier countedLinked;
+  LongSupplier ring;
+
+  //EFFECT: builds the cases of the size, once for each trial
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    Map<String, ? extends LongSupplier> cases = Cases.of("DequeBenchmark", this.size);
+    this.countedLinked = Cases.get(cases, "counted-linked");
+    this.ring = Cases.get(cases, "ring");
+  }
+
+  @Benchmark
+  public long countedLinked() {
+    return this.countedLinked.getAsLong();
+  }
+
+  @Benchmark
+  public long ring() {
+    return this.ring.getAsLong();
+  }
+}
@@ -0,0 +1,46 @@
+package bridgit;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//times the case of DequeBenchmark whose deque walks its list for its size, which makes
+//draining it quadratic, so only on the smaller sizes
+//run with: gradle jmh -Pincludes=DequeWalkBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DequeWalkBenchmark {
+  @Param({"1000", "10000"})
+  public int size;
+  //the case of each benchmark, built for the size
+  LongSupplier walkingLinked;
+
+  //EFFECT: builds the cases of the size, once for each trial
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    Map<String, ? extends LongSupplier> cases = Cases.of("DequeBenchmark", this.size);
+    this.walkingLinked = Cases.get(cases, "walking-linked");
+  }
+
+  @Benchmark
+  public long walkingLinked() {
+    return this.walkingLinked.getAsLong();
+  }
+}
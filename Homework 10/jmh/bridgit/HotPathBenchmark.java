@@ -0,0 +1,165 @@
+package bridgit;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//times each case of BridgItBenchmark, the hot paths of BridgItWorld on sparse, dense and
+//adversarial boards, on boards of each size
+//run with: gradle jmh, or gradle jmh -Pincludes=HotPathBenchmark.hasWon for some cases
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotPathBenchmark {
+  @Param({"11", "51", "101", "201", "401"})
+  public int size;
+  //the case of each benchmark, built for the size
+  LongSupplier initBoard;
+  LongSupplier hasWonSparse;
+  LongSupplier hasWonDense;
+  LongSupplier hasWonSnake;
+  LongSupplier winningPathDense;
+  LongSupplier winningPathSnake;
+  LongSupplier hasPathSnake;
+  LongSupplier toAddNeighborsDense;
+  LongSupplier bridgedNeighborsDense;
+  LongSupplier boundsCheckedDense;
+  LongSupplier makeSceneSparse;
+  LongSupplier makeSceneHover;
+  LongSupplier makeSceneHoverMetrics;
+  LongSupplier drawFullSparse;
+  LongSupplier drawAllCellsDense;
+  LongSupplier restoreDense;
+  LongSupplier dequeAddRemove;
+  LongSupplier ringDequeAddRemove;
+
+  //EFFECT: builds the boards and cases of the size, once for each trial
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    Map<String, ? extends LongSupplier> cases = Cases.of("BridgItBenchmark", this.size);
+    this.initBoard = Cases.get(cases, "initBoard");
+    this.hasWonSparse = Cases.get(cases, "hasWon sparse");
+    this.hasWonDense = Cases.get(cases, "hasWon dense");
+    this.hasWonSnake = Cases.get(cases, "hasWon snake");
+    this.winningPathDense = Cases.get(cases, "winningPath dense");
+    this.winningPathSnake = Cases.get(cases, "winningPath snake");
+    this.hasPathSnake = Cases.get(cases, "hasPath snake");
+    this.toAddNeighborsDense = Cases.get(cases, "toAddNeighbors dense");
+    this.bridgedNeighborsDense = Cases.get(cases, "bridgedNeighbors dense");
+    this.boundsCheckedDense = Cases.get(cases, "bounds-checked dense");
+    this.makeSceneSparse = Cases.get(cases, "makeScene sparse");
+    this.makeSceneHover = Cases.get(cases, "makeScene hover");
+    this.makeSceneHoverMetrics = Cases.get(cases, "makeScene hover metrics");
+    this.drawFullSparse = Cases.get(cases, "drawFull sparse");
+    this.drawAllCellsDense = Cases.get(cases, "drawAllCells dense");
+    this.restoreDense = Cases.get(cases, "restore dense");
+    this.dequeAddRemove = Cases.get(cases, "Deque add/remove");
+    this.ringDequeAddRemove = Cases.get(cases, "RingDeque add/remove");
+  }
+
+  @Benchmark
+  public long initBoard() {
+    return this.initBoard.getAsLong();
+  }
+
+  @Benchmark
+  public long hasWonSparse() {
+    return this.hasWonSparse.getAsLong();
+  }
+
+  @Benchmark
+  public long hasWonDense() {
+    return this.hasWonDense.getAsLong();
+  }
+
+  @Benchmark
+  public long hasWonSnake() {
+    return this.hasWonSnake.getAsLong();
+  }
+
+  @Benchmark
+  public long winningPathDense() {
+    return this.winningPathDense.getAsLong();
+  }
+
+  @Benchmark
+  public long winningPathSnake() {
+    return this.winningPathSnake.getAsLong();
+  }
+
+  @Benchmark
+  public long hasPathSnake() {
+    return this.hasPathSnake.getAsLong();
+  }
+
+  @Benchmark
+  public long toAddNeighborsDense() {
+    return this.toAddNeighborsDense.getAsLong();
+  }
+
+  @Benchmark
+  public long bridgedNeighborsDense() {
+    return this.bridgedNeighborsDense.getAsLong();
+  }
+
+  @Benchmark
+  public long boundsCheckedDense() {
+    return this.boundsCheckedDense.getAsLong();
+  }
+
+  @Benchmark
+  public long makeSceneSparse() {
+    return this.makeSceneSparse.getAsLong();
+  }
+
+  @Benchmark
+  public long makeSceneHover() {
+    return this.makeSceneHover.getAsLong();
+  }
+
+  @Benchmark
+  public long makeSceneHoverMetrics() {
+    return this.makeSceneHoverMetrics.getAsLong();
+  }
+
+  @Benchmark
+  public long drawFullSparse() {
+    return this.drawFullSparse.getAsLong();
+  }
+
+  @Benchmark
+  public long drawAllCellsDense() {
+    return this.drawAllCellsDense.getAsLong();
+  }
+
+  @Benchmark
+  public long restoreDense() {
+    return this.restoreDense.getAsLong();
+  }
+
+  @Benchmark
+  public long dequeAddRemove() {
+    return this.dequeAddRemove.getAsLong();
+  }
+
+  @Benchmark
+  public long ringDequeAddRemove() {
+    return this.ringDequeAddRemove.getAsLong();
+  }
+}
@@ -0,0 +1,53 @@
+package bridgit;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//times each case of ApplyMovesBenchmark, importing a random game up to its win into a
+//BridgItWorld by clicks and by applyMoves
+//run with: gradle jmh -Pincludes=ImportGameBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImportGameBenchmark {
+  @Param({"11", "51", "101"})
+  public int size;
+  //the case of each benchmark, built for the size
+  LongSupplier clicks;
+  LongSupplier applyMoves;
+
+  //EFFECT: builds the cases of the size, once for each trial
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    Map<String, ? extends LongSupplier> cases = Cases.of("ApplyMovesBenchmark", this.size);
+    this.clicks = Cases.get(cases, "clicks");
+    this.applyMoves = Cases.get(cases, "applyMoves");
+  }
+
+  @Benchmark
+  public long clicks() {
+    return this.clicks.getAsLong();
+  }
+
+  @Benchmark
+  public long applyMoves() {
+    return this.applyMoves.getAsLong();
+  }
+}
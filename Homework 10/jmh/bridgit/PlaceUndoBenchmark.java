@@ -0,0 +1,60 @@
+package bridgit;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//times each case of UndoBenchmark, making and unmaking a move with the engine's rollback
+//links against rebuilding them and against copying the whole game
+//run with: gradle jmh -Pincludes=PlaceUndoBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlaceUndoBenchmark {
+  @Param({"11", "51", "101", "201", "401"})
+  public int size;
+  //the case of each benchmark, built for the size
+  LongSupplier placeUndo;
+  LongSupplier placeUndoRebuild;
+  LongSupplier copyFrom;
+
+  //EFFECT: builds the cases of the size, once for each trial
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    Map<String, ? extends LongSupplier> cases = Cases.of("UndoBenchmark", this.size);
+    this.placeUndo = Cases.get(cases, "place + undo");
+    this.placeUndoRebuild = Cases.get(cases, "place + undo + rebuild");
+    this.copyFrom = Cases.get(cases, "copyFrom");
+  }
+
+  @Benchmark
+  public long placeUndo() {
+    return this.placeUndo.getAsLong();
+  }
+
+  @Benchmark
+  public long placeUndoRebuild() {
+    return this.placeUndoRebuild.getAsLong();
+  }
+
+  @Benchmark
+  public long copyFrom() {
+    return this.copyFrom.getAsLong();
+  }
+}
@@ -0,0 +1,102 @@
+package bridgit;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//times each case of SnapshotBenchmark, the snapshots, moves and copies of a half full
+//position against the engine's
+//run with: gradle jmh -Pincludes=PositionCopyBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PositionCopyBenchmark {
+  @Param({"11", "51", "101", "201"})
+  public int size;
+  //the case of each benchmark, built for the size
+  LongSupplier snapshotClone;
+  LongSupplier snapshotInto;
+  LongSupplier restore;
+  LongSupplier makeUnmake;
+  LongSupplier hasWon;
+  LongSupplier loadFromEngine;
+  LongSupplier storeToEngine;
+  LongSupplier engineCopyFrom;
+  LongSupplier engineNew;
+
+  //EFFECT: builds the cases of the size, once for each trial
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    Map<String, ? extends LongSupplier> cases = Cases.of("SnapshotBenchmark", this.size);
+    this.snapshotClone = Cases.get(cases, "snapshot clone");
+    this.snapshotInto = Cases.get(cases, "snapshot into");
+    this.restore = Cases.get(cases, "restore");
+    this.makeUnmake = Cases.get(cases, "make+unmake");
+    this.hasWon = Cases.get(cases, "hasWon");
+    this.loadFromEngine = Cases.get(cases, "load from engine");
+    this.storeToEngine = Cases.get(cases, "store to engine");
+    this.engineCopyFrom = Cases.get(cases, "engine copyFrom");
+    this.engineNew = Cases.get(cases, "engine new");
+  }
+
+  @Benchmark
+  public long snapshotClone() {
+    return this.snapshotClone.getAsLong();
+  }
+
+  @Benchmark
+  public long snapshotInto() {
+    return this.snapshotInto.getAsLong();
+  }
+
+  @Benchmark
+  public long restore() {
+    return this.restore.getAsLong();
+  }
+
+  @Benchmark
+  public long makeUnmake() {
+    return this.makeUnmake.getAsLong();
+  }
+
+  @Benchmark
+  public long hasWon() {
+    return this.hasWon.getAsLong();
+  }
+
+  @Benchmark
+  public long loadFromEngine() {
+    return this.loadFromEngine.getAsLong();
+  }
+
+  @Benchmark
+  public long storeToEngine() {
+    return this.storeToEngine.getAsLong();
+  }
+
+  @Benchmark
+  public long engineCopyFrom() {
+    return this.engineCopyFrom.getAsLong();
+  }
+
+  @Benchmark
+  public long engineNew() {
+    return this.engineNew.getAsLong();
+  }
+}
@@ -0,0 +1,53 @@
+package bridgit;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//times each case of GameRecordBenchmark, writing a batch of games to a file of records and
+//replaying them from it
+//run with: gradle jmh -Pincludes=RecordFileBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecordFileBenchmark {
+  @Param({"11", "51"})
+  public int size;
+  //the case of each benchmark, built for the size
+  LongSupplier write;
+  LongSupplier replay;
+
+  //EFFECT: builds the cases of the size, once for each trial
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    Map<String, ? extends LongSupplier> cases = Cases.of("GameRecordBenchmark", this.size);
+    this.write = Cases.get(cases, "write");
+    this.replay = Cases.get(cases, "replay");
+  }
+
+  @Benchmark
+  public long write() {
+    return this.write.getAsLong();
+  }
+
+  @Benchmark
+  public long replay() {
+    return this.replay.getAsLong();
+  }
+}
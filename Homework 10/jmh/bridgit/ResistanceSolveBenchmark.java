@@ -0,0 +1,53 @@
+package bridgit;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//times each case of ResistanceBenchmark, a move of a random game with both players'
+//networks solved from the last voltages against from nothing
+//run with: gradle jmh -Pincludes=ResistanceSolveBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResistanceSolveBenchmark {
+  @Param({"11", "25", "51", "101"})
+  public int size;
+  //the case of each benchmark, built for the size
+  LongSupplier cold;
+  LongSupplier warm;
+
+  //EFFECT: builds the cases of the size, once for each trial
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    Map<String, ? extends LongSupplier> cases = Cases.of("ResistanceBenchmark", this.size);
+    this.cold = Cases.get(cases, "cold");
+    this.warm = Cases.get(cases, "warm");
+  }
+
+  @Benchmark
+  public long cold() {
+    return this.cold.getAsLong();
+  }
+
+  @Benchmark
+  public long warm() {
+    return this.warm.getAsLong();
+  }
+}
@@ -0,0 +1,52 @@
+package bridgit;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//times the case of SelfPlayBenchmark with the given number of threads, or one per core,
+//a batch of random games; games/second goes up with the threads only as far as the cores do
+//run with: gradle jmh -Pincludes=SelfPlayScalingBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelfPlayScalingBenchmark {
+  @Param({"11", "51"})
+  public int size;
+  @Param({"1", "2", "4", "8", "cores"})
+  public String threads;
+  //the case of each benchmark, built for the size
+  LongSupplier batch;
+
+  //EFFECT: builds the cases of the size, once for each trial
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    Map<String, ? extends LongSupplier> cases = Cases.of("SelfPlayBenchmark", this.size);
+    String name = this.threads + " threads";
+    if (this.threads.equals("cores")) {
+      name = "cores";
+    }
+    this.batch = Cases.get(cases, name);
+  }
+
+  @Benchmark
+  public long batch() {
+    return this.batch.getAsLong();
+  }
+}
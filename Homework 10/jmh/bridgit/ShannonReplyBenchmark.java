@@ -0,0 +1,53 @@
+package bridgit;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//times each case of ShannonBenchmark, a reply of Shannon's strategy kept up to date
+//against one from a solver rebuilt from the game
+//run with: gradle jmh -Pincludes=ShannonReplyBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShannonReplyBenchmark {
+  @Param({"11", "51", "101", "201"})
+  public int size;
+  //the case of each benchmark, built for the size
+  LongSupplier incremental;
+  LongSupplier fromScratch;
+
+  //EFFECT: builds the cases of the size, once for each trial
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    Map<String, ? extends LongSupplier> cases = Cases.of("ShannonBenchmark", this.size);
+    this.incremental = Cases.get(cases, "incremental");
+    this.fromScratch = Cases.get(cases, "from scratch");
+  }
+
+  @Benchmark
+  public long incremental() {
+    return this.incremental.getAsLong();
+  }
+
+  @Benchmark
+  public long fromScratch() {
+    return this.fromScratch.getAsLong();
+  }
+}
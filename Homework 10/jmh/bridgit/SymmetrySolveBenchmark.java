@@ -0,0 +1,61 @@
+package bridgit;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//times each case of SymmetryBenchmark, reaching every position of the empty board and
+//solving it with a table keyed by position against one keyed by class, a run at a time
+//since each takes up to seconds
+//run with: gradle jmh -Pincludes=SymmetrySolveBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SymmetrySolveBenchmark {
+  @Param({"5", "7"})
+  public int size;
+  //the case of each benchmark, built for the size
+  LongSupplier reach;
+  LongSupplier solveByPosition;
+  LongSupplier solveByCanonical;
+
+  //EFFECT: builds the cases of the size, once for each trial
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    Map<String, ? extends LongSupplier> cases = Cases.of("SymmetryBenchmark", this.size);
+    this.reach = Cases.get(cases, "reach");
+    this.solveByPosition = Cases.get(cases, "solve by position");
+    this.solveByCanonical = Cases.get(cases, "solve by canonical");
+  }
+
+  @Benchmark
+  public long reach() {
+    return this.reach.getAsLong();
+  }
+
+  @Benchmark
+  public long solveByPosition() {
+    return this.solveByPosition.getAsLong();
+  }
+
+  @Benchmark
+  public long solveByCanonical() {
+    return this.solveByCanonical.getAsLong();
+  }
+}
@@ -0,0 +1,51 @@
+package bridgit;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//times the case of TranspositionBenchmark with the given table size and threads, finding
+//every winning first move of the empty board, a run at a time since each takes up to
+//seconds
+//run with: gradle jmh -Pincludes=TableSolveBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TableSolveBenchmark {
+  @Param({"5", "7"})
+  public int size;
+  @Param({"4", "256", "16384"})
+  public int kilobytes;
+  @Param({"1", "2", "4"})
+  public int threads;
+  //the case of each benchmark, built for the size
+  LongSupplier winningMoves;
+
+  //EFFECT: builds the cases of the size, once for each trial
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    Map<String, ? extends LongSupplier> cases = Cases.of("TranspositionBenchmark", this.size);
+    this.winningMoves = Cases.get(cases, this.kilobytes + " KB, " + this.threads + " threads");
+  }
+
+  @Benchmark
+  public long winningMoves() {
+    return this.winningMoves.getAsLong();
+  }
+}
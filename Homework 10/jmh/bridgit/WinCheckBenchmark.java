@@ -0,0 +1,124 @@
+package bridgit;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//times each case of BitBoardBenchmark, the bitboard flood against the other ways of
+//telling from scratch if both players have won, on half full, nearly full and snake boards
+//of each size
+//run with: gradle jmh -Pincludes=WinCheckBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WinCheckBenchmark {
+  @Param({"11", "51", "101", "201", "401"})
+  public int size;
+  //the case of each benchmark, built for the size
+  LongSupplier bitBoardHalf;
+  LongSupplier bitPositionHalf;
+  LongSupplier winningPathHalf;
+  LongSupplier unionFindRebuildHalf;
+  LongSupplier bitBoardDense;
+  LongSupplier bitPositionDense;
+  LongSupplier winningPathDense;
+  LongSupplier unionFindRebuildDense;
+  LongSupplier bitBoardSnake;
+  LongSupplier bitPositionSnake;
+  LongSupplier winningPathSnake;
+  LongSupplier unionFindRebuildSnake;
+
+  //EFFECT: builds the boards and cases of the size, once for each trial
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    Map<String, ? extends LongSupplier> cases = Cases.of("BitBoardBenchmark", this.size);
+    this.bitBoardHalf = Cases.get(cases, "BitBoard half");
+    this.bitPositionHalf = Cases.get(cases, "BitPosition half");
+    this.winningPathHalf = Cases.get(cases, "winningPath half");
+    this.unionFindRebuildHalf = Cases.get(cases, "union-find rebuild half");
+    this.bitBoardDense = Cases.get(cases, "BitBoard dense");
+    this.bitPositionDense = Cases.get(cases, "BitPosition dense");
+    this.winningPathDense = Cases.get(cases, "winningPath dense");
+    this.unionFindRebuildDense = Cases.get(cases, "union-find rebuild dense");
+    this.bitBoardSnake = Cases.get(cases, "BitBoard snake");
+    this.bitPositionSnake = Cases.get(cases, "BitPosition snake");
+    this.winningPathSnake = Cases.get(cases, "winningPath snake");
+    this.unionFindRebuildSnake = Cases.get(cases, "union-find rebuild snake");
+  }
+
+  @Benchmark
+  public long bitBoardHalf() {
+    return this.bitBoardHalf.getAsLong();
+  }
+
+  @Benchmark
+  public long bitPositionHalf() {
+    return this.bitPositionHalf.getAsLong();
+  }
+
+  @Benchmark
+  public long winningPathHalf() {
+    return this.winningPathHalf.getAsLong();
+  }
+
+  @Benchmark
+  public long unionFindRebuildHalf() {
+    return this.unionFindRebuildHalf.getAsLong();
+  }
+
+  @Benchmark
+  public long bitBoardDense() {
+    return this.bitBoardDense.getAsLong();
+  }
+
+  @Benchmark
+  public long bitPositionDense() {
+    return this.bitPositionDense.getAsLong();
+  }
+
+  @Benchmark
+  public long winningPathDense() {
+    return this.winningPathDense.getAsLong();
+  }
+
+  @Benchmark
+  public long unionFindRebuildDense() {
+    return this.unionFindRebuildDense.getAsLong();
+  }
+
+  @Benchmark
+  public long bitBoardSnake() {
+    return this.bitBoardSnake.getAsLong();
+  }
+
+  @Benchmark
+  public long bitPositionSnake() {
+    return this.bitPositionSnake.getAsLong();
+  }
+
+  @Benchmark
+  public long winningPathSnake() {
+    return this.winningPathSnake.getAsLong();
+  }
+
+  @Benchmark
+  public long unionFindRebuildSnake() {
+    return this.unionFindRebuildSnake.getAsLong();
+  }
+}
@@ -0,0 +1,53 @@
+package bridgit;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//times each case of WinDistanceBenchmark, a move of a random game with both players'
+//distances to win updated against searched for again
+//run with: gradle jmh -Pincludes=WinDistanceUpdateBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WinDistanceUpdateBenchmark {
+  @Param({"11", "51", "101", "201"})
+  public int size;
+  //the case of each benchmark, built for the size
+  LongSupplier search;
+  LongSupplier update;
+
+  //EFFECT: builds the cases of the size, once for each trial
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    Map<String, ? extends LongSupplier> cases = Cases.of("WinDistanceBenchmark", this.size);
+    this.search = Cases.get(cases, "search");
+    this.update = Cases.get(cases, "update");
+  }
+
+  @Benchmark
+  public long search() {
+    return this.search.getAsLong();
+  }
+
+  @Benchmark
+  public long update() {
+    return this.update.getAsLong();
+  }
+}
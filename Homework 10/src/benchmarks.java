@@ -0,0 +1,361 @@
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+
+import javalib.impworld.*;
+import java.awt.Color;
+import javalib.worldimages.*;
+
+//the cases comparing the linked Deque, as it was and as it is now, against the RingDeque
+//by filling and then draining each with the size check hasPath runs on every loop, timed
+//by DequeDrainBenchmark in the jmh source set, and by DequeWalkBenchmark for the deque
+//that walks its list for its size, on the smaller sizes only since it is quadratic
+//run with: gradle jmh -Pincludes=Deque
+class DequeBenchmark {
+
+  //returns every case draining the given number of items, by name
+  static LinkedHashMap<String, BenchmarkCase> cases(int size) {
+    LinkedHashMap<String, BenchmarkCase> result = new LinkedHashMap<String, BenchmarkCase>();
+    result.put("walking-linked", () -> drainLinked(new Deque<Integer>(), size, true));
+    result.put("counted-linked", () -> drainLinked(new Deque<Integer>(), size, false));
+    result.put("ring", () -> drainRing(new RingDeque<Integer>(), size));
+    return result;
+  }
+
+  //fills and drains a linked Deque, walking the nodes for the size if asked to
+  //returns the sum of what was drained
+  static long drainLinked(Deque<Integer> items, int size, boolean walking) {
+    for (int i = 0; i < size; i++) {
+      items.addAtTail(i);
+    }
+    long sum = 0;
+    while (walking && items.header.size() > 0 || !walking && items.size() > 0) {
+      sum += items.removeFromHead();
+    }
+    return sum;
+  }
+
+  //fills and drains a RingDeque, returns the sum of what was drained
+  static long drainRing(RingDeque<Integer> items, int size) {
+    for (int i = 0; i < size; i++) {
+      items.addAtTail(i);
+    }
+    long sum = 0;
+    while (items.size() > 0) {
+      sum += items.removeFromHead();
+    }
+    return sum;
+  }
+}
+
+//a piece of work timed by a benchmark, returning a value so it is not optimized away
+//it is a LongSupplier so the JMH benchmarks, which are in a package, can run it
+interface BenchmarkCase extends LongSupplier {
+  long run();
+
+  //returns the value of one run
+  default long getAsLong() {
+    return this.run();
+  }
+}
+
+//the cases of the hot paths of BridgItWorld on sparse, dense and adversarial boards that
+//HotPathBenchmark, in the jmh source set, times, and the boards other benchmarks share
+//run the cases with: gradle jmh -Pincludes=HotPathBenchmark
+class BridgItBenchmark {
+
+  //returns every case on boards of the given size, by name, in the order they are listed
+  static LinkedHashMap<String, BenchmarkCase> cases(int size) {
+    BridgItWorld sparse = randomGame(size, 0.1, new Random(size));
+    BridgItWorld dense = randomGame(size, 0.9, new Random(size));
+    BridgItWorld snake = snakeGame(size);
+    Deque<Integer> linked = new Deque<Integer>();
+    RingDeque<Integer> ring = new RingDeque<Integer>();
+    long[] saved = dense.snapshot();
+    LinkedHashMap<String, BenchmarkCase> result = new LinkedHashMap<String, BenchmarkCase>();
+
+    result.put("initBoard", () -> new BridgItWorld(size, 
+        Color.red, Color.blue).board.size());
+    result.put("hasWon sparse", () -> won(sparse));
+    result.put("hasWon dense", () -> won(dense));
+    result.put("hasWon snake", () -> won(snake));
+    result.put("winningPath dense", () -> dense.winningPath(dense.starters(1), 
+        dense.enders(1), dense.player1).size());
+    result.put("winningPath snake", () -> snake.winningPath(snake.starters(1), 
+        snake.enders(1), snake.player1).size());
+    result.put("hasPath snake", () -> path(snake));
+    result.put("toAddNeighbors dense", () -> neighbors(dense));
+    result.put("bridgedNeighbors dense", () -> packedNeighbors(dense, true));
+    result.put("bounds-checked dense", () -> packedNeighbors(dense, false));
+    result.put("makeScene sparse", () -> sparse.makeScene().hashCode());
+    result.put("makeScene hover", () -> hover(sparse));
+    result.put("makeScene hover metrics", () -> {
+      Metrics.enabled = true;
+      long value = hover(sparse);
+      Metrics.enabled = false;
+      return value;
+    });
+    result.put("drawFull sparse", () -> sparse.drawFull().hashCode());
+    result.put("drawAllCells dense", () -> dense.drawAllCells(
+        new WorldScene(size * 60, size * 60)).hashCode());
+    result.put("restore dense", () -> {
+      dense.restore(saved);
+      return dense.engine.turn;
+    });
+    result.put("Deque add/remove", () -> cycle(linked, size * size));
+    result.put("RingDeque add/remove", () -> cycle(ring, size * size));
+    return result;
+  }
+
+  //returns the number of players that have won the given game
+  static long won(BridgItWorld game) {
+    long result = 0;
+    if (game.hasWon(game.starters(1), game.enders(1), game.player1)) {
+      result++;
+    }
+    if (game.hasWon(game.starters(2), game.enders(2), game.player2)) {
+      result++;
+    }
+    return result;
+  }
+
+  //moves the mouse between two open cells of the given game and draws a frame after each
+  static long hover(BridgItWorld game) {
+    game.onMouseMoved(new Posn(game.imageSize * 3 / 2, game.imageSize * 3 / 2));
+    long result = game.makeScene().hashCode();
+    game.onMouseMoved(new Posn(game.imageSize * 5 / 2, game.imageSize * 5 / 2));
+    return result + game.makeScene().hashCode();
+  }
+
+  //searches for player 1's path across the given game with hasPath
+  static long path(BridgItWorld game) {
+    Cell from = game.board.get(0).get(1);
+    Cell to = game.board.get(game.boardSize - 1).get(game.boardSize - 2);
+    if (game.hasPath(from, to, new Queue<Cell>(), game.player1)) {
+      return 1;
+    }
+    return 0;
+  }
+
+  //counts the bridged neighbors of every dot of player 1
+  static long neighbors(BridgItWorld game) {
+    long result = 0;
+    BitSet seen = new BitSet();
+    for (int x = 0; x < game.boardSize; x += 2) {
+      for (int y = 1; y < game.boardSize; y += 2) {
+        result += game.board.get(x).get(y).toAddNeighbors(game.board, game.boardSize, 
+            game.player1, seen).size();
+      }
+    }
+    return result;
+  }
+
+  //counts the bridged neighbors of every dot of player 1 on the packed board, with the 
+  //shared Adjacency table if asked to and with bounds checks as it was before if not
+  static long packedNeighbors(BridgItWorld game, boolean table) {
+    PackedBoard board = game.engine.board;
+    int[] found = game.searchFound;
+    long result = 0;
+    for (int x = 0; x < game.boardSize; x += 2) {
+      for (int y = 1; y < game.boardSize; y += 2) {
+        if (table) {
+          result += board.bridgedNeighbors(x * game.boardSize + y, 1, found);
+        }
+        else {
+          result += boundsNeighbors(board, x * game.boardSize + y, 1, found);
+        }
+      }
+    }
+    return result;
+  }
+
+  //PackedBoard's bridgedNeighbors as it was before the Adjacency table, checking the
+  //bounds of every direction
+  static int boundsNeighbors(PackedBoard board, int dot, int player, int[] result) {
+    int x = board.x(dot);
+    int y = board.y(dot);
+    int count = 0;
+    if (x <= board.size - 3 && board.owner(dot + board.size) == player) {
+      result[count] = dot + 2 * board.size;
+      count++;
+    }
+    if (x >= 2 && board.owner(dot - board.size) == player) {
+      result[count] = dot - 2 * board.size;
+      count++;
+    }
+    if (y >= 2 && board.owner(dot - 1) == player) {
+      result[count] = dot - 2;
+      count++;
+    }
+    if (y <= board.size - 3 && board.owner(dot + 1) == player) {
+      result[count] = dot + 2;
+      count++;
+    }
+    return count;
+  }
+
+  //fills and drains the given deque with the given number of items
+  static long cycle(Deque<Integer> items, int count) {
+    Integer item = count;
+    for (int i = 0; i < count; i++) {
+      items.addAtTail(item);
+    }
+    long result = 0;
+    while (items.size() > 0) {
+      result += items.removeFromHead();
+    }
+    return result;
+  }
+
+  //fills and drains the given ring deque with the given number of items
+  static long cycle(RingDeque<Integer> items, int count) {
+    Integer item = count;
+    for (int i = 0; i < count; i++) {
+      items.addAtTail(item);
+    }
+    long result = 0;
+    while (items.size() > 0) {
+      result += items.removeFromHead();
+    }
+    return result;
+  }
+
+  //EFFECT: places a bridge of the given player at x, y of the given game by clicking on it
+  static void place(BridgItWorld game, int x, int y, int player) {
+    game.engine.setTurn(player);
+    game.onMouseClicked(new Posn(x * game.imageSize + game.imageSize / 2,
+        y * game.imageSize + game.imageSize / 2));
+  }
+
+  //returns a game of the given size with the given share of its bridges placed at random,
+  //the players taking turns
+  static BridgItWorld randomGame(int size, double share, Random rand) {
+    BridgItWorld game = new BridgItWorld(size, Color.red, Color.blue);
+    ArrayList<Integer> open = new ArrayList<Integer>();
+    for (int i = 0; i < size * size; i++) {
+      if (game.engine.board.isOpen(i)) {
+        open.add(i);
+      }
+    }
+    Collections.shuffle(open, rand);
+    int count = (int) (open.size() * share);
+    for (int i = 0; i < count; i++) {
+      place(game, game.engine.board.x(open.get(i)), game.engine.board.y(open.get(i)), i % 2 + 1);
+    }
+    return game;
+  }
+
+  //returns a game where player 1's only path snakes down and up every column of dots,
+  //the longest path a search can be made to follow
+  static BridgItWorld snakeGame(int size) {
+    BridgItWorld game = new BridgItWorld(size, Color.red, Color.blue);
+    int y = 1;
+    for (int x = 1; x < size - 1; x += 2) {
+      place(game, x, y, 1);
+      if (x + 1 < size - 1) {
+        int step = 1;
+        if (y != 1) {
+          step = -1;
+        }
+        for (int i = 0; i < size / 2 - 1; i++) {
+          place(game, x + 1, y + step, 1);
+          y += 2 * step;
+        }
+      }
+    }
+    return game;
+  }
+}
+
+//the cases comparing importing a game into a BridgItWorld by clicking every move up to the
+//win against applyMoves, which stops at the win itself and draws the board once, each run
+//importing the next of a set of random games with every spot in its moves and putting the
+//world back to empty first, timed by ImportGameBenchmark in the jmh source set
+//run with: gradle jmh -Pincludes=ImportGameBenchmark
+class ApplyMovesBenchmark {
+  static final int GAMES = 64; //random games imported in turn
+
+  //returns every case on boards of the given size, by name
+  static LinkedHashMap<String, BenchmarkCase> cases(int size) {
+    Random rand = new Random(size);
+    BridgItWorld world = new BridgItWorld(size, Color.red, Color.blue);
+    long[] empty = world.snapshot();
+    int[] all = world.engine.legalMoves();
+    int[][] archive = new int[GAMES][];
+    for (int i = 0; i < GAMES; i++) {
+      for (int j = all.length - 1; j > 0; j--) {
+        int pick = rand.nextInt(j + 1);
+        int move = all[pick];
+        all[pick] = all[j];
+        all[j] = move;
+      }
+      archive[i] = all.clone();
+    }
+    int[] next = {0};
+    LinkedHashMap<String, BenchmarkCase> result = new LinkedHashMap<String, BenchmarkCase>();
+    result.put("clicks", () -> {
+      world.restore(empty);
+      int[] moves = archive[next[0]++ % GAMES];
+      for (int i = 0; world.engine.winner() == 0; i++) {
+        int move = moves[i];
+        world.onMouseClicked(new Posn(world.engine.board.x(move) * world.imageSize + 1,
+            world.engine.board.y(move) * world.imageSize + 1));
+      }
+      return world.engine.winner();
+    });
+    result.put("applyMoves", () -> {
+      world.restore(empty);
+      return world.applyMoves(archive[next[0]++ % GAMES]);
+    });
+    return result;
+  }
+}
+
+//the cases comparing making and unmaking one move on a half full board with the rollback
+//links of the engine, against rebuilding the links after each undo as undo used to, and
+//against copying the whole game as a search without undo would for each position, timed
+//by PlaceUndoBenchmark in the jmh source set
+//run with: gradle jmh -Pincludes=PlaceUndoBenchmark
+class UndoBenchmark {
+
+  //returns every case on boards of the given size, by name
+  static LinkedHashMap<String, BenchmarkCase> cases(int size) {
+    SplittableRandom rand = new SplittableRandom(size);
+    BridgItEngine game = new BridgItEngine(size);
+    int[] open = game.legalMoves();
+    for (int i = open.length - 1; i > 0; i--) {
+      int pick = rand.nextInt(i + 1);
+      int move = open[pick];
+      open[pick] = open[i];
+      open[i] = move;
+    }
+    int half = open.length / 2;
+    for (int i = 0; i < half && game.winner() == 0; i++) {
+      game.place(open[half + i], game.turn);
+    }
+    BridgItEngine copy = new BridgItEngine(size);
+    int[] next = {0};
+    LinkedHashMap<String, BenchmarkCase> result = new LinkedHashMap<String, BenchmarkCase>();
+    result.put("place + undo", () -> {
+      game.place(open[next[0]++ % half], game.turn);
+      game.undo();
+      return game.hash;
+    });
+    result.put("place + undo + rebuild", () -> {
+      game.place(open[next[0]++ % half], game.turn);
+      game.undo();
+      game.links.reset();
+      game.linkAll(game.links);
+      return game.hash;
+    });
+    result.put("copyFrom", () -> {
+      copy.copyFrom(game);
+      return copy.hash;
+    });
+    return result;
+  }
+}
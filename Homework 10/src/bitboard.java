@@ -0,0 +1,238 @@
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Random;
+
+//each player's bridges as bitboards, one row of bits for each line of the player's dots
+//running from their first side to their second, so the win test floods a whole row of dots
+//at a time with shifts and masks on longs instead of visiting the dots one by one
+//bit j of a row of player 1 is the dot at x = 2 * line, y = 2 * j + 1, and of player 2 the
+//dot at x = 2 * j + 1, y = 2 * line: forward has the bit of each dot bridged to the same
+//dot of the next line and along the bit of each dot bridged to the next dot of its line
+class BitBoard {
+  int size;
+  int lines; //lines of dots of each player, from the first side to the second
+  int rows; //dots in each line
+  int words; //longs in each row of bits
+  long[][] forward; //the rows of each player, player p's at p - 1, each line words long
+  long[][] along;
+  long[] reach; //the dots a flood from the first side has reached, as rows
+  long last; //the bits of the last word of a row that are dots
+  int sweeps; //times the last flood went over every line
+
+  //constructor for the empty board of the given size
+  BitBoard(int size) {
+    this.size = BridgItEngine.checkSize(size);
+    this.lines = (size + 1) / 2;
+    this.rows = (size - 1) / 2;
+    this.words = (this.rows + 63) / 64;
+    this.forward = new long[2][this.lines * this.words];
+    this.along = new long[2][this.lines * this.words];
+    this.reach = new long[this.lines * this.words];
+    this.last = -1L >>> (64 * this.words - this.rows);
+  }
+
+  //constructor for the bridges already on the given board
+  BitBoard(PackedBoard board) {
+    this(board.size);
+    for (int i = 0; i < board.size * board.size; i += 2) {
+      if (board.owner(i) != 0) {
+        this.place(i, board.owner(i));
+      }
+    }
+  }
+
+  //EFFECT: takes every bridge off the board
+  void clear() {
+    for (int p = 0; p < 2; p++) {
+      Arrays.fill(this.forward[p], 0);
+      Arrays.fill(this.along[p], 0);
+    }
+  }
+
+  //EFFECT: sets the bit of a bridge of the given player at the given spot
+  //a bridge at odd x and y joins the dots of the player's on either side of it in two
+  //lines, and one at even x and y two dots of the same line, the bit being the lower one's
+  void place(int index, int player) {
+    int x = index / this.size;
+    int y = index % this.size;
+    int line = x / 2;
+    int across = y / 2;
+    if (player == 2) {
+      line = y / 2;
+      across = x / 2;
+    }
+    long[] rows = this.forward[player - 1];
+    if (x % 2 == 0) {
+      rows = this.along[player - 1];
+      across--;
+    }
+    rows[line * this.words + across / 64] |= 1L << across;
+  }
+
+  //determines if the given player's sides are connected, flooding out from every dot on
+  //the first side: each line is filled along its bridges, then passes on what it reached
+  //to the lines before and after it, sweeping back and forth until nothing new is reached
+  boolean hasWon(int player) {
+    long[] forward = this.forward[player - 1];
+    long[] along = this.along[player - 1];
+    long[] reach = this.reach;
+    Arrays.fill(reach, 0);
+    Arrays.fill(reach, 0, this.words, -1L);
+    reach[this.words - 1] = this.last;
+    this.sweeps = 0;
+    while (true) {
+      this.sweeps++;
+      //every path to the lines past one with no dot reached goes through it, so the sweep
+      //stops at the first such line, and sweeps back from the line before it
+      int top = 1;
+      while (top < this.lines) {
+        this.spread(reach, forward, along, top - 1, top);
+        if (this.isEmpty(reach, top)) {
+          break;
+        }
+        top++;
+      }
+      if (top == this.lines) {
+        return true;
+      }
+      //every line has had what the lines before it reached, so unless sweeping back
+      //reaches more, nothing can
+      boolean added = false;
+      for (int line = top - 2; line >= 1; line--) {
+        added |= this.spread(reach, forward, along, line + 1, line);
+      }
+      if (!added) {
+        return false;
+      }
+    }
+  }
+
+  //EFFECT: adds the dots of the given line bridged forward or back to the reached dots of
+  //the line it comes from, then fills the line along its bridges if any were new
+  //returns whether any were
+  boolean spread(long[] reach, long[] forward, long[] along, int from, int line) {
+    int bridges = Math.min(from, line) * this.words;
+    boolean added = false;
+    for (int k = 0; k < this.words; k++) {
+      long next = reach[from * this.words + k] & forward[bridges + k];
+      if ((next & ~reach[line * this.words + k]) != 0) {
+        reach[line * this.words + k] |= next;
+        added = true;
+      }
+    }
+    if (added) {
+      this.fill(reach, along, line * this.words);
+    }
+    return added;
+  }
+
+  //EFFECT: reaches every dot of the line starting at the given word that is joined along
+  //the line to a dot already reached, up the line and then down it, carrying the top bit
+  //of a word into the next
+  void fill(long[] reach, long[] along, int start) {
+    long carry = 0;
+    for (int k = start; k < start + this.words; k++) {
+      reach[k] = fillUp(reach[k] | carry, along[k]);
+      carry = (reach[k] & along[k]) >>> 63;
+    }
+    carry = 0;
+    for (int k = start + this.words - 1; k >= start; k--) {
+      reach[k] = fillDown(reach[k] | carry << 63 & along[k], along[k]);
+      carry = reach[k] & 1;
+    }
+  }
+
+  //returns the given dots of a word and every dot above them joined to one along the line,
+  //doubling how far the fill has gone at each step, the way chess engines fill a rank
+  static long fillUp(long reached, long along) {
+    long open = along << 1; //dots that can be entered from the dot below them
+    reached |= open & reached << 1;
+    open &= open << 1;
+    reached |= open & reached << 2;
+    open &= open << 2;
+    reached |= open & reached << 4;
+    open &= open << 4;
+    reached |= open & reached << 8;
+    open &= open << 8;
+    reached |= open & reached << 16;
+    open &= open << 16;
+    return reached | open & reached << 32;
+  }
+
+  //returns the given dots of a word and every dot below them joined to one along the line
+  static long fillDown(long reached, long along) {
+    long open = along & Long.MAX_VALUE; //dots that can be entered from the dot above them
+    reached |= open & reached >>> 1;
+    open &= open >>> 1;
+    reached |= open & reached >>> 2;
+    open &= open >>> 2;
+    reached |= open & reached >>> 4;
+    open &= open >>> 4;
+    reached |= open & reached >>> 8;
+    open &= open >>> 8;
+    reached |= open & reached >>> 16;
+    open &= open >>> 16;
+    return reached | open & reached >>> 32;
+  }
+
+  //determines if no dot of the given line is set in the given rows
+  boolean isEmpty(long[] rows, int line) {
+    for (int k = line * this.words; k < (line + 1) * this.words; k++) {
+      if (rows[k] != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
+
+//the cases comparing the bitboard flood against the other ways of telling if a player has
+//won, each from scratch on the same boards: the breadth first search of winningPath, and
+//rebuilding the union-finds of BitPosition and the engine, timed by WinCheckBenchmark in
+//the jmh source set
+//run with: gradle jmh -Pincludes=WinCheckBenchmark
+class BitBoardBenchmark {
+
+  //returns every case on boards of the given size, by name, each way on each board
+  static LinkedHashMap<String, BenchmarkCase> cases(int size) {
+    LinkedHashMap<String, BenchmarkCase> result = new LinkedHashMap<String, BenchmarkCase>();
+    add(result, "half", BridgItBenchmark.randomGame(size, 0.5, new Random(size)));
+    add(result, "dense", BridgItBenchmark.randomGame(size, 0.9, new Random(size)));
+    add(result, "snake", BridgItBenchmark.snakeGame(size));
+    return result;
+  }
+
+  //EFFECT: adds to the given cases asking each way if both players of the given game,
+  //named by the given board, have won
+  static void add(LinkedHashMap<String, BenchmarkCase> cases, String board,
+      BridgItWorld game) {
+    BitBoard bits = new BitBoard(game.engine.board);
+    BitPosition position = new BitPosition(game.engine);
+    BridgItEngine engine = game.engine;
+    cases.put("BitBoard " + board, () -> count(bits.hasWon(1), bits.hasWon(2)));
+    cases.put("BitPosition " + board, () -> {
+      position.relink();
+      return count(position.hasWon(1), position.hasWon(2));
+    });
+    cases.put("winningPath " + board, () -> game.winningPath(game.starters(1), game.enders(1),
+        game.player1).size() + game.winningPath(game.starters(2), game.enders(2),
+        game.player2).size());
+    cases.put("union-find rebuild " + board, () -> {
+      engine.links.reset();
+      engine.linkAll(engine.links);
+      return count(engine.hasWon(1), engine.hasWon(2));
+    });
+  }
+
+  //returns how many of the two are true
+  static long count(boolean first, boolean second) {
+    long result = 0;
+    if (first) {
+      result++;
+    }
+    if (second) {
+      result++;
+    }
+    return result;
+  }
+}
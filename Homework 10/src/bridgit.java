@@ -1,12 +1,60 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import tester.*;
 import javalib.impworld.*;
 import java.awt.Color;
 import javalib.worldimages.*;
 
-//represents a single square of the game area
+//the images Cells are drawn with, made once for each color and then shared by every
+//Cell of every world, since a WorldImage never changes once it is made
+class CellImages {
+  static final int SIZE = 20; //the imageSize of every Cell
+  static final int DOT = 0;
+  static final int HORIZONTAL = 1;
+  static final int VERTICAL = 2;
+  static final int PHANTOM_WIDE = 3;
+  static final int PHANTOM_TALL = 4;
+  static final int OUTLINE_DOT = 5;
+  static final int OUTLINE_HORIZONTAL = 6;
+  static final int OUTLINE_VERTICAL = 7;
+  static final WorldImage EMPTY = new CircleImage(1, OutlineMode.SOLID, Color.white);
+  static final ConcurrentHashMap<Color, WorldImage[]> SHAPES = 
+      new ConcurrentHashMap<Color, WorldImage[]>();
+  
+  //returns the shared image of the given kind in the given color
+  static WorldImage get(Color color, int kind) {
+    return SHAPES.computeIfAbsent(color, CellImages::make)[kind];
+  }
+  
+  //makes every kind of image in the given color, indexed by kind
+  static WorldImage[] make(Color color) {
+    return new WorldImage[] {
+      new CircleImage(SIZE, OutlineMode.SOLID, color),
+      new RectangleImage(5 * SIZE, SIZE / 2, OutlineMode.SOLID, color),
+      new RectangleImage(SIZE / 2, 5 * SIZE, OutlineMode.SOLID, color),
+      new RectangleImage(3 * SIZE, SIZE / 2, OutlineMode.SOLID, color),
+      new RectangleImage(SIZE / 2, 3 * SIZE, OutlineMode.SOLID, color),
+      new CircleImage(SIZE, OutlineMode.OUTLINE, color),
+      new RectangleImage(5 * SIZE, SIZE / 2, OutlineMode.OUTLINE, color),
+      new RectangleImage(SIZE / 2, 5 * SIZE, OutlineMode.OUTLINE, color)
+    };
+  }
+}
+
+//represents a single square of the game area, either on its own with the color and bridge
+//it was made with, or as a view of its spot on a world's packed board, which then says
+//what is on it
 class Cell {
   int x;
   int y;
@@ -14,19 +62,14 @@ class Cell {
   boolean bridged;
   boolean isCircle; //distinguishes between circles and bridges
   int playerDir; // direction of a bridge based on which player's move
+  PackedBoard packed; //the board this Cell shows, null for a Cell on its own
+  int index; //the spot on packed this Cell shows
+  Color[] colors; //white, then each player's color, by player number, if packed is set
   Cell left;
   Cell top;
   Cell right;
   Cell bottom;
-  int imageSize = 20;
-  //reason why phantom fields must be created as onMouseMoved
-  //will overwrite onMouseClicked otherwise
-  boolean phantom;
-  int phantomDir1;
-  int phantomDir2;
-  Color phantomCol;
-  int phantomTurn;
-
+  int imageSize = CellImages.SIZE;
   
   //main constructor
   Cell(int x, int y, boolean bridged, boolean isCircle, int playerDir, Color color) {
@@ -41,46 +84,77 @@ class Cell {
     this.right = this;
     this.bottom = this;
   }
+  
+  //constructor for the Cell showing x, y of the given packed board, in the given colors
+  Cell(int x, int y, PackedBoard packed, Color[] colors) {
+    this(x, y, false, packed.isDot(packed.index(x, y)), 3, Color.white);
+    this.view(packed, packed.index(x, y), colors);
+  }
+  
+  //EFFECT: makes this Cell show the spot at the given index of the given packed board from
+  //now on, in the given colors, instead of what it was made with
+  void view(PackedBoard packed, int index, Color[] colors) {
+    this.packed = packed;
+    this.index = index;
+    this.colors = colors;
+  }
+  
+  //returns the color of the player owning this Cell, white if nobody does
+  Color color() {
+    if (this.packed == null) {
+      return this.color;
+    }
+    return this.colors[this.packed.owner(this.index)];
+  }
+  
+  //determines if this Cell is a dot or a placed bridge
+  boolean bridged() {
+    if (this.packed == null) {
+      return this.bridged;
+    }
+    return this.packed.owner(this.index) != 0;
+  }
+  
+  //returns 1 for a horizontal bridge, 2 for a vertical one and 3 for anything else
+  int playerDir() {
+    if (this.packed == null) {
+      return this.playerDir;
+    }
+    if (this.isCircle || this.packed.owner(this.index) == 0) {
+      return 3;
+    }
+    return this.packed.dir(this.index);
+  }
 
-  //draws the cell as a circle if a stationary dot or a bridge in its appropriate direction
+  //draws the cell as a circle if a stationary dot or a bridge in its appropriate direction,
+  //the world draws the hovered cell itself
   WorldImage drawCell() {
+    int dir = this.playerDir();
     if (this.isCircle) {
-      return new CircleImage(this.imageSize, OutlineMode.SOLID, this.color);
-    }
-    else if (this.playerDir == 1) { //horizontal bridge
-      return new RectangleImage(5 * imageSize, imageSize / 2, OutlineMode.SOLID, this.color);
+      return CellImages.get(this.color(), CellImages.DOT);
     }
-    else if (this.playerDir == 2) { //vertical bridge
-      return new RectangleImage(imageSize / 2, 5 * imageSize, OutlineMode.SOLID, this.color);
+    else if (dir == 1) { //horizontal bridge
+      return CellImages.get(this.color(), CellImages.HORIZONTAL);
     }
-    else if (this.phantom) {
-      return this.drawPhantomCell();
+    else if (dir == 2) { //vertical bridge
+      return CellImages.get(this.color(), CellImages.VERTICAL);
     }
     else { //"empty" image
-      return new CircleImage(1, OutlineMode.SOLID, Color.white);
+      return CellImages.EMPTY;
     }
   }
   
-  //draws the cell as if it was not actually placed but rather a cursor was hovering over it
-  WorldImage drawPhantomCell() {
-    if (this.phantomDir1 == 1) {
-      if (phantomTurn == 1) {
-        return new RectangleImage(3 * imageSize, imageSize / 2, OutlineMode.SOLID, this.phantomCol);
-      }
-      else {
-        return new RectangleImage(imageSize / 2, 3 * imageSize, OutlineMode.SOLID, this.phantomCol);
-      }
-      
+  //draws an outline around the cell, used to highlight the winning path
+  WorldImage drawHighlight() {
+    if (this.isCircle) {
+      return CellImages.get(Color.black, CellImages.OUTLINE_DOT);
+    }
+    else if (this.playerDir() == 1) {
+      return CellImages.get(Color.black, CellImages.OUTLINE_HORIZONTAL);
     }
     else {
-      if (phantomTurn == 1) {
-        return new RectangleImage(imageSize / 2, 3 * imageSize, OutlineMode.SOLID, this.phantomCol);
-      }
-      else {
-        return new RectangleImage(3 * imageSize, imageSize / 2, OutlineMode.SOLID, this.phantomCol);
-      }
+      return CellImages.get(Color.black, CellImages.OUTLINE_VERTICAL);
     }
-     
   }
   
   //EFFECT: sets a given cell to left of this, and this to the right of given
@@ -110,44 +184,69 @@ class Cell {
   //returns an ArrayList of a Cell's bridged neighbors to be considered in the path next
   ArrayList<Cell> toAddNeighbors(ArrayList<ArrayList<Cell>> board, int boardSize, Color cur, 
       ArrayList<Cell> alreadySeen) {
+    BitSet seen = new BitSet(boardSize * boardSize);
+    for (Cell c : alreadySeen) {
+      seen.set(c.x * boardSize + c.y);
+    }
+    return this.toAddNeighbors(board, boardSize, cur, seen);
+  }
+  
+  //returns an ArrayList of a Cell's bridged neighbors to be considered in the path next,
+  //skipping any whose bridge or cell has its index (x * boardSize + y) set in alreadySeen
+  ArrayList<Cell> toAddNeighbors(ArrayList<ArrayList<Cell>> board, int boardSize, Color cur, 
+      BitSet alreadySeen) {
     ArrayList<Cell> results = new ArrayList<Cell>();
-    if (this.right.bridged && this.x <= boardSize - 3 && this.right.color.equals(cur) 
-        && !alreadySeen.contains(this.right)) {
-      //System.out.print("adding right one \n");
+    int index = this.x * boardSize + this.y;
+    if (this.right.bridged() && this.x <= boardSize - 3 && this.right.color().equals(cur) 
+        && !alreadySeen.get(index + boardSize) && !alreadySeen.get(index + 2 * boardSize)) {
       results.add(board.get(this.x + 2).get(this.y));
     }
-    if (this.left.bridged && this.x >= 2 && this.left.color.equals(cur) 
-        && !alreadySeen.contains(this.left)) {
-      //System.out.print("adding left one \n");
+    if (this.left.bridged() && this.x >= 2 && this.left.color().equals(cur) 
+        && !alreadySeen.get(index - boardSize) && !alreadySeen.get(index - 2 * boardSize)) {
       results.add(board.get(this.x - 2).get(this.y));
     }
-    if (this.top.bridged && this.y >= 2 && this.top.color.equals(cur) 
-        && !alreadySeen.contains(this.top)) {
-      //System.out.print("adding top one \n");
+    if (this.top.bridged() && this.y >= 2 && this.top.color().equals(cur) 
+        && !alreadySeen.get(index - 1) && !alreadySeen.get(index - 2)) {
       results.add(board.get(this.x).get(this.y - 2));
     }
-    if (this.bottom.bridged && this.y <= boardSize - 3 && this.bottom.color.equals(cur) 
-        && !alreadySeen.contains(this.bottom)) {
-      //System.out.print("adding bottom one \n");
+    if (this.bottom.bridged() && this.y <= boardSize - 3 && this.bottom.color().equals(cur) 
+        && !alreadySeen.get(index + 1) && !alreadySeen.get(index + 2)) {
       results.add(board.get(this.x).get(this.y + 2));
     }
     return results;
   }
 }
 
-//represents the game world
+//represents the game world, drawing the state of its engine, whose board and turn are the
+//only record of the game
 class BridgItWorld extends World {
-  ArrayList<ArrayList<Cell>> board;
+  ArrayList<ArrayList<Cell>> board; //views of the engine's board, one for each spot
   int boardSize;
-  int playerTurn = 1; //always starts with player 1
   Color player1;
   Color player2;
-  ArrayList<Cell> starters1; //Cells on left, used at the start of paths (player 1)
-  ArrayList<Cell> enders1; //Cells on right, used at end of paths (player 1)
-  ArrayList<Cell> starters2; //Cells on top, used at start of paths (player 2)
-  ArrayList<Cell> enders2; //Cells on bottom, used at end of paths (player 2)
-  Cell prevPhantom = new Cell(0, 0, false, false, 3, Color.white);
+  Color[] colors; //white, then each player's color, by player number
+  //the Cell found off the board, shared so hovering off the board allocates nothing
+  static final Cell OFF_BOARD = new Cell(0, 0, false, false, 3, Color.white);
+  int hoverIndex = -1; //index of the open cell under the mouse, -1 if there is none
+  int hoverPlayer; //the player whose bridge is shown on the hovered cell
   int imageSize = 60;
+  BridgItEngine engine; //the state the rules run on, board is only a view of it for drawing
+  BitSet searchSeen = new BitSet(); //cells reached by hasPath, reused by every search
+  BitSet searchEnds = new BitSet(); //the enders of the current winningPath search
+  IntDeque searchQueue = new IntDeque(16); //worklist of winningPath
+  int[] searchFrom; //the dot each dot was reached from in winningPath, -1 for a starter
+  int[] searchFound = new int[4]; //neighbors found by PackedBoard's bridgedNeighbors
+  ArrayList<Cell> winPath = new ArrayList<Cell>(); //highlighted in lastScene
+  ComputerPlayer computer; //places the bridges of one of the players, null if both are people
+  ShannonSolver solver; //finds hints for player 1, made when the first one is asked for
+  Cell hinted; //highlighted until the next click, null if no hint was asked for
+  WorldScene scene; //kept between frames, only the dirty cells are drawn on it again
+  int sceneChanges; //images placed on scene since it was last drawn in full
+  BitSet dirty = new BitSet(); //cells changed since the last frame
+  IntDeque dirtyCells = new IntDeque(16); //the same cells, in the order they changed
+  WorldImage player1Border; //the images of drawBorder, made on the first frame
+  WorldImage player2Border;
+  WorldImage blank; //covers one cell in white, to rub out what was drawn on it
 
   //main constructor
   BridgItWorld(int boardSize, Color player1, Color player2) {
@@ -160,11 +259,17 @@ class BridgItWorld extends World {
     }
     this.player1 = player1;
     this.player2 = player2;
-    this.starters1 = new ArrayList<Cell>();
-    this.enders1 = new ArrayList<Cell>();
-    this.starters2 = new ArrayList<Cell>();
-    this.enders2 = new ArrayList<Cell>();
+    this.colors = new Color[] {Color.white, player1, player2};
+    this.engine = new BridgItEngine(boardSize);
     this.board = initBoard();
+    this.searchFrom = new int[boardSize * boardSize];
+  }
+
+  //constructor for a game against the given computer player
+  BridgItWorld(int boardSize, Color player1, Color player2, ComputerPlayer computer) {
+    this(boardSize, player1, player2);
+    this.computer = computer;
+    this.computerMove();
   }
 
   //constructor used in testing
@@ -176,40 +281,30 @@ class BridgItWorld extends World {
       throw new IllegalArgumentException("BoardSize must be at least 3 and an odd number");
     }
     this.board = board;
-    this.player1 = board.get(1).get(0).color;
-    this.player2 = board.get(0).get(1).color;
-    this.starters1 = new ArrayList<Cell>();
-    this.enders1 = new ArrayList<Cell>();
-    this.starters2 = new ArrayList<Cell>();
-    this.enders2 = new ArrayList<Cell>();
+    this.player1 = board.get(1).get(0).color();
+    this.player2 = board.get(0).get(1).color();
+    this.colors = new Color[] {Color.white, this.player1, this.player2};
+    this.engine = new BridgItEngine(packCells(board));
+    this.searchFrom = new int[boardSize * boardSize];
+    //from here on the given Cells show the engine's board, not what they were made with
+    for (int row = 0; row < boardSize; row++) {
+      for (int column = 0; column < boardSize; column++) {
+        board.get(row).get(column).view(this.engine.board, this.engine.board.index(row, 
+            column), this.colors);
+      }
+    }
   }
 
-  //constructs a board from scratch
+  //constructs a board of Cells viewing the packed board from scratch
   ArrayList<ArrayList<Cell>> initBoard() {
     
     ArrayList<ArrayList<Cell>> board = new ArrayList<ArrayList<Cell>>(); 
     
-    //creates a new cell in every position of the board
+    //creates a new cell viewing every position of the board
     for (int row = 0; row < boardSize; row++) {
       board.add(new ArrayList<Cell>());
       for (int column = 0; column < boardSize; column++) {
-        if (row % 2 == 0 && column % 2 == 1) {
-          board.get(row).add(new Cell(row, column, true, true, 3, this.player1));
-        }
-        else if (row % 2 == 1 && column % 2 == 0) {
-          board.get(row).add(new Cell(row, column, true, true, 3, this.player2));
-        }
-        else {
-          board.get(row).add(new Cell(row, column, false, false, 3, Color.white));
-          if (row % 2 == 1 && column % 2 == 1) {
-            board.get(row).get(column).phantomDir1 = 1;
-            board.get(row).get(column).phantomDir2 = 2;
-          }
-          else {
-            board.get(row).get(column).phantomDir1 = 2;
-            board.get(row).get(column).phantomDir2 = 1;
-          }
-        }
+        board.get(row).add(new Cell(row, column, engine.board, this.colors));
       }
     }
     
@@ -239,23 +334,172 @@ class BridgItWorld extends World {
     } 
   }
   
+  //packs a board of Cells, as given to the testing constructor, by position on the board
+  PackedBoard packCells(ArrayList<ArrayList<Cell>> board) {
+    PackedBoard result = new PackedBoard(boardSize);
+    for (int row = 0; row < boardSize; row++) {
+      for (int column = 0; column < boardSize; column++) {
+        Cell current = board.get(row).get(column);
+        int index = result.index(row, column);
+        if (current.isCircle) {
+          result.setDot(index, this.playerNumber(current.color()));
+        }
+        else if (current.bridged()) {
+          result.setBridge(index, this.playerNumber(current.color()), current.playerDir());
+        }
+        else {
+          result.setBridge(index, 0, 0);
+        }
+      }
+    }
+    return result;
+  }
+  
+  //returns the number of the player with the given color, or 0 if neither has it
+  int playerNumber(Color c) {
+    if (c.equals(player1)) {
+      return 1;
+    }
+    else if (c.equals(player2)) {
+      return 2;
+    }
+    else {
+      return 0;
+    }
+  }
+  
+  //returns the color of the player with the given number, or white for nobody
+  Color playerColor(int player) {
+    return this.colors[player];
+  }
+  
+  //returns the dots on the given player's first side, the left for player 1 and the top 
+  //for player 2, that one of the player's bridges reaches, the starts of paths
+  ArrayList<Cell> starters(int player) {
+    return this.ends(player, 1, 0);
+  }
+  
+  //returns the dots on the given player's other side, the right for player 1 and the 
+  //bottom for player 2, that one of the player's bridges reaches, the ends of paths
+  ArrayList<Cell> enders(int player) {
+    return this.ends(player, boardSize - 2, boardSize - 1);
+  }
+  
+  //returns the dots of the given player on the line across the board at the given side
+  //whose spot on the line at the given inner one is a bridge of the player's, in order
+  ArrayList<Cell> ends(int player, int inner, int side) {
+    ArrayList<Cell> result = new ArrayList<Cell>();
+    for (int i = 1; i < boardSize; i += 2) {
+      int bridge = engine.board.index(inner, i);
+      int dot = engine.board.index(side, i);
+      if (player == 2) {
+        bridge = engine.board.index(i, inner);
+        dot = engine.board.index(i, side);
+      }
+      if (engine.board.owner(bridge) == player) {
+        result.add(board.get(engine.board.x(dot)).get(engine.board.y(dot)));
+      }
+    }
+    return result;
+  }
+  
   /////////////////////////////////////////////////////////////////////////////////////////////////
   /////////////////////////////////////////////////////////////////////////////////////////////////
   /////////////////////////////////////////////////////////////////////////////////////////////////
 
-  //renders the scene of the current world
+  //renders the scene of the current world, the same scene every frame: after it has been
+  //drawn in full only the cells changed since the last frame are drawn on it again, 
+  //until that has placed as many images as drawing it in full would
   public WorldScene makeScene() {
+    long start = Metrics.start();
+    int drawn = this.dirtyCells.size();
+    if (this.scene == null || this.sceneChanges >= this.fullDrawImages()) {
+      drawn = boardSize * boardSize;
+      this.scene = this.drawFull();
+      this.sceneChanges = 0;
+      this.dirty.clear();
+      this.dirtyCells.clear();
+    }
+    else if (this.dirtyCells.size() > 0) {
+      while (this.dirtyCells.size() > 0) {
+        int index = this.dirtyCells.removeFromHead();
+        this.drawDirty(board.get(engine.board.x(index)).get(engine.board.y(index)));
+      }
+      this.dirty.clear();
+      //bridges next to the edges may have been drawn over the borders
+      this.drawBorder(this.scene);
+      this.sceneChanges += 4;
+    }
+    if (start != 0) {
+      Metrics.GLOBAL.cellsRedrawn.record(drawn);
+      Metrics.GLOBAL.makeScene.recordSince(start);
+    }
+    return this.scene;
+  }
+  
+  //returns the number of images drawing the scene in full places, not counting the hint:
+  //one for each cell and one for each of the four borders
+  int fullDrawImages() {
+    return boardSize * boardSize + 4;
+  }
+  
+  //renders every cell, the hint and the borders on a new scene
+  WorldScene drawFull() {
     WorldScene gameBoard = this.drawAllCells(new WorldScene(imageSize
         * boardSize,imageSize * boardSize));
+    if (this.hinted != null) {
+      gameBoard.placeImageXY(this.hinted.drawHighlight(), this.imageX(this.hinted), 
+          this.imageY(this.hinted));
+    }
     return this.drawBorder(gameBoard);
   }
+  
+  //EFFECT: draws the given cell on the kept scene again, over a blank square so nothing
+  //drawn on it before shows, the square being too small to reach the cells around it
+  void drawDirty(Cell c) {
+    if (this.blank == null) {
+      this.blank = new RectangleImage(imageSize, imageSize, OutlineMode.SOLID, Color.white);
+    }
+    this.scene.placeImageXY(this.blank, this.imageX(c), this.imageY(c));
+    this.scene.placeImageXY(this.drawCell(c), this.imageX(c), this.imageY(c));
+    this.sceneChanges += 2;
+    if (c == this.hinted) {
+      this.scene.placeImageXY(c.drawHighlight(), this.imageX(c), this.imageY(c));
+      this.sceneChanges++;
+    }
+  }
+  
+  //returns the image of the given cell, which shows its spot on the engine's board, or the
+  //bridge the player whose turn it was would place if the mouse is over it and it is open
+  WorldImage drawCell(Cell c) {
+    int index = c.x * boardSize + c.y;
+    if (index != this.hoverIndex || !engine.board.isOpen(index)) {
+      return c.drawCell();
+    }
+    if (PackedBoard.bridgeDir(c.x, c.y, this.hoverPlayer) == 1) {
+      return CellImages.get(this.playerColor(this.hoverPlayer), CellImages.PHANTOM_WIDE);
+    }
+    return CellImages.get(this.playerColor(this.hoverPlayer), CellImages.PHANTOM_TALL);
+  }
+  
+  //EFFECT: marks the cell at the given index to be drawn again on the next frame
+  void markDirty(int index) {
+    if (!this.dirty.get(index)) {
+      this.dirty.set(index);
+      this.dirtyCells.addAtTail(index);
+    }
+  }
 
   //draws the player borders on the scene
   WorldScene drawBorder(WorldScene boardScene) {
-    WorldImage player1Border = new RectangleImage((imageSize / 12)
-        * boardSize, imageSize * boardSize, OutlineMode.SOLID, this.player1);
-    WorldImage player2Border = new RectangleImage(imageSize
-        * boardSize, (imageSize / 12) * boardSize, OutlineMode.SOLID, this.player2);
+    if (this.player1Border == null) {
+      this.player1Border = new RectangleImage((imageSize / 12)
+          * boardSize, imageSize * boardSize, OutlineMode.SOLID, this.player1);
+      this.player2Border = new RectangleImage(imageSize
+          * boardSize, (imageSize / 12) * boardSize, OutlineMode.SOLID, this.player2);
+    }
+    WorldImage player1Border = this.player1Border;
+    WorldImage player2Border = this.player2Border;
     
     boardScene.placeImageXY(player1Border, 0, (imageSize / 2) * boardSize);
     boardScene.placeImageXY(player1Border, imageSize * boardSize, (imageSize / 2) * boardSize);
@@ -269,8 +513,8 @@ class BridgItWorld extends World {
     for (int row = 0; row < boardSize; row++) {
       for (int column = 0; column < boardSize; column++) {
         Cell currentCell = board.get(row).get(column);
-        Posn cellPosn = this.imagePos(currentCell);
-        accImage.placeImageXY(currentCell.drawCell(), cellPosn.x, cellPosn.y);
+        accImage.placeImageXY(this.drawCell(currentCell), this.imageX(currentCell), 
+            this.imageY(currentCell));
       }
     }
     return accImage;
@@ -278,70 +522,167 @@ class BridgItWorld extends World {
 
   //returns the position of a cell to be displayed in the image
   Posn imagePos(Cell c) {
-    int xPos = ((c.x + 1) * imageSize) - (imageSize / 2);
-    int yPos = ((c.y + 1) * imageSize) - (imageSize / 2);
-    return new Posn(xPos, yPos);
+    return new Posn(this.imageX(c), this.imageY(c));
+  }
+  
+  //returns the x of the center of a cell in the image
+  int imageX(Cell c) {
+    return ((c.x + 1) * imageSize) - (imageSize / 2);
+  }
+  
+  //returns the y of the center of a cell in the image
+  int imageY(Cell c) {
+    return ((c.y + 1) * imageSize) - (imageSize / 2);
   }
   
   //updates the World based on a user's click
   public void onMouseClicked(Posn uPos) {
-    //System.out.print("------------------------------------------------------- \n");
-    //System.out.println("\n" + uPos.x);
-    //System.out.println(uPos.y);
-    Cell clickedCell = this.pointCell(uPos);
+    long start = Metrics.start();
+    int clicked = this.pointIndex(uPos);
+    if (this.hinted != null) {
+      //the outline of a hint reaches over the cells around it, so all are drawn again
+      this.hinted = null;
+      this.scene = null;
+    }
     
     //if clicked on a colored circle or on edges, nothing happens
-    if (clickedCell.color != Color.white 
-        || this.onBorder(clickedCell)) {
+    if (clicked < 0 || !engine.board.isOpen(clicked)) {
+      Metrics.GLOBAL.onMouseClicked.recordSince(start);
       return;
     }
-    
-    //player 1's turn
-    else if (playerTurn == 1) {
-      clickedCell.color = this.player1;
-      clickedCell.bridged = true;
-      //if bridge is created with Cell on left side, add Cell to starters list
-      if (clickedCell.x == 1) {
-        starters1.add(board.get(0).get(clickedCell.y));
+    int player = engine.turn;
+    engine.place(clicked, player);
+    this.markDirty(clicked);
+    //only the player who just placed can have won
+    this.hasWon(this.starters(player), this.enders(player), this.playerColor(player));
+    Metrics.GLOBAL.onMouseClicked.recordSince(start);
+    this.computerMove();
+  }
+  
+  //EFFECT: adds this game, as far as it has been played, to the given file of records
+  void saveTo(GameRecordWriter records) throws IOException {
+    records.write(engine, this.player1.getRGB(), this.player2.getRGB());
+  }
+
+  //returns the bridges on the board and whose turn it is, packed by BitPosition
+  long[] snapshot() {
+    return new BitPosition(engine).bits;
+  }
+
+  //EFFECT: puts the game back in the position of the given snapshot of it, which the Cells
+  //already on the board show without being made and linked up again, and ends the game
+  //again if a player had won it
+  //a snapshot does not keep the order the bridges were placed in, so see BitPosition's
+  //store for what undoing a move of a restored game takes back
+  void restore(long[] snapshot) {
+    BitPosition position = new BitPosition(boardSize);
+    position.restore(snapshot);
+    position.store(engine);
+    this.hoverIndex = -1;
+    this.hinted = null;
+    this.winPath = new ArrayList<Cell>();
+    this.scene = null;
+    this.showWinner();
+  }
+  
+  //EFFECT: places bridges at the given indices as if each had been clicked in turn, 
+  //stopping at the one that wins the game, and draws the board once at the end
+  //nothing is placed if any index is not an open spot or comes up twice
+  //returns how many were placed
+  int applyMoves(int[] cells) {
+    int count = engine.placeAll(cells, cells.length);
+    this.hoverIndex = -1;
+    this.hinted = null;
+    //the whole board is drawn again, once, rather than every cell placed marked dirty
+    this.scene = null;
+    this.showWinner();
+    return count;
+  }
+  
+  //EFFECT: finds the winning path and ends the world if the engine says a player has won
+  void showWinner() {
+    if (engine.winner() == 1) {
+      hasWon(this.starters(1), this.enders(1), player1);
+    }
+    else if (engine.winner() == 2) {
+      hasWon(this.starters(2), this.enders(2), player2);
+    }
+  }
+  
+  //EFFECT: highlights player 1's best move when h is pressed on player 1's turn,
+  //turns metrics on or off when m is pressed, and takes back the last move when u is
+  //pressed, and the computer's move with it in a game against the computer
+  public void onKeyEvent(String key) {
+    if (key.equals("m")) {
+      Metrics.toggle();
+    }
+    if (key.equals("u") && this.undo()) {
+      //the person's move before the computer's is taken back too, so it is their turn
+      if (this.computer != null && engine.turn == this.computer.side() 
+          && !this.undo()) {
+        this.computerMove();
       }
-      //if bridged is created with Cell on right side, add Cell to enders list
-      if (clickedCell.x == boardSize - 2) {
-        enders1.add(board.get(boardSize - 1).get(clickedCell.y));
+    }
+    if (key.equals("h") && engine.turn == 1) {
+      this.hinted = this.hint();
+      if (this.hinted != null) {
+        this.markDirty(engine.board.index(this.hinted.x, this.hinted.y));
       }
-      //sets a bridge Cell to be vertical or horizontal
-      clickedCell.playerDir = this.isHorizontal(uPos, player1);
-      //updates turn
-      this.playerTurn = 2;
     }
-    
-    //player 2's turn
-    else {
-      clickedCell.color = this.player2;
-      clickedCell.bridged = true;
-      //if bridge is created with Cell on top, add Cell to starters list
-      if (clickedCell.y == 1) {
-        starters2.add(board.get(clickedCell.x).get(0));
-      }
-      //if bridge is created with Cell on bottom, add Cell to enders list
-      if (clickedCell.y == boardSize - 2) {
-        enders2.add(board.get(clickedCell.x).get(boardSize - 1));
-      }
-      //sets a bridge Cell to be vertical or horizontal
-      clickedCell.playerDir = this.isHorizontal(uPos, player2);
-      //updates turn
-      this.playerTurn = 1;
-    }
-    //System.out.print("starters1:" + starters1 + "\n");
-    //System.out.print("starters2:" + starters2 + "\n");
-    //System.out.print("enders1:" + enders1 + "\n");
-    //System.out.print("enders2:" + enders2 + "\n");
-    
-    //checks if either player has won
-    if (this.playerTurn == 1) {
-      hasWon(starters2, enders2, player2);
+  }
+  
+  //EFFECT: takes back the last bridge placed, giving the turn back to whoever placed it,
+  //drawing its Cell again, clearing the hint and forgetting the win if it won the game
+  //returns false, changing nothing, if no bridge has been placed
+  boolean undo() {
+    if (engine.history.size() == 0) {
+      return false;
     }
-    else {
-      hasWon(starters1, enders1, player1);
+    int index = engine.history.get(engine.history.size() - 1);
+    engine.undo();
+    this.markDirty(index);
+    if (this.hoverIndex >= 0) {
+      this.hoverPlayer = engine.turn;
+      this.markDirty(this.hoverIndex);
+    }
+    if (this.hinted != null) {
+      //the outline of a hint reaches over the cells around it, so all are drawn again
+      this.hinted = null;
+      this.scene = null;
+    }
+    this.winPath = new ArrayList<Cell>();
+    //only a restored game, whose bridges are undone in the order of their indices, can 
+    //still be won once its last bridge is taken back
+    this.showWinner();
+    return true;
+  }
+  
+  //returns the Cell player 1 should bridge next to be sure of winning,
+  //or null if there is none
+  Cell hint() {
+    if (this.solver == null) {
+      this.solver = new ShannonSolver(this.boardSize);
+    }
+    if (engine.winner() != 0) {
+      return null;
+    }
+    int move = this.solver.chooseMove(engine);
+    if (move < 0) {
+      return null;
+    }
+    return board.get(engine.board.x(move)).get(engine.board.y(move));
+  }
+  
+  //EFFECT: if it is the computer player's turn, lets it click where it chose
+  void computerMove() {
+    if (this.computer == null || engine.turn != this.computer.side()
+        || this.engine.winner() != 0) {
+      return;
+    }
+    int move = this.computer.chooseMove(engine);
+    if (move >= 0) {
+      this.onMouseClicked(new Posn(engine.board.x(move) * imageSize + imageSize / 2,
+          engine.board.y(move) * imageSize + imageSize / 2));
     }
   }
   
@@ -357,92 +698,158 @@ class BridgItWorld extends World {
   int isHorizontal(Posn pos, Color curColor) {
     Cell currentCell = this.pointCell(pos);
     if (curColor.equals(player1)) {
-      if (currentCell.x % 2 == 0 && currentCell.y % 2 == 0) {
-        return 2;
-      }
-      else {
-        return 1;
-      }
+      return PackedBoard.bridgeDir(currentCell.x, currentCell.y, 1);
     }
     else {
-      if (currentCell.x % 2 == 1 && currentCell.y % 2 == 1) {
-        return 2;
-      }
-      else {
-        return 1;
-      }
+      return PackedBoard.bridgeDir(currentCell.x, currentCell.y, 2);
     }
   }
   
   
   //highlights the Cell the cursor is positioned at
   public void onMouseMoved(Posn uPos) {
-    Cell current = this.pointCell(uPos);
-    //System.out.println("x: " + uPos.x + "\n");
-    //System.out.println("y: " + uPos.y + "\n");
-    
-    if (this.onBorder(current) || current.bridged) {
+    long start = Metrics.start();
+    int current = this.pointIndex(uPos);
+    if (current < 0 || !engine.board.isOpen(current)
+        || current == this.hoverIndex && engine.turn == this.hoverPlayer) {
+      Metrics.GLOBAL.onMouseMoved.recordSince(start);
       return;
     }
-    else if (this.prevPhantom.equals(current)) {
-      current.phantom = true;
-    }
-    else {
-      current.phantom = true;
-      this.prevPhantom.phantom = false;
-      if (playerTurn == 1) {
-        current.phantomCol = player1;
-        current.phantomTurn = 1;
-      }
-      else {
-        current.phantomCol = player2;
-        current.phantomTurn = 2;
-      }
-      this.prevPhantom = current;
+    if (this.hoverIndex >= 0) {
+      this.markDirty(this.hoverIndex);
     }
-    
+    this.hoverIndex = current;
+    this.hoverPlayer = engine.turn;
+    this.markDirty(current);
+    Metrics.GLOBAL.onMouseMoved.recordSince(start);
   } 
   
   
-  //returns the Cell at a given point on a board
-  Cell pointCell(Posn pos) {
+  //returns the index in the packed board at a given point, or -1 if it is off the board
+  int pointIndex(Posn pos) {
     int indX = pos.x / imageSize;
     int indY = pos.y / imageSize;
-    if (indX > this.boardSize - 1 || indY > this.boardSize - 1) {
-      return new Cell(0,0,false,false,3,Color.white);
+    if (pos.x < 0 || pos.y < 0 || indX > this.boardSize - 1 || indY > this.boardSize - 1) {
+      return -1;
+    }
+    return engine.board.index(indX, indY);
+  }
+  
+  //returns the Cell at a given point on a board
+  Cell pointCell(Posn pos) {
+    int index = this.pointIndex(pos);
+    if (index < 0) {
+      return OFF_BOARD;
     }
-    Cell currentCell = board.get(indX).get(indY);
+    Cell currentCell = board.get(engine.board.x(index)).get(engine.board.y(index));
     return currentCell;
   }
   
   //determines if any of the player's starters and enders constitute a win with 
   //the current board state
+  //uses the connectivity structure, so this is a single check of the player's two sides
+  //instead of a search for every pair of starters and enders
   boolean hasWon(ArrayList<Cell> starters, ArrayList<Cell> enders, Color player) {
-    boolean result = false;
-    for (int i = 0; i < starters.size(); i++) {
-      for (int j = 0; j < enders.size(); j++) {
-        Cell startC = starters.get(i);
-        Cell endC = enders.get(j);
-        //System.out.print("checking path for (" + startC.x + ", " + startC.y + ") 
-        //and (" + endC.x +", " + endC.y + ") \n");
-        result = this.hasPath(startC, endC, new Queue<Cell>(), player);
-        //System.out.print(result + "\n");
+    long start = Metrics.start();
+    //no path can exist until the player has bridged out from both of their sides
+    if (starters.isEmpty() || enders.isEmpty()) {
+      Metrics.GLOBAL.hasWon.recordSince(start);
+      return false;
+    }
+    if (player.equals(player1) && this.engine.hasWon(1)) {
+      this.winPath = this.winningPath(starters, enders, player);
+      this.endOfWorld("Player 1");
+      Metrics.GLOBAL.hasWon.recordSince(start);
+      return true;
+    }
+    else if (player.equals(player2) && this.engine.hasWon(2)) {
+      this.winPath = this.winningPath(starters, enders, player);
+      this.endOfWorld("Player 2");
+      Metrics.GLOBAL.hasWon.recordSince(start);
+      return true;
+    }
+    Metrics.GLOBAL.hasWon.recordSince(start);
+    return false;
+  }
+  
+  //returns the dots and bridges, in order, of a shortest path over the player's bridges 
+  //from any of the starters to any of the enders, or an empty list if there is none
+  //searches from every starter at once, so each dot is visited at most one time
+  ArrayList<Cell> winningPath(ArrayList<Cell> starters, ArrayList<Cell> enders, Color player) {
+    long began = Metrics.start();
+    int owner = this.playerNumber(player);
+    BitSet seen = this.searchSeen;
+    seen.clear();
+    BitSet ends = this.searchEnds;
+    ends.clear();
+    for (Cell c : enders) {
+      ends.set(engine.board.index(c.x, c.y));
+    }
+    IntDeque worklist = this.searchQueue;
+    worklist.clear();
+    for (Cell c : starters) {
+      int start = engine.board.index(c.x, c.y);
+      if (!seen.get(start)) {
+        seen.set(start);
+        this.searchFrom[start] = -1;
+        worklist.addAtTail(start);
       }
     }
-    return result;
+    int expanded = 0;
+    int highWater = worklist.size();
+    while (worklist.size() > 0) {
+      int next = worklist.removeFromHead();
+      expanded++;
+      if (ends.get(next)) {
+        Metrics.GLOBAL.searched(expanded, highWater);
+        Metrics.GLOBAL.winningPath.recordSince(began);
+        return this.pathTo(next);
+      }
+      int count = engine.board.bridgedNeighbors(next, owner, this.searchFound);
+      for (int i = 0; i < count; i++) {
+        int neighbor = this.searchFound[i];
+        if (!seen.get(neighbor)) {
+          seen.set(neighbor);
+          this.searchFrom[neighbor] = next;
+          worklist.addAtTail(neighbor);
+        }
+      }
+      highWater = Math.max(highWater, worklist.size());
+    }
+    Metrics.GLOBAL.searched(expanded, highWater);
+    Metrics.GLOBAL.winningPath.recordSince(began);
+    return new ArrayList<Cell>();
+  }
+  
+  //returns the Cells on the path winningPath found to the given dot, starting from its starter
+  ArrayList<Cell> pathTo(int end) {
+    ArrayList<Cell> path = new ArrayList<Cell>();
+    int current = end;
+    while (current != -1) {
+      int previous = this.searchFrom[current];
+      path.add(board.get(engine.board.x(current)).get(engine.board.y(current)));
+      if (previous != -1) {
+        //the bridge sits halfway between the two dots it joins
+        int bridge = (current + previous) / 2;
+        path.add(board.get(engine.board.x(bridge)).get(engine.board.y(bridge)));
+      }
+      current = previous;
+    }
+    Collections.reverse(path);
+    return path;
   }
   
   //return true if there is a path on the board for one player between one cell to another
   boolean hasPath(Cell from, Cell to, Queue<Cell> worklist, Color toCheck) {
-    ArrayList<Cell> alreadySeen = new ArrayList<Cell>();
+    //cells are marked when added to the worklist, so none is added twice
+    BitSet alreadySeen = this.searchSeen;
+    alreadySeen.clear();
+    alreadySeen.set(from.x * boardSize + from.y);
     worklist.add(from);
     while (worklist.size() > 0) {
       Cell next = worklist.remove();
-      //System.out.print("next:" + next.x + ", " + next.y + "\n");
       if (next.equals(to)) {
-        //System.out.print("good path for (" + from.x + ", " + from.y + ") 
-        //and (" + to.x +", " + to.y + ") \n");
-        if (from.color.equals(player1)) {
+        if (from.color().equals(player1)) {
           this.endOfWorld("Player 1");
           return true;
         }
@@ -451,22 +858,13 @@ class BridgItWorld extends World {
           return true;
         }
       }
-      else if (alreadySeen.contains(next)) { 
-        //avoid running any code to save time
-        //straight to end of the if statement since in a while loop
-      }
       else {
         ArrayList<Cell> results = next.toAddNeighbors(this.board, this.boardSize, 
             toCheck, alreadySeen);
         for (Cell c : results) {
-          //System.out.print("neighbor: " + c.x +", " + c.y + "\n");
+          alreadySeen.set(c.x * boardSize + c.y);
           worklist.add(c);
-          //System.out.print("worklist (what to check neighbors of next): " 
-          //+ worklist.size() + "\n");
         }
-        //System.out.print("already seen before: " + alreadySeen + "\n");
-        alreadySeen.add(next);
-        //System.out.print("already seen after: " + alreadySeen + "\n");
       }
     }
     return false;
@@ -476,34 +874,42 @@ class BridgItWorld extends World {
   public WorldScene lastScene(String msg) {
     if (msg.equals("Player 1")) {
       WorldImage p1 = new ScaleImage(new TextImage("Player 1 has won!", Color.black), 2);
-      WorldScene base = this.makeScene();
+      WorldScene base = this.drawPath(this.drawFull());
       base.placeImageXY(p1, imageSize * boardSize / 2, imageSize * boardSize / 2);
       return base;
     }
     else {
       WorldImage p2 = new ScaleImage(new TextImage("Player 2 has won!", Color.black), 2);
-      WorldScene base = this.makeScene();
+      WorldScene base = this.drawPath(this.drawFull());
       base.placeImageXY(p2, imageSize * boardSize / 2, imageSize * boardSize / 2);
       return base;
     }
   }
+  
+  //highlights the cells of the winning path on the given scene
+  WorldScene drawPath(WorldScene scene) {
+    for (Cell c : this.winPath) {
+      scene.placeImageXY(c.drawHighlight(), this.imageX(c), this.imageY(c));
+    }
+    return scene;
+  }
 }
 
-//represents a queue used in BFS using a Deque
+//represents a queue used in BFS using a RingDeque
 class Queue<T> {
-  Deque<T> items;
+  RingDeque<T> items;
   
   //constructor
   Queue() {
-    this.items = new Deque<T>();
+    this.items = new RingDeque<T>();
   }
   
-  //returns the size of the Deque
+  //returns the size of the RingDeque
   public int size() {
     return this.items.size();
   }
   
-  //adds the given item at the tail of the Deque
+  //adds the given item at the tail of the RingDeque
   public void add(T t) {
     this.items.addAtTail(t);
   }
@@ -516,7 +922,11 @@ class Queue<T> {
 
 //represents a generic list with a header
 class Deque<T> {
+  static final int SPARES = 32; //most removed nodes kept, so a drained list lets go of the rest
   Sentinel<T> header;
+  int count; //number of nodes, kept up to date so size does not walk the list
+  Node<T> spare; //removed nodes, chained through next, to be reused by addAtTail
+  int spares; //number of nodes in the spare chain
   
   //constructor that initializes the header to a new Sentinel
   Deque() {
@@ -525,22 +935,135 @@ class Deque<T> {
   
   //counts the number of nodes in a list (not including header node)
   int size() {
-    return this.header.size();
+    return this.count;
   }
   
   //insert a value T as a node at the tail of a list
   void addAtTail(T newTail) {
     ANode<T> oldTailNode = this.header.prev;
-    new Node<T>(newTail, oldTailNode, this.header);
+    if (this.spare == null) {
+      new Node<T>(newTail, oldTailNode, this.header);
+    }
+    else {
+      Node<T> reused = this.spare;
+      this.spare = (Node<T>) reused.next;
+      this.spares--;
+      reused.data = newTail;
+      reused.insertBetween(oldTailNode, this.header);
+    }
+    this.count++;
   }
   
   //removes the first node from this Deque and returns that node's data T
+  //EFFECT: keeps the removed node to be reused by the next addAtTail, unless SPARES are
+  //kept already
   T removeFromHead() {
-    ANode<T> newheadNode = this.header.next.next;
-    T data = this.header.next.nodeData();
+    ANode<T> oldHeadNode = this.header.next;
+    ANode<T> newheadNode = oldHeadNode.next;
+    T data = oldHeadNode.nodeData();
     this.header.setNextANode(newheadNode);
+    this.count--;
+    Node<T> removed = (Node<T>) oldHeadNode;
+    removed.data = null;
+    removed.prev = null;
+    removed.next = null;
+    if (this.spares < SPARES) {
+      removed.next = this.spare;
+      this.spare = removed;
+      this.spares++;
+    }
+    return data;
+  }
+}
+
+//represents a generic deque kept in a circular array, which grows when full
+//and never allocates while it has room
+class RingDeque<T> {
+  Object[] items;
+  int head; //index of the first item
+  int count; //number of items
+  
+  //constructor with room for 16 items
+  RingDeque() {
+    this(16);
+  }
+  
+  //constructor with room for at least the given number of items
+  RingDeque(int capacity) {
+    int rounded = 1;
+    while (rounded < capacity) {
+      rounded *= 2;
+    }
+    this.items = new Object[rounded];
+  }
+  
+  //returns the number of items in this RingDeque
+  int size() {
+    return this.count;
+  }
+  
+  //EFFECT: adds the given item after the last one
+  void addAtTail(T t) {
+    if (this.count == this.items.length) {
+      this.grow();
+    }
+    this.items[(this.head + this.count) & (this.items.length - 1)] = t;
+    this.count++;
+  }
+  
+  //EFFECT: adds the given item before the first one
+  void addAtHead(T t) {
+    if (this.count == this.items.length) {
+      this.grow();
+    }
+    this.head = (this.head - 1) & (this.items.length - 1);
+    this.items[this.head] = t;
+    this.count++;
+  }
+  
+  //removes the first item and returns it
+  @SuppressWarnings("unchecked")
+  T removeFromHead() {
+    if (this.count == 0) {
+      throw new RuntimeException("There's no head data in an empty list!");
+    }
+    T data = (T) this.items[this.head];
+    this.items[this.head] = null;
+    this.head = (this.head + 1) & (this.items.length - 1);
+    this.count--;
+    return data;
+  }
+  
+  //removes the last item and returns it
+  @SuppressWarnings("unchecked")
+  T removeFromTail() {
+    if (this.count == 0) {
+      throw new RuntimeException("There's no tail data in an empty list!");
+    }
+    int last = (this.head + this.count - 1) & (this.items.length - 1);
+    T data = (T) this.items[last];
+    this.items[last] = null;
+    this.count--;
     return data;
   }
+  
+  //EFFECT: removes every item, keeping the array for reuse
+  void clear() {
+    while (this.count > 0) {
+      this.removeFromHead();
+    }
+    this.head = 0;
+  }
+  
+  //EFFECT: doubles the array, moving the items to the front of the new one
+  void grow() {
+    Object[] bigger = new Object[this.items.length * 2];
+    for (int i = 0; i < this.count; i++) {
+      bigger[i] = this.items[(this.head + i) & (this.items.length - 1)];
+    }
+    this.items = bigger;
+    this.head = 0;
+  }
 }
 
 //(ABSTRACT) represents a node
@@ -554,9 +1077,6 @@ abstract class ANode<T> {
     given.prev = this;
   }
   
-  //counts the number of nodes under a header
-  abstract int countNodes();
-  
   //returns the data of a node, if possible
   abstract T nodeData();
   
@@ -576,14 +1096,14 @@ class Sentinel<T> extends ANode<T> {
     this.prev = this;
   }
   
-  //counts the number of nodes in the sentinel
+  //counts the number of nodes in the sentinel, walking the list in a loop so a long one
+  //cannot overflow the stack
   int size() {
-    return this.next.countNodes();
-  }
-  
-  //determines how many nodes are in this ANode
-  int countNodes() {
-    return 0;
+    int count = 0;
+    for (ANode<T> node = this.next; node != this; node = node.next) {
+      count++;
+    }
+    return count;
   }
   
   //throws an exception for no data in a sentinel
@@ -613,11 +1133,6 @@ class Node<T> extends ANode<T> {
     }
   }
   
-  //determines how many nodes are in this ANode
-  int countNodes() {
-    return 1 + this.next.countNodes();
-  }
-  
   //returns the data from a node
   T nodeData() {
     return this.data;
@@ -753,46 +1268,49 @@ class Examples {
     white3.playerDir = 2;
     white3.color = Color.blue;
     white3.bridged = true;
-    t.checkExpect(white3, white3cRW);
+    t.checkExpect(white3.color(), white3cRW.color());
+    t.checkExpect(white3.bridged(), white3cRW.bridged());
+    t.checkExpect(white3.playerDir(), white3cRW.playerDir());
     t.checkExpect(white3.drawCell(), imageWhite3cBW);
     
     white3.playerDir = 3;
     white3.color = Color.white;
     white3.bridged = false;
     
-    white3.phantom = true;
-    white3.phantomDir1 = 1;
-    white3.phantomDir2 = 2;
-    white3.phantomTurn = 1;
-    white3.phantomCol = Color.red;
-    WorldImage imageWhite3PhantomR = white3.drawPhantomCell();
-    t.checkExpect(white3.drawCell(), imageWhite3PhantomR);
-    
-    white3.phantomTurn = 2;
-    white3.phantomCol = Color.blue;
-    WorldImage imageWhite3PhantomB = white3.drawPhantomCell();
-    t.checkExpect(white3.drawCell(), imageWhite3PhantomB);
-    
-    player21cB.phantom = true;
+    //the mouse being over a cell is drawn by the world, not the Cell
+    game3x3.onMouseMoved(new Posn(90, 90));
+    t.checkExpect(white3.drawCell(), imageWhite3);
     t.checkExpect(player21cB.drawCell(), imagePlayer21cB);
   }
   
-  //tests for the drawPhantomCell method of Cell
-  void testDrawPhantomCell(Tester t) {
+  //tests for the drawCell method of BridgItWorld
+  void testDrawCellHover(Tester t) {
     this.initConditions();
-       
-    white3.phantom = true;
-    white3.phantomDir1 = 1;
-    white3.phantomDir2 = 2;
-    white3.phantomTurn = 1;
-    white3.phantomCol = Color.red;
-    WorldImage imageWhite3PhantomR = new RectangleImage(60, 10, OutlineMode.SOLID, Color.red);
-    t.checkExpect(white3.drawPhantomCell(), imageWhite3PhantomR);
     
-    white3.phantomTurn = 2;
-    white3.phantomCol = Color.blue;
-    WorldImage imageWhite3PhantomB = new RectangleImage(10, 60, OutlineMode.SOLID, Color.blue);
-    t.checkExpect(white3.drawPhantomCell(), imageWhite3PhantomB);
+    t.checkExpect(game3x3.drawCell(white3), white3.drawCell());
+    game3x3.hoverIndex = 4;
+    game3x3.hoverPlayer = 1;
+    WorldImage imageWhite3PhantomR = new RectangleImage(60, 10, OutlineMode.SOLID, 
+        game3x3.player1);
+    t.checkExpect(game3x3.drawCell(white3), imageWhite3PhantomR);
+    
+    game3x3.hoverPlayer = 2;
+    WorldImage imageWhite3PhantomB = new RectangleImage(10, 60, OutlineMode.SOLID, 
+        game3x3.player2);
+    t.checkExpect(game3x3.drawCell(white3), imageWhite3PhantomB);
+    
+    //the other way around on the cells between player 2's dots
+    game9YandG.hoverIndex = 4 * 9 + 4;
+    game9YandG.hoverPlayer = 1;
+    t.checkExpect(game9YandG.drawCell(game9YandG.board.get(4).get(4)), 
+        new RectangleImage(10, 60, OutlineMode.SOLID, Color.yellow));
+    t.checkExpect(game9YandG.drawCell(game9YandG.board.get(4).get(6)), 
+        CellImages.EMPTY);
+    
+    //only open cells show the bridge that would be placed
+    game3x3w.hoverIndex = 4;
+    game3x3w.hoverPlayer = 1;
+    t.checkExpect(game3x3w.drawCell(white3cRW), white3cRW.drawCell());
   }
   
   //tests for the toAddNeighbors method of Cell
@@ -829,6 +1347,29 @@ class Examples {
      
   }
   
+  //tests for the toAddNeighbors method of Cell given the seen cells as a BitSet
+  void testToAddNeighborsBitSet(Tester t) {
+    this.initConditions();
+    
+    BitSet seen = new BitSet();
+    ArrayList<Cell> results = new ArrayList<Cell>();
+    results.add(game5RandB.board.get(4).get(2));
+    results.add(game5RandB.board.get(0).get(2));
+    t.checkExpect(game5RandB.board.get(2).get(2).toAddNeighbors(game5RandB.board, 
+        5, Color.blue, seen), results);
+    
+    //a seen cell at the other end of a bridge is skipped
+    seen.set(22);
+    results.remove(0);
+    t.checkExpect(game5RandB.board.get(2).get(2).toAddNeighbors(game5RandB.board, 
+        5, Color.blue, seen), results);
+    
+    //and so is one behind a seen bridge
+    seen.set(7);
+    t.checkExpect(game5RandB.board.get(2).get(2).toAddNeighbors(game5RandB.board, 
+        5, Color.blue, seen), new ArrayList<Cell>());
+  }
+  
   //tests for the setLeft method of Cell
   void testSetLeft(Tester t) {
     this.revertInit();
@@ -933,20 +1474,20 @@ class Examples {
     t.checkExpect(game5RandB.board.size(), game5RandB.boardSize);
     t.checkExpect(game9YandG.board.size(), game9YandG.boardSize);
     
-    t.checkExpect(game5RandB.board.get(0).get(1).bridged, true);
-    t.checkExpect(game5RandB.board.get(0).get(1).color, Color.red);
+    t.checkExpect(game5RandB.board.get(0).get(1).bridged(), true);
+    t.checkExpect(game5RandB.board.get(0).get(1).color(), Color.red);
     t.checkExpect(game5RandB.board.get(0).get(1).isCircle, true);
-    t.checkExpect(game5RandB.board.get(0).get(1).playerDir, 3);
-    t.checkExpect(game5RandB.board.get(3).get(3).bridged, false);
-    t.checkExpect(game5RandB.board.get(3).get(3).color, Color.white);
-    t.checkExpect(game5RandB.board.get(2).get(2).playerDir, 3);
+    t.checkExpect(game5RandB.board.get(0).get(1).playerDir(), 3);
+    t.checkExpect(game5RandB.board.get(3).get(3).bridged(), false);
+    t.checkExpect(game5RandB.board.get(3).get(3).color(), Color.white);
+    t.checkExpect(game5RandB.board.get(2).get(2).playerDir(), 3);
     
-    t.checkExpect(game9YandG.board.get(1).get(0).bridged, true);
-    t.checkExpect(game9YandG.board.get(1).get(0).color, Color.green);
+    t.checkExpect(game9YandG.board.get(1).get(0).bridged(), true);
+    t.checkExpect(game9YandG.board.get(1).get(0).color(), Color.green);
     t.checkExpect(game9YandG.board.get(1).get(0).isCircle, true);
-    t.checkExpect(game9YandG.board.get(0).get(0).bridged, false);
-    t.checkExpect(game9YandG.board.get(0).get(0).color, Color.white);
-    t.checkExpect(game9YandG.board.get(0).get(0).playerDir, 3);
+    t.checkExpect(game9YandG.board.get(0).get(0).bridged(), false);
+    t.checkExpect(game9YandG.board.get(0).get(0).color(), Color.white);
+    t.checkExpect(game9YandG.board.get(0).get(0).playerDir(), 3);
     
     //these tests also cover the void method of fixAdjCells as it is in 
     //initBoard and would be too difficult to test otherwise
@@ -957,8 +1498,7 @@ class Examples {
         == game5RandB.board.get(1).get(0), true);
     t.checkExpect(game5RandB.board.get(1).get(1).left
         == game5RandB.board.get(0).get(1), true);
-    t.checkExpect(game5RandB.board.get(1).get(1).phantomDir1, 1);
-    t.checkExpect(game5RandB.board.get(1).get(1).phantomDir2, 2);
+    t.checkExpect(game5RandB.board.get(1).get(1).playerDir(), 3);
     t.checkExpect(game5RandB.board.get(1).get(1).top
         == game5RandB.board.get(1).get(0), true);
     t.checkExpect(game5RandB.board.get(1).get(1).right
@@ -977,8 +1517,8 @@ class Examples {
         == game9YandG.board.get(2).get(1), true);
     t.checkExpect(game9YandG.board.get(1).get(1).right
         == game9YandG.board.get(1).get(1), false); 
-    t.checkExpect(game9YandG.board.get(4).get(4).phantomDir1, 2);
-    t.checkExpect(game9YandG.board.get(4).get(6).phantomDir2, 1);
+    t.checkExpect(game9YandG.board.get(4).get(4).playerDir(), 3);
+    t.checkExpect(game9YandG.board.get(4).get(6).playerDir(), 3);
   } 
   
   //tests for the drawAllCells method of BridgItWorld
@@ -1046,6 +1586,70 @@ class Examples {
     
     WorldScene game9YandGboard = game9YandG.drawAllCells(new WorldScene(540,540));
     t.checkExpect(game9YandG.makeScene(), game9YandG.drawBorder(game9YandGboard));
+    
+    //the same scene is kept, with nothing drawn on it while nothing changes
+    WorldScene kept = game5RandB.makeScene();
+    WorldScene expected = game5RandB.drawFull();
+    t.checkExpect(game5RandB.makeScene() == kept, true);
+    t.checkExpect(kept, expected);
+    
+    //only the cells the mouse moved between are drawn again, and then the borders
+    WorldImage blank = new RectangleImage(60, 60, OutlineMode.SOLID, Color.white);
+    Cell first = game5RandB.board.get(1).get(1);
+    Cell second = game5RandB.board.get(2).get(2);
+    game5RandB.onMouseMoved(new Posn(90, 90));
+    game5RandB.onMouseMoved(new Posn(150, 150));
+    t.checkExpect(game5RandB.makeScene() == kept, true);
+    expected.placeImageXY(blank, 90, 90);
+    expected.placeImageXY(CellImages.EMPTY, 90, 90);
+    expected.placeImageXY(blank, 150, 150);
+    expected.placeImageXY(game5RandB.drawCell(second), 150, 150);
+    game5RandB.drawBorder(expected);
+    t.checkExpect(kept, expected);
+    t.checkExpect(game5RandB.drawCell(first), CellImages.EMPTY);
+    t.checkExpect(game5RandB.sceneChanges, 8);
+    
+    //a cell changed twice is drawn once
+    game5RandB.onMouseClicked(new Posn(150, 150));
+    game5RandB.onMouseMoved(new Posn(90, 90));
+    game5RandB.onMouseMoved(new Posn(150, 150));
+    game5RandB.makeScene();
+    t.checkExpect(game5RandB.sceneChanges, 8 + 4 + 4);
+    
+    //once as many images were placed as in a full drawing, it is drawn in full again
+    t.checkExpect(game5RandB.fullDrawImages(), 29);
+    game5RandB.sceneChanges = 28;
+    game5RandB.onMouseMoved(new Posn(90, 210));
+    t.checkExpect(game5RandB.makeScene() == kept, true);
+    t.checkExpect(game5RandB.sceneChanges, 28 + 4 + 4);
+    game5RandB.onMouseMoved(new Posn(150, 150));
+    t.checkExpect(game5RandB.makeScene() == kept, false);
+    t.checkExpect(game5RandB.makeScene(), game5RandB.drawFull());
+    t.checkExpect(game5RandB.sceneChanges, 0);
+    
+    //taking a hint away draws everything again
+    WorldScene hinted = game9YandG.makeScene();
+    game9YandG.onKeyEvent("h");
+    game9YandG.onMouseClicked(new Posn(90, 90));
+    t.checkExpect(game9YandG.makeScene() == hinted, false);
+  }
+  
+  //tests for the CellImages class
+  void testCellImages(Tester t) {
+    t.checkExpect(CellImages.get(Color.red, CellImages.DOT), 
+        new CircleImage(20, OutlineMode.SOLID, Color.red));
+    t.checkExpect(CellImages.get(Color.blue, CellImages.PHANTOM_TALL), 
+        new RectangleImage(10, 60, OutlineMode.SOLID, Color.blue));
+    t.checkExpect(CellImages.get(Color.black, CellImages.OUTLINE_HORIZONTAL), 
+        new RectangleImage(100, 10, OutlineMode.OUTLINE, Color.black));
+    
+    //every Cell of a color is drawn with the same image
+    this.initConditions();
+    t.checkExpect(player11cR.drawCell() == player12cR.drawCell(), true);
+    t.checkExpect(game5RandB.board.get(0).get(1).drawCell() 
+        == game9YandG.board.get(0).get(1).drawCell(), false);
+    t.checkExpect(game5RandB.board.get(0).get(1).drawCell() 
+        == game5RandB.board.get(0).get(3).drawCell(), true);
   }
   
   //tests for the imagePos method for BridgItWorld
@@ -1085,6 +1689,34 @@ class Examples {
     //t.checkExpect(game3x3.pointCell(pplayer22cB), player22cB);
   }
     
+  //tests that moving the mouse allocates nothing, once the arrays it uses have grown
+  void testHoverAllocation(Tester t) {
+    BridgItWorld tempGame = new BridgItWorld(101, Color.red, Color.blue);
+    Posn[] moves = new Posn[64];
+    for (int i = 0; i < moves.length; i++) {
+      moves[i] = new Posn(i * 97 % 6060 - 30, i * 61 % 6060);
+    }
+    com.sun.management.ThreadMXBean threads = 
+        (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory
+        .getThreadMXBean();
+    for (int round = 0; round < 1000; round++) {
+      for (Posn move : moves) {
+        tempGame.onMouseMoved(move);
+        tempGame.pointCell(move);
+      }
+      tempGame.makeScene();
+    }
+    long before = threads.getCurrentThreadAllocatedBytes();
+    for (Posn move : moves) {
+      tempGame.onMouseMoved(move);
+      tempGame.pointCell(move);
+    }
+    long after = threads.getCurrentThreadAllocatedBytes();
+    t.checkExpect(after - before, 0L);
+    t.checkExpect(tempGame.pointCell(new Posn(-1, 5)) == BridgItWorld.OFF_BOARD, true);
+    t.checkExpect(tempGame.pointCell(new Posn(6060, 5)) == BridgItWorld.OFF_BOARD, true);
+  }
+  
   //tests for the onMouseClicked function for BridgItWorld
   void testOnMouseClicked(Tester t) {
     this.initConditions();
@@ -1093,49 +1725,49 @@ class Examples {
     Posn pwhite3 = new Posn(83,80);
     Posn pplayer12cR = new Posn(150,90);
     
-    t.checkExpect(white1.color, Color.white);
-    t.checkExpect(white1.bridged, false);
-    t.checkExpect(white1.playerDir, 3);
-    t.checkExpect(game3x3.playerTurn, 1);
+    t.checkExpect(white1.color(), Color.white);
+    t.checkExpect(white1.bridged(), false);
+    t.checkExpect(white1.playerDir(), 3);
+    t.checkExpect(game3x3.engine.turn, 1);
     game3x3.onMouseClicked(pwhite1);
-    t.checkExpect(white1.color, Color.white);
-    t.checkExpect(white1.bridged, false);
-    t.checkExpect(white1.playerDir, 3);
-    t.checkExpect(game3x3.playerTurn, 1);
-    
-    t.checkExpect(player12cR.color, Color.red);
-    t.checkExpect(player12cR.bridged, true);
-    t.checkExpect(player12cR.playerDir, 3);
-    t.checkExpect(game3x3.playerTurn, 1);
+    t.checkExpect(white1.color(), Color.white);
+    t.checkExpect(white1.bridged(), false);
+    t.checkExpect(white1.playerDir(), 3);
+    t.checkExpect(game3x3.engine.turn, 1);
+    
+    t.checkExpect(player12cR.color(), Color.red);
+    t.checkExpect(player12cR.bridged(), true);
+    t.checkExpect(player12cR.playerDir(), 3);
+    t.checkExpect(game3x3.engine.turn, 1);
     game3x3.onMouseClicked(pplayer12cR);
-    t.checkExpect(player12cR.color, Color.red);
-    t.checkExpect(player12cR.bridged, true);
-    t.checkExpect(player12cR.playerDir, 3);
-    t.checkExpect(game3x3.playerTurn, 1);
-    
-    t.checkExpect(white3.color, Color.white);
-    t.checkExpect(white3.bridged, false);
-    t.checkExpect(white3.playerDir, 3);
-    t.checkExpect(game3x3.playerTurn, 1);
-    t.checkExpect(game3x3.starters1, new ArrayList<Cell>());
-    t.checkExpect(game3x3.enders1, new ArrayList<Cell>());
-    t.checkExpect(game3x3.starters2, new ArrayList<Cell>());
-    t.checkExpect(game3x3.enders2, new ArrayList<Cell>());
+    t.checkExpect(player12cR.color(), Color.red);
+    t.checkExpect(player12cR.bridged(), true);
+    t.checkExpect(player12cR.playerDir(), 3);
+    t.checkExpect(game3x3.engine.turn, 1);
+    
+    t.checkExpect(white3.color(), Color.white);
+    t.checkExpect(white3.bridged(), false);
+    t.checkExpect(white3.playerDir(), 3);
+    t.checkExpect(game3x3.engine.turn, 1);
+    t.checkExpect(game3x3.starters(1), new ArrayList<Cell>());
+    t.checkExpect(game3x3.enders(1), new ArrayList<Cell>());
+    t.checkExpect(game3x3.starters(2), new ArrayList<Cell>());
+    t.checkExpect(game3x3.enders(2), new ArrayList<Cell>());
     
     //FOLLOWING TESTS WORK BUT BREAK A DRAWALLCELLS TEST EVEN WITH INITCONDITIONS
     //game3x3.onMouseClicked(pwhite3);
-    //t.checkExpect(white3.color, Color.red);
-    //t.checkExpect(white3.bridged, true);
-    //t.checkExpect(white3.playerDir, 1);
-    //t.checkExpect(game3x3.playerTurn, 2);
+    //t.checkExpect(white3.color(), Color.red);
+    //t.checkExpect(white3.bridged(), true);
+    //t.checkExpect(white3.playerDir(), 1);
+    //t.checkExpect(game3x3.engine.turn, 2);
     ArrayList<Cell> tempStart1 = new ArrayList<Cell>();
     ArrayList<Cell> tempEnd1 = new ArrayList<Cell>();
     Cell temp1 = game3x3.board.get(0).get(1);
     tempStart1.add(temp1);
     Cell temp2 = game3x3.board.get(2).get(1);
     tempEnd1.add(temp2);
-    //t.checkExpect(game3x3.starters1, tempStart1);
-    //t.checkExpect(game3x3.enders1, tempEnd1);
+    //t.checkExpect(game3x3.starters(1), tempStart1);
+    //t.checkExpect(game3x3.enders(1), tempEnd1);
   } 
   
   //tests for the onBorder method of BridgItWorld
@@ -1160,40 +1792,40 @@ class Examples {
     Posn pplayer12cR = new Posn(150,90);
     Posn pwhite3 = new Posn(83,80);
     
-    t.checkExpect(white1.phantom, false);
-    t.checkExpect(white1.phantomCol, null);
-    t.checkExpect(white1.phantomTurn, 0);
+    //dots and the edges of the board are never hovered
     game3x3.onMouseMoved(pwhite1);
-    t.checkExpect(white1.phantom, false);
-    t.checkExpect(white1.phantomCol, null);
-    t.checkExpect(white1.phantomTurn, 0);
-    
-    t.checkExpect(player12cR.phantom, false);
-    t.checkExpect(player12cR.phantomCol, null);
-    t.checkExpect(player12cR.phantomTurn, 0);
+    t.checkExpect(game3x3.hoverIndex, -1);
     game3x3.onMouseMoved(pplayer12cR);
-    t.checkExpect(player12cR.phantom, false);
-    t.checkExpect(player12cR.phantomCol, null);
-    t.checkExpect(player12cR.phantomTurn, 0);
+    t.checkExpect(game3x3.hoverIndex, -1);
     
-    t.checkExpect(white3cRW.phantom, false);
-    t.checkExpect(white3cRW.phantomCol, null);
-    t.checkExpect(white3cRW.phantomTurn, 0);
+    //nor are bridges
     game3x3w.onMouseMoved(pwhite3);
-    t.checkExpect(white3cRW.phantom, false);
-    t.checkExpect(white3cRW.phantomCol, null);
-    t.checkExpect(white3cRW.phantomTurn, 0);
+    t.checkExpect(game3x3w.hoverIndex, -1);
     
-    t.checkExpect(white3.phantom, false);
-    t.checkExpect(white3.phantomCol, null);
-    t.checkExpect(white3.phantomTurn, 0);
-
-    //FOLLOWING TESTS WORK BUT BREAK A DRAWALLCELLS TEST EVEN WITH INITCONDITIONS
-    //game3x3.onMouseMoved(pwhite3);
-    //t.checkExpect(white3.phantom, true);
-    //t.checkExpect(white3.phantomTurn, 1);
-    //t.checkExpect(white3.phantomCol, Color.red);
-
+    game3x3.onMouseMoved(pwhite3);
+    t.checkExpect(game3x3.hoverIndex, 4);
+    t.checkExpect(game3x3.hoverPlayer, 1);
+    t.checkExpect(game3x3.dirtyCells.size(), 1);
+    
+    //staying on the cell or leaving the board changes nothing
+    game3x3.onMouseMoved(new Posn(91, 95));
+    game3x3.onMouseMoved(new Posn(-5, 95));
+    game3x3.onMouseMoved(new Posn(95, 500));
+    t.checkExpect(game3x3.hoverIndex, 4);
+    t.checkExpect(game3x3.dirtyCells.size(), 1);
+    
+    //the other player's turn shows their bridge instead
+    game3x3.engine.setTurn(2);
+    game3x3.onMouseMoved(pwhite3);
+    t.checkExpect(game3x3.hoverPlayer, 2);
+    
+    //moving to another cell draws the one left behind again as well
+    game9YandG.onMouseMoved(new Posn(90, 90));
+    game9YandG.makeScene();
+    game9YandG.onMouseMoved(new Posn(150, 150));
+    t.checkExpect(game9YandG.hoverIndex, 2 * 9 + 2);
+    t.checkExpect(game9YandG.dirtyCells.size(), 2);
+    t.checkExpect(game9YandG.dirtyCells.get(0), 1 * 9 + 1);
   } 
   
   //tests for the isHorizontal method of BridgItWorld
@@ -1235,67 +1867,68 @@ class Examples {
     
     //MADE NEW EXAMPLES SO DRAW ALL CELLS WOULD NOT BE AFFECTED
     BridgItWorld tempGame3x3 = new BridgItWorld(3, Color.red, Color.blue);
-    t.checkExpect(tempGame3x3.hasWon(tempGame3x3.starters1,tempGame3x3.enders1, Color.red),
+    t.checkExpect(tempGame3x3.hasWon(tempGame3x3.starters(1),tempGame3x3.enders(1), Color.red),
+        false);
+    t.checkExpect(tempGame3x3.hasWon(tempGame3x3.starters(2),tempGame3x3.enders(2), Color.blue),
         false);
-    t.checkExpect(tempGame3x3.hasWon(tempGame3x3.starters2,tempGame3x3.enders2, Color.blue),false);
     
     Posn pwhite3 = new Posn(83,80);
     tempGame3x3.onMouseClicked(pwhite3);
-    t.checkExpect(tempGame3x3.hasWon(tempGame3x3.starters2,tempGame3x3.enders2, Color.blue),
+    t.checkExpect(tempGame3x3.hasWon(tempGame3x3.starters(2),tempGame3x3.enders(2), Color.blue),
         false);
-    t.checkExpect(tempGame3x3.hasWon(tempGame3x3.starters1,tempGame3x3.enders1, Color.red),
+    t.checkExpect(tempGame3x3.hasWon(tempGame3x3.starters(1),tempGame3x3.enders(1), Color.red),
         true);
     
     BridgItWorld tempGame3x32 = new BridgItWorld(3, Color.red, Color.blue);
-    tempGame3x32.playerTurn = 2;
+    tempGame3x32.engine.setTurn(2);
     tempGame3x32.onMouseClicked(pwhite3);
-    t.checkExpect(tempGame3x32.hasWon(tempGame3x32.starters2,tempGame3x32.enders2, Color.blue),
+    t.checkExpect(tempGame3x32.hasWon(tempGame3x32.starters(2),tempGame3x32.enders(2), Color.blue),
         true);
-    t.checkExpect(tempGame3x32.hasWon(tempGame3x32.starters1,tempGame3x32.enders1, Color.red),
+    t.checkExpect(tempGame3x32.hasWon(tempGame3x32.starters(1),tempGame3x32.enders(1), Color.red),
         false);
     
     BridgItWorld tempGame5x5 = new BridgItWorld(5, Color.red, Color.blue);
     Posn g5move1 = new Posn(91,92);
     tempGame5x5.onMouseClicked(g5move1);
-    t.checkExpect(tempGame5x5.hasWon(tempGame5x5.starters2,tempGame5x5.enders2, Color.blue),
+    t.checkExpect(tempGame5x5.hasWon(tempGame5x5.starters(2),tempGame5x5.enders(2), Color.blue),
         false);
-    t.checkExpect(tempGame5x5.hasWon(tempGame5x5.starters1,tempGame5x5.enders1, Color.red),
+    t.checkExpect(tempGame5x5.hasWon(tempGame5x5.starters(1),tempGame5x5.enders(1), Color.red),
         false);
-    tempGame5x5.playerTurn = 1;
+    tempGame5x5.engine.setTurn(1);
     Posn g5move2 = new Posn(209,91);
     tempGame5x5.onMouseClicked(g5move2);
-    t.checkExpect(tempGame5x5.hasWon(tempGame5x5.starters2,tempGame5x5.enders2, Color.blue),
+    t.checkExpect(tempGame5x5.hasWon(tempGame5x5.starters(2),tempGame5x5.enders(2), Color.blue),
         false);
-    t.checkExpect(tempGame5x5.hasWon(tempGame5x5.starters1,tempGame5x5.enders1, Color.red),
+    t.checkExpect(tempGame5x5.hasWon(tempGame5x5.starters(1),tempGame5x5.enders(1), Color.red),
         true);
     
     BridgItWorld tempGame5x52 = new BridgItWorld(5, Color.red, Color.blue);
     Posn g52move1 = new Posn(91,92);
     tempGame5x52.onMouseClicked(g52move1);
-    t.checkExpect(tempGame5x52.hasWon(tempGame5x52.starters2,tempGame5x52.enders2, Color.blue),
+    t.checkExpect(tempGame5x52.hasWon(tempGame5x52.starters(2),tempGame5x52.enders(2), Color.blue),
         false);
-    t.checkExpect(tempGame5x52.hasWon(tempGame5x52.starters1,tempGame5x52.enders1, Color.red),
+    t.checkExpect(tempGame5x52.hasWon(tempGame5x52.starters(1),tempGame5x52.enders(1), Color.red),
         false);
     Posn g52move2 = new Posn(209,91);
     tempGame5x52.onMouseClicked(g52move2);
-    t.checkExpect(tempGame5x52.hasWon(tempGame5x52.starters2,tempGame5x52.enders2, Color.blue),
+    t.checkExpect(tempGame5x52.hasWon(tempGame5x52.starters(2),tempGame5x52.enders(2), Color.blue),
         false);
-    t.checkExpect(tempGame5x52.hasWon(tempGame5x52.starters1,tempGame5x52.enders1, Color.red),
+    t.checkExpect(tempGame5x52.hasWon(tempGame5x52.starters(1),tempGame5x52.enders(1), Color.red),
         false);
-    tempGame5x52.playerTurn = 2;
+    tempGame5x52.engine.setTurn(2);
     Posn g52move3 = new Posn(209,209);
     tempGame5x52.onMouseClicked(g52move3);
-    t.checkExpect(tempGame5x52.hasWon(tempGame5x52.starters2,tempGame5x52.enders2, Color.blue),
+    t.checkExpect(tempGame5x52.hasWon(tempGame5x52.starters(2),tempGame5x52.enders(2), Color.blue),
         true);
-    t.checkExpect(tempGame5x52.hasWon(tempGame5x52.starters1,tempGame5x52.enders1, Color.red),
+    t.checkExpect(tempGame5x52.hasWon(tempGame5x52.starters(1),tempGame5x52.enders(1), Color.red),
         false); 
     
     BridgItWorld tempGame7x7 = new BridgItWorld(7, Color.red, Color.blue);
     Posn g7move1 = new Posn(91,92);
     tempGame7x7.onMouseClicked(g7move1);
-    t.checkExpect(tempGame7x7.hasWon(tempGame7x7.starters2,tempGame7x7.enders2, Color.blue),
+    t.checkExpect(tempGame7x7.hasWon(tempGame7x7.starters(2),tempGame7x7.enders(2), Color.blue),
         false);
-    t.checkExpect(tempGame7x7.hasWon(tempGame7x7.starters1,tempGame7x7.enders1, Color.red),
+    t.checkExpect(tempGame7x7.hasWon(tempGame7x7.starters(1),tempGame7x7.enders(1), Color.red),
         false);
     Posn g7move2 = new Posn(144,156);
     Posn g7move3 = new Posn(266,150);
@@ -1305,8 +1938,10 @@ class Examples {
     tempGame7x7.onMouseClicked(g7move3);
     tempGame7x7.onMouseClicked(g7move4);
     tempGame7x7.onMouseClicked(g7move5);
-    t.checkExpect(tempGame7x7.hasWon(tempGame7x7.starters2,tempGame7x7.enders2, Color.blue),false);
-    t.checkExpect(tempGame7x7.hasWon(tempGame7x7.starters1,tempGame7x7.enders1, Color.red),false);
+    t.checkExpect(tempGame7x7.hasWon(tempGame7x7.starters(2),tempGame7x7.enders(2), Color.blue),
+        false);
+    t.checkExpect(tempGame7x7.hasWon(tempGame7x7.starters(1),tempGame7x7.enders(1), Color.red),
+        false);
     Posn g7move6 = new Posn(211,216);
     Posn g7move7 = new Posn(219,339);
     Posn g7move8 = new Posn(178,267);
@@ -1321,12 +1956,16 @@ class Examples {
     tempGame7x7.onMouseClicked(g7move10);
     tempGame7x7.onMouseClicked(g7move11);
     tempGame7x7.onMouseClicked(g7move12);
-    t.checkExpect(tempGame7x7.hasWon(tempGame7x7.starters2,tempGame7x7.enders2, Color.blue),false);
-    t.checkExpect(tempGame7x7.hasWon(tempGame7x7.starters1,tempGame7x7.enders1, Color.red),false);
+    t.checkExpect(tempGame7x7.hasWon(tempGame7x7.starters(2),tempGame7x7.enders(2), Color.blue),
+        false);
+    t.checkExpect(tempGame7x7.hasWon(tempGame7x7.starters(1),tempGame7x7.enders(1), Color.red),
+        false);
     Posn g7move13 = new Posn(316,92);
     tempGame7x7.onMouseClicked(g7move13);
-    t.checkExpect(tempGame7x7.hasWon(tempGame7x7.starters2,tempGame7x7.enders2, Color.blue),false);
-    t.checkExpect(tempGame7x7.hasWon(tempGame7x7.starters1,tempGame7x7.enders1, Color.red),true);
+    t.checkExpect(tempGame7x7.hasWon(tempGame7x7.starters(2),tempGame7x7.enders(2), Color.blue),
+        false);
+    t.checkExpect(tempGame7x7.hasWon(tempGame7x7.starters(1),tempGame7x7.enders(1), Color.red),
+        true);
     
   }
   
@@ -1339,16 +1978,16 @@ class Examples {
     
     Posn pwhite3 = new Posn(83,80);
     tempGame3x3.onMouseClicked(pwhite3);
-    Cell g3start1 = tempGame3x3.starters1.get(0);
-    Cell g3end1 = tempGame3x3.enders1.get(0);
+    Cell g3start1 = tempGame3x3.starters(1).get(0);
+    Cell g3end1 = tempGame3x3.enders(1).get(0);
     t.checkExpect(tempGame3x3.hasPath(g3start1, g3end1, new Queue<Cell>(), Color.red), true);
     t.checkExpect(tempGame3x3.hasPath(g3start1, g3end1, new Queue<Cell>(), Color.blue), false);
     
     BridgItWorld tempGame3x32 = new BridgItWorld(3, Color.red, Color.blue);
-    tempGame3x32.playerTurn = 2;
+    tempGame3x32.engine.setTurn(2);
     tempGame3x32.onMouseClicked(pwhite3);
-    Cell g3start2 = tempGame3x32.starters2.get(0);
-    Cell g3end2 = tempGame3x32.enders2.get(0);
+    Cell g3start2 = tempGame3x32.starters(2).get(0);
+    Cell g3end2 = tempGame3x32.enders(2).get(0);
     t.checkExpect(tempGame3x32.hasPath(g3start2, g3end2, new Queue<Cell>(), Color.blue), true);
     t.checkExpect(tempGame3x32.hasPath(g3start2, g3end2, new Queue<Cell>(), Color.red), false);
     
@@ -1361,22 +2000,23 @@ class Examples {
     tempGame7x7.onMouseClicked(g7move2);
     tempGame7x7.onMouseClicked(g7move3);
     tempGame7x7.onMouseClicked(g7move4);
-    Cell g7start11 = tempGame7x7.starters1.get(0);
-    Cell g7end11 = tempGame7x7.enders1.get(0);
-    Cell g7start21 = tempGame7x7.starters2.get(0);
-    Cell g7end21 = tempGame7x7.enders2.get(0);
+    Cell g7start11 = tempGame7x7.starters(1).get(0);
+    Cell g7end11 = tempGame7x7.enders(1).get(0);
+    Cell g7start21 = tempGame7x7.starters(2).get(0);
+    Cell g7end21 = tempGame7x7.enders(2).get(0);
     t.checkExpect(tempGame7x7.hasPath(g7start11, g7end11, new Queue<Cell>(), Color.red), false);
     t.checkExpect(tempGame7x7.hasPath(g7start21, g7end21, new Queue<Cell>(), Color.blue), false);
     
     Posn g7move5 = new Posn(86,208);
     tempGame7x7.onMouseClicked(g7move5);
-    Cell g7start12 = tempGame7x7.starters1.get(1);
+    Cell g7start12 = tempGame7x7.starters(1).get(1);
     t.checkExpect(tempGame7x7.hasPath(g7start11, g7start12, new Queue<Cell>(), Color.red), false);
     t.checkExpect(tempGame7x7.hasPath(g7start12, g7end11, new Queue<Cell>(), Color.red), false);
     
     Posn g7move6 = new Posn(91,328);
     tempGame7x7.onMouseClicked(g7move6);
-    Cell g7end22 = tempGame7x7.enders2.get(1);
+    //the ends are in order across the board, so the new one at x 1 comes first
+    Cell g7end22 = tempGame7x7.enders(2).get(0);
     t.checkExpect(tempGame7x7.hasPath(g7start21, g7end22, new Queue<Cell>(), Color.blue), false);
     t.checkExpect(tempGame7x7.hasPath(g7end21, g7end22, new Queue<Cell>(), Color.blue), false);
     
@@ -1400,7 +2040,7 @@ class Examples {
     
     Posn g7move10 = new Posn(210,102);
     tempGame7x7.onMouseClicked(g7move10);
-    Cell g7start22 = tempGame7x7.starters2.get(1);
+    Cell g7start22 = tempGame7x7.starters(2).get(1);
     t.checkExpect(tempGame7x7.hasPath(g7end21, g7end22, new Queue<Cell>(), Color.blue), true);
     t.checkExpect(tempGame7x7.hasPath(g7start21, g7end21, new Queue<Cell>(), Color.blue), false);
     t.checkExpect(tempGame7x7.hasPath(g7start21, g7end22, new Queue<Cell>(), Color.blue), false);
@@ -1415,6 +2055,2463 @@ class Examples {
      
   }
   
+  //tests for the Deque class
+  void testDeque(Tester t) {
+    Deque<String> words = new Deque<String>();
+    t.checkExpect(words.size(), 0);
+    words.addAtTail("a");
+    words.addAtTail("b");
+    words.addAtTail("c");
+    t.checkExpect(words.size(), 3);
+    t.checkExpect(words.header.size(), 3);
+    t.checkExpect(words.removeFromHead(), "a");
+    t.checkExpect(words.size(), 2);
+    
+    //the removed node is reused for the next item
+    Node<String> removed = words.spare;
+    t.checkExpect(removed.data, null);
+    words.addAtTail("d");
+    t.checkExpect(words.spare, null);
+    t.checkExpect(words.header.prev == removed, true);
+    t.checkExpect(words.removeFromHead(), "b");
+    t.checkExpect(words.removeFromHead(), "c");
+    t.checkExpect(words.removeFromHead(), "d");
+    t.checkExpect(words.size(), 0);
+    t.checkException(new RuntimeException("There's no head data in an empty list!"), 
+        words, "removeFromHead");
+    t.checkExpect(words.size(), 0);
+    
+    //a long list no longer has to be walked to get its size
+    Deque<Integer> numbers = new Deque<Integer>();
+    for (int i = 0; i < 100000; i++) {
+      numbers.addAtTail(i);
+    }
+    t.checkExpect(numbers.size(), 100000);
+    t.checkExpect(numbers.header.size(), 100000);
+    
+    //draining it keeps only SPARES nodes for reuse
+    while (numbers.size() > 0) {
+      numbers.removeFromHead();
+    }
+    t.checkExpect(numbers.spares, Deque.SPARES);
+    int chained = 0;
+    for (Node<Integer> node = numbers.spare; node != null; node = (Node<Integer>) node.next) {
+      chained++;
+    }
+    t.checkExpect(chained, Deque.SPARES);
+    numbers.addAtTail(1);
+    t.checkExpect(numbers.spares, Deque.SPARES - 1);
+    t.checkExpect(numbers.header.size(), 1);
+  }
+  
+  //tests for the RingDeque class
+  void testRingDeque(Tester t) {
+    RingDeque<Integer> numbers = new RingDeque<Integer>(3);
+    t.checkExpect(numbers.items.length, 4);
+    t.checkExpect(numbers.size(), 0);
+    numbers.addAtTail(1);
+    numbers.addAtTail(2);
+    numbers.addAtHead(0);
+    t.checkExpect(numbers.size(), 3);
+    t.checkExpect(numbers.head, 3);
+    t.checkExpect(numbers.removeFromHead(), 0);
+    t.checkExpect(numbers.removeFromTail(), 2);
+    
+    //wraps around and then grows with the items kept in order
+    for (int i = 3; i < 10; i++) {
+      numbers.addAtTail(i);
+    }
+    t.checkExpect(numbers.size(), 8);
+    t.checkExpect(numbers.items.length, 8);
+    numbers.addAtHead(-1);
+    t.checkExpect(numbers.items.length, 16);
+    t.checkExpect(numbers.removeFromHead(), -1);
+    t.checkExpect(numbers.removeFromHead(), 1);
+    t.checkExpect(numbers.removeFromHead(), 3);
+    t.checkExpect(numbers.removeFromTail(), 9);
+    numbers.clear();
+    t.checkExpect(numbers.size(), 0);
+    t.checkExpect(numbers.items.length, 16);
+    t.checkException(new RuntimeException("There's no head data in an empty list!"), 
+        numbers, "removeFromHead");
+    t.checkException(new RuntimeException("There's no tail data in an empty list!"), 
+        numbers, "removeFromTail");
+    
+    Queue<String> queue = new Queue<String>();
+    queue.add("x");
+    queue.add("y");
+    t.checkExpect(queue.size(), 2);
+    t.checkExpect(queue.remove(), "x");
+    t.checkExpect(queue.size(), 1);
+  }
+  
+  //tests that hasPath reaches each cell at most once on a board where every bridge has been
+  //placed, marking them in the one BitSet the world keeps for every search
+  void testHasPathFullBoard(Tester t) {
+    BridgItWorld tempGame = new BridgItWorld(101, Color.red, Color.blue);
+    for (int x = 1; x < 100; x++) {
+      for (int y = 1; y < 100; y++) {
+        int index = tempGame.engine.board.index(x, y);
+        if (tempGame.engine.board.isOpen(index)) {
+          tempGame.engine.board.place(index, 1);
+        }
+      }
+    }
+    int red = 0;
+    for (ArrayList<Cell> column : tempGame.board) {
+      for (Cell cell : column) {
+        if (cell.color().equals(Color.red)) {
+          red++;
+        }
+      }
+    }
+    Cell from = tempGame.board.get(0).get(1);
+    Cell to = tempGame.board.get(100).get(99);
+    BitSet seen = tempGame.searchSeen;
+    Queue<Cell> worklist = new Queue<Cell>();
+    t.checkExpect(tempGame.hasPath(from, to, worklist, Color.red), true);
+    //every cell added to the worklist is marked first, so none is added twice
+    t.checkExpect(seen.cardinality() <= red, true);
+    t.checkExpect(seen.get(to.x * 101 + to.y), true);
+    t.checkExpect(worklist.size() < seen.cardinality(), true);
+    //the next search clears and reuses the same BitSet
+    t.checkExpect(tempGame.hasPath(from, to, new Queue<Cell>(), Color.blue), false);
+    t.checkExpect(tempGame.searchSeen == seen, true);
+    t.checkExpect(seen.cardinality(), 1);
+  }
+  
+  //tests for the IntDeque class
+  void testIntDeque(Tester t) {
+    IntDeque numbers = new IntDeque(2);
+    numbers.addAtTail(5);
+    numbers.addAtTail(6);
+    numbers.addAtHead(4);
+    t.checkExpect(numbers.size(), 3);
+    t.checkExpect(numbers.items.length, 4);
+    t.checkExpect(numbers.removeFromHead(), 4);
+    t.checkExpect(numbers.removeFromTail(), 6);
+    t.checkExpect(numbers.removeFromTail(), 5);
+    t.checkException(new RuntimeException("There's no tail data in an empty list!"), 
+        numbers, "removeFromTail");
+    numbers.addAtTail(7);
+    numbers.clear();
+    t.checkExpect(numbers.size(), 0);
+    t.checkException(new RuntimeException("There's no head data in an empty list!"), 
+        numbers, "removeFromHead");
+  }
+  
+  //tests for the winningPath and pathTo methods of BridgItWorld
+  void testWinningPath(Tester t) {
+    BridgItWorld tempGame5x5 = new BridgItWorld(5, Color.red, Color.blue);
+    t.checkExpect(tempGame5x5.winningPath(tempGame5x5.starters(1), tempGame5x5.enders(1), 
+        Color.red), new ArrayList<Cell>());
+    tempGame5x5.onMouseClicked(new Posn(91, 92));
+    tempGame5x5.engine.setTurn(1);
+    t.checkExpect(tempGame5x5.winningPath(tempGame5x5.starters(1), tempGame5x5.enders(1), 
+        Color.red), new ArrayList<Cell>());
+    tempGame5x5.onMouseClicked(new Posn(209, 91));
+    ArrayList<Cell> path = new ArrayList<Cell>();
+    for (int x = 0; x < 5; x++) {
+      path.add(tempGame5x5.board.get(x).get(1));
+    }
+    t.checkExpect(tempGame5x5.winningPath(tempGame5x5.starters(1), tempGame5x5.enders(1), 
+        Color.red), path);
+    t.checkExpect(tempGame5x5.winningPath(tempGame5x5.starters(2), tempGame5x5.enders(2), 
+        Color.blue), new ArrayList<Cell>());
+    
+    //hasWon keeps the path so lastScene can highlight it
+    t.checkExpect(tempGame5x5.winPath, path);
+    WorldScene expected = tempGame5x5.makeScene();
+    for (Cell c : path) {
+      Posn cellPosn = tempGame5x5.imagePos(c);
+      expected.placeImageXY(c.drawHighlight(), cellPosn.x, cellPosn.y);
+    }
+    expected.placeImageXY(new ScaleImage(new TextImage("Player 1 has won!", Color.black), 2),
+        150, 150);
+    t.checkExpect(tempGame5x5.lastScene("Player 1"), expected);
+    
+    t.checkExpect(path.get(0).drawHighlight(), 
+        new CircleImage(20, OutlineMode.OUTLINE, Color.black));
+    t.checkExpect(path.get(1).drawHighlight(), 
+        new RectangleImage(100, 10, OutlineMode.OUTLINE, Color.black));
+  }
+  
+  //tests for the reset method of BridgItEngine
+  void testEngineReset(Tester t) {
+    BridgItEngine engine5 = new BridgItEngine(5);
+    engine5.play(1, 1);
+    engine5.play(3, 3);
+    engine5.reset();
+    BridgItEngine fresh = new BridgItEngine(5);
+    t.checkExpect(engine5.board, fresh.board);
+    //the log keeps its old entries past its end, which nothing reads
+    t.checkExpect(engine5.links.parent, fresh.links.parent);
+    t.checkExpect(engine5.links.rank, fresh.links.rank);
+    t.checkExpect(engine5.links.version(), fresh.links.version());
+
+    //undoTo takes back a won game's last bridges all at once, as undo would one by one
+    BridgItEngine won = new BridgItEngine(5);
+    BridgItEngine one = new BridgItEngine(5);
+    won.play(1, 1);
+    one.play(1, 1);
+    won.play(1, 3);
+    won.play(3, 1);
+    won.play(2, 2);
+    won.play(3, 3);
+    t.checkExpect(won.winner(), 1);
+    won.undoTo(1);
+    t.checkExpect(won.board, one.board);
+    t.checkExpect(won.hash, one.hash);
+    t.checkExpect(won.turn, 2);
+    t.checkExpect(won.winner(), 0);
+    t.checkExpect(won.links.parent, one.links.parent);
+    won.undoTo(3);
+    t.checkExpect(won.history.size(), 1);
+    t.checkExpect(engine5.history.size(), 0);
+    t.checkExpect(engine5.turn, 1);
+    t.checkExpect(engine5.winner(), 0);
+  }
+  
+  //tests for the SelfPlaySimulator class
+  void testSelfPlay(Tester t) {
+    SelfPlaySimulator simulator = new SelfPlaySimulator(2);
+    SelfPlayStats stats = simulator.run(7, 1000, new int[0], 42);
+    t.checkExpect(stats.games, 1000L);
+    t.checkExpect(stats.wins1 + stats.wins2, 1000L);
+    t.checkExpect(stats.wins1 > 0 && stats.wins2 > 0, true);
+    t.checkExpect(stats.moves >= 1000 * 5, true);
+    t.checkExpect(stats.nanos > 0, true);
+    
+    //the results only depend on the seed, not on how the games were spread over threads
+    SelfPlaySimulator single = new SelfPlaySimulator(1);
+    SelfPlayStats again = single.run(7, 1000, new int[0], 42);
+    t.checkExpect(again.wins1, stats.wins1);
+    t.checkExpect(again.moves, stats.moves);
+    
+    //an opening that wins at once decides every game
+    SelfPlayStats scripted = simulator.run(3, 300, new int[] {4}, 7);
+    t.checkExpect(scripted.wins1, 300L);
+    t.checkExpect(scripted.moves, 300L);
+    
+    ArrayList<SelfPlayStats> sizes = simulator.runSizes(new int[] {5, 9}, 100, 3);
+    t.checkExpect(sizes.size(), 2);
+    t.checkExpect(sizes.get(1).size, 9);
+    t.checkExpect(sizes.get(1).games, 100L);
+    simulator.shutdown();
+    single.shutdown();
+  }
+  
+  //tests for the MctsTree and MctsPlayer classes
+  void testMcts(Tester t) {
+    //the only move that does not lose is the one at (3, 1) that wins for either player
+    BridgItEngine engine5 = new BridgItEngine(5);
+    engine5.play(1, 1);
+    engine5.play(3, 3);
+    MctsPlayer searcher = new MctsPlayer(1, 0, 1, 11);
+    searcher.iterations = 2000;
+    t.checkExpect(searcher.chooseMove(engine5), engine5.board.index(3, 1));
+    t.checkExpect(searcher.trees[0].root.visits, 2000);
+    
+    //playouts leave the position at the root alone
+    t.checkExpect(searcher.trees[0].position.board, engine5.board);
+    t.checkExpect(searcher.trees[0].position.history.size(), 2);
+    //and each undoes its moves on scratch, which is left at the root without a copy
+    MctsTree tree = searcher.trees[0];
+    t.checkExpect(tree.scratch.board, engine5.board);
+    t.checkExpect(tree.scratch.history.size(), 2);
+    t.checkExpect(tree.scratch.hash, engine5.hash);
+    t.checkExpect(tree.scratch.turn, 1);
+    t.checkExpect(tree.scratch.winner(), 0);
+    t.checkExpect(tree.scratch.links.parent, engine5.links.parent);
+    t.checkExpect(tree.scratch.links.version(), engine5.links.version());
+    
+    //the subtree of the moves played since the last search is kept
+    BridgItEngine engine7 = new BridgItEngine(7);
+    MctsPlayer player = new MctsPlayer(1, 0, 2, 5);
+    player.iterations = 500;
+    int first = player.chooseMove(engine7);
+    t.checkExpect(engine7.board.isOpen(first), true);
+    MctsNode chosen = player.trees[0].root.child(first);
+    MctsNode reply = chosen.bestChild(0);
+    engine7.place(first, 1);
+    engine7.place(reply.move, 2);
+    player.trees[0].sync(engine7);
+    t.checkExpect(player.trees[0].root == reply, true);
+    t.checkExpect(player.trees[0].root.parent, null);
+    t.checkExpect(player.trees[0].position.board, engine7.board);
+    t.checkExpect(player.trees[0].scratch.board, engine7.board);
+    t.checkExpect(player.trees[0].scratch.hash, engine7.hash);
+    
+    //a game that went another way starts a new tree
+    BridgItEngine other = new BridgItEngine(7);
+    other.place(reply.move, 1);
+    player.trees[0].sync(other);
+    t.checkExpect(player.trees[0].root.visits, 0);
+    t.checkExpect(player.trees[0].position.history.size(), 1);
+    
+    //a finished game has no move
+    engine5.place(engine5.board.index(3, 1), 1);
+    t.checkExpect(searcher.chooseMove(engine5), -1);
+    
+    //copyFrom makes an equal game in the arrays already there
+    BridgItEngine copy = new BridgItEngine(5);
+    copy.copyFrom(engine5);
+    t.checkExpect(copy.board, engine5.board);
+    t.checkExpect(copy.links, engine5.links);
+    t.checkExpect(copy.history.size(), 3);
+    t.checkExpect(copy.history.get(2), engine5.board.index(3, 1));
+    t.checkExpect(copy.winner(), 1);
+    
+    //the computer answers every click of the person it plays against
+    MctsPlayer computer = new MctsPlayer(2, 0, 1, 3);
+    computer.iterations = 200;
+    BridgItWorld tempGame5x5 = new BridgItWorld(5, Color.red, Color.blue, computer);
+    t.checkExpect(tempGame5x5.engine.history.size(), 0);
+    tempGame5x5.onMouseClicked(new Posn(90, 90));
+    t.checkExpect(tempGame5x5.engine.history.size(), 2);
+    t.checkExpect(tempGame5x5.engine.turn, 1);
+    int answer = tempGame5x5.engine.history.get(1);
+    t.checkExpect(tempGame5x5.board.get(engine5.board.x(answer)).get(
+        engine5.board.y(answer)).color(), Color.blue);
+    searcher.shutdown();
+    player.shutdown();
+    computer.shutdown();
+  }
+  
+  //tests for the GameRecordWriter and GameRecordReader classes
+  void testGameRecords(Tester t) {
+    try {
+      Path file = Files.createTempFile("bridgit", ".games");
+      
+      //a game played by clicking, a game out of turn and many random games
+      BridgItWorld tempGame5x5 = new BridgItWorld(5, Color.red, Color.blue);
+      tempGame5x5.onMouseClicked(new Posn(90, 90));
+      tempGame5x5.onMouseClicked(new Posn(210, 210));
+      tempGame5x5.onMouseClicked(new Posn(210, 90));
+      BridgItEngine outOfTurn = new BridgItEngine(7);
+      outOfTurn.place(outOfTurn.board.index(1, 1), 2);
+      outOfTurn.place(outOfTurn.board.index(3, 3), 2);
+      outOfTurn.place(outOfTurn.board.index(5, 5), 1);
+      ArrayList<BridgItEngine> random = new ArrayList<BridgItEngine>();
+      SplittableRandom rand = new SplittableRandom(6);
+      GameRecordWriter writer = new GameRecordWriter(file);
+      tempGame5x5.saveTo(writer);
+      writer.write(outOfTurn, 7, -1);
+      for (int i = 0; i < 3000; i++) {
+        BridgItEngine game = new BridgItEngine(3 + 2 * (i % 12));
+        int[] moves = game.legalMoves();
+        SelfPlayTask.playGame(game, new int[0], game.legalMoves(), moves, rand);
+        random.add(game);
+        writer.write(game, i, -i);
+      }
+      //a game too big for the write buffer
+      BridgItEngine big = new BridgItEngine(301);
+      SelfPlayTask.playGame(big, new int[0], big.legalMoves(), new int[301 * 301], rand);
+      writer.write(big, 1, 2);
+      writer.close();
+      
+      //a small window makes the reader map the file many times
+      GameRecordReader reader = new GameRecordReader(file, 1 << 19);
+      BridgItEngine replayed = reader.replayNext();
+      t.checkExpect(replayed.board, tempGame5x5.engine.board);
+      t.checkExpect(replayed.winner(), 1);
+      t.checkExpect(reader.color1, Color.red.getRGB());
+      t.checkExpect(reader.color2, Color.blue.getRGB());
+      replayed = reader.replayNext();
+      t.checkExpect(replayed.board, outOfTurn.board);
+      t.checkExpect(replayed.turn, 2);
+      t.checkExpect(reader.color2, -1);
+      boolean same = true;
+      for (int i = 0; i < random.size(); i++) {
+        replayed = reader.replayNext();
+        same = same && replayed.board.size == random.get(i).board.size
+            && Arrays.equals(replayed.board.cells, random.get(i).board.cells)
+            && replayed.winner() == random.get(i).winner()
+            && reader.color1 == i;
+      }
+      t.checkExpect(same, true);
+      t.checkExpect(reader.replayNext().board, big.board);
+      t.checkExpect(reader.hasNext(), false);
+      t.checkExpect(reader.games, 3003L);
+      reader.close();
+      
+      //replaying it all counts the winners
+      reader = new GameRecordReader(file);
+      SelfPlayStats stats = reader.replayAll();
+      reader.close();
+      t.checkExpect(stats.games, 3003L);
+      t.checkExpect(stats.wins1 + stats.wins2, 3002L);
+      t.checkExpect(stats.size, 301);
+      
+      //two bytes a move at most, on boards up to 127 wide
+      t.checkExpect(Files.size(file) < 5 + 3000 * 14 + 2 * stats.moves, true);
+      
+      //files that are not game records or are cut short are turned down
+      Files.write(file, new byte[] {1, 2, 3, 4, 5, 6});
+      t.checkConstructorException(new IOException("Not a file of BridgIt game records"),
+          "GameRecordReader", file);
+      writer = new GameRecordWriter(file);
+      writer.write(outOfTurn, 7, -1);
+      writer.close();
+      byte[] bytes = Files.readAllBytes(file);
+      Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+      reader = new GameRecordReader(file);
+      t.checkException(new IOException("Game record 0 is corrupt"), reader, "replayNext");
+      reader.close();
+      bytes[bytes.length - 2] = 0;
+      Files.write(file, bytes);
+      reader = new GameRecordReader(file);
+      t.checkException(new IOException("Game record 0 has an illegal move 1"), 
+          reader, "replayNext");
+      reader.close();
+      
+      //a length cut off at the end of the file
+      Files.write(file, new byte[] {0x42, 0x52, 0x47, 0x54, 1, (byte) 0x80});
+      reader = new GameRecordReader(file);
+      t.checkExpect(reader.hasNext(), true);
+      t.checkException(new IOException("Game record is cut off in a varint"), 
+          reader, "replayNext");
+      reader.close();
+      
+      //a 5 byte varint of a move below 0
+      Files.write(file, new byte[] {0x42, 0x52, 0x47, 0x54, 1, 16, 5, 0, 0, 0, 0, 0, 0, 0, 0,
+          0, 1, -1, -1, -1, -1, 0x0F});
+      reader = new GameRecordReader(file);
+      t.checkException(new IOException("Game record 0 has an illegal move 0"), 
+          reader, "replayNext");
+      reader.close();
+      
+      //a 5 byte varint of the size in a last record too short for the colors after it
+      Files.write(file, new byte[] {0x42, 0x52, 0x47, 0x54, 1, 11, (byte) 0x85, (byte) 0x80,
+          (byte) 0x80, (byte) 0x80, 0, 0, 0, 0, 0, 0, 0});
+      reader = new GameRecordReader(file);
+      t.checkException(new IOException("Game record 0 is corrupt"), reader, "replayNext");
+      reader.close();
+      Files.delete(file);
+    }
+    catch (IOException e) {
+      t.checkExpect(e.getMessage(), "no exception");
+    }
+  }
+
+  //tests for the BitPosition class
+  void testBitPosition(Tester t) {
+    BitPosition empty = new BitPosition(5);
+    t.checkExpect(empty.bits.length, 2);
+    t.checkExpect(new BitPosition(201).bits.length, 633);
+    t.checkExpect(empty.turn(), 1);
+    t.checkExpect(empty.isOpen(6), true);
+    t.checkExpect(empty.isOpen(7), false);
+    t.checkExpect(empty.isOpen(2), false);
+    t.checkExpect(empty.winner(), 0);
+    t.checkConstructorException(
+        new IllegalArgumentException("BoardSize must be at least 3 and an odd number"),
+        "BitPosition", 4);
+
+    //making and unmaking moves
+    long[] start = empty.snapshot();
+    empty.make(6);
+    empty.make(8);
+    t.checkExpect(empty.owner(6), 1);
+    t.checkExpect(empty.owner(8), 2);
+    t.checkExpect(empty.isOpen(6), false);
+    t.checkExpect(empty.turn(), 1);
+    empty.make(16);
+    t.checkExpect(empty.winner(), 1);
+    t.checkExpect(empty.unmake(), 16);
+    t.checkExpect(empty.winner(), 0);
+    t.checkExpect(empty.unmake(), 8);
+    t.checkExpect(empty.unmake(), 6);
+    t.checkExpect(empty.bits, start);
+    t.checkException(new RuntimeException("There's no tail data in an empty list!"),
+        empty, "unmake");
+
+    //snapshots are copies that restore the position and forget the moves made
+    empty.make(6);
+    long[] one = empty.snapshot();
+    long[] into = new long[2];
+    empty.snapshot(into);
+    t.checkExpect(into, one);
+    empty.make(12);
+    empty.restore(start);
+    t.checkExpect(empty.owner(6), 0);
+    t.checkExpect(empty.made.size(), 0);
+    empty.restore(one);
+    t.checkExpect(empty.owner(6), 1);
+    t.checkExpect(empty.turn(), 2);
+    t.checkException(new IllegalArgumentException("Snapshot is not of a board of size 5"),
+        empty, "restore", new long[3]);
+
+    //wins are read off the links, rebuilt after a restore with the bridges already there
+    //as a base, and made and unmade one union at a time
+    t.checkExpect(empty.linked, false);
+    t.checkExpect(empty.hasWon(1), false);
+    t.checkExpect(empty.linked, true);
+    t.checkExpect(empty.links.version(), 0);
+    t.checkExpect(empty.links.connected(1, 11), true);
+    empty.make(8);
+    empty.make(16);
+    t.checkExpect(empty.links.version(), 2);
+    t.checkExpect(empty.hasWon(1), true);
+    t.checkExpect(empty.links.connected(25, 26), true);
+    t.checkExpect(empty.unmake(), 16);
+    t.checkExpect(empty.hasWon(1), false);
+    t.checkExpect(empty.links.version(), 1);
+    //moves made before the links are rebuilt go on top of the base, so they unmake too
+    empty.restore(one);
+    empty.make(8);
+    empty.make(16);
+    t.checkExpect(empty.linked, false);
+    t.checkExpect(empty.winner(), 1);
+    t.checkExpect(empty.links.version(), 2);
+    empty.unmake();
+    t.checkExpect(empty.winner(), 0);
+    t.checkExpect(empty.owner(6), 1);
+    t.checkExpect(empty.turn(), 1);
+
+    //random games agree with the engine move by move, on every board size
+    SplittableRandom rand = new SplittableRandom(14);
+    boolean agrees = true;
+    for (int i = 0; i < 400; i++) {
+      BridgItEngine game = new BridgItEngine(3 + 2 * (i % 20));
+      BitPosition position = new BitPosition(game);
+      int[] moves = game.legalMoves();
+      for (int j = moves.length - 1; j >= 0 && game.winner() == 0; j--) {
+        int pick = rand.nextInt(j + 1);
+        int move = moves[pick];
+        moves[pick] = moves[j];
+        agrees = agrees && position.isOpen(move) && position.turn() == game.turn;
+        game.place(move, game.turn);
+        position.make(move);
+        agrees = agrees && position.winner() == game.winner();
+      }
+      BitPosition loaded = new BitPosition(game);
+      BridgItEngine stored = new BridgItEngine(game.size);
+      position.store(stored);
+      agrees = agrees && Arrays.equals(loaded.bits, position.bits)
+          && Arrays.equals(stored.board.cells, game.board.cells)
+          && stored.winner() == game.winner() && stored.turn == game.turn
+          && stored.history.size() == game.history.size();
+      //undoing the stored game takes back its bridge with the highest index, which 
+      //leaves the same winner as storing the board without it
+      int highest = 0;
+      for (int j = 0; j < game.size * game.size; j += 2) {
+        if (game.board.owner(j) != 0) {
+          highest = j;
+        }
+      }
+      stored.undo();
+      BridgItEngine without = new BridgItEngine(game.size);
+      new BitPosition(stored).store(without);
+      agrees = agrees && stored.board.owner(highest) == 0 
+          && stored.turn == game.board.owner(highest) && stored.winner() == without.winner()
+          && stored.hash == without.hash;
+      //unmaking every move gets back to the empty board
+      while (position.made.size() > 0) {
+        position.unmake();
+      }
+      agrees = agrees && Arrays.equals(position.bits, new BitPosition(game.size).bits);
+    }
+    t.checkExpect(agrees, true);
+  }
+
+  //tests for the WinDistance class
+  void testWinDistance(Tester t) {
+    BridgItEngine engine5 = new BridgItEngine(5);
+    WinDistance first = new WinDistance(5, 1);
+    WinDistance second = new WinDistance(5, 2);
+    t.checkExpect(first.compute(engine5.board), 2);
+    t.checkExpect(second.compute(engine5.board), 2);
+    t.checkExpect(first.dist[engine5.board.index(2, 3)], 1);
+    t.checkExpect(first.dist[engine5.board.index(1, 1)], WinDistance.UNREACHED);
+    t.checkExpect(new WinDistance(201, 2).compute(new BridgItEngine(201).board), 100);
+    t.checkConstructorException(
+        new IllegalArgumentException("BoardSize must be at least 3 and an odd number"),
+        "WinDistance", 6, 1);
+
+    //a bridge of the player's is free, one of the other player's blocks the way
+    engine5.place(engine5.board.index(1, 1), 1);
+    t.checkExpect(first.update(engine5.board, engine5.board.index(1, 1)), 1);
+    t.checkExpect(second.update(engine5.board, engine5.board.index(1, 1)), 2);
+    t.checkExpect(first.dist[engine5.board.index(2, 1)], 0);
+    t.checkExpect(second.searches, 1L);
+    t.checkExpect(second.repairs, 1L);
+    engine5.place(engine5.board.index(3, 3), 2);
+    t.checkExpect(first.update(engine5.board, engine5.board.index(3, 3)), 1);
+    t.checkExpect(second.update(engine5.board, engine5.board.index(3, 3)), 1);
+    engine5.place(engine5.board.index(3, 1), 1);
+    t.checkExpect(first.update(engine5.board, engine5.board.index(3, 1)), 0);
+    t.checkExpect(second.update(engine5.board, engine5.board.index(3, 1)), -1);
+    t.checkExpect(second.dist[engine5.board.index(3, 2)], WinDistance.UNREACHED);
+    t.checkExpect(first.updates, 3L);
+    t.checkExpect(first.repairs, 1L);
+    t.checkExpect(first.searches, 1L);
+
+    //a player walled off for good is -1 away
+    BridgItEngine engine3 = new BridgItEngine(3);
+    engine3.place(engine3.board.index(1, 1), 1);
+    t.checkExpect(new WinDistance(3, 1).compute(engine3.board), 0);
+    t.checkExpect(new WinDistance(3, 2).compute(engine3.board), -1);
+    WinDistance walled = new WinDistance(3, 2);
+    walled.compute(new BridgItEngine(3).board);
+    t.checkExpect(walled.update(engine3.board, engine3.board.index(1, 1)), -1);
+
+    //keeping up move by move always agrees with searching from scratch
+    SplittableRandom rand = new SplittableRandom(17);
+    boolean agrees = true;
+    long repaired = 0;
+    long dots = 0;
+    long updates = 0;
+    for (int i = 0; i < 300; i++) {
+      BridgItEngine game = new BridgItEngine(3 + 2 * (i % 15));
+      WinDistance[] kept = {new WinDistance(game.size, 1), new WinDistance(game.size, 2)};
+      WinDistance fresh = new WinDistance(game.size, 1);
+      kept[0].compute(game.board);
+      kept[1].compute(game.board);
+      int[] moves = game.legalMoves();
+      for (int j = moves.length - 1; j >= 0 && game.winner() == 0; j--) {
+        int pick = rand.nextInt(j + 1);
+        int move = moves[pick];
+        moves[pick] = moves[j];
+        game.place(move, game.turn);
+        for (int player = 1; player <= 2; player++) {
+          int distance = kept[player - 1].update(game.board, move);
+          fresh.player = player;
+          agrees = agrees && fresh.compute(game.board) == distance
+              && Arrays.equals(fresh.dist, kept[player - 1].dist)
+              && (distance == 0) == game.hasWon(player)
+              && (distance == -1) == (game.winner() == 3 - player);
+        }
+      }
+      repaired += kept[0].repaired + kept[1].repaired;
+      dots += (kept[0].updates + kept[1].updates) * game.size * game.size / 2;
+      updates += kept[0].updates + kept[1].updates;
+    }
+    t.checkExpect(agrees, true);
+    //far fewer dots are searched for again than a search from scratch would reach
+    t.checkExpect(updates > 0, true);
+    t.checkExpect(repaired * 10 < dots, true);
+  }
+
+  //returns the conductance between the given player's sides of the given board, solving
+  //for the voltages of the player's groups of dots joined by their bridges by Gaussian
+  //elimination on the whole matrix, infinite if a group joins both sides
+  double denseConductance(PackedBoard board, int player) {
+    int size = board.size;
+    WinDistance geometry = new WinDistance(size, player);
+    UnionFind groups = new UnionFind(size * size);
+    for (int dot = 0; dot < size * size; dot++) {
+      for (int d = 0; d < 4 && board.isDot(dot) && board.owner(dot) == player; d++) {
+        int spot = geometry.spot(dot, d);
+        if (spot >= 0 && board.owner(spot) == player) {
+          groups.union(dot, 2 * spot - dot);
+        }
+      }
+    }
+    int[] sides = new int[size * size];
+    double[][] matrix = new double[size * size][size * size + 1];
+    double[] voltage = new double[size * size];
+    boolean[] free = new boolean[size * size];
+    for (int dot = 0; dot < size * size; dot++) {
+      boolean mine = board.isDot(dot) && board.owner(dot) == player;
+      int line = dot / size;
+      if (player == 2) {
+        line = dot % size;
+      }
+      int group = groups.find(dot);
+      if (mine && line == 0) {
+        sides[group] |= 1;
+      }
+      if (mine && line == size - 1) {
+        sides[group] |= 2;
+      }
+      for (int d = 0; d < 4 && mine; d++) {
+        int spot = geometry.spot(dot, d);
+        if (spot >= 0 && board.isOpen(spot) && groups.find(2 * spot - dot) != group) {
+          matrix[group][group] += 1;
+          matrix[group][groups.find(2 * spot - dot)] -= 1;
+        }
+      }
+    }
+    for (int i = 0; i < size * size; i++) {
+      if (sides[i] == 3) {
+        return Double.POSITIVE_INFINITY;
+      }
+      if (sides[i] == 1) {
+        voltage[i] = 1;
+      }
+      free[i] = sides[i] == 0 && matrix[i][i] > 0;
+    }
+    //the sides go on the right hand side
+    for (int i = 0; i < size * size; i++) {
+      for (int j = 0; j < size * size && free[i]; j++) {
+        if (!free[j]) {
+          matrix[i][size * size] -= matrix[i][j] * voltage[j];
+          matrix[i][j] = 0;
+        }
+      }
+      if (!free[i]) {
+        Arrays.fill(matrix[i], 0);
+        matrix[i][i] = 1;
+        matrix[i][size * size] = voltage[i];
+      }
+    }
+    //a group of dots joined to neither side leaves a pivot of 0, and any voltage of theirs
+    //carries no current, so they keep 0
+    for (int i = 0; i < size * size; i++) {
+      for (int j = i + 1; j < size * size && Math.abs(matrix[i][i]) > 1e-9; j++) {
+        double factor = matrix[j][i] / matrix[i][i];
+        for (int k = i; k <= size * size && factor != 0; k++) {
+          matrix[j][k] -= factor * matrix[i][k];
+        }
+      }
+    }
+    for (int i = size * size - 1; i >= 0; i--) {
+      double sum = matrix[i][size * size];
+      for (int j = i + 1; j < size * size; j++) {
+        sum -= matrix[i][j] * voltage[j];
+      }
+      if (Math.abs(matrix[i][i]) > 1e-9) {
+        voltage[i] = sum / matrix[i][i];
+      }
+    }
+    double current = 0;
+    for (int dot = 0; dot < size * size; dot++) {
+      int group = groups.find(dot);
+      for (int d = 0; d < 4 && board.isDot(dot) && board.owner(dot) == player
+          && sides[group] == 1; d++) {
+        int spot = geometry.spot(dot, d);
+        if (spot >= 0 && board.isOpen(spot) && groups.find(2 * spot - dot) != group) {
+          current += 1 - voltage[groups.find(2 * spot - dot)];
+        }
+      }
+    }
+    return current;
+  }
+
+  //tests for the ResistanceNetwork and ResistanceEvaluator classes
+  void testResistance(Tester t) {
+    BridgItEngine engine3 = new BridgItEngine(3);
+    ResistanceNetwork first3 = new ResistanceNetwork(3, 1);
+    t.checkExpect(first3.count, 2);
+    t.checkExpect(first3.dot[1], engine3.board.index(2, 1));
+    t.checkInexact(first3.solve(engine3.board, true), 1.0, 1e-9);
+    t.checkExpect(first3.iterations, 0);
+    engine3.place(4, 1);
+    t.checkExpect(first3.solve(engine3.board, false), Double.POSITIVE_INFINITY);
+    t.checkExpect(first3.won, true);
+    t.checkInexact(new ResistanceNetwork(3, 2).solve(engine3.board, false), 0.0, 1e-9);
+
+    //two 1 ohm paths that meet in the middle conduct as well as one resistor
+    ResistanceNetwork first5 = new ResistanceNetwork(5, 1);
+    ResistanceNetwork second5 = new ResistanceNetwork(5, 2);
+    t.checkExpect(first5.count, 6);
+    t.checkExpect(second5.dot[2], 7);
+    t.checkExpect(second5.neighbor[2 * 4 + 2], 3);
+    t.checkExpect(second5.spot[2 * 4 + 2], 12);
+    BridgItEngine engine5 = new BridgItEngine(5);
+    t.checkInexact(first5.solve(engine5.board, true), 1.0, 1e-6);
+    t.checkInexact(second5.solve(engine5.board, true), 1.0, 1e-6);
+    t.checkInexact(new ResistanceEvaluator(9).evaluate(new BridgItEngine(9).board, 1),
+        0.0, 1e-6);
+
+    //a bridge of the player's merges the nodes at its ends, here a side's and a free one,
+    //and one of the other player's closes a spot; taking one back starts over
+    int corner = engine5.board.index(1, 1);
+    t.checkExpect(second5.diagonal[2], 3.0);
+    second5.place(corner, 2);
+    int merged = second5.node[2];
+    t.checkExpect(second5.node[0], merged);
+    t.checkExpect(second5.members[merged], 2);
+    t.checkExpect(second5.held[merged], (byte) 1);
+    t.checkExpect(second5.diagonal[merged], 2.0);
+    t.checkInexact(second5.solve(false), 5.0 / 3, 1e-6);
+    first5.place(corner, 2);
+    t.checkExpect(first5.diagonal[0], 0.0);
+    t.checkExpect(first5.diagonal[2], 2.0);
+    t.checkInexact(first5.solve(false), 0.6, 1e-6);
+    BridgItEngine undone = new BridgItEngine(5);
+    undone.place(corner, 2);
+    t.checkInexact(second5.solve(undone.board, false), 5.0 / 3, 1e-6);
+    undone.undo();
+    t.checkInexact(second5.solve(undone.board, false), 1.0, 1e-6);
+    t.checkExpect(second5.members[second5.node[2]], 1);
+    t.checkInexact(first5.solve(undone.board, false), 1.0, 1e-6);
+
+    //a bridge helps its player and hurts the other
+    engine5.place(engine5.board.index(1, 1), 1);
+    ResistanceEvaluator evaluator = new ResistanceEvaluator(5);
+    t.checkExpect(evaluator.evaluate(engine5.board, 1) > 0, true);
+    t.checkInexact(evaluator.evaluate(engine5.board, 2),
+        -evaluator.evaluate(engine5.board, 1), 1e-9);
+
+    //random positions agree with a direct solve, warm or cold
+    SplittableRandom rand = new SplittableRandom(18);
+    boolean agrees = true;
+    long warm = 0;
+    long cold = 0;
+    for (int i = 0; i < 40; i++) {
+      BridgItEngine game = new BridgItEngine(3 + 2 * (i % 6));
+      ResistanceNetwork[] kept = {new ResistanceNetwork(game.size, 1),
+          new ResistanceNetwork(game.size, 2)};
+      ResistanceNetwork[] fresh = {new ResistanceNetwork(game.size, 1),
+          new ResistanceNetwork(game.size, 2)};
+      int[] moves = game.legalMoves();
+      for (int j = moves.length - 1; j >= 0 && game.winner() == 0; j--) {
+        int pick = rand.nextInt(j + 1);
+        int move = moves[pick];
+        moves[pick] = moves[j];
+        game.place(move, game.turn);
+        for (int player = 1; player <= 2; player++) {
+          double expected = this.denseConductance(game.board, player);
+          double found = kept[player - 1].solve(game.board, false);
+          warm += kept[player - 1].iterations;
+          fresh[player - 1].load(game.board);
+          double fromCold = fresh[player - 1].solve(true);
+          cold += fresh[player - 1].iterations;
+          agrees = agrees && (found == expected
+              || Math.abs(found - expected) <= 1e-4 * (1 + expected))
+              && (fromCold == expected || Math.abs(fromCold - expected) <= 1e-4 * (1 + expected));
+        }
+      }
+    }
+    t.checkExpect(agrees, true);
+    t.checkExpect(warm < cold, true);
+  }
+
+  //tests for the LatencyHistogram class
+  void testLatencyHistogram(Tester t) {
+    t.checkExpect(LatencyHistogram.bucket(0), 0);
+    t.checkExpect(LatencyHistogram.bucket(63), 63);
+    t.checkExpect(LatencyHistogram.bucket(64), 64);
+    t.checkExpect(LatencyHistogram.bucket(65), 64);
+    t.checkExpect(LatencyHistogram.bucket(66), 65);
+    t.checkExpect(LatencyHistogram.bucket(128), 96);
+    t.checkExpect(LatencyHistogram.bucket(Long.MAX_VALUE), LatencyHistogram.BUCKETS - 1);
+    t.checkExpect(LatencyHistogram.highest(63), 63L);
+    t.checkExpect(LatencyHistogram.highest(64), 65L);
+    t.checkExpect(LatencyHistogram.highest(96), 131L);
+    t.checkExpect(LatencyHistogram.highest(LatencyHistogram.BUCKETS - 1), Long.MAX_VALUE);
+    //every value is within 1 part in 32 of the highest of its bucket
+    boolean close = true;
+    for (long value = 1; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 + 1) {
+      long highest = LatencyHistogram.highest(LatencyHistogram.bucket(value));
+      close = close && highest >= value && highest - value <= value / 32;
+    }
+    t.checkExpect(close, true);
+
+    LatencyHistogram histogram = new LatencyHistogram("test");
+    t.checkExpect(histogram.percentile(50), 0L);
+    t.checkExpect(histogram.mean(), 0.0);
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i);
+    }
+    histogram.record(-5);
+    t.checkExpect(histogram.count(), 1001L);
+    t.checkInexact(histogram.mean(), 500500.0 / 1001, 0.001);
+    t.checkExpect(histogram.percentile(0), 0L);
+    t.checkExpect(histogram.percentile(50), 503L);
+    t.checkExpect(histogram.percentile(99), 991L);
+    t.checkExpect(histogram.percentile(100), 1000L);
+    t.checkExpect(histogram.max.get(), 1000L);
+    t.checkExpect(histogram.toString(),
+        "test             count=1001 mean=500.0 p50=503 p90=911 p99=991 p99.9=1000 max=1000");
+    t.checkExpect(histogram.toJson(), "{\"count\":1001,\"mean\":500.0,\"p50\":503,"
+        + "\"p90\":911,\"p99\":991,\"p99.9\":1000,\"max\":1000}");
+    histogram.recordSince(0);
+    t.checkExpect(histogram.count(), 1001L);
+    histogram.reset();
+    t.checkExpect(histogram.count(), 0L);
+    t.checkExpect(histogram.percentile(99), 0L);
+  }
+
+  //tests for the Metrics and MetricsReporter classes
+  void testMetrics(Tester t) {
+    Metrics metrics = Metrics.GLOBAL;
+    metrics.reset();
+    Metrics.enabled = false;
+    BridgItWorld tempGame5x5 = new BridgItWorld(5, Color.red, Color.blue);
+
+    //with metrics off nothing is recorded
+    t.checkExpect(Metrics.start(), 0L);
+    tempGame5x5.onMouseClicked(new Posn(90, 90));
+    tempGame5x5.makeScene();
+    t.checkExpect(metrics.onMouseClicked.count(), 0L);
+    t.checkExpect(metrics.makeScene.count(), 0L);
+
+    //m turns them on, with a reporter writing them to the file right away
+    Path defaultFile = Metrics.file;
+    Metrics.file = Path.of(System.getProperty("java.io.tmpdir"), "bridgit-metrics-test.txt");
+    tempGame5x5.onKeyEvent("m");
+    t.checkExpect(Metrics.enabled, true);
+    t.checkExpect(Metrics.start() != 0, true);
+    t.checkExpect(Metrics.reporter.file, Metrics.file);
+    t.checkExpect(Metrics.reporter.json, false);
+    tempGame5x5.onMouseMoved(new Posn(210, 210));
+    tempGame5x5.makeScene();
+    tempGame5x5.onMouseClicked(new Posn(210, 210));
+    tempGame5x5.onMouseClicked(new Posn(30, 30));
+    tempGame5x5.makeScene();
+    tempGame5x5.onMouseClicked(new Posn(210, 90));
+    t.checkExpect(metrics.onMouseMoved.count(), 1L);
+    t.checkExpect(metrics.onMouseClicked.count(), 3L);
+    t.checkExpect(metrics.makeScene.count(), 2L);
+    //the hovered cell, and then the clicked cell once more
+    t.checkExpect(metrics.cellsRedrawn.count(), 2L);
+    t.checkExpect(metrics.cellsRedrawn.max.get(), 1L);
+    t.checkExpect(metrics.hasWon.count(), 2L);
+    t.checkExpect(metrics.winningPath.count(), 1L);
+    t.checkExpect(metrics.nodesExpanded.sum(), 3L);
+    t.checkExpect(metrics.queueHighWater.get(), 1L);
+    tempGame5x5.scene = null;
+    tempGame5x5.makeScene();
+    t.checkExpect(metrics.cellsRedrawn.max.get(), 25L);
+
+    //and m turns them off again, the reporter writing everything recorded as it stops
+    tempGame5x5.onKeyEvent("m");
+    t.checkExpect(Metrics.enabled, false);
+    t.checkExpect(Metrics.reporter, null);
+    metrics.searched(100, 100);
+    t.checkExpect(metrics.nodesExpanded.sum(), 3L);
+    try {
+      t.checkExpect(new String(Files.readAllBytes(Metrics.file)), metrics.toText());
+      Files.delete(Metrics.file);
+    }
+    catch (IOException e) {
+      t.checkExpect(e.getMessage(), "no exception");
+    }
+    Metrics.file = defaultFile;
+
+    //text and JSON dumps
+    t.checkExpect(metrics.toText().split("\n").length, 8);
+    t.checkExpect(metrics.toText().endsWith("nodesExpanded    3\nqueueHighWater   1\n"), true);
+    t.checkExpect(metrics.toJson().startsWith("{\"hasWon\":{\"count\":2,"), true);
+    t.checkExpect(metrics.toJson().endsWith(",\"nodesExpanded\":3,\"queueHighWater\":1}"),
+        true);
+    try {
+      Path file = Files.createTempFile("bridgit", ".json");
+      metrics.writeTo(file, true);
+      t.checkExpect(new String(Files.readAllBytes(file)), metrics.toJson() + "\n");
+      metrics.writeTo(file, false);
+      t.checkExpect(new String(Files.readAllBytes(file)), metrics.toText());
+      Files.delete(file);
+      MetricsReporter reporter = new MetricsReporter(metrics, file, 10, true);
+      for (int i = 0; i < 500 && !Files.exists(file); i++) {
+        Thread.sleep(10);
+      }
+      reporter.stop();
+      reporter.timer.awaitTermination(1, java.util.concurrent.TimeUnit.SECONDS);
+      t.checkExpect(Files.exists(file), true);
+      t.checkExpect(reporter.failure, null);
+      Files.delete(file);
+    }
+    catch (IOException | InterruptedException e) {
+      t.checkExpect(e.getMessage(), "no exception");
+    }
+    metrics.reset();
+    t.checkExpect(metrics.onMouseClicked.count(), 0L);
+    t.checkExpect(metrics.queueHighWater.get(), 0L);
+  }
+
+  //tests for the BridgItServer class, over loopback with blocking clients
+  void testGameServer(Tester t) {
+    try {
+      //two loops, so the clients' connections and games are on different threads
+      BridgItServer server = new BridgItServer(0, 2);
+      java.net.InetSocketAddress address = new java.net.InetSocketAddress("127.0.0.1",
+          server.port());
+      java.nio.channels.SocketChannel a = java.nio.channels.SocketChannel.open(address);
+      java.nio.channels.SocketChannel b = java.nio.channels.SocketChannel.open(address);
+      java.nio.ByteBuffer message = java.nio.ByteBuffer.allocate(2 * GameProtocol.LONGEST);
+
+      message.clear();
+      message.put(GameProtocol.NEW).putShort((short) 4).flip();
+      a.write(message);
+      java.nio.ByteBuffer reply = GameProtocol.receive(a);
+      t.checkExpect(reply.get(), GameProtocol.REJECTED);
+      t.checkExpect(reply.getInt(), -1);
+      t.checkExpect(reply.getInt(), 4);
+      t.checkExpect(reply.get(), GameProtocol.BAD_SIZE);
+
+      message.clear();
+      message.put(GameProtocol.NEW).putShort((short) 3).flip();
+      a.write(message);
+      reply = GameProtocol.receive(a);
+      t.checkExpect(reply.get(), GameProtocol.CREATED);
+      int game = reply.getInt();
+      t.checkExpect(server.owner(game), server.loops[0]);
+
+      //a move before player 2 joins, and a join of a game that does not exist
+      message.clear();
+      message.put(GameProtocol.MOVE).putInt(game).putInt(4).flip();
+      a.write(message);
+      reply = GameProtocol.receive(a);
+      t.checkExpect(reply.get(), GameProtocol.REJECTED);
+      reply.getInt();
+      reply.getInt();
+      t.checkExpect(reply.get(), GameProtocol.NOT_STARTED);
+      message.clear();
+      message.put(GameProtocol.JOIN).putInt(game + 2).flip();
+      b.write(message);
+      reply = GameProtocol.receive(b);
+      t.checkExpect(reply.get(), GameProtocol.REJECTED);
+      t.checkExpect(reply.getInt(), game + 2);
+      reply.getInt();
+      t.checkExpect(reply.get(), GameProtocol.NO_GAME);
+
+      message.clear();
+      message.put(GameProtocol.JOIN).putInt(game).flip();
+      b.write(message);
+      reply = GameProtocol.receive(a);
+      t.checkExpect(reply.get(), GameProtocol.START);
+      t.checkExpect(reply.getInt(), game);
+      t.checkExpect(reply.get(), (byte) 1);
+      reply = GameProtocol.receive(b);
+      t.checkExpect(reply.get(), GameProtocol.START);
+      t.checkExpect(reply.getInt(), game);
+      t.checkExpect(reply.get(), (byte) 2);
+
+      //out of turn, on a dot and off the board
+      message.clear();
+      message.put(GameProtocol.MOVE).putInt(game).putInt(4).flip();
+      b.write(message);
+      reply = GameProtocol.receive(b);
+      t.checkExpect(reply.get(), GameProtocol.REJECTED);
+      reply.getInt();
+      reply.getInt();
+      t.checkExpect(reply.get(), GameProtocol.NOT_YOUR_TURN);
+      message.clear();
+      message.put(GameProtocol.MOVE).putInt(game).putInt(1);
+      message.put(GameProtocol.MOVE).putInt(game).putInt(9).flip();
+      a.write(message);
+      for (int index : new int[] {1, 9}) {
+        reply = GameProtocol.receive(a);
+        t.checkExpect(reply.get(), GameProtocol.REJECTED);
+        reply.getInt();
+        t.checkExpect(reply.getInt(), index);
+        t.checkExpect(reply.get(), GameProtocol.NOT_OPEN);
+      }
+
+      //the only spot of a 3 by 3 board wins it, and both players hear of it
+      message.clear();
+      message.put(GameProtocol.MOVE).putInt(game).putInt(4).flip();
+      a.write(message);
+      for (java.nio.channels.SocketChannel player : new java.nio.channels.SocketChannel[] {
+          a, b}) {
+        reply = GameProtocol.receive(player);
+        t.checkExpect(reply.get(), GameProtocol.MOVED);
+        t.checkExpect(reply.getInt(), game);
+        t.checkExpect(reply.getInt(), 4);
+        t.checkExpect(reply.get(), (byte) 1);
+        t.checkExpect(reply.get(), (byte) 1);
+      }
+      t.checkExpect(server.moveLatency.count(), 1L);
+      message.clear();
+      message.put(GameProtocol.MOVE).putInt(game).putInt(4).flip();
+      a.write(message);
+      reply = GameProtocol.receive(a);
+      t.checkExpect(reply.get(), GameProtocol.REJECTED);
+      reply.getInt();
+      reply.getInt();
+      t.checkExpect(reply.get(), GameProtocol.NO_GAME);
+
+      //a game whose creator leaves
+      message.clear();
+      message.put(GameProtocol.NEW).putShort((short) 5).flip();
+      b.write(message);
+      reply = GameProtocol.receive(b);
+      reply.get();
+      int second = reply.getInt();
+      t.checkExpect(server.owner(second), server.loops[1]);
+      message.clear();
+      message.put(GameProtocol.JOIN).putInt(second).flip();
+      a.write(message);
+      GameProtocol.receive(a);
+      GameProtocol.receive(b);
+      b.close();
+      reply = GameProtocol.receive(a);
+      t.checkExpect(reply.get(), GameProtocol.ABANDONED);
+      t.checkExpect(reply.getInt(), second);
+
+      //a client that sends moves without reading the replies stops being read, so its
+      //writes stall instead of its replies piling up on the server
+      java.nio.channels.SocketChannel flood = java.nio.channels.SocketChannel.open();
+      flood.setOption(java.net.StandardSocketOptions.SO_RCVBUF, 4096);
+      flood.connect(address);
+      flood.configureBlocking(false);
+      java.nio.ByteBuffer moves = java.nio.ByteBuffer.allocate(9 * 1000);
+      while (moves.hasRemaining()) {
+        moves.put(GameProtocol.MOVE).putInt(-1).putInt(0);
+      }
+      long sent = 0;
+      int stalled = 0;
+      long deadline = System.nanoTime() + 20000000000L;
+      while (stalled < 200 && System.nanoTime() < deadline) {
+        if (!moves.hasRemaining()) {
+          moves.clear();
+        }
+        int written = flood.write(moves);
+        sent += written;
+        if (written == 0) {
+          stalled++;
+          Thread.sleep(1);
+        }
+        else {
+          stalled = 0;
+        }
+      }
+      t.checkExpect(stalled, 200);
+      
+      //reading the replies lets it be read again, and every move gets its reply
+      flood.configureBlocking(true);
+      java.nio.ByteBuffer replies = java.nio.ByteBuffer.allocate(10 * 1000);
+      long received = 0;
+      while (received < sent / 9 * 10) {
+        replies.clear();
+        replies.limit((int) Math.min(replies.capacity(), sent / 9 * 10 - received));
+        GameProtocol.readFully(flood, replies);
+        received += replies.limit();
+      }
+      t.checkExpect(replies.get(0), GameProtocol.REJECTED);
+      t.checkExpect(replies.get(9), GameProtocol.NO_GAME);
+      
+      //a connection whose waiting replies would go past Connection.LIMIT is closed
+      java.util.concurrent.CompletableFuture<Connection> overflowed = 
+          new java.util.concurrent.CompletableFuture<Connection>();
+      java.net.SocketAddress floodAddress = flood.getLocalAddress();
+      for (EventLoop loop : server.loops) {
+        loop.execute(() -> {
+          for (java.nio.channels.SelectionKey key : loop.selector.keys()) {
+            Connection connection = (Connection) key.attachment();
+            if (connection != null && !connection.closed
+                && connection.channel.socket().getRemoteSocketAddress().equals(floodAddress)) {
+              for (int i = 0; i <= Connection.LIMIT / 10; i++) {
+                connection.reply(10).put(new byte[10]);
+              }
+              overflowed.complete(connection);
+            }
+          }
+        });
+      }
+      Connection closed = overflowed.get(10, java.util.concurrent.TimeUnit.SECONDS);
+      t.checkExpect(closed.closed, true);
+      t.checkExpect(closed.out.capacity() <= Connection.LIMIT, true);
+      replies.clear();
+      while (flood.read(replies) >= 0) {
+        replies.clear();
+      }
+      flood.close();
+
+      //a game can be no larger than LARGEST, a connection can only have so many games
+      //open, and the games of every connection only so many cells
+      java.nio.channels.SocketChannel c = java.nio.channels.SocketChannel.open(address);
+      int[] sizes = {GameProtocol.LARGEST + 2, 5, 5, 5, 3};
+      byte[] replies5 = {GameProtocol.REJECTED, GameProtocol.CREATED, GameProtocol.REJECTED,
+          GameProtocol.REJECTED, GameProtocol.CREATED};
+      t.checkExpect(server.cells.get(), 0L);
+      for (int i = 0; i < sizes.length; i++) {
+        if (i == 1) {
+          server.connectionGames = 1;
+        }
+        if (i == 3) {
+          server.connectionGames = BridgItServer.CONNECTION_GAMES;
+          server.cellBudget = 25 + 9;
+        }
+        message.clear();
+        message.put(GameProtocol.NEW).putShort((short) sizes[i]).flip();
+        c.write(message);
+        reply = GameProtocol.receive(c);
+        t.checkExpect(reply.get(), replies5[i]);
+        if (replies5[i] == GameProtocol.REJECTED) {
+          t.checkExpect(reply.getInt(), -1);
+          t.checkExpect(reply.getInt(), sizes[i]);
+          t.checkExpect(reply.get(), i == 0 ? GameProtocol.BAD_SIZE : GameProtocol.FULL);
+        }
+      }
+      t.checkExpect(server.cells.get(), 34L);
+
+      //games nobody joins are ended by the loops' sweep, freeing their cells
+      server.joinNanos = 0;
+      for (int i = 0; i < 2; i++) {
+        reply = GameProtocol.receive(c);
+        t.checkExpect(reply.get(), GameProtocol.ABANDONED);
+      }
+      server.joinNanos = 60000000000L;
+      t.checkExpect(server.cells.get(), 0L);
+      server.cellBudget = Runtime.getRuntime().maxMemory() / 4 / BridgItServer.CELL_BYTES;
+
+      //a message whose handling throws closes only the connection that sent it
+      message.clear();
+      message.put(GameProtocol.NEW).putShort((short) 3).flip();
+      c.write(message);
+      reply = GameProtocol.receive(c);
+      t.checkExpect(reply.get(), GameProtocol.CREATED);
+      int broken = reply.getInt();
+      message.clear();
+      message.put(GameProtocol.JOIN).putInt(broken).flip();
+      c.write(message);
+      GameProtocol.receive(c);
+      GameProtocol.receive(c);
+      java.util.concurrent.CompletableFuture<Boolean> emptied = 
+          new java.util.concurrent.CompletableFuture<Boolean>();
+      server.owner(broken).execute(() -> {
+        server.owner(broken).games.get(broken).engine.board = null;
+        emptied.complete(true);
+      });
+      emptied.get(10, java.util.concurrent.TimeUnit.SECONDS);
+      message.clear();
+      message.put(GameProtocol.MOVE).putInt(broken).putInt(4).flip();
+      c.write(message);
+      t.checkExpect(c.read(java.nio.ByteBuffer.allocate(1)), -1);
+      t.checkExpect(server.failure instanceof NullPointerException, true);
+      server.failure = null;
+      c.close();
+      message.clear();
+      message.put(GameProtocol.NEW).putShort((short) 3).flip();
+      a.write(message);
+      t.checkExpect(GameProtocol.receive(a).get(), GameProtocol.CREATED);
+
+      a.close();
+      server.stop();
+      t.checkExpect(server.failure, null);
+    }
+    catch (IOException | InterruptedException | java.util.concurrent.ExecutionException
+        | java.util.concurrent.TimeoutException e) {
+      t.checkExpect(e.getMessage(), "no exception");
+    }
+  }
+
+  //tests for Zobrist hashing of the engine and BitPosition
+  void testZobristHash(Tester t) {
+    BridgItEngine engine5 = new BridgItEngine(5);
+    t.checkExpect(engine5.hash, 0L);
+    t.checkExpect(engine5.keys, ZobristKeys.of(5));
+    t.checkExpect(ZobristKeys.of(5).bridges.length, 50);
+    t.checkExpect(ZobristKeys.of(5).turn(1), 0L);
+    t.checkExpect(ZobristKeys.of(Adjacency.CACHED + 2).bridges, 
+        new ZobristKeys(Adjacency.CACHED + 2).bridges);
+    t.checkExpect(ZobristKeys.BY_SIZE.containsKey(Adjacency.CACHED + 2), false);
+    t.checkExpect(Adjacency.of(Adjacency.CACHED + 2).directions.length, 
+        (Adjacency.CACHED + 2) * (Adjacency.CACHED + 2));
+    t.checkExpect(Adjacency.BY_SIZE.containsKey(Adjacency.CACHED + 2), false);
+    engine5.place(6, 1);
+    t.checkExpect(engine5.hash, ZobristKeys.of(5).bridge(6, 1) ^ ZobristKeys.of(5).turn);
+    engine5.place(18, 2);
+    long twoMoves = engine5.hash;
+    t.checkExpect(twoMoves, engine5.computeHash());
+    engine5.undo();
+    t.checkExpect(engine5.hash, engine5.computeHash());
+    engine5.undo();
+    t.checkExpect(engine5.hash, 0L);
+    engine5.setTurn(2);
+    t.checkExpect(engine5.hash, ZobristKeys.of(5).turn);
+    engine5.setTurn(1);
+    t.checkExpect(engine5.hash, 0L);
+
+    //the same position reached another way has the same hash
+    engine5.place(18, 2);
+    engine5.place(6, 1);
+    t.checkExpect(engine5.hash == twoMoves, false);
+    engine5.setTurn(1);
+    t.checkExpect(engine5.hash, twoMoves);
+    t.checkExpect(new BitPosition(engine5).hash(), twoMoves);
+    BridgItEngine copy = new BridgItEngine(5);
+    copy.copyFrom(engine5);
+    t.checkExpect(copy.hash, twoMoves);
+    t.checkExpect(new BridgItEngine(engine5.board).hash, twoMoves);
+    engine5.reset();
+    t.checkExpect(engine5.hash, 0L);
+
+    //clicking on the world and hinting keep the hash up to date
+    BridgItWorld tempGame5x5 = new BridgItWorld(5, Color.red, Color.blue);
+    tempGame5x5.onMouseClicked(new Posn(90, 90));
+    tempGame5x5.engine.setTurn(1);
+    tempGame5x5.onKeyEvent("h");
+    t.checkExpect(tempGame5x5.engine.hash, tempGame5x5.engine.computeHash());
+    tempGame5x5.onMouseClicked(new Posn(150, 150));
+    t.checkExpect(tempGame5x5.engine.hash, tempGame5x5.engine.computeHash());
+    t.checkExpect(tempGame5x5.engine.turn, 2);
+    long[] saved = tempGame5x5.snapshot();
+    tempGame5x5.onMouseClicked(new Posn(210, 210));
+    tempGame5x5.restore(saved);
+    t.checkExpect(tempGame5x5.engine.hash, tempGame5x5.engine.computeHash());
+    t.checkExpect(new BitPosition(tempGame5x5.engine).hash(), tempGame5x5.engine.hash);
+
+    //BitPosition's hash follows the engine's move by move in random games
+    SplittableRandom rand = new SplittableRandom(15);
+    boolean agrees = true;
+    for (int i = 0; i < 200; i++) {
+      BridgItEngine game = new BridgItEngine(3 + 2 * (i % 10));
+      BitPosition position = new BitPosition(game);
+      int[] moves = game.legalMoves();
+      for (int j = moves.length - 1; j >= 0 && game.winner() == 0; j--) {
+        int pick = rand.nextInt(j + 1);
+        int move = moves[pick];
+        moves[pick] = moves[j];
+        game.place(move, game.turn);
+        position.make(move);
+        agrees = agrees && position.hash() == game.hash && game.hash == game.computeHash();
+      }
+      while (position.made.size() > 0) {
+        position.unmake();
+      }
+      agrees = agrees && position.hash() == 0;
+    }
+    t.checkExpect(agrees, true);
+  }
+
+  //tests for the TranspositionTable class
+  void testTranspositionTable(Tester t) {
+    long entry = TranspositionTable.pack(-1, -300, 200, TranspositionTable.LOWER, 63);
+    t.checkExpect(TranspositionTable.move(entry), -1);
+    t.checkExpect(TranspositionTable.value(entry), -300);
+    t.checkExpect(TranspositionTable.depth(entry), 200);
+    t.checkExpect(TranspositionTable.bound(entry), TranspositionTable.LOWER);
+    t.checkExpect(TranspositionTable.generation(entry), 63);
+    t.checkExpect(TranspositionTable.move(TranspositionTable.pack(46338, 1, 0, 1, 0)), 46338);
+    t.checkConstructorException(
+        new IllegalArgumentException("A transposition table needs at least 32 bytes"),
+        "TranspositionTable", 31L);
+
+    //the budget is rounded down to a power of two buckets of two entries
+    TranspositionTable table = new TranspositionTable(100);
+    t.checkExpect(table.entries.length, 4);
+    t.checkExpect(table.mask, 1L);
+    t.checkExpect(new TranspositionTable(1 << 20).entries.length, 1 << 16);
+
+    //storing and finding positions
+    t.checkExpect(table.probe(5), 0L);
+    table.store(5, 7, 1, 3, TranspositionTable.EXACT);
+    t.checkExpect(TranspositionTable.move(table.probe(5)), 7);
+    t.checkExpect(table.probe(7), 0L);
+    //a shallower search of another position in the bucket goes in its second entry
+    table.store(7, 8, 2, 1, TranspositionTable.EXACT);
+    t.checkExpect(TranspositionTable.move(table.probe(5)), 7);
+    t.checkExpect(TranspositionTable.move(table.probe(7)), 8);
+    //and a deeper one takes the first
+    table.store(9, 9, 2, 4, TranspositionTable.EXACT);
+    t.checkExpect(TranspositionTable.move(table.probe(9)), 9);
+    t.checkExpect(table.probe(5), 0L);
+    t.checkExpect(TranspositionTable.move(table.probe(7)), 8);
+    //the same position is stored over itself, even from a shallower search
+    table.store(9, 10, 1, 2, TranspositionTable.EXACT);
+    t.checkExpect(TranspositionTable.move(table.probe(9)), 10);
+    t.checkExpect(TranspositionTable.move(table.probe(7)), 8);
+    //entries of an older search give way
+    //and one too shallow for the first entry pushes out the second
+    table.store(11, 11, 1, 0, TranspositionTable.EXACT);
+    t.checkExpect(TranspositionTable.move(table.probe(9)), 10);
+    t.checkExpect(table.probe(7), 0L);
+    table.store(13, 13, 1, 9, TranspositionTable.EXACT);
+    table.newSearch();
+    t.checkExpect(table.generation, 1);
+    table.store(15, 15, 1, 0, TranspositionTable.EXACT);
+    t.checkExpect(table.probe(13), 0L);
+    t.checkExpect(TranspositionTable.move(table.probe(15)), 15);
+    t.checkExpect(TranspositionTable.move(table.probe(11)), 11);
+    //a torn entry reads as a miss
+    table.checks[2] ^= 1;
+    t.checkExpect(table.probe(15), 0L);
+
+    //the counters
+    t.checkExpect(table.stores.sum(), 7L);
+    t.checkExpect(table.overwrites.sum(), 4L);
+    t.checkExpect(table.probes.sum(), 16L);
+    t.checkExpect(table.hits.sum(), 10L);
+    t.checkInexact(table.hitRate(), 10.0 / 16, 0.001);
+    t.checkExpect(table.used(), 2L);
+    t.checkExpect(table.toString(),
+        "16 probes, 62.5% hits, 7 stores, 4 overwrites, 50.0% full");
+    table.clear();
+    t.checkExpect(table.used(), 0L);
+    t.checkExpect(table.probes.sum(), 0L);
+    t.checkExpect(table.probe(11), 0L);
+  }
+
+  //returns the winner with best play from the given game, which nobody has won yet,
+  //by trying every move on the engine without remembering any position
+  int minimax(BridgItEngine game) {
+    int player = game.turn;
+    for (int move : game.legalMoves()) {
+      game.place(move, player);
+      boolean wins = game.winner() == player || this.minimax(game) == player;
+      game.undo();
+      if (wins) {
+        return player;
+      }
+    }
+    return 3 - player;
+  }
+
+  //tests for the TableSolver class
+  void testTableSolver(Tester t) {
+    //player 1 wins the empty board, and a table too small for it still gets it right
+    TranspositionTable table = new TranspositionTable(1 << 20);
+    t.checkExpect(new TableSolver(table).solve(new BitPosition(5)), 1);
+    t.checkExpect(new TableSolver(new TranspositionTable(64)).solve(new BitPosition(7)), 1);
+    t.checkExpect(table.stores.sum() > 0, true);
+    t.checkExpect(new TableSolver(table).solve(new BitPosition(3)), 1);
+
+    //positions after a few random moves agree with a search that remembers nothing
+    SplittableRandom rand = new SplittableRandom(16);
+    table = new TranspositionTable(1 << 16);
+    boolean agrees = true;
+    for (int i = 0; i < 30; i++) {
+      BridgItEngine game = new BridgItEngine(7);
+      int[] moves = game.legalMoves();
+      for (int j = 0; j < 6 && game.winner() == 0; j++) {
+        int move = moves[rand.nextInt(moves.length)];
+        if (game.board.isOpen(move)) {
+          game.place(move, game.turn);
+        }
+      }
+      if (game.winner() == 0) {
+        BitPosition position = new BitPosition(game);
+        long[] before = position.snapshot();
+        agrees = agrees && new TableSolver(table).solve(position) == this.minimax(game)
+            && Arrays.equals(before, position.bits);
+      }
+    }
+    t.checkExpect(agrees, true);
+    t.checkExpect(table.hits.sum() > 0, true);
+
+    //threads sharing a table find the winning first moves
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    try {
+      BitPosition position = new BitPosition(5);
+      position.make(6);
+      position.make(8);
+      int[] wins = TableSolver.winningMoves(position, new TranspositionTable(1 << 16), pool);
+      ArrayList<Integer> expected = new ArrayList<Integer>();
+      BridgItEngine game = new BridgItEngine(5);
+      game.place(6, 1);
+      game.place(8, 2);
+      for (int move : game.legalMoves()) {
+        game.place(move, 1);
+        if (game.winner() == 1 || this.minimax(game) == 1) {
+          expected.add(move);
+        }
+        game.undo();
+      }
+      t.checkExpect(wins.length, expected.size());
+      t.checkExpect(wins.length > 0, true);
+      for (int i = 0; i < wins.length; i++) {
+        t.checkExpect(wins[i], expected.get(i));
+      }
+      t.checkExpect(TableSolver.winningMoves(new BitPosition(5),
+          new TranspositionTable(1 << 16), pool).length, 5);
+    }
+    catch (Exception e) {
+      t.checkExpect(e.getMessage(), "no exception");
+    }
+    pool.shutdown();
+  }
+
+  //tests for the Symmetry and CanonicalHash classes
+  void testSymmetry(Tester t) {
+    t.checkExpect(Symmetry.of(5).inverse, new int[] {0, 1, 2, 3, 4, 6, 5, 7});
+    t.checkExpect(Symmetry.of(5).map(3, 6), 18);
+    t.checkExpect(Symmetry.of(5).map(4, 7), 11);
+    t.checkExpect(Symmetry.player(4, 1), 2);
+    t.checkExpect(Symmetry.player(5, 0), 0);
+    t.checkExpect(Symmetry.player(3, 2), 2);
+
+    //every symmetry takes the dots initBoard lays out to dots of the same player, once
+    //the colors are swapped if it swaps them
+    for (int size : new int[] {3, 5, 7, 9}) {
+      BridgItWorld world = new BridgItWorld(size, Color.red, Color.blue);
+      Symmetry symmetry = Symmetry.of(size);
+      int wrong = 0;
+      for (int g = 0; g < Symmetry.COUNT; g++) {
+        for (int i = 0; i < size * size; i++) {
+          Cell cell = world.board.get(i / size).get(i % size);
+          int to = symmetry.map(g, i);
+          Cell image = world.board.get(to / size).get(to % size);
+          Color expected = cell.color();
+          if (Symmetry.swaps(g) && cell.color().equals(Color.red)) {
+            expected = Color.blue;
+          }
+          else if (Symmetry.swaps(g) && cell.color().equals(Color.blue)) {
+            expected = Color.red;
+          }
+          if (image.isCircle != cell.isCircle || !image.color().equals(expected)
+              || symmetry.map(symmetry.inverse[g], to) != i) {
+            wrong++;
+          }
+        }
+      }
+      t.checkExpect(wrong, 0);
+    }
+
+    //a game turned over by a symmetry is won by the player the winner turns into
+    SplittableRandom rand = new SplittableRandom(24);
+    for (int g = 0; g < Symmetry.COUNT; g++) {
+      BridgItEngine game = new BridgItEngine(9);
+      BridgItEngine image = new BridgItEngine(9);
+      int[] open = game.legalMoves();
+      for (int left = open.length; left > 0 && game.winner() == 0; left--) {
+        int pick = rand.nextInt(left);
+        int move = open[pick];
+        open[pick] = open[left - 1];
+        image.place(Symmetry.of(9).map(g, move), Symmetry.player(g, game.turn));
+        game.place(move, game.turn);
+      }
+      t.checkExpect(image.winner(), Symmetry.player(g, game.winner()));
+    }
+
+    //the hashes kept move by move match those from scratch, and a position and its image
+    //under each symmetry share a canonical hash
+    BitPosition position = new BitPosition(7);
+    CanonicalHash hashes = new CanonicalHash(position);
+    t.checkExpect(hashes.hashes[0], 0L);
+    t.checkExpect(hashes.hashes[4], ZobristKeys.of(7).turn);
+    int[] moves = {8, 24, 30, 16};
+    for (int move : moves) {
+      hashes.toggle(move, position.turn());
+      position.make(move);
+    }
+    t.checkExpect(hashes.hashes[0], position.hash());
+    for (int g = 0; g < Symmetry.COUNT; g++) {
+      t.checkExpect(hashes.hashes[g], Symmetry.of(7).hash(position, g));
+      BitPosition image = new BitPosition(7);
+      image.setTurn(Symmetry.player(g, 1));
+      image.bits[image.bits.length - 1] = ZobristKeys.of(7).turn(image.turn());
+      for (int move : moves) {
+        image.make(Symmetry.of(7).map(g, move));
+      }
+      t.checkExpect(new CanonicalHash(image).key(), hashes.key());
+    }
+    int g = hashes.canonical();
+    t.checkExpect(hashes.hashes[g], hashes.key());
+    t.checkExpect(hashes.fromCanonical(hashes.toCanonical(24)), 24);
+    hashes.toggle(position.unmake(), 2);
+    t.checkExpect(hashes.hashes[5], Symmetry.of(7).hash(position, 5));
+
+    //a solver keyed by canonical hashes finds the same winners
+    BitPosition board5 = new BitPosition(5);
+    board5.make(12);
+    board5.make(6);
+    TableSolver plain = new TableSolver(new TranspositionTable(1 << 22));
+    TableSolver symmetric = new TableSolver(new TranspositionTable(1 << 22), true);
+    t.checkExpect(symmetric.solve(board5), plain.solve(board5));
+    board5.make(16);
+    t.checkExpect(symmetric.solve(board5), plain.solve(board5));
+    t.checkExpect(symmetric.solve(new BitPosition(7)), 1);
+    t.checkExpect(plain.solve(new BitPosition(7)), 1);
+    t.checkExpect(symmetric.table.used() < plain.table.used(), true);
+  }
+
+  //tests for the PositionCodes, DatabaseKey, SolutionDatabase, DatabasePlayer and
+  //RetrogradeSolver classes
+  void testSolutionDatabase(Tester t) {
+    PositionCodes codes = new PositionCodes(5);
+    t.checkExpect(codes.spots, new int[] {6, 8, 12, 16, 18});
+    t.checkExpect(codes.spotOf[12], 2);
+    t.checkExpect(codes.spotOf[7], -1);
+    t.checkExpect(codes.turn(1), 0L);
+    t.checkExpect(codes.turn(2), 1L << 10);
+    t.checkExpect(codes.bridge(0, 12, 1), 1L << 4);
+    //the transpose swaps the colors, so player 1's bridge at 6 is player 2's at 6
+    t.checkExpect(codes.bridge(4, 6, 1), 2L);
+    t.checkConstructorException(new IllegalArgumentException("Boards of size 11 have 41 "
+        + "spots, too many for a solution database"), "PositionCodes", 11);
+
+    //the keys kept up a move at a time are the ones worked out from scratch, and a
+    //position and its 180 degree rotation have the same ones
+    BitPosition position5 = new BitPosition(5);
+    DatabaseKey key = new DatabaseKey(codes, position5);
+    key.toggle(6, 1);
+    position5.make(6);
+    DatabaseKey fresh = new DatabaseKey(codes, position5);
+    t.checkExpect(key.hash(), fresh.hash());
+    t.checkExpect(key.code(), fresh.code());
+    t.checkExpect(key.turn, 2);
+    BitPosition rotated = new BitPosition(5);
+    rotated.make(18);
+    t.checkExpect(new DatabaseKey(codes, rotated).hash(), key.hash());
+    t.checkExpect(new DatabaseKey(codes, rotated).code(), key.code());
+    key.toggle(6, 1);
+    t.checkExpect(key.code(), new DatabaseKey(codes, new BitPosition(5)).code());
+
+    try {
+      Path directory = Files.createTempDirectory("bridgit");
+      Path file = directory.resolve("stopped.db");
+      Path whole = directory.resolve(RetrogradeSolver.fileName(5));
+      Path pruned = directory.resolve("pruned.db");
+
+      //a build stopped partway is not finished, and carries on from the positions solved
+      RetrogradeSolver stopped = new RetrogradeSolver(file, 5, 2);
+      stopped.limit = 5;
+      t.checkExpect(stopped.build(), -1L);
+      t.checkExpect(stopped.solved.get() >= 5, true);
+      stopped.database.close();
+      t.checkConstructorException(new IOException("Solution database is not finished"),
+          "SolutionDatabase", file);
+      RetrogradeSolver resumed = new RetrogradeSolver(file, 5, 2);
+      long rest = resumed.build();
+      resumed.database.close();
+      RetrogradeSolver once = new RetrogradeSolver(whole, 5, 1);
+      t.checkExpect(once.build(), stopped.solved.get() + rest);
+      once.database.close();
+      t.checkExpect(Files.size(whole), 64L + 8 * 64);
+      t.checkConstructorException(new IOException("Solution database is of another "
+          + "board size"), "RetrogradeSolver", whole, 7, 1);
+
+      SolutionDatabase database = new SolutionDatabase(whole);
+      SolutionDatabase restarted = new SolutionDatabase(file);
+      t.checkExpect(restarted.entries(), database.entries());
+      t.checkExpect(database.entries().length, (int) (stopped.solved.get() + rest));
+      restarted.close();
+      t.checkExpect(database.value(new BridgItEngine(5)), 1 << 6 | 5);
+      //after the middle, player 1 still needs two more bridges, one on each side of it
+      BridgItEngine game = new BridgItEngine(5);
+      game.place(12, 1);
+      t.checkExpect(database.value(game), 1 << 6 | 4);
+      game.place(8, 2);
+      game.place(6, 1);
+      game.place(16, 2);
+      t.checkExpect(database.value(game), 1 << 6 | 1);
+      t.checkExpect(database.bestMove(game), 18);
+      game.place(18, 1);
+      t.checkExpect(game.winner(), 1);
+      t.checkExpect(database.value(game), 1 << 6);
+      t.checkExpect(database.bestMove(game), -1);
+      t.checkExpect(database.value(new BridgItEngine(7)), 0);
+
+      //the winners agree with the table solver's all through random games
+      SplittableRandom rand = new SplittableRandom(25);
+      int wrong = 0;
+      for (int i = 0; i < 20; i++) {
+        BridgItEngine random = new BridgItEngine(5);
+        while (random.winner() == 0) {
+          BitPosition position = new BitPosition(random);
+          int solved = new TableSolver(new TranspositionTable(1 << 12)).solve(position);
+          if (SolutionDatabase.winner(database.value(random)) != solved) {
+            wrong++;
+          }
+          int[] open = random.legalMoves();
+          random.place(open[rand.nextInt(open.length)], random.turn);
+        }
+      }
+      t.checkExpect(wrong, 0);
+
+      //the database's player wins every game as player 1, and gives up where it has no
+      //position to look up
+      DatabasePlayer player = new DatabasePlayer(database, 1, null);
+      t.checkExpect(player.side(), 1);
+      t.checkExpect(this.databaseWins(player, 5, rand), 20);
+      t.checkExpect(player.chooseMove(new BridgItEngine(7)), -1);
+      BridgItEngine outOfTurn = new BridgItEngine(5);
+      outOfTurn.place(12, 1);
+      outOfTurn.setTurn(1);
+      t.checkExpect(player.chooseMove(outOfTurn), -1);
+      t.checkExpect(new DatabasePlayer(database, 2, null).chooseMove(outOfTurn), -1);
+
+      //a database of the games where player 1 plays Shannon's strategy is smaller, and
+      //still wins every game
+      SolutionDatabase.create(pruned, 5, 6, false);
+      RetrogradeSolver shannon = new RetrogradeSolver(pruned, 5, 2);
+      t.checkExpect(shannon.whole, false);
+      t.checkExpect(shannon.build() < database.entries().length, true);
+      shannon.database.close();
+      SolutionDatabase strategy = new SolutionDatabase(pruned);
+      t.checkExpect(SolutionDatabase.winner(strategy.value(new BridgItEngine(5))), 1);
+      t.checkExpect(this.databaseWins(new DatabasePlayer(strategy, 1, null), 5, rand), 20);
+      strategy.close();
+
+      //the computer player looks the boards a database is found for up before searching
+      Path before = SolutionDatabase.directory;
+      SolutionDatabase.directory = directory;
+      t.checkExpect(SolutionDatabase.forSize(7), null);
+      SolutionDatabase found = SolutionDatabase.forSize(5);
+      t.checkExpect(found.entries(), database.entries());
+      t.checkExpect(SolutionDatabase.forSize(5) == found, true);
+      MctsPlayer mcts = new MctsPlayer(1, 1000000, 1, 1);
+      t.checkExpect(mcts.chooseMove(game), -1);
+      game.undo();
+      t.checkExpect(mcts.chooseMove(game), 18);
+      t.checkExpect(mcts.trees[0], null);
+      mcts.pool.shutdown();
+      SolutionDatabase.FOUND.remove(5);
+      SolutionDatabase.directory = before;
+      found.close();
+      database.close();
+
+      Files.write(file, new byte[] {1, 2, 3});
+      t.checkConstructorException(new IOException("Not a BridgIt solution database"),
+          "SolutionDatabase", file);
+      Files.delete(file);
+      Files.delete(whole);
+      Files.delete(pruned);
+      Files.delete(directory);
+    }
+    catch (IOException | InterruptedException e) {
+      t.checkExpect(e.getMessage(), "no exception");
+    }
+  }
+
+  //returns how many of 20 games the given player 1 wins on boards of the given size
+  //against random moves from the given generator
+  int databaseWins(ComputerPlayer player, int size, SplittableRandom rand) {
+    int wins = 0;
+    for (int i = 0; i < 20; i++) {
+      BridgItEngine random = new BridgItEngine(size);
+      while (random.winner() == 0) {
+        int move = player.chooseMove(random);
+        if (random.turn == 2) {
+          int[] open = random.legalMoves();
+          move = open[rand.nextInt(open.length)];
+        }
+        random.place(move, random.turn);
+      }
+      if (random.winner() == 1) {
+        wins++;
+      }
+    }
+    return wins;
+  }
+
+  //tests for snapshot and restore
+  void testSnapshotRestore(Tester t) {
+    BridgItWorld tempGame5x5 = new BridgItWorld(5, Color.red, Color.blue);
+    BridgItWorld expected = new BridgItWorld(5, Color.red, Color.blue);
+    tempGame5x5.onMouseClicked(new Posn(90, 90));
+    expected.onMouseClicked(new Posn(90, 90));
+    long[] saved = tempGame5x5.snapshot();
+    tempGame5x5.onMouseClicked(new Posn(210, 210));
+    tempGame5x5.onMouseClicked(new Posn(210, 90));
+    tempGame5x5.onMouseMoved(new Posn(150, 150));
+    t.checkExpect(tempGame5x5.winPath.size(), 5);
+    tempGame5x5.restore(saved);
+    t.checkExpect(tempGame5x5.board, expected.board);
+    t.checkExpect(tempGame5x5.engine.board, expected.engine.board);
+    t.checkExpect(tempGame5x5.engine.turn, 2);
+    t.checkExpect(tempGame5x5.starters(1), expected.starters(1));
+    t.checkExpect(tempGame5x5.enders(1).size(), 0);
+    t.checkExpect(tempGame5x5.hoverIndex, -1);
+    t.checkExpect(tempGame5x5.winPath.size(), 0);
+    t.checkExpect(tempGame5x5.scene, null);
+
+    //the restored game goes on as if it had been played to there
+    tempGame5x5.onMouseClicked(new Posn(150, 90));
+    expected.onMouseClicked(new Posn(150, 90));
+    t.checkExpect(tempGame5x5.board, expected.board);
+    t.checkExpect(tempGame5x5.starters(2), expected.starters(2));
+    tempGame5x5.onMouseClicked(new Posn(210, 210));
+    tempGame5x5.onMouseClicked(new Posn(210, 90));
+    t.checkExpect(tempGame5x5.winPath.size(), 5);
+
+    //restoring a won game finds its winning path again
+    long[] won = tempGame5x5.snapshot();
+    tempGame5x5.restore(saved);
+    t.checkExpect(tempGame5x5.winPath.size(), 0);
+    tempGame5x5.restore(won);
+    t.checkExpect(tempGame5x5.engine.winner(), 1);
+    t.checkExpect(tempGame5x5.winPath.size(), 5);
+    t.checkExpect(tempGame5x5.winPath, tempGame5x5.winningPath(tempGame5x5.starters(1),
+        tempGame5x5.enders(1), tempGame5x5.player1));
+
+    //restoring the empty board
+    tempGame5x5.restore(new BridgItWorld(5, Color.red, Color.blue).snapshot());
+    t.checkExpect(tempGame5x5.board, new BridgItWorld(5, Color.red, Color.blue).board);
+    t.checkExpect(tempGame5x5.engine.winner(), 0);
+    t.checkExpect(tempGame5x5.engine.turn, 1);
+  }
+
+  //tests for undo and the u key of BridgItWorld
+  void testWorldUndo(Tester t) {
+    BridgItWorld tempGame5x5 = new BridgItWorld(5, Color.red, Color.blue);
+    BridgItWorld expected = new BridgItWorld(5, Color.red, Color.blue);
+    t.checkExpect(tempGame5x5.undo(), false);
+    tempGame5x5.onMouseClicked(new Posn(90, 90));
+    expected.onMouseClicked(new Posn(90, 90));
+    tempGame5x5.onMouseClicked(new Posn(210, 90));
+    t.checkExpect(tempGame5x5.starters(2).size(), 1);
+    tempGame5x5.onMouseMoved(new Posn(210, 210));
+    tempGame5x5.makeScene();
+
+    //the bridge's Cell is open again, its dot is off the starters and it is player 2's turn
+    t.checkExpect(tempGame5x5.undo(), true);
+    t.checkExpect(tempGame5x5.board, expected.board);
+    t.checkExpect(tempGame5x5.engine.board, expected.engine.board);
+    t.checkExpect(tempGame5x5.engine.hash, expected.engine.hash);
+    t.checkExpect(tempGame5x5.starters(2).size(), 0);
+    t.checkExpect(tempGame5x5.starters(1), expected.starters(1));
+    t.checkExpect(tempGame5x5.engine.turn, 2);
+    t.checkExpect(tempGame5x5.hoverPlayer, 2);
+    t.checkExpect(tempGame5x5.dirty.get(tempGame5x5.engine.board.index(3, 1)), true);
+    t.checkExpect(tempGame5x5.dirty.get(tempGame5x5.engine.board.index(3, 3)), true);
+    tempGame5x5.onKeyEvent("u");
+    t.checkExpect(tempGame5x5.board, new BridgItWorld(5, Color.red, Color.blue).board);
+    t.checkExpect(tempGame5x5.starters(1).size(), 0);
+    t.checkExpect(tempGame5x5.engine.turn, 1);
+    tempGame5x5.onKeyEvent("u");
+    t.checkExpect(tempGame5x5.engine.history.size(), 0);
+
+    //undoing the bridge that won forgets the win, and the game goes on
+    tempGame5x5.onMouseClicked(new Posn(90, 90));
+    tempGame5x5.onMouseClicked(new Posn(210, 210));
+    tempGame5x5.onKeyEvent("h");
+    tempGame5x5.onMouseClicked(new Posn(210, 90));
+    t.checkExpect(tempGame5x5.winPath.size(), 5);
+    t.checkExpect(tempGame5x5.enders(1).size(), 1);
+    tempGame5x5.undo();
+    t.checkExpect(tempGame5x5.engine.winner(), 0);
+    t.checkExpect(tempGame5x5.winPath.size(), 0);
+    t.checkExpect(tempGame5x5.enders(1).size(), 0);
+    t.checkExpect(tempGame5x5.engine.turn, 1);
+    tempGame5x5.onKeyEvent("h");
+    t.checkExpect(tempGame5x5.hinted, tempGame5x5.board.get(3).get(1));
+    tempGame5x5.undo();
+    t.checkExpect(tempGame5x5.hinted, null);
+    t.checkExpect(tempGame5x5.scene, null);
+    tempGame5x5.onMouseMoved(new Posn(30, 30));
+    tempGame5x5.onMouseClicked(new Posn(210, 210));
+    tempGame5x5.onMouseClicked(new Posn(210, 90));
+    t.checkExpect(tempGame5x5.engine.winner(), 1);
+    t.checkExpect(tempGame5x5.winPath.size(), 5);
+
+    //against the computer, u takes back its move and the person's, and if the computer's
+    //first move is all there is, it plays again
+    BridgItWorld tempGame7x7 = new BridgItWorld(7, Color.red, Color.blue, 
+        new ShannonSolver(7));
+    int opening = tempGame7x7.engine.history.get(0);
+    int click = opening == tempGame7x7.engine.board.index(1, 1) ? 210 : 90;
+    tempGame7x7.onMouseClicked(new Posn(click, click));
+    t.checkExpect(tempGame7x7.engine.history.size(), 3);
+    tempGame7x7.onKeyEvent("u");
+    t.checkExpect(tempGame7x7.engine.history.size(), 1);
+    t.checkExpect(tempGame7x7.engine.turn, 2);
+    tempGame7x7.onKeyEvent("u");
+    t.checkExpect(tempGame7x7.engine.history.size(), 1);
+    t.checkExpect(tempGame7x7.engine.history.get(0), opening);
+    t.checkExpect(tempGame7x7.engine.turn, 2);
+  }
+
+  //tests for applyMoves and firstWin
+  void testApplyMoves(Tester t) {
+    BridgItWorld clicked = new BridgItWorld(5, Color.red, Color.blue);
+    clicked.onMouseClicked(new Posn(90, 90));
+    clicked.onMouseClicked(new Posn(210, 210));
+    clicked.onMouseClicked(new Posn(210, 90));
+    BridgItWorld applied = new BridgItWorld(5, Color.red, Color.blue);
+    t.checkExpect(applied.applyMoves(new int[] {6, 18, 16}), 3);
+    t.checkExpect(applied.board, clicked.board);
+    t.checkExpect(applied.engine.board, clicked.engine.board);
+    t.checkExpect(applied.starters(1), clicked.starters(1));
+    t.checkExpect(applied.enders(1), clicked.enders(1));
+    t.checkExpect(applied.engine.turn, 2);
+    t.checkExpect(applied.engine.winner(), 1);
+    t.checkExpect(applied.winPath.size(), 5);
+    t.checkExpect(applied.scene, null);
+
+    //the moves after the win are not placed, and a won game takes no more
+    BridgItWorld stopped = new BridgItWorld(5, Color.red, Color.blue);
+    t.checkExpect(stopped.applyMoves(new int[] {6, 18, 16, 8, 12}), 3);
+    t.checkExpect(stopped.board, clicked.board);
+    t.checkExpect(stopped.engine.history.size(), 3);
+    t.checkExpect(stopped.engine.board.isOpen(12), true);
+    t.checkExpect(stopped.winPath.size(), 5);
+    BridgItWorld unfinished = new BridgItWorld(5, Color.red, Color.blue);
+    t.checkExpect(unfinished.applyMoves(new int[] {6, 18}), 2);
+    t.checkExpect(unfinished.engine.winner(), 0);
+    t.checkExpect(unfinished.applyMoves(new int[] {16, 8, 12}), 1);
+    t.checkExpect(unfinished.engine.winner(), 1);
+    t.checkExpect(unfinished.engine.board.isOpen(8), true);
+    t.checkExpect(unfinished.applyMoves(new int[] {8}), 0);
+    t.checkExpect(unfinished.engine.history.size(), 3);
+
+    //nothing is placed if any move is not open
+    BridgItWorld rejected = new BridgItWorld(5, Color.red, Color.blue);
+    t.checkException(new IllegalArgumentException("Move 1 is not an open spot: 6"),
+        rejected, "applyMoves", new int[] {6, 6});
+    t.checkException(new IllegalArgumentException("Move 0 is not an open spot: 7"),
+        rejected, "applyMoves", new int[] {7});
+    t.checkException(new IllegalArgumentException("Move 2 is not an open spot: 25"),
+        rejected, "applyMoves", new int[] {6, 18, 25});
+    t.checkExpect(rejected.engine.history.size(), 0);
+    t.checkExpect(rejected.board, new BridgItWorld(5, Color.red, Color.blue).board);
+
+    //firstWin on the engine, which leaves it as it was
+    BridgItEngine engine = new BridgItEngine(5);
+    t.checkExpect(engine.firstWin(new int[] {6, 18, 16, 8}, 4), 3);
+    t.checkExpect(engine.firstWin(new int[] {6, 18, 16, 8}, 2), -1);
+    t.checkExpect(engine.firstWin(new int[] {18, 6, 8, 16, 12}, 5), 3);
+    t.checkExpect(engine.history.size(), 0);
+    t.checkExpect(engine.hash, new BridgItEngine(5).hash);
+    t.checkExpect(engine.placeAll(new int[] {6, 18, 16, 8}, 4), 3);
+    t.checkExpect(engine.winner(), 1);
+    t.checkExpect(engine.firstWin(new int[] {8}, 1), 0);
+    t.checkExpect(engine.placeAll(new int[] {8}, 1), 0);
+    t.checkExpect(engine.history.size(), 3);
+
+    //whole random games come out the same as clicking every move
+    SplittableRandom rand = new SplittableRandom(19);
+    for (int i = 0; i < 5; i++) {
+      BridgItWorld byClicks = new BridgItWorld(9, Color.red, Color.blue);
+      BridgItWorld byBatch = new BridgItWorld(9, Color.red, Color.blue);
+      int[] moves = byClicks.engine.legalMoves();
+      for (int j = moves.length - 1; j > 0; j--) {
+        int pick = rand.nextInt(j + 1);
+        int move = moves[pick];
+        moves[pick] = moves[j];
+        moves[j] = move;
+      }
+      int clicks = 0;
+      while (byClicks.engine.winner() == 0) {
+        int move = moves[clicks];
+        byClicks.onMouseClicked(new Posn(byClicks.engine.board.x(move) * 60 + 30,
+            byClicks.engine.board.y(move) * 60 + 30));
+        clicks++;
+      }
+      t.checkExpect(byBatch.applyMoves(moves), clicks);
+      t.checkExpect(byBatch.board, byClicks.board);
+      t.checkExpect(byBatch.starters(1), byClicks.starters(1));
+      t.checkExpect(byBatch.enders(1), byClicks.enders(1));
+      t.checkExpect(byBatch.starters(2), byClicks.starters(2));
+      t.checkExpect(byBatch.enders(2), byClicks.enders(2));
+      t.checkExpect(byBatch.engine.winner(), byClicks.engine.winner());
+    }
+  }
+  
+  //returns the winner of a game between the solver and player 2 placing bridges at random,
+  //only on edges of the solver's trees if asked to
+  int solverGame(ShannonSolver solver, int size, boolean onTrees, SplittableRandom rand) {
+    BridgItEngine game = new BridgItEngine(size);
+    while (game.winner() == 0) {
+      int move = solver.chooseMove(game);
+      if (move < 0 || !game.board.isOpen(move)) {
+        return 0;
+      }
+      game.place(move, 1);
+      int[] open = game.legalMoves();
+      if (game.winner() == 0) {
+        int reply = open[rand.nextInt(open.length)];
+        for (int i = 0; i < open.length && onTrees; i++) {
+          if (solver.trees[open[i]] != 0 && rand.nextInt(3) == 0) {
+            reply = open[i];
+          }
+        }
+        game.place(reply, 2);
+      }
+    }
+    return game.winner();
+  }
+  
+  //tests for the ShannonSolver class
+  void testShannonSolver(Tester t) {
+    //the trees split every edge, the extra one cut before the first move
+    for (int size = 3; size <= 21; size += 2) {
+      ShannonSolver solver = new ShannonSolver(size);
+      int k = size / 2;
+      int first = 0;
+      int second = 0;
+      for (int i = 0; i < size * size; i++) {
+        t.checkExpect(solver.trees[i] != 0, solver.isEdge(i));
+        if (solver.trees[i] == 1) {
+          first++;
+        }
+        if (solver.trees[i] == 2) {
+          second++;
+        }
+      }
+      t.checkExpect(first, k * k - k + 1);
+      t.checkExpect(second, k * k - k);
+      t.checkExpect(solver.label(1), 1);
+      t.checkExpect(solver.label(2), 2);
+      t.checkExpect(solver.broken, 2);
+    }
+    
+    //the first move is on the left side, joining the halves of the second tree
+    ShannonSolver solver5 = new ShannonSolver(5);
+    BridgItEngine engine5 = new BridgItEngine(5);
+    t.checkExpect(solver5.chooseMove(engine5), engine5.board.index(1, 1));
+    
+    //player 2 cutting a tree edge is answered by an edge joining it back together
+    engine5.place(engine5.board.index(1, 1), 1);
+    engine5.place(engine5.board.index(3, 1), 2);
+    int answer = solver5.chooseMove(engine5);
+    t.checkExpect(engine5.board.isOpen(answer), true);
+    engine5.place(answer, 1);
+    solver5.sync(engine5);
+    t.checkExpect(solver5.trees[answer], (byte) 3);
+    t.checkExpect(solver5.label(1), 1);
+    t.checkExpect(solver5.label(2), 1);
+    
+    //player 1 always wins, against random bridges and against ones aimed at the trees
+    SplittableRandom rand = new SplittableRandom(10);
+    for (int size = 3; size <= 15; size += 2) {
+      ShannonSolver solver = new ShannonSolver(size);
+      for (int game = 0; game < 20; game++) {
+        t.checkExpect(this.solverGame(solver, size, game % 2 == 1, rand), 1);
+      }
+    }
+    
+    //a game that went another way is solved over from its board
+    BridgItEngine other = new BridgItEngine(5);
+    other.place(other.board.index(3, 3), 1);
+    t.checkExpect(other.board.isOpen(solver5.chooseMove(other)), true);
+    t.checkExpect(solver5.seen.size(), 1);
+    t.checkExpect(solver5.board, other.board);
+    t.checkException(new IllegalArgumentException("Solver is for boards of size 5"),
+        solver5, "sync", new BridgItEngine(7));
+    
+    //a position that is already lost has no hint
+    BridgItEngine lost = new BridgItEngine(3);
+    lost.place(4, 2);
+    ShannonSolver solver3 = new ShannonSolver(3);
+    lost.turn = 1;
+    t.checkExpect(solver3.chooseMove(lost), -1);
+    
+    //the world shows hints for player 1, also for boards made in testing
+    this.initConditions();
+    t.checkExpect(game3x3.hint(), board3x3.get(1).get(1));
+    game3x3.onKeyEvent("h");
+    t.checkExpect(game3x3.hinted, board3x3.get(1).get(1));
+    game3x3.onMouseClicked(new Posn(90, 90));
+    t.checkExpect(game3x3.hinted, null);
+    t.checkExpect(game5RandB.hint(), game5RandB.board.get(1).get(1));
+    game5RandB.engine.setTurn(2);
+    game5RandB.onKeyEvent("h");
+    t.checkExpect(game5RandB.hinted, null);
+    
+    //as the computer player 1 wins against whatever player 2 clicks
+    BridgItWorld tempGame7x7 = new BridgItWorld(7, Color.red, Color.blue, 
+        new ShannonSolver(7));
+    t.checkExpect(tempGame7x7.engine.history.size(), 1);
+    int[] clicks = {1, 3, 5};
+    for (int y : clicks) {
+      for (int x : clicks) {
+        if (tempGame7x7.engine.winner() == 0) {
+          tempGame7x7.onMouseClicked(new Posn(x * 60 + 30, y * 60 + 30));
+        }
+      }
+    }
+    for (int i = 0; i < 49 && tempGame7x7.engine.winner() == 0; i++) {
+      if (tempGame7x7.engine.board.isOpen(i)) {
+        tempGame7x7.onMouseClicked(new Posn(i / 7 * 60 + 30, i % 7 * 60 + 30));
+      }
+    }
+    t.checkExpect(tempGame7x7.engine.winner(), 1);
+  }
+  
+  //tests for the UnionFind class
+  void testUnionFind(Tester t) {
+    UnionFind sets = new UnionFind(6);
+    t.checkExpect(sets.connected(0, 1), false);
+    t.checkExpect(sets.find(4), 4);
+    sets.union(0, 1);
+    sets.union(2, 3);
+    t.checkExpect(sets.connected(0, 1), true);
+    t.checkExpect(sets.connected(1, 2), false);
+    sets.union(1, 3);
+    t.checkExpect(sets.connected(0, 2), true);
+    t.checkExpect(sets.find(0), sets.find(3));
+    t.checkExpect(sets.connected(0, 5), false);
+    sets.union(3, 3);
+    t.checkExpect(sets.connected(4, 5), false);
+  }
+
+  //tests for the RollbackUnionFind class
+  void testRollbackUnionFind(Tester t) {
+    RollbackUnionFind sets = new RollbackUnionFind(6);
+    t.checkExpect(sets.version(), 0);
+    t.checkExpect(sets.parent, new int[] {0, 1, 2, 3, 4, 5});
+    //forgotten unions are kept, but no rollback takes them back
+    sets.union(4, 5);
+    sets.forget();
+    t.checkExpect(sets.version(), 0);
+    sets.rollback(0);
+    t.checkExpect(sets.connected(4, 5), true);
+    sets.reset();
+    t.checkExpect(sets.connected(4, 5), false);
+    t.checkExpect(sets.rank, new byte[6]);
+    sets.union(0, 1);
+    t.checkExpect(sets.rank[1], (byte) 1);
+    t.checkExpect(sets.parent[0], 1);
+    sets.union(2, 3);
+    int two = sets.version();
+    sets.union(1, 3);
+    sets.union(0, 2);
+    t.checkExpect(sets.version(), 4);
+    t.checkExpect(sets.log.get(3), -1);
+    t.checkExpect(sets.connected(0, 2), true);
+    t.checkExpect(sets.rank[sets.find(0)], (byte) 2);
+    //find leaves the paths as they were
+    t.checkExpect(sets.parent[0], 1);
+
+    //rolling back the no-op and the merge leaves the two sets of before
+    sets.rollback(two);
+    t.checkExpect(sets.version(), 2);
+    t.checkExpect(sets.connected(0, 1), true);
+    t.checkExpect(sets.connected(2, 3), true);
+    t.checkExpect(sets.connected(1, 2), false);
+    t.checkExpect(sets.rank[1], (byte) 1);
+    t.checkExpect(sets.rank[3], (byte) 1);
+    sets.rollback(0);
+    t.checkExpect(sets.parent, new int[] {0, 1, 2, 3, 4, 5});
+    t.checkExpect(sets.rank, new byte[6]);
+
+    RollbackUnionFind copy = new RollbackUnionFind(6);
+    sets.union(4, 5);
+    copy.copyFrom(sets);
+    t.checkExpect(copy.connected(4, 5), true);
+    copy.rollback(0);
+    t.checkExpect(copy.connected(4, 5), false);
+    t.checkExpect(sets.connected(4, 5), true);
+
+    //undoing every move of a random game gives back the links it started with
+    SplittableRandom rand = new SplittableRandom(23);
+    BridgItEngine engine9 = new BridgItEngine(9);
+    BridgItEngine fresh = new BridgItEngine(9);
+    int[] open = engine9.legalMoves();
+    for (int i = open.length; i > 0; i--) {
+      int pick = rand.nextInt(i);
+      int move = open[pick];
+      open[pick] = open[i - 1];
+      engine9.place(move, engine9.turn);
+    }
+    t.checkExpect(engine9.winner() != 0, true);
+    while (engine9.undo()) {
+      t.checkExpect(engine9.winner() == 0 || engine9.hasWon(engine9.winner()), true);
+    }
+    t.checkExpect(engine9.winner(), 0);
+    t.checkExpect(engine9.links.parent, fresh.links.parent);
+    t.checkExpect(engine9.links.rank, fresh.links.rank);
+    t.checkExpect(engine9.links.version(), fresh.links.version());
+  }
+
+  //tests for the initLinks and linkBridge methods of BridgItEngine
+  void testInitLinks(Tester t) {
+    this.initConditions();
+    
+    //the edge dots start out joined to the virtual node of their side
+    BridgItEngine engine5 = new BridgItEngine(5);
+    t.checkExpect(engine5.side(0), 25);
+    t.checkExpect(engine5.side(3), 28);
+    t.checkExpect(engine5.links.connected(25, engine5.board.index(0, 3)), true);
+    t.checkExpect(engine5.links.connected(26, engine5.board.index(4, 1)), true);
+    t.checkExpect(engine5.links.connected(27, engine5.board.index(3, 0)), true);
+    t.checkExpect(engine5.links.connected(28, engine5.board.index(1, 4)), true);
+    t.checkExpect(engine5.links.connected(25, 26), false);
+    t.checkExpect(engine5.links.connected(27, 28), false);
+    
+    //a red bridge on an odd column is horizontal, a blue one is vertical
+    engine5.board.place(engine5.board.index(1, 1), 1);
+    engine5.linkBridge(engine5.links, engine5.board.index(1, 1));
+    t.checkExpect(engine5.links.connected(engine5.board.index(0, 1), 
+        engine5.board.index(2, 1)), true);
+    engine5.board.place(engine5.board.index(3, 3), 2);
+    engine5.linkBridge(engine5.links, engine5.board.index(3, 3));
+    t.checkExpect(engine5.links.connected(engine5.board.index(3, 2), 
+        engine5.board.index(3, 4)), true);
+    t.checkExpect(engine5.links.connected(27, 28), false);
+    
+    //bridges already on a board given to the testing constructor are linked up
+    t.checkExpect(game3x3w.engine.links.connected(9, 10), true);
+    t.checkExpect(game3x3w.engine.winner(), 1);
+    t.checkExpect(game3x3.engine.links.connected(9, 10), false);
+    t.checkExpect(game3x3.engine.winner(), 0);
+  }
+  
+  //tests for the play, legalMoves, winner and undo methods of BridgItEngine
+  void testBridgItEngine(Tester t) {
+    t.checkConstructorException(
+        new IllegalArgumentException("BoardSize must be at least 3 and an odd number"), 
+        "BridgItEngine", 4);
+    
+    BridgItEngine engine5 = new BridgItEngine(5);
+    t.checkExpect(engine5.legalMoves().length, 5);
+    t.checkExpect(engine5.legalMoves()[0], 6);
+    t.checkExpect(engine5.undo(), false);
+    t.checkExpect(engine5.play(0, 1), false);
+    t.checkExpect(engine5.play(1, 2), false);
+    t.checkExpect(engine5.play(5, 1), false);
+    t.checkExpect(engine5.play(1, 1), true);
+    t.checkExpect(engine5.play(1, 1), false);
+    t.checkExpect(engine5.turn, 2);
+    t.checkExpect(engine5.legalMoves().length, 4);
+    t.checkExpect(engine5.play(2, 2), true);
+    t.checkExpect(engine5.board.dir(12), 1);
+    t.checkExpect(engine5.play(3, 3), true);
+    t.checkExpect(engine5.winner(), 0);
+    t.checkExpect(engine5.play(3, 1), true);
+    t.checkExpect(engine5.winner(), 0);
+    t.checkExpect(engine5.play(1, 3), true);
+    t.checkExpect(engine5.winner(), 1);
+    t.checkExpect(engine5.play(2, 4), false);
+    
+    //undoing gives the turn back and reopens the position
+    t.checkExpect(engine5.undo(), true);
+    t.checkExpect(engine5.winner(), 0);
+    t.checkExpect(engine5.turn, 1);
+    t.checkExpect(engine5.board.isOpen(engine5.board.index(1, 3)), true);
+    t.checkExpect(engine5.play(3, 3), false);
+    t.checkExpect(engine5.undo(), true);
+    t.checkExpect(engine5.undo(), true);
+    t.checkExpect(engine5.play(3, 3), true);
+    t.checkExpect(engine5.board.owner(18), 1);
+    t.checkExpect(engine5.winner(), 0);
+    
+    //player 2 across the middle column
+    BridgItEngine engine3 = new BridgItEngine(3);
+    engine3.turn = 2;
+    t.checkExpect(engine3.play(1, 1), true);
+    t.checkExpect(engine3.winner(), 2);
+  }
+  
+  //tests for the PackedBoard class
+  void testPackedBoard(Tester t) {
+    PackedBoard packed5 = new PackedBoard(5);
+    t.checkExpect(packed5.cells.length, 25);
+    t.checkExpect(packed5.index(3, 2), 17);
+    t.checkExpect(packed5.x(17), 3);
+    t.checkExpect(packed5.y(17), 2);
+    t.checkExpect(packed5.isDot(packed5.index(0, 1)), true);
+    t.checkExpect(packed5.owner(packed5.index(0, 1)), 1);
+    t.checkExpect(packed5.owner(packed5.index(1, 0)), 2);
+    t.checkExpect(packed5.isDot(packed5.index(1, 1)), false);
+    t.checkExpect(packed5.owner(packed5.index(1, 1)), 0);
+    t.checkExpect(packed5.onBorder(packed5.index(0, 2)), true);
+    t.checkExpect(packed5.onBorder(packed5.index(2, 2)), false);
+    t.checkExpect(packed5.isOpen(packed5.index(2, 2)), true);
+    t.checkExpect(packed5.isOpen(packed5.index(2, 1)), false);
+    t.checkExpect(packed5.isOpen(packed5.index(4, 2)), false);
+    
+    t.checkExpect(PackedBoard.bridgeDir(1, 1, 1), 1);
+    t.checkExpect(PackedBoard.bridgeDir(2, 2, 1), 2);
+    t.checkExpect(PackedBoard.bridgeDir(1, 1, 2), 2);
+    t.checkExpect(PackedBoard.bridgeDir(2, 2, 2), 1);
+    
+    packed5.place(packed5.index(2, 2), 1);
+    t.checkExpect(packed5.owner(packed5.index(2, 2)), 1);
+    t.checkExpect(packed5.dir(packed5.index(2, 2)), 2);
+    t.checkExpect(packed5.isDot(packed5.index(2, 2)), false);
+    t.checkExpect(packed5.isOpen(packed5.index(2, 2)), false);
+    
+    int[] found = new int[4];
+    t.checkExpect(packed5.bridgedNeighbors(packed5.index(2, 1), 1, found), 1);
+    t.checkExpect(found[0], packed5.index(2, 3));
+    t.checkExpect(packed5.bridgedNeighbors(packed5.index(2, 1), 2, found), 0);
+    packed5.place(packed5.index(1, 1), 1);
+    t.checkExpect(packed5.bridgedNeighbors(packed5.index(2, 1), 1, found), 2);
+    t.checkExpect(found[0], packed5.index(0, 1));
+    t.checkExpect(found[1], packed5.index(2, 3));
+  }
+  
+  //tests for the BitBoard class
+  void testBitBoard(Tester t) {
+    BitBoard bits5 = new BitBoard(5);
+    t.checkExpect(bits5.lines, 3);
+    t.checkExpect(bits5.rows, 2);
+    t.checkExpect(bits5.words, 1);
+    t.checkExpect(bits5.last, 3L);
+    t.checkExpect(new BitBoard(131).words, 2);
+    t.checkExpect(new BitBoard(131).last, 1L);
+    bits5.place(6, 1);
+    bits5.place(12, 1);
+    bits5.place(18, 2);
+    bits5.place(2 * 5 + 4 - 2, 2);
+    t.checkExpect(bits5.forward[0], new long[] {1, 0, 0});
+    t.checkExpect(bits5.along[0], new long[] {0, 1, 0});
+    t.checkExpect(bits5.forward[1], new long[] {0, 2, 0});
+    t.checkExpect(bits5.along[1], new long[] {0, 1, 0});
+    t.checkExpect(bits5.hasWon(1), false);
+    bits5.place(16, 1);
+    t.checkExpect(bits5.hasWon(1), true);
+    t.checkExpect(bits5.hasWon(2), false);
+    bits5.clear();
+    t.checkExpect(bits5.hasWon(1), false);
+    BitBoard bits3 = new BitBoard(3);
+    bits3.place(4, 2);
+    t.checkExpect(bits3.hasWon(2), true);
+    t.checkExpect(bits3.hasWon(1), false);
+
+    t.checkExpect(BitBoard.fillUp(1, 7), 15L);
+    t.checkExpect(BitBoard.fillUp(16, 7), 16L);
+    t.checkExpect(BitBoard.fillUp(2, -1L), -2L);
+    t.checkExpect(BitBoard.fillDown(8, 7), 15L);
+    t.checkExpect(BitBoard.fillDown(Long.MIN_VALUE, -1L), -1L);
+    t.checkExpect(BitBoard.fillDown(Long.MIN_VALUE, Long.MAX_VALUE >>> 1), Long.MIN_VALUE);
+
+    //the flood follows a path down every line of the snake in one sweep
+    BitBoard snake = new BitBoard(BridgItBenchmark.snakeGame(21).engine.board);
+    t.checkExpect(snake.hasWon(1), true);
+    t.checkExpect(snake.sweeps, 1);
+    t.checkExpect(snake.hasWon(2), false);
+
+    //random boards, some with rows of more than one long, agree with the engine's hasWon
+    SplittableRandom rand = new SplittableRandom(21);
+    boolean agrees = true;
+    int mostSweeps = 0;
+    for (int size : new int[] {3, 5, 7, 9, 15, 27, 129, 131}) {
+      for (int game = 0; game < 4; game++) {
+        BridgItEngine engine = new BridgItEngine(size);
+        BitBoard bits = new BitBoard(size);
+        int[] moves = engine.legalMoves();
+        for (int j = moves.length - 1; j >= 0; j--) {
+          int pick = rand.nextInt(j + 1);
+          int move = moves[pick];
+          moves[pick] = moves[j];
+          int player = rand.nextInt(2) + 1;
+          engine.place(move, player);
+          bits.place(move, player);
+          for (int p = 1; p <= 2 && (size < 100 || j % 40 == 0); p++) {
+            agrees = agrees && bits.hasWon(p) == engine.hasWon(p);
+            mostSweeps = Math.max(mostSweeps, bits.sweeps);
+          }
+        }
+        agrees = agrees && new BitBoard(engine.board).hasWon(1) == engine.hasWon(1);
+      }
+    }
+    t.checkExpect(agrees, true);
+    t.checkExpect(mostSweeps > 1, true);
+
+    //and with the world's hasWon as the game is clicked
+    BridgItWorld world = BridgItBenchmark.randomGame(11, 0.6, new Random(21));
+    BitBoard worldBits = new BitBoard(world.engine.board);
+    t.checkExpect(worldBits.hasWon(1), world.hasWon(world.starters(1), world.enders(1),
+        world.player1));
+    t.checkExpect(worldBits.hasWon(2), world.hasWon(world.starters(2), world.enders(2),
+        world.player2));
+  }
+
+  //tests for the Adjacency class
+  void testAdjacency(Tester t) {
+    Adjacency adjacency5 = Adjacency.of(5);
+    t.checkExpect(Adjacency.of(5) == adjacency5, true);
+    t.checkExpect(new PackedBoard(5).adjacency == adjacency5, true);
+    t.checkExpect(new BitPosition(5).adjacency == adjacency5, true);
+    t.checkExpect(Adjacency.of(7) == adjacency5, false);
+    //a dot of player 1 near the top side, and one on the left side with no spot along it
+    t.checkExpect(adjacency5.directions[11], (byte) (Adjacency.RIGHT | Adjacency.LEFT 
+        | Adjacency.BOTTOM));
+    t.checkExpect(adjacency5.directions[1], (byte) (Adjacency.RIGHT | Adjacency.BOTTOM));
+    t.checkExpect(adjacency5.directions[5], (byte) (Adjacency.RIGHT | Adjacency.BOTTOM));
+    t.checkExpect(adjacency5.directions[23], (byte) (Adjacency.LEFT | Adjacency.TOP));
+    t.checkExpect(adjacency5.directions[12], (byte) 0);
+    t.checkExpect(Adjacency.of(7).directions[7 * 2 + 3], (byte) (Adjacency.RIGHT 
+        | Adjacency.LEFT | Adjacency.TOP | Adjacency.BOTTOM));
+
+    //every dot's pairs are the neighbors toAddNeighbors finds when every spot is its
+    //player's, each player's dots checked on a board of bridges of their own color
+    BridgItWorld full = new BridgItWorld(7, Color.red, Color.blue);
+    Adjacency adjacency7 = Adjacency.of(7);
+    int[] steps = {7, -7, -1, 1}; //to the spot in each direction, in the order of the bits
+    boolean agrees = true;
+    for (int dot = 1; dot < 49; dot += 2) {
+      Cell cell = full.board.get(dot / 7).get(dot % 7);
+      for (int i = 0; i < 49; i += 2) {
+        if (!full.engine.board.isDot(i)) {
+          full.engine.board.place(i, full.engine.board.owner(dot));
+        }
+      }
+      ArrayList<Cell> expected = cell.toAddNeighbors(full.board, 7, cell.color(), new BitSet());
+      agrees = agrees && expected.size() == Integer.bitCount(adjacency7.directions[dot]);
+      int j = 0;
+      for (int d = 0; d < 4 && agrees; d++) {
+        if ((adjacency7.directions[dot] >> d & 1) != 0) {
+          int across = dot + 2 * steps[d];
+          agrees = across == expected.get(j).x * 7 + expected.get(j).y;
+          j++;
+        }
+      }
+    }
+    t.checkExpect(agrees, true);
+  }
+  
+  //tests for the pointIndex and packCells methods of BridgItWorld
+  void testPackCells(Tester t) {
+    this.initConditions();
+    
+    t.checkExpect(game5RandB.pointIndex(new Posn(91, 92)), 6);
+    t.checkExpect(game5RandB.pointIndex(new Posn(209, 30)), 15);
+    t.checkExpect(game5RandB.pointIndex(new Posn(301, 30)), -1);
+    t.checkExpect(game5RandB.pointIndex(new Posn(-3, 30)), -1);
+    
+    t.checkExpect(game3x3.engine.board.isDot(4), false);
+    t.checkExpect(game3x3.engine.board.isOpen(4), true);
+    t.checkExpect(game3x3w.engine.board.owner(4), 1);
+    t.checkExpect(game3x3w.engine.board.dir(4), 1);
+    t.checkExpect(game3x3w.engine.board.isDot(3), true);
+    t.checkExpect(game3x3w.engine.board.owner(3), 1);
+    t.checkExpect(game3x3w.engine.board.owner(1), 2);
+    
+    //clicking updates the packed board and the Cell viewing it
+    BridgItWorld tempGame5x5 = new BridgItWorld(5, Color.red, Color.blue);
+    tempGame5x5.onMouseClicked(new Posn(150, 150));
+    t.checkExpect(tempGame5x5.engine.board.owner(12), 1);
+    t.checkExpect(tempGame5x5.engine.board.dir(12), 2);
+    t.checkExpect(tempGame5x5.board.get(2).get(2).playerDir(), 2);
+    t.checkExpect(tempGame5x5.board.get(2).get(2).color(), Color.red);
+    tempGame5x5.onMouseClicked(new Posn(150, 150));
+    t.checkExpect(tempGame5x5.engine.board.owner(12), 1);
+    t.checkExpect(tempGame5x5.engine.turn, 2);
+    //undoing on the engine shows through the Cells and the turn
+    tempGame5x5.engine.undo();
+    t.checkExpect(tempGame5x5.board.get(2).get(2).color(), Color.white);
+    t.checkExpect(tempGame5x5.board.get(2).get(2).bridged(), false);
+    t.checkExpect(tempGame5x5.engine.turn, 1);
+    
+    t.checkExpect(game5RandB.playerNumber(Color.blue), 2);
+    t.checkExpect(game5RandB.playerNumber(Color.white), 0);
+    t.checkExpect(game5RandB.playerColor(1), Color.red);
+    t.checkExpect(game5RandB.playerColor(0), Color.white);
+  }
+  
+  //determines if the player has won by searching every pair of starters and enders
+  //the way hasWon did before it used the connectivity structure
+  boolean wonBySearch(BridgItWorld game, ArrayList<Cell> starters, ArrayList<Cell> enders, 
+      Color player) {
+    for (Cell startC : starters) {
+      for (Cell endC : enders) {
+        if (game.hasPath(startC, endC, new Queue<Cell>(), player)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+  
+  //tests that hasWon agrees with a search of every path on random games
+  void testHasWonMatchesSearch(Tester t) {
+    Random rand = new Random(2020);
+    int disagreements = 0;
+    int wins = 0;
+    for (int game = 0; game < 40; game++) {
+      int size = 5 + 2 * (game % 5);
+      BridgItWorld tempGame = new BridgItWorld(size, Color.red, Color.blue);
+      ArrayList<Posn> moves = new ArrayList<Posn>();
+      for (int x = 1; x < size - 1; x++) {
+        for (int y = 1; y < size - 1; y++) {
+          if (!tempGame.board.get(x).get(y).isCircle) {
+            moves.add(new Posn(x * 60 + 30, y * 60 + 30));
+          }
+        }
+      }
+      Collections.shuffle(moves, rand);
+      for (Posn move : moves) {
+        tempGame.onMouseClicked(move);
+        boolean red = tempGame.hasWon(tempGame.starters(1), tempGame.enders(1), Color.red);
+        boolean blue = tempGame.hasWon(tempGame.starters(2), tempGame.enders(2), Color.blue);
+        if (red != this.wonBySearch(tempGame, tempGame.starters(1), tempGame.enders(1), Color.red)
+            || blue != this.wonBySearch(tempGame, tempGame.starters(2), tempGame.enders(2), 
+                Color.blue)
+            || red == tempGame.winningPath(tempGame.starters(1), tempGame.enders(1), 
+                Color.red).isEmpty()
+            || blue == tempGame.winningPath(tempGame.starters(2), tempGame.enders(2), 
+                Color.blue).isEmpty()) {
+          disagreements++;
+        }
+        if (red || blue) {
+          wins++;
+        }
+      }
+    }
+    t.checkExpect(disagreements, 0);
+    t.checkExpect(wins > 0, true);
+  }
+  
   //test to the World
   //also shows a more thorough onMouseClicked, onMouseMoved, pointCell
   void testWorld(Tester t) {
@@ -0,0 +1,762 @@
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+//numbers the spots of boards of one size in the order of their indices, so a position
+//has a code of two bits a spot, the owner of spot k at bits 2k and 2k + 1, and a bit
+//past them set if it is player 2's turn
+//a code fits in CODE_BITS bits for boards of up to MOST_SPOTS spots, size 9 and smaller
+class PositionCodes {
+  static final int CODE_BITS = 55;
+  static final int MOST_SPOTS = (CODE_BITS - 1) / 2;
+  int size;
+  int[] spots; //the board index of each spot a bridge can go
+  int[] spotOf; //the spot at each board index, -1 if a bridge cannot go there
+  Symmetry symmetry;
+
+  //constructor for boards of the given size, if their codes fit in CODE_BITS bits
+  PositionCodes(int size) {
+    this.size = BridgItEngine.checkSize(size);
+    this.spots = new BridgItEngine(size).legalMoves();
+    if (this.spots.length > MOST_SPOTS) {
+      throw new IllegalArgumentException("Boards of size " + size + " have "
+          + this.spots.length + " spots, too many for a solution database");
+    }
+    this.spotOf = new int[size * size];
+    Arrays.fill(this.spotOf, -1);
+    for (int k = 0; k < this.spots.length; k++) {
+      this.spotOf[this.spots[k]] = k;
+    }
+    this.symmetry = Symmetry.of(size);
+  }
+
+  //returns the bits a bridge of the given player at the given index adds to the code of
+  //a position turned over by the given symmetry
+  long bridge(int g, int index, int player) {
+    return (long) Symmetry.player(g, player) << 2 * this.spotOf[this.symmetry.map(g, index)];
+  }
+
+  //returns the bit of the code saying it is the given player's turn
+  long turn(int player) {
+    if (player == 2) {
+      return 1L << 2 * this.spots.length;
+    }
+    return 0;
+  }
+}
+
+//the keys of a position in a solution database, kept up to date one move at a time: its
+//canonical hash, which picks the slot it goes in, and its code under every symmetry, the
+//one under the symmetry to the canonical position telling it apart from other positions
+//whose hashes land in the same slots
+class DatabaseKey {
+  PositionCodes codes;
+  CanonicalHash hashes;
+  long[] bridges = new long[Symmetry.COUNT]; //the code of the bridges under each symmetry
+  int turn; //the number of the player to move
+
+  //constructor for the keys of the given position, whose size the given codes are for
+  DatabaseKey(PositionCodes codes, BitPosition position) {
+    this.codes = codes;
+    this.hashes = new CanonicalHash(position);
+    this.turn = position.turn();
+    for (int i = 0; i < position.size * position.size; i += 2) {
+      if (position.owner(i) != 0) {
+        for (int g = 0; g < Symmetry.COUNT; g++) {
+          this.bridges[g] |= codes.bridge(g, i, position.owner(i));
+        }
+      }
+    }
+  }
+
+  //EFFECT: adds or takes away a bridge of the given player at the given index and passes
+  //the turn, as making or unmaking a move of the player to move does to a position
+  void toggle(int index, int player) {
+    this.hashes.toggle(index, player);
+    for (int g = 0; g < Symmetry.COUNT; g++) {
+      this.bridges[g] ^= this.codes.bridge(g, index, player);
+    }
+    this.turn = 3 - this.turn;
+  }
+
+  //returns the canonical hash of the position
+  long hash() {
+    return this.hashes.key();
+  }
+
+  //returns the symmetry taking the position to the canonical one
+  int canonical() {
+    return this.hashes.canonical();
+  }
+
+  //returns the code of the canonical position
+  long code() {
+    int g = this.canonical();
+    return this.bridges[g] | this.codes.turn(Symmetry.player(g, this.turn));
+  }
+}
+
+//the winner and distance to the end with best play of the positions of one board size
+//that nobody has won yet, in a memory mapped file, so opening it loads nothing onto the
+//heap and a lookup is a probe or two of the mapped file
+//the file is a HEADER of MAGIC, VERSION, the size, the number of spots, the log of the
+//number of slots, the flags and the number of positions, and then the slots: an open
+//addressing table of longs, each 0 if empty and otherwise USED, the value of a position
+//shifted by VALUE_SHIFT and the code of the position, canonical so that a position and
+//every one symmetric to it take one slot, found by linear probing from its canonical hash
+//a value is the winner times 64 plus the number of moves left, counted as the winner
+//ending the game as soon as they can and the loser putting it off as long as they can,
+//and is 0 while the position is not solved yet
+//a WHOLE database has every position a game can reach; otherwise it has those of the
+//games in which player 1 follows Shannon's strategy, and every move of player 2's, so
+//player 1 always has a win there but not always the fastest one
+class SolutionDatabase implements AutoCloseable {
+  static final int MAGIC = 0x42524442; //"BRDB"
+  static final int VERSION = 2;
+  static final int HEADER = 64;
+  static final int SIZE_AT = 8; //positions in the header
+  static final int SPOTS_AT = 12;
+  static final int SLOTS_AT = 16;
+  static final int FLAGS_AT = 20;
+  static final int COUNT_AT = 24;
+  static final int WHOLE = 1; //flags
+  static final int FINISHED = 2;
+  static final long USED = 1L << 63;
+  static final int VALUE_SHIFT = PositionCodes.CODE_BITS;
+  static final long CODE_MASK = (1L << VALUE_SHIFT) - 1;
+  //reads and swaps the slots of the map as longs, atomically
+  static final VarHandle SLOTS =
+      MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+  //the finished databases found for each size by forSize
+  static final ConcurrentHashMap<Integer, SolutionDatabase> FOUND =
+      new ConcurrentHashMap<Integer, SolutionDatabase>();
+  //where forSize looks for databases, by default the working directory
+  static Path directory = Paths.get(System.getProperty("bridgit.databases", "."));
+  PositionCodes codes;
+  FileChannel channel;
+  MappedByteBuffer table;
+  long mask; //the number of slots less one
+
+  //constructor that maps the finished database at the given path, read only
+  SolutionDatabase(Path file) throws IOException {
+    this(file, false);
+    if ((this.flags() & FINISHED) == 0) {
+      this.channel.close();
+      throw new IOException("Solution database is not finished");
+    }
+  }
+
+  //constructor that maps the database at the given path, for writing if asked to
+  SolutionDatabase(Path file, boolean writing) throws IOException {
+    if (writing) {
+      this.channel = FileChannel.open(file, StandardOpenOption.READ,
+          StandardOpenOption.WRITE);
+    }
+    else {
+      this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    }
+    try {
+      FileChannel.MapMode mode = FileChannel.MapMode.READ_ONLY;
+      if (writing) {
+        mode = FileChannel.MapMode.READ_WRITE;
+      }
+      this.table = this.channel.map(mode, 0, this.channel.size());
+      this.codes = new PositionCodes(checkHeader(this.table, this.channel.size()));
+      this.mask = (1L << this.table.getInt(SLOTS_AT)) - 1;
+    }
+    catch (IOException | IllegalArgumentException e) {
+      this.channel.close();
+      throw e;
+    }
+  }
+
+  //EFFECT: makes a new empty database at the given path for boards of the given size,
+  //with 2 to the given power slots, of every position if asked to
+  static void create(Path file, int size, int slotsLog, boolean whole) throws IOException {
+    PositionCodes codes = new PositionCodes(size);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+          HEADER + (8L << slotsLog));
+      table.putInt(0, MAGIC);
+      table.putInt(4, VERSION);
+      table.putInt(SIZE_AT, size);
+      table.putInt(SPOTS_AT, codes.spots.length);
+      table.putInt(SLOTS_AT, slotsLog);
+      if (whole) {
+        table.putInt(FLAGS_AT, WHOLE);
+      }
+      table.force();
+    }
+  }
+
+  //returns the board size of the database whose file, of the given length, is mapped in
+  //the given buffer, checking its header
+  static int checkHeader(MappedByteBuffer table, long length) throws IOException {
+    if (length < HEADER || table.getInt(0) != MAGIC) {
+      throw new IOException("Not a BridgIt solution database");
+    }
+    if (table.getInt(4) != VERSION) {
+      throw new IOException("Solution database of an unknown version");
+    }
+    int size = table.getInt(SIZE_AT);
+    int slotsLog = table.getInt(SLOTS_AT);
+    if (size < 3 || size % 2 == 0 || size > 9 || slotsLog < 0 || slotsLog > 40
+        || table.getInt(SPOTS_AT) != new PositionCodes(size).spots.length
+        || length != HEADER + (8L << slotsLog)) {
+      throw new IOException("Solution database is corrupt");
+    }
+    return size;
+  }
+
+  //returns the finished database of the given size in directory, named as
+  //RetrogradeSolver names it, or null if there is none, mapping it the first time
+  static SolutionDatabase forSize(int size) {
+    SolutionDatabase found = FOUND.get(size);
+    if (found != null || size > 9) {
+      return found;
+    }
+    Path file = directory.resolve(RetrogradeSolver.fileName(size));
+    if (!Files.isRegularFile(file)) {
+      return null;
+    }
+    try {
+      found = new SolutionDatabase(file);
+    }
+    catch (IOException | IllegalArgumentException e) {
+      return null;
+    }
+    SolutionDatabase earlier = FOUND.putIfAbsent(size, found);
+    if (earlier != null) {
+      found.closeQuietly();
+      return earlier;
+    }
+    return found;
+  }
+
+  //returns the flags of the database
+  int flags() {
+    return this.table.getInt(FLAGS_AT);
+  }
+
+  //returns the slot at the given number
+  long slot(long number) {
+    return (long) SLOTS.getVolatile(this.table, (int) (HEADER + number * 8));
+  }
+
+  //returns the number of the slot of the position with the given canonical hash and code,
+  //putting the position in an empty slot, unsolved, if asked to
+  //returns -1 if the position is not in the database and is not to be put in
+  //throws an IllegalStateException if the database is full
+  long find(long hash, long code, boolean add) {
+    long number = hash & this.mask;
+    for (long probes = 0; probes <= this.mask; probes++) {
+      long slot = this.slot(number);
+      if (slot == 0) {
+        if (!add) {
+          return -1;
+        }
+        if (SLOTS.compareAndSet(this.table, (int) (HEADER + number * 8), 0L, USED | code)) {
+          return number;
+        }
+        slot = this.slot(number);
+      }
+      if ((slot & CODE_MASK) == code) {
+        return number;
+      }
+      number = (number + 1) & this.mask;
+    }
+    if (!add) {
+      return -1;
+    }
+    throw new IllegalStateException("Solution database is full");
+  }
+
+  //returns the value of the position in the slot at the given number, 0 if not solved
+  int value(long number) {
+    return (int) (this.slot(number) >>> VALUE_SHIFT) & 0xFF;
+  }
+
+  //EFFECT: gives the unsolved position in the slot at the given number the given value,
+  //unless another thread solved it first
+  //determines if this call is the one that solved it
+  boolean solve(long number, int value) {
+    long slot = this.slot(number);
+    return ((slot >>> VALUE_SHIFT) & 0xFF) == 0
+        && SLOTS.compareAndSet(this.table, (int) (HEADER + number * 8), slot,
+            slot | (long) value << VALUE_SHIFT);
+  }
+
+  //returns the value of the position with the given keys, as seen from the position
+  //rather than the canonical one, 0 if the database does not have it
+  int value(DatabaseKey key) {
+    long number = this.find(key.hash(), key.code(), false);
+    if (number < 0) {
+      return 0;
+    }
+    return orient(this.value(number), key.canonical());
+  }
+
+  //returns the value of the given game's position, 0 if the database does not have it,
+  //and the winner with no moves left if the game is won
+  int value(BridgItEngine game) {
+    if (game.winner() != 0) {
+      return game.winner() << 6;
+    }
+    if (game.size != this.codes.size) {
+      return 0;
+    }
+    return this.value(new DatabaseKey(this.codes, new BitPosition(game)));
+  }
+
+  //returns the given value of a position with the winner turned over by the given
+  //symmetry, which takes the value of a canonical position to the position's, and back
+  static int orient(int value, int g) {
+    if (value == 0) {
+      return 0;
+    }
+    return Symmetry.player(g, winner(value)) << 6 | distance(value);
+  }
+
+  //returns the winner of a position with the given value
+  static int winner(int value) {
+    return value >> 6;
+  }
+
+  //returns the moves left in a position with the given value
+  static int distance(int value) {
+    return value & 63;
+  }
+
+  //returns the open index of the given game whose position is best for the player to
+  //move, winning as fast as they can or losing as slowly as they can, or -1 if the
+  //database does not have the position after any of them
+  int bestMove(BridgItEngine game) {
+    if (game.size != this.codes.size || game.winner() != 0) {
+      return -1;
+    }
+    int player = game.turn;
+    BitPosition position = new BitPosition(game);
+    DatabaseKey key = new DatabaseKey(this.codes, position);
+    int best = -1;
+    int bestScore = Integer.MIN_VALUE;
+    for (int move : this.codes.spots) {
+      if (game.board.isOpen(move)) {
+        position.make(move);
+        key.toggle(move, player);
+        int value = player << 6;
+        if (!position.hasWon(player)) {
+          value = this.value(key);
+        }
+        position.unmake();
+        key.toggle(move, player);
+        //a win sooner beats a win later, which beats a loss later, which beats one sooner
+        int score = distance(value);
+        if (winner(value) == player) {
+          score = 1000 - score;
+        }
+        if (value != 0 && score > bestScore) {
+          best = move;
+          bestScore = score;
+        }
+      }
+    }
+    return best;
+  }
+
+  //returns every used slot, for comparing databases whose positions went into different
+  //slots
+  long[] entries() {
+    long[] result = new long[this.table.getInt(COUNT_AT)];
+    int count = 0;
+    for (long number = 0; number <= this.mask; number++) {
+      long slot = this.slot(number);
+      if (slot != 0 && count < result.length) {
+        result[count] = slot;
+        count++;
+      }
+    }
+    Arrays.sort(result);
+    return result;
+  }
+
+  //EFFECT: closes the file, the mapping staying readable until it is collected
+  public void close() throws IOException {
+    this.channel.close();
+  }
+
+  //EFFECT: closes the file, ignoring a failure to
+  void closeQuietly() {
+    try {
+      this.close();
+    }
+    catch (IOException e) {
+      //the database is dropped either way
+    }
+  }
+}
+
+//a computer player that plays perfectly from every position a solution database has,
+//winning as fast as it can or losing as slowly as it can, and leaves every other position
+//to another player
+class DatabasePlayer implements ComputerPlayer {
+  SolutionDatabase database;
+  int player;
+  ComputerPlayer fallback; //plays what the database does not have, null to give up
+
+  //constructor for a player of the given side looking its moves up in the given database
+  DatabasePlayer(SolutionDatabase database, int player, ComputerPlayer fallback) {
+    this.database = database;
+    this.player = player;
+    this.fallback = fallback;
+  }
+
+  //returns the number of the player whose bridges this one places
+  public int side() {
+    return this.player;
+  }
+
+  //returns the open index whose position is best for this player, from the database
+  //if it has the positions after the game's and the fallback if not
+  public int chooseMove(BridgItEngine game) {
+    int move = -1;
+    if (game.turn == this.player) {
+      move = this.database.bestMove(game);
+    }
+    if (move < 0 && this.fallback != null) {
+      return this.fallback.chooseMove(game);
+    }
+    return move;
+  }
+}
+
+//works out a solution database, each position's value from the values of the positions
+//after it, back from the positions where a bridge wins, depth first from the empty board
+//so only the positions a game can reach are solved, and each of them once for it and
+//every position symmetric to it
+//boards up to WHOLE_LARGEST have every position solved; on larger ones, player 1 only
+//plays the move Shannon's strategy would, which always wins, and player 2 every move, so
+//a size 9 database has about 7 million positions instead of some 10^10
+//the games are split at their first SPLIT moves into tasks run on every thread at once,
+//and a position is only treated as done once it has a value, which is written after the
+//values of all the positions after it, so a build that is stopped carries on from the
+//positions already solved
+//run with: java -Djava.awt.headless=true RetrogradeSolver [size] [threads] [file]
+class RetrogradeSolver {
+  static final int WHOLE_LARGEST = 7;
+  static final int SPLIT = 4;
+  SolutionDatabase database;
+  int threads;
+  boolean whole;
+  AtomicLong solved = new AtomicLong(); //positions solved by this solver
+  long limit = Long.MAX_VALUE; //positions to solve before stopping, as if killed
+
+  //constructor for a solver filling in the database at the given path on the given
+  //number of threads, making the database first if there is none
+  RetrogradeSolver(Path file, int size, int threads) throws IOException {
+    if (!Files.exists(file)) {
+      SolutionDatabase.create(file, size, slotsLog(size), size <= WHOLE_LARGEST);
+    }
+    this.database = new SolutionDatabase(file, true);
+    if (this.database.codes.size != size) {
+      this.database.close();
+      throw new IOException("Solution database is of another board size");
+    }
+    this.threads = threads;
+    this.whole = (this.database.flags() & SolutionDatabase.WHOLE) != 0;
+  }
+
+  //returns the name of the file of the database of the given size
+  static String fileName(int size) {
+    return "bridgit" + size + ".db";
+  }
+
+  //returns the log of the number of slots a database of the given size is made with,
+  //room for about four times the positions a game can reach over the symmetries, or for
+  //the 7 million of a size 9 database
+  static int slotsLog(int size) {
+    int spots = new PositionCodes(size).spots.length;
+    if (size > WHOLE_LARGEST) {
+      return 24;
+    }
+    long positions = 1;
+    for (int k = 0; k < spots; k++) {
+      positions *= 3;
+    }
+    return Math.max(4, 64 - Long.numberOfLeadingZeros(positions / 4));
+  }
+
+  //EFFECT: solves every position of the database not solved yet, marking it finished
+  //returns the number of positions solved, or -1 if stopped by the limit first
+  long build() throws IOException, InterruptedException {
+    int size = this.database.codes.size;
+    ArrayList<int[]> tasks = new ArrayList<int[]>();
+    this.split(new BridgItEngine(size), new ShannonSolver(size), new int[0], tasks);
+    ExecutorService pool = Executors.newFixedThreadPool(this.threads);
+    try {
+      ArrayList<Future<Void>> futures = new ArrayList<Future<Void>>();
+      for (int[] prefix : tasks) {
+        Callable<Void> task = () -> {
+          new Search(this, prefix).solve();
+          this.database.table.force();
+          return null;
+        };
+        futures.add(pool.submit(task));
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+      //the first SPLIT moves, whose positions after them are all solved now
+      new Search(this, new int[0]).solve();
+    }
+    catch (CancellationException e) {
+      this.database.table.force();
+      return -1;
+    }
+    catch (ExecutionException e) {
+      if (e.getCause() instanceof CancellationException) {
+        this.database.table.force();
+        return -1;
+      }
+      throw new IOException("Solving the positions failed", e.getCause());
+    }
+    finally {
+      pool.shutdownNow();
+      pool.awaitTermination(1, TimeUnit.MINUTES);
+    }
+    long count = 0;
+    for (long number = 0; number <= this.database.mask; number++) {
+      if (this.database.slot(number) != 0) {
+        count++;
+      }
+    }
+    this.database.table.putInt(SolutionDatabase.COUNT_AT, (int) count);
+    this.database.table.putInt(SolutionDatabase.FLAGS_AT,
+        this.database.flags() | SolutionDatabase.FINISHED);
+    this.database.table.force();
+    return this.solved.get();
+  }
+
+  //EFFECT: adds to tasks the moves of every way the given game, made by the given moves,
+  //can go on for SPLIT moves in all without anybody winning, the moves being those solve
+  //tries, the solver kept up to date with the game
+  void split(BridgItEngine game, ShannonSolver shannon, int[] moves, ArrayList<int[]> tasks) {
+    if (moves.length == SPLIT) {
+      tasks.add(moves);
+      return;
+    }
+    for (int move : this.moves(game, shannon)) {
+      game.place(move, game.turn);
+      if (game.winner() == 0) {
+        int[] longer = Arrays.copyOf(moves, moves.length + 1);
+        longer[moves.length] = move;
+        this.split(game, shannon, longer, tasks);
+      }
+      game.undo();
+    }
+  }
+
+  //returns the moves tried from the given game: every open index, or if the database is
+  //not whole and it is player 1's turn, only the one Shannon's strategy plays
+  int[] moves(BridgItEngine game, ShannonSolver shannon) {
+    if (!this.whole && game.turn == 1) {
+      int move = shannon.chooseMove(game);
+      //the strategy wins every game player 1 has followed it in, but if it ever gives
+      //up, every move is tried, so player 1 is never wrongly thought to lose
+      if (move >= 0) {
+        return new int[] {move};
+      }
+    }
+    return game.legalMoves();
+  }
+
+  //one thread's depth first search, from the position after some moves
+  static class Search {
+    RetrogradeSolver solver;
+    SolutionDatabase database;
+    BridgItEngine game;
+    ShannonSolver shannon;
+    DatabaseKey key;
+
+    //constructor for a search of the given solver from the position after the given moves
+    Search(RetrogradeSolver solver, int[] moves) {
+      int size = solver.database.codes.size;
+      this.solver = solver;
+      this.database = solver.database;
+      this.game = new BridgItEngine(size);
+      this.shannon = new ShannonSolver(size);
+      this.key = new DatabaseKey(this.database.codes, new BitPosition(size));
+      for (int move : moves) {
+        this.key.toggle(move, this.game.turn);
+        this.game.place(move, this.game.turn);
+      }
+    }
+
+    //returns the value of the game's position, which nobody has won yet, working it out
+    //unless the database has it, as seen from the position
+    //EFFECT: makes and unmakes moves on the game, leaving it as it was
+    int solve() {
+      long number = this.database.find(this.key.hash(), this.key.code(), true);
+      int value = this.database.value(number);
+      if (value != 0) {
+        return SolutionDatabase.orient(value, this.key.canonical());
+      }
+      if (this.solver.solved.get() >= this.solver.limit) {
+        throw new CancellationException("Stopped at the limit");
+      }
+      //the mover wins if any move wins, as soon as possible, and loses otherwise, as late
+      //as possible; a full board always has a winner, so there is always a move here
+      int mover = this.game.turn;
+      int fastestWin = Integer.MAX_VALUE;
+      int slowestLoss = -1;
+      for (int move : this.solver.moves(this.game, this.shannon)) {
+        this.game.place(move, mover);
+        int child = mover << 6;
+        if (this.game.winner() == 0) {
+          this.key.toggle(move, mover);
+          child = this.solve();
+          this.key.toggle(move, mover);
+        }
+        this.game.undo();
+        if (SolutionDatabase.winner(child) == mover) {
+          fastestWin = Math.min(fastestWin, SolutionDatabase.distance(child));
+        }
+        else {
+          slowestLoss = Math.max(slowestLoss, SolutionDatabase.distance(child));
+        }
+      }
+      value = (3 - mover) << 6 | (slowestLoss + 1);
+      if (fastestWin != Integer.MAX_VALUE) {
+        value = mover << 6 | (fastestWin + 1);
+      }
+      if (this.database.solve(number, SolutionDatabase.orient(value, this.key.canonical()))) {
+        this.solver.solved.incrementAndGet();
+      }
+      return value;
+    }
+  }
+
+  //builds the database of a size into a file, carrying on from where a build of the same
+  //file stopped
+  public static void main(String[] args) throws IOException, InterruptedException {
+    int size = 9;
+    int threads = Runtime.getRuntime().availableProcessors();
+    if (args.length > 0) {
+      size = Integer.parseInt(args[0]);
+    }
+    if (args.length > 1) {
+      threads = Integer.parseInt(args[1]);
+    }
+    Path file = Paths.get(fileName(size));
+    if (args.length > 2) {
+      file = Paths.get(args[2]);
+    }
+    RetrogradeSolver solver = new RetrogradeSolver(file, size, threads);
+    long start = System.nanoTime();
+    long solved = solver.build();
+    long nanos = System.nanoTime() - start;
+    solver.database.close();
+    try (SolutionDatabase database = new SolutionDatabase(file)) {
+      int empty = database.value(new BridgItEngine(size));
+      System.out.printf("size %d on %d threads: %d positions solved in %.1f s, %d in all, "
+          + "%d bytes; player %d wins the empty board in %d moves%n", size, threads, solved,
+          nanos / 1e9, database.table.getInt(SolutionDatabase.COUNT_AT), Files.size(file),
+          SolutionDatabase.winner(empty), SolutionDatabase.distance(empty));
+    }
+  }
+}
+
+//the cases looking positions up in a solution database built for them in a temporary
+//file, each run following the next of a set of games a move at a time and looking up the
+//position after each move, or asking for the best move at the position a game's first
+//moves lead to, timed by DatabaseLookupBenchmark in the jmh source set
+//run with: gradle jmh -Pincludes=DatabaseLookupBenchmark
+class DatabaseBenchmark {
+  static final int GAMES = 1000;
+
+  //returns every case on boards of the given size, by name
+  static LinkedHashMap<String, BenchmarkCase> cases(int size)
+      throws IOException, InterruptedException {
+    Path file = Files.createTempFile("bridgit", ".db");
+    Files.delete(file);
+    file.toFile().deleteOnExit();
+    RetrogradeSolver solver = new RetrogradeSolver(file, size, 1);
+    solver.build();
+    solver.database.close();
+    SolutionDatabase database = new SolutionDatabase(file);
+    int[][] games = games(database, GAMES);
+    BridgItEngine[] openings = new BridgItEngine[GAMES];
+    for (int i = 0; i < GAMES; i++) {
+      openings[i] = new BridgItEngine(size);
+      for (int k = 0; k < games[i].length / 2; k++) {
+        openings[i].place(games[i][k], openings[i].turn);
+      }
+    }
+    int[] next = {0};
+    LinkedHashMap<String, BenchmarkCase> result = new LinkedHashMap<String, BenchmarkCase>();
+    result.put("lookups of a game", () -> lookups(database, games[next[0]++ % GAMES]));
+    result.put("bestMove", () -> database.bestMove(openings[next[0]++ % GAMES]));
+    return result;
+  }
+
+  //returns the moves of the given number of games, player 1 playing the database's best
+  //move where it has one and a random move otherwise, as player 2 always does
+  static int[][] games(SolutionDatabase database, int count) {
+    int size = database.codes.size;
+    SplittableRandom rand = new SplittableRandom(count);
+    int[][] result = new int[count][];
+    for (int i = 0; i < count; i++) {
+      BridgItEngine game = new BridgItEngine(size);
+      while (game.winner() == 0) {
+        int move = -1;
+        if (game.turn == 1) {
+          move = database.bestMove(game);
+        }
+        if (move < 0) {
+          int[] open = game.legalMoves();
+          move = open[rand.nextInt(open.length)];
+        }
+        game.place(move, game.turn);
+      }
+      result[i] = new int[game.history.size()];
+      for (int k = 0; k < result[i].length; k++) {
+        result[i][k] = game.history.get(k);
+      }
+    }
+    return result;
+  }
+
+  //looks up the position after every move of the given game but the last
+  //returns the number of positions found
+  static long lookups(SolutionDatabase database, int[] moves) {
+    long found = 0;
+    DatabaseKey key = new DatabaseKey(database.codes, new BitPosition(database.codes.size));
+    for (int i = 0; i < moves.length - 1; i++) {
+      key.toggle(moves[i], key.turn);
+      if (database.value(key) != 0) {
+        found++;
+      }
+    }
+    return found;
+  }
+}
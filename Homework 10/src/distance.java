@@ -0,0 +1,312 @@
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.SplittableRandom;
+
+//how many more bridges a player needs to connect their sides, found by a 0-1 breadth
+//first search over the player's dots: the dots are joined the same way Cell's
+//toAddNeighbors joins them, for free over the player's own bridges, for one bridge over
+//an open spot and not at all over the other player's bridges
+//after the first search it can be kept up to date one move at a time
+class WinDistance {
+  static final int UNREACHED = Integer.MAX_VALUE;
+  int size;
+  int player;
+  int[] dist; //the fewest bridges from the player's first side to each of the player's dots
+  IntDeque worklist;
+  int[] component; //the dots of one component of free bridges, for update
+  long searches; //full searches run
+  long updates; //moves update has kept up with
+  long repairs; //updates that had to search again for some of the distances
+  long repaired; //dots whose distance those updates searched for again
+  int[] marks; //the number of the search of update each dot was last put in component by
+  int marking;
+
+  //constructor for the distances of the given player on boards of the given size
+  WinDistance(int size, int player) {
+    this.size = BridgItEngine.checkSize(size);
+    this.player = player;
+    this.dist = new int[size * size];
+    this.worklist = new IntDeque(16);
+    this.component = new int[size * size];
+    this.marks = new int[size * size];
+  }
+
+  //returns the cost of the spot between two of the player's dots: 0 if the player has
+  //bridged it, 1 if it is open and -1 if it cannot be crossed
+  int cost(PackedBoard board, int spot) {
+    int owner = board.owner(spot);
+    if (owner == this.player) {
+      return 0;
+    }
+    else if (board.isOpen(spot)) {
+      return 1;
+    }
+    return -1;
+  }
+
+  //determines if the given dot of the player is on the player's first side
+  boolean isSource(int dot) {
+    if (this.player == 1) {
+      return dot < this.size;
+    }
+    return dot % this.size == 0;
+  }
+
+  //returns the spot between the given dot and its neighbor in the given direction,
+  //0 to 3 for right, left, down and up, or -1 if the dot has no neighbor that way
+  int spot(int dot, int direction) {
+    int x = dot / this.size;
+    int y = dot % this.size;
+    if (direction == 0 && x <= this.size - 3) {
+      return dot + this.size;
+    }
+    else if (direction == 1 && x >= 2) {
+      return dot - this.size;
+    }
+    else if (direction == 2 && y <= this.size - 3) {
+      return dot + 1;
+    }
+    else if (direction == 3 && y >= 2) {
+      return dot - 1;
+    }
+    return -1;
+  }
+
+  //returns the fewest bridges the player needs to connect their sides on the given board,
+  //searching it from scratch, or -1 if the player cannot connect them any more
+  int compute(PackedBoard board) {
+    this.searches++;
+    Arrays.fill(this.dist, UNREACHED);
+    this.worklist.clear();
+    for (int i = 1; i < this.size; i += 2) {
+      int dot = i;
+      if (this.player == 2) {
+        dot = i * this.size;
+      }
+      this.dist[dot] = 0;
+      this.worklist.addAtTail(dot);
+    }
+    this.relax(board);
+    return this.distance();
+  }
+
+  //EFFECT: follows the worklist, a deque of dots whose distance went down with the
+  //nearest at the head, lowering the distance of every dot reached more cheaply
+  //a dot reached for free goes on the head and one reached over an open spot on the tail,
+  //so dots come off in order of distance as in Dijkstra's algorithm
+  void relax(PackedBoard board) {
+    while (this.worklist.size() > 0) {
+      int dot = this.worklist.removeFromHead();
+      for (int direction = 0; direction < 4; direction++) {
+        int spot = this.spot(dot, direction);
+        if (spot >= 0) {
+          int cost = this.cost(board, spot);
+          int next = 2 * spot - dot;
+          if (cost >= 0 && this.dist[dot] + cost < this.dist[next]) {
+            this.dist[next] = this.dist[dot] + cost;
+            if (cost == 0) {
+              this.worklist.addAtHead(next);
+            }
+            else {
+              this.worklist.addAtTail(next);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  //returns the fewest bridges the player needs as of the last search or update,
+  //or -1 if the player cannot connect their sides any more
+  int distance() {
+    int best = UNREACHED;
+    for (int i = 1; i < this.size; i += 2) {
+      int dot = (this.size - 1) * this.size + i;
+      if (this.player == 2) {
+        dot = i * this.size + this.size - 1;
+      }
+      best = Math.min(best, this.dist[dot]);
+    }
+    if (best == UNREACHED) {
+      return -1;
+    }
+    return best;
+  }
+
+  //EFFECT: brings the distances up to date with the given board, which is the board of the
+  //last search or update with one more bridge placed at the given spot
+  //a bridge of the player's makes the spot free, which only lowers distances, so they
+  //are lowered from the two dots it joins on; one of the other player's blocks the spot,
+  //which changes nothing unless a dot's only shortest path crossed it, and then the
+  //distances of the dots past the spot are searched for again
+  //returns the fewest bridges the player needs now
+  int update(PackedBoard board, int move) {
+    int x = move / this.size;
+    int a = move - 1;
+    int b = move + 1;
+    //the dots of the player on either side of the spot
+    if (x % 2 == 1 && this.player == 1 || x % 2 == 0 && this.player == 2) {
+      a = move - this.size;
+      b = move + this.size;
+    }
+    this.updates++;
+    if (board.owner(move) == this.player) {
+      this.worklist.clear();
+      if (this.dist[a] != UNREACHED) {
+        this.worklist.addAtTail(a);
+      }
+      if (this.dist[b] != UNREACHED) {
+        this.worklist.addAtTail(b);
+      }
+      this.relax(board);
+      return this.distance();
+    }
+    if (this.dist[a] > this.dist[b]) {
+      int swap = a;
+      a = b;
+      b = swap;
+    }
+    //only a dot one further than its neighbor could have been reached over the spot
+    if (this.dist[b] != UNREACHED && this.dist[b] == this.dist[a] + 1
+        && !this.stillReached(board, b)) {
+      this.repair(board, b);
+    }
+    return this.distance();
+  }
+
+  //EFFECT: searches again for the distance of the given dot, which lost its shortest path,
+  //and of every dot whose shortest paths might have gone through it, the dots reached from
+  //it over spots that cost exactly the difference of their distances
+  //every other dot has a shortest path that does not go near the given one, so keeps its
+  //distance, and the dots searched for again start from the best of their neighbors
+  void repair(PackedBoard board, int dot) {
+    this.repairs++;
+    this.marking++;
+    this.marks[dot] = this.marking;
+    this.component[0] = dot;
+    int count = 1;
+    for (int i = 0; i < count; i++) {
+      int current = this.component[i];
+      for (int direction = 0; direction < 4; direction++) {
+        int spot = this.spot(current, direction);
+        if (spot >= 0) {
+          int cost = this.cost(board, spot);
+          int next = 2 * spot - current;
+          if (cost >= 0 && this.marks[next] != this.marking
+              && this.dist[next] == this.dist[current] + cost) {
+            this.marks[next] = this.marking;
+            this.component[count] = next;
+            count++;
+          }
+        }
+      }
+    }
+    this.repaired += count;
+    for (int i = 0; i < count; i++) {
+      this.dist[this.component[i]] = UNREACHED;
+    }
+    this.worklist.clear();
+    for (int i = 0; i < count; i++) {
+      int current = this.component[i];
+      for (int direction = 0; direction < 4; direction++) {
+        int spot = this.spot(current, direction);
+        if (spot >= 0) {
+          int cost = this.cost(board, spot);
+          int next = 2 * spot - current;
+          if (cost >= 0 && this.marks[next] != this.marking && this.dist[next] != UNREACHED
+              && this.dist[next] + cost < this.dist[current]) {
+            this.dist[current] = this.dist[next] + cost;
+          }
+        }
+      }
+      if (this.dist[current] != UNREACHED) {
+        this.worklist.addAtTail(current);
+      }
+    }
+    this.relax(board);
+  }
+
+  //determines if the given dot keeps its distance without the spot just blocked, because
+  //a dot of its component of free bridges is on the first side or is one open spot on
+  //from a nearer dot, whose own shortest path cannot come back through the component
+  boolean stillReached(PackedBoard board, int dot) {
+    int target = this.dist[dot];
+    int count = 1;
+    this.marking++;
+    this.marks[dot] = this.marking;
+    this.component[0] = dot;
+    for (int i = 0; i < count; i++) {
+      int current = this.component[i];
+      if (this.isSource(current)) {
+        return true;
+      }
+      for (int direction = 0; direction < 4; direction++) {
+        int spot = this.spot(current, direction);
+        int cost = -1;
+        if (spot >= 0) {
+          cost = this.cost(board, spot);
+        }
+        int next = 2 * spot - current;
+        if (cost == 1 && this.dist[next] == target - 1) {
+          return true;
+        }
+        if (cost == 0 && this.marks[next] != this.marking) {
+          this.marks[next] = this.marking;
+          this.component[count] = next;
+          count++;
+        }
+      }
+    }
+    return false;
+  }
+}
+
+//the cases comparing keeping both players' distances to win up to date move by move
+//against searching for them from scratch after every move, each run playing one move of a
+//random game that starts over once won, timed by WinDistanceUpdateBenchmark in the jmh
+//source set
+//run with: gradle jmh -Pincludes=WinDistanceUpdateBenchmark
+class WinDistanceBenchmark {
+
+  //returns every case on boards of the given size, by name
+  static LinkedHashMap<String, BenchmarkCase> cases(int size) {
+    LinkedHashMap<String, BenchmarkCase> result = new LinkedHashMap<String, BenchmarkCase>();
+    result.put("search", move(size, false));
+    result.put("update", move(size, true));
+    return result;
+  }
+
+  //returns a case playing the next move of random games on boards of the given size,
+  //keeping both players' distances with updates if asked to or with searches if not
+  static BenchmarkCase move(int size, boolean updating) {
+    SplittableRandom rand = new SplittableRandom(size);
+    BridgItEngine game = new BridgItEngine(size);
+    int[] moves = game.legalMoves();
+    WinDistance first = new WinDistance(size, 1);
+    WinDistance second = new WinDistance(size, 2);
+    int[] left = {0};
+    return () -> {
+      if (game.winner() != 0 || left[0] == 0) {
+        game.reset();
+        first.compute(game.board);
+        second.compute(game.board);
+        left[0] = moves.length;
+      }
+      int pick = rand.nextInt(left[0]);
+      int move = moves[pick];
+      left[0]--;
+      moves[pick] = moves[left[0]];
+      moves[left[0]] = move;
+      game.place(move, game.turn);
+      if (updating) {
+        first.update(game.board, move);
+        second.update(game.board, move);
+      }
+      else {
+        first.compute(game.board);
+        second.compute(game.board);
+      }
+      return first.distance() + second.distance();
+    };
+  }
+}
@@ -0,0 +1,792 @@
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+//the parts of BridgIt that need no drawing library, so a game can be played headless
+
+//represents the state of every position of a board packed into a byte,
+//indexed by x * size + y the same way the board of Cells is by row and then column
+class PackedBoard {
+  static final int OWNER_MASK = 3; //bits 0-1: the number of the owning player, 0 for nobody
+  static final int DIR_SHIFT = 2; //bits 2-3: the playerDir of a bridge, 0 if not a bridge
+  static final int DOT = 16; //bit 4: set on the stationary dots
+  int size;
+  byte[] cells;
+  Adjacency adjacency; //the neighbors of every dot, shared by boards of the same size
+  
+  //constructor that lays out both players' dots the same way as initBoard
+  PackedBoard(int size) {
+    this.size = size;
+    this.cells = new byte[size * size];
+    this.adjacency = Adjacency.of(size);
+    this.clear();
+  }
+  
+  //EFFECT: takes every bridge off the board, leaving only the dots
+  void clear() {
+    for (int x = 0; x < this.size; x++) {
+      for (int y = 0; y < this.size; y++) {
+        if (x % 2 == 0 && y % 2 == 1) {
+          this.setDot(this.index(x, y), 1);
+        }
+        else if (x % 2 == 1 && y % 2 == 0) {
+          this.setDot(this.index(x, y), 2);
+        }
+        else {
+          this.setBridge(this.index(x, y), 0, 0);
+        }
+      }
+    }
+  }
+  
+  //returns the index of the position x, y
+  int index(int x, int y) {
+    return x * this.size + y;
+  }
+  
+  //returns the x of the position at the given index
+  int x(int index) {
+    return index / this.size;
+  }
+  
+  //returns the y of the position at the given index
+  int y(int index) {
+    return index % this.size;
+  }
+  
+  //returns the number of the player owning the given index, 0 for nobody
+  int owner(int index) {
+    return this.cells[index] & OWNER_MASK;
+  }
+  
+  //returns 1 for a horizontal bridge, 2 for a vertical one and 0 for anything else
+  int dir(int index) {
+    return (this.cells[index] >> DIR_SHIFT) & 3;
+  }
+  
+  //determines if the given index is a stationary dot
+  boolean isDot(int index) {
+    return (this.cells[index] & DOT) != 0;
+  }
+  
+  //determines if the given index is on the edges of the board
+  boolean onBorder(int index) {
+    int x = this.x(index);
+    int y = this.y(index);
+    return x == 0 || x == this.size - 1 || y == 0 || y == this.size - 1;
+  }
+  
+  //determines if a bridge can still be placed at the given index
+  boolean isOpen(int index) {
+    return this.cells[index] == 0 && !this.onBorder(index);
+  }
+  
+  //EFFECT: makes the given index a dot of the given player
+  void setDot(int index, int player) {
+    this.cells[index] = (byte) (DOT | player);
+  }
+  
+  //EFFECT: makes the given index a bridge of the given player in the given direction
+  void setBridge(int index, int player, int dir) {
+    this.cells[index] = (byte) (player | (dir << DIR_SHIFT));
+  }
+  
+  //EFFECT: places a bridge of the given player at the given index
+  void place(int index, int player) {
+    this.setBridge(index, player, bridgeDir(this.x(index), this.y(index), player));
+  }
+  
+  //returns 2 if a bridge of the given player at x, y is vertical or 1 if horizontal,
+  //player 1's dots sit at even x and player 2's at even y
+  static int bridgeDir(int x, int y, int player) {
+    if (player == 1) {
+      if (x % 2 == 0 && y % 2 == 0) {
+        return 2;
+      }
+      else {
+        return 1;
+      }
+    }
+    else {
+      if (x % 2 == 1 && y % 2 == 1) {
+        return 2;
+      }
+      else {
+        return 1;
+      }
+    }
+  }
+  
+  //EFFECT: fills the given array with the dots reached from the given dot over one of 
+  //the player's bridges, in the same order as Cell's toAddNeighbors
+  //returns how many were found
+  int bridgedNeighbors(int dot, int player, int[] result) {
+    int found = this.adjacency.directions[dot];
+    int count = 0;
+    if ((found & Adjacency.RIGHT) != 0 && this.owner(dot + this.size) == player) {
+      result[count] = dot + 2 * this.size;
+      count++;
+    }
+    if ((found & Adjacency.LEFT) != 0 && this.owner(dot - this.size) == player) {
+      result[count] = dot - 2 * this.size;
+      count++;
+    }
+    if ((found & Adjacency.TOP) != 0 && this.owner(dot - 1) == player) {
+      result[count] = dot - 2;
+      count++;
+    }
+    if ((found & Adjacency.BOTTOM) != 0 && this.owner(dot + 1) == player) {
+      result[count] = dot + 2;
+      count++;
+    }
+    return count;
+  }
+}
+
+//the directions each dot of a board has a spot and a dot beyond it in, worked out once for
+//each board size and shared by every board of that size, so a search tests one bit of a
+//byte for each neighbor instead of dividing out the dot's x and y to check the bounds
+//the spot to the right of a dot is size past it, to the left size before it, to the top
+//one before it and to the bottom one past it, and the dot across it is twice as far
+//only sizes up to CACHED are kept, so however many sizes are asked for, the tables kept
+//stay a bounded size; a larger board gets a table of its own
+class Adjacency {
+  static final int CACHED = 401; //largest size whose tables are kept and shared
+  static final ConcurrentHashMap<Integer, Adjacency> BY_SIZE = 
+      new ConcurrentHashMap<Integer, Adjacency>();
+  //the directions, in the same order as Cell's toAddNeighbors
+  static final int RIGHT = 1;
+  static final int LEFT = 2;
+  static final int TOP = 4;
+  static final int BOTTOM = 8;
+  int size;
+  byte[] directions; //the directions of each index that a spot lies in, 0 for a spot
+
+  //constructor working out the neighbors of every dot of a board of the given size
+  Adjacency(int size) {
+    this.size = size;
+    this.directions = new byte[size * size];
+    for (int x = 0; x < size; x++) {
+      for (int y = 1 - x % 2; y < size; y += 2) {
+        int found = 0;
+        if (x <= size - 3) {
+          found |= RIGHT;
+        }
+        if (x >= 2) {
+          found |= LEFT;
+        }
+        if (y >= 2) {
+          found |= TOP;
+        }
+        if (y <= size - 3) {
+          found |= BOTTOM;
+        }
+        this.directions[x * size + y] = (byte) found;
+      }
+    }
+  }
+
+  //returns the neighbors of boards of the given size
+  static Adjacency of(int size) {
+    if (size > CACHED) {
+      return new Adjacency(size);
+    }
+    return BY_SIZE.computeIfAbsent(size, Adjacency::new);
+  }
+}
+
+//the random numbers XORed together by Zobrist hashing to identify a position, one for
+//each player at each index of a board and one for player 2 being the one to move
+//every board of a size shares the same keys, made once from a seed of the size, so the
+//hashes of different engines and different runs agree; as with Adjacency, only sizes up
+//to Adjacency.CACHED are kept, and a larger board makes the same keys again for itself
+class ZobristKeys {
+  static final ConcurrentHashMap<Integer, ZobristKeys> BY_SIZE = 
+      new ConcurrentHashMap<Integer, ZobristKeys>();
+  long[] bridges; //the key of player p at index i is at i * 2 + p - 1
+  long turn;
+
+  //constructor making the keys of the given board size
+  ZobristKeys(int size) {
+    SplittableRandom rand = new SplittableRandom(size * 0x9E3779B97F4A7C15L);
+    this.bridges = new long[size * size * 2];
+    for (int i = 0; i < this.bridges.length; i++) {
+      this.bridges[i] = rand.nextLong();
+    }
+    this.turn = rand.nextLong();
+  }
+
+  //returns the keys of boards of the given size
+  static ZobristKeys of(int size) {
+    if (size > Adjacency.CACHED) {
+      return new ZobristKeys(size);
+    }
+    return BY_SIZE.computeIfAbsent(size, ZobristKeys::new);
+  }
+
+  //returns the key of a bridge of the given player at the given index
+  long bridge(int index, int player) {
+    return this.bridges[index * 2 + player - 1];
+  }
+
+  //returns the key of it being the given player's turn
+  long turn(int player) {
+    if (player == 2) {
+      return this.turn;
+    }
+    return 0;
+  }
+}
+
+//represents a disjoint-set forest (union by rank with path compression)
+//over the indices of a board, used to answer connectivity questions
+class UnionFind {
+  int[] parent;
+  byte[] rank;
+  
+  //constructor that puts every index in a set of its own
+  //it fills the arrays itself rather than calling reset, which a subclass may override
+  //to clear state of its own that is not made yet
+  UnionFind(int size) {
+    this.parent = new int[size];
+    this.rank = new byte[size];
+    for (int i = 0; i < size; i++) {
+      this.parent[i] = i;
+    }
+  }
+  
+  //EFFECT: puts every index back in a set of its own
+  void reset() {
+    for (int i = 0; i < this.parent.length; i++) {
+      this.parent[i] = i;
+      this.rank[i] = 0;
+    }
+  }
+  
+  //returns the representative of the set the given index is in
+  //EFFECT: halves the path from the index to its representative
+  int find(int i) {
+    while (this.parent[i] != i) {
+      this.parent[i] = this.parent[this.parent[i]];
+      i = this.parent[i];
+    }
+    return i;
+  }
+  
+  //EFFECT: merges the sets of the two given indices
+  void union(int a, int b) {
+    int rootA = this.find(a);
+    int rootB = this.find(b);
+    if (rootA == rootB) {
+      return;
+    }
+    if (this.rank[rootA] < this.rank[rootB]) {
+      this.parent[rootA] = rootB;
+    }
+    else if (this.rank[rootA] > this.rank[rootB]) {
+      this.parent[rootB] = rootA;
+    }
+    else {
+      this.parent[rootB] = rootA;
+      this.rank[rootA]++;
+    }
+  }
+  
+  //determines if the two given indices are in the same set
+  boolean connected(int a, int b) {
+    return this.find(a) == this.find(b);
+  }
+  
+  //EFFECT: makes the given structure, over as many indices, the same as this one
+  void copyInto(UnionFind other) {
+    System.arraycopy(this.parent, 0, other.parent, 0, this.parent.length);
+    System.arraycopy(this.rank, 0, other.rank, 0, this.rank.length);
+  }
+}
+
+//a UnionFind whose unions can be taken back, most recent first, so a search can make and
+//unmake moves without rebuilding it
+//find does not compress paths, since a compressed path could not be put back, so union
+//by rank alone keeps every tree O(log n) deep; each union logs the root it hung under
+//the other, and whether that raised the other's rank, so rollback undoes it in O(1)
+class RollbackUnionFind extends UnionFind {
+  IntDeque log; //one entry per union, root * 2 + 1 if the rank went up, -1 if no change
+
+  //constructor that puts every index in a set of its own
+  RollbackUnionFind(int size) {
+    super(size);
+    //a union is logged for each side's edge dot and each bridge, fewer than the indices
+    this.log = new IntDeque(size);
+  }
+
+  //EFFECT: puts every index back in a set of its own and forgets every union
+  void reset() {
+    super.reset();
+    this.log.clear();
+  }
+
+  //EFFECT: keeps every union made so far but forgets them, so a rollback can never take
+  //them back and the next version starts from 0
+  void forget() {
+    this.log.clear();
+  }
+
+  //returns the representative of the set the given index is in, changing nothing
+  int find(int i) {
+    while (this.parent[i] != i) {
+      i = this.parent[i];
+    }
+    return i;
+  }
+
+  //EFFECT: merges the sets of the two given indices, logging the change
+  void union(int a, int b) {
+    int rootA = this.find(a);
+    int rootB = this.find(b);
+    if (rootA == rootB) {
+      this.log.addAtTail(-1);
+      return;
+    }
+    if (this.rank[rootA] > this.rank[rootB]) {
+      int swap = rootA;
+      rootA = rootB;
+      rootB = swap;
+    }
+    this.parent[rootA] = rootB;
+    if (this.rank[rootA] == this.rank[rootB]) {
+      this.rank[rootB]++;
+      this.log.addAtTail(rootA * 2 + 1);
+    }
+    else {
+      this.log.addAtTail(rootA * 2);
+    }
+  }
+
+  //returns the number of unions logged, to roll back to later
+  int version() {
+    return this.log.size();
+  }
+
+  //EFFECT: takes back every union logged since the given version
+  void rollback(int version) {
+    while (this.log.size() > version) {
+      int entry = this.log.removeFromTail();
+      if (entry >= 0) {
+        int root = entry >> 1;
+        if ((entry & 1) == 1) {
+          this.rank[this.parent[root]]--;
+        }
+        this.parent[root] = root;
+      }
+    }
+  }
+
+  //EFFECT: makes this structure, over as many indices, the same as the given one, log
+  //and all
+  void copyFrom(RollbackUnionFind other) {
+    other.copyInto(this);
+    this.log.copyFrom(other.log);
+  }
+}
+
+//represents a deque of ints kept in a circular array, used by searches over board indices
+//so they do not box each index
+class IntDeque {
+  int[] items;
+  int head; //index of the first item
+  int count; //number of items
+  
+  //constructor with room for at least the given number of items
+  IntDeque(int capacity) {
+    int rounded = 1;
+    while (rounded < capacity) {
+      rounded *= 2;
+    }
+    this.items = new int[rounded];
+  }
+  
+  //returns the number of items in this IntDeque
+  int size() {
+    return this.count;
+  }
+  
+  //EFFECT: adds the given item after the last one
+  void addAtTail(int item) {
+    if (this.count == this.items.length) {
+      this.grow();
+    }
+    this.items[(this.head + this.count) & (this.items.length - 1)] = item;
+    this.count++;
+  }
+  
+  //EFFECT: adds the given item before the first one
+  void addAtHead(int item) {
+    if (this.count == this.items.length) {
+      this.grow();
+    }
+    this.head = (this.head - 1) & (this.items.length - 1);
+    this.items[this.head] = item;
+    this.count++;
+  }
+  
+  //removes the first item and returns it
+  int removeFromHead() {
+    if (this.count == 0) {
+      throw new RuntimeException("There's no head data in an empty list!");
+    }
+    int item = this.items[this.head];
+    this.head = (this.head + 1) & (this.items.length - 1);
+    this.count--;
+    return item;
+  }
+  
+  //removes the last item and returns it
+  int removeFromTail() {
+    if (this.count == 0) {
+      throw new RuntimeException("There's no tail data in an empty list!");
+    }
+    this.count--;
+    return this.items[(this.head + this.count) & (this.items.length - 1)];
+  }
+  
+  //returns the item at the given position, counting from the head
+  int get(int position) {
+    return this.items[(this.head + position) & (this.items.length - 1)];
+  }
+  
+  //EFFECT: removes every item, keeping the array for reuse
+  void clear() {
+    this.head = 0;
+    this.count = 0;
+  }
+  
+  //EFFECT: makes this deque's items the same as the given one's, in the array already
+  //here unless it is too small
+  void copyFrom(IntDeque other) {
+    if (this.items.length < other.count) {
+      this.items = new int[other.items.length];
+    }
+    int first = Math.min(other.count, other.items.length - other.head);
+    System.arraycopy(other.items, other.head, this.items, 0, first);
+    System.arraycopy(other.items, 0, this.items, first, other.count - first);
+    this.head = 0;
+    this.count = other.count;
+  }
+  
+  //EFFECT: doubles the array, moving the items to the front of the new one
+  void grow() {
+    int[] bigger = new int[this.items.length * 2];
+    for (int i = 0; i < this.count; i++) {
+      bigger[i] = this.items[(this.head + i) & (this.items.length - 1)];
+    }
+    this.items = bigger;
+    this.head = 0;
+  }
+}
+
+//represents a game of BridgIt without anything to draw it, so it can be played 
+//headless, with the rules and connectivity checks BridgItWorld draws a view of
+class BridgItEngine {
+  int size;
+  PackedBoard board;
+  RollbackUnionFind links; //connectivity of every dot, plus one virtual node per side
+  int turn = 1; //always starts with player 1
+  int winner; //0 until a player has connected their sides
+  IntDeque history; //indices of the bridges placed, most recent last
+  ZobristKeys keys;
+  long hash; //the Zobrist hash of the bridges and the turn, kept up to date by every move
+  
+  //constructor for a new game on an empty board of the given size
+  BridgItEngine(int size) {
+    this(checkSize(size), new PackedBoard(size));
+  }
+  
+  //constructor for a game already under way on the given board
+  BridgItEngine(PackedBoard board) {
+    this(checkSize(board.size), board);
+  }
+  
+  //constructor that checks nothing, used by the other two
+  BridgItEngine(int size, PackedBoard board) {
+    this.size = size;
+    this.board = board;
+    this.history = new IntDeque(size * size);
+    this.links = this.initLinks();
+    this.keys = ZobristKeys.of(size);
+    this.hash = this.computeHash();
+    if (this.hasWon(1)) {
+      this.winner = 1;
+    }
+    else if (this.hasWon(2)) {
+      this.winner = 2;
+    }
+  }
+  
+  //returns the given board size if it is valid
+  static int checkSize(int size) {
+    if (size % 2 == 1 && size >= 3) {
+      return size;
+    }
+    else {
+      throw new IllegalArgumentException("BoardSize must be at least 3 and an odd number");
+    }
+  }
+  
+  //returns the index of the virtual node joined to the given side,
+  //0 left and 1 right for player 1, 2 top and 3 bottom for player 2
+  int side(int which) {
+    return this.size * this.size + which;
+  }
+  
+  //builds the connectivity structure for the board, joining every edge dot to the
+  //virtual node of its side and every bridge already on the board to its dots
+  RollbackUnionFind initLinks() {
+    RollbackUnionFind result = new RollbackUnionFind(this.size * this.size + 4);
+    this.linkAll(result);
+    return result;
+  }
+  
+  //EFFECT: joins the edge dots and the dots of every bridge on the board in the given
+  //connectivity structure, which is expected to have every index in a set of its own
+  void linkAll(UnionFind links) {
+    for (int i = 1; i < this.size; i += 2) {
+      links.union(this.side(0), this.board.index(0, i));
+      links.union(this.side(1), this.board.index(this.size - 1, i));
+      links.union(this.side(2), this.board.index(i, 0));
+      links.union(this.side(3), this.board.index(i, this.size - 1));
+    }
+    for (int i = 0; i < this.size * this.size; i++) {
+      if (!this.board.isDot(i) && this.board.owner(i) != 0) {
+        this.linkBridge(links, i);
+      }
+    }
+  }
+  
+  //EFFECT: joins the two dots that the bridge at the given index connects
+  void linkBridge(UnionFind links, int bridge) {
+    this.linkBridge(links, bridge, this.board.dir(bridge));
+  }
+  
+  //EFFECT: joins the two dots that a bridge of the given playerDir at the given index 
+  //would connect, whether or not it is on the board yet
+  void linkBridge(UnionFind links, int bridge, int dir) {
+    int x = this.board.x(bridge);
+    int y = this.board.y(bridge);
+    if (dir == 1 && x >= 1 && x <= this.size - 2) {
+      links.union(bridge - this.size, bridge + this.size);
+    }
+    else if (dir == 2 && y >= 1 && y <= this.size - 2) {
+      links.union(bridge - 1, bridge + 1);
+    }
+  }
+  
+  //returns the Zobrist hash of the position from scratch, the bridges on the board and
+  //whose turn it is
+  long computeHash() {
+    long result = this.keys.turn(this.turn);
+    for (int i = 0; i < this.size * this.size; i++) {
+      if (!this.board.isDot(i) && this.board.owner(i) != 0) {
+        result ^= this.keys.bridge(i, this.board.owner(i));
+      }
+    }
+    return result;
+  }
+  
+  //determines if the given player's sides are connected
+  boolean hasWon(int player) {
+    if (player == 1) {
+      return this.links.connected(this.side(0), this.side(1));
+    }
+    else {
+      return this.links.connected(this.side(2), this.side(3));
+    }
+  }
+  
+  //places a bridge for the player whose turn it is at x, y
+  //returns false, changing nothing, if the game is over or x, y is not open
+  boolean play(int x, int y) {
+    if (x < 0 || y < 0 || x >= this.size || y >= this.size) {
+      return false;
+    }
+    int index = this.board.index(x, y);
+    if (this.winner != 0 || !this.board.isOpen(index)) {
+      return false;
+    }
+    this.place(index, this.turn);
+    return true;
+  }
+  
+  //EFFECT: places a bridge of the given player at the given open index, checks if it won
+  //the game and passes the turn to the other player
+  void place(int index, int player) {
+    this.put(index, player);
+    if (this.winner == 0 && this.hasWon(player)) {
+      this.winner = player;
+    }
+  }
+  
+  //EFFECT: places a bridge of the given player at the given open index and passes the 
+  //turn to the other player, without checking if it won the game
+  void put(int index, int player) {
+    this.board.place(index, player);
+    this.linkBridge(this.links, index);
+    this.history.addAtTail(index);
+    this.hash ^= this.keys.bridge(index, player) ^ this.keys.turn(this.turn) 
+        ^ this.keys.turn(3 - player);
+    this.turn = 3 - player;
+  }
+  
+  //EFFECT: places bridges at the first count of the given indices, the players taking 
+  //turns from the one whose turn it is, until one of them wins the game
+  //returns how many were placed, none if the game was already won
+  //only the player who just placed can have connected their sides, so each bridge costs
+  //one check of the links, without the rest of place
+  int placeAll(int[] moves, int count) {
+    this.checkMoves(moves, count);
+    int placed = 0;
+    while (placed < count && this.winner == 0) {
+      int player = this.turn;
+      this.put(moves[placed], player);
+      placed++;
+      if (this.hasWon(player)) {
+        this.winner = player;
+      }
+    }
+    return placed;
+  }
+  
+  //EFFECT: throws an IllegalArgumentException if any of the first count of the given 
+  //indices is off the board, not open or the same as one before it
+  void checkMoves(int[] moves, int count) {
+    BitSet seen = new BitSet(this.size * this.size);
+    for (int i = 0; i < count; i++) {
+      int move = moves[i];
+      if (move < 0 || move >= this.size * this.size || !this.board.isOpen(move) 
+          || seen.get(move)) {
+        throw new IllegalArgumentException("Move " + i + " is not an open spot: " + move);
+      }
+      seen.set(move);
+    }
+  }
+  
+  //returns how many of the given indices, placed in turn as placeAll would, it takes for
+  //a player to connect their sides, 0 if one already has and -1 if none of them do
+  //once a prefix of the moves wins every longer one does too, so the moves are placed one
+  //by one until the first win and then taken back, O(count) links in all
+  //EFFECT: leaves the game as it was
+  int firstWin(int[] moves, int count) {
+    if (this.winner != 0) {
+      this.checkMoves(moves, count);
+      return 0;
+    }
+    int start = this.history.size();
+    int placed = this.placeAll(moves, count);
+    boolean won = this.winner != 0;
+    this.undoTo(start);
+    if (!won) {
+      return -1;
+    }
+    return placed;
+  }
+  
+  //EFFECT: gives the turn to the given player, keeping the hash up to date
+  void setTurn(int player) {
+    this.hash ^= this.keys.turn(this.turn) ^ this.keys.turn(player);
+    this.turn = player;
+  }
+  
+  //returns the indices where a bridge can still be placed, in increasing order
+  int[] legalMoves() {
+    int count = 0;
+    for (int i = 0; i < this.board.cells.length; i++) {
+      if (this.board.isOpen(i)) {
+        count++;
+      }
+    }
+    int[] result = new int[count];
+    count = 0;
+    for (int i = 0; i < this.board.cells.length; i++) {
+      if (this.board.isOpen(i)) {
+        result[count] = i;
+        count++;
+      }
+    }
+    return result;
+  }
+  
+  //returns the number of the player who has won, or 0 if nobody has yet
+  int winner() {
+    return this.winner;
+  }
+  
+  //takes back the most recent bridge, giving the turn back to whoever placed it
+  //returns false if no bridge has been placed
+  //the links roll back the one union the bridge made, so this is O(log n) like placing it
+  boolean undo() {
+    if (this.history.size() == 0) {
+      return false;
+    }
+    this.undoTo(this.history.size() - 1);
+    return true;
+  }
+  
+  //EFFECT: takes back the most recent bridges until only the given number are left, the
+  //same as undoing each in turn but rolling the links back and checking for a win once
+  void undoTo(int count) {
+    int version = this.links.version();
+    int taken = 0;
+    while (this.history.size() > count) {
+      int index = this.history.removeFromTail();
+      int owner = this.board.owner(index);
+      this.hash ^= this.keys.bridge(index, owner) ^ this.keys.turn(this.turn)
+          ^ this.keys.turn(owner);
+      this.turn = owner;
+      this.board.setBridge(index, 0, 0);
+      taken++;
+    }
+    //every bridge is placed on an open spot, so joins two dots and logs one union
+    this.links.rollback(version - taken);
+    //taking bridges away never connects anything, so only a won game can change
+    if (taken > 0 && this.winner != 0) {
+      this.winner = 0;
+      if (this.hasWon(1)) {
+        this.winner = 1;
+      }
+      else if (this.hasWon(2)) {
+        this.winner = 2;
+      }
+    }
+  }
+  
+  //EFFECT: starts a new game on this engine's board, reusing its arrays
+  void reset() {
+    this.board.clear();
+    this.links.reset();
+    this.linkAll(this.links);
+    this.history.clear();
+    this.turn = 1;
+    this.winner = 0;
+    this.hash = 0;
+  }
+  
+  //EFFECT: makes this engine's game the same as the given one, which must be on a board 
+  //of the same size, copying into the arrays this engine already has
+  void copyFrom(BridgItEngine other) {
+    System.arraycopy(other.board.cells, 0, this.board.cells, 0, this.board.cells.length);
+    this.links.copyFrom(other.links);
+    this.history.copyFrom(other.history);
+    this.turn = other.turn;
+    this.winner = other.winner;
+    this.hash = other.hash;
+  }
+}
+
+//a computer player that can take one side of a game
+interface ComputerPlayer {
+  //returns the number of the player whose bridges this one places
+  int side();
+  
+  //returns the index this player would place a bridge at in the given game,
+  //or -1 if it has none
+  int chooseMove(BridgItEngine game);
+}
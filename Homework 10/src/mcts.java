@@ -0,0 +1,295 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+//represents a node of a search tree, standing for the position after its move
+class MctsNode {
+  int move; //index of the bridge placed to get here, -1 if not known
+  int player; //number of the player who placed that bridge
+  MctsNode parent;
+  ArrayList<MctsNode> children;
+  int[] untried; //open indices not made into children yet, the first untriedCount of them
+  int untriedCount;
+  int visits;
+  int wins; //playouts through this node won by player
+
+  //constructor for the node of the given position, reached by the given move
+  MctsNode(int move, int player, MctsNode parent, BridgItEngine position) {
+    this.move = move;
+    this.player = player;
+    this.parent = parent;
+    this.children = new ArrayList<MctsNode>();
+    if (position.winner == 0) {
+      this.untried = position.legalMoves();
+    }
+    else {
+      this.untried = new int[0];
+    }
+    this.untriedCount = this.untried.length;
+  }
+
+  //returns the child with the best upper confidence bound for the player choosing it
+  MctsNode bestChild(double exploration) {
+    double logVisits = Math.log(this.visits);
+    MctsNode best = null;
+    double bestValue = Double.NEGATIVE_INFINITY;
+    for (MctsNode child : this.children) {
+      double value = (double) child.wins / child.visits
+          + exploration * Math.sqrt(logVisits / child.visits);
+      if (value > bestValue) {
+        best = child;
+        bestValue = value;
+      }
+    }
+    return best;
+  }
+
+  //returns the child reached by the given move, or null if it has not been made
+  MctsNode child(int move) {
+    for (MctsNode c : this.children) {
+      if (c.move == move) {
+        return c;
+      }
+    }
+    return null;
+  }
+}
+
+//represents one search tree with the position at its root, searched by one thread
+//at a time, with its own scratch engine for playouts
+class MctsTree {
+  MctsNode root;
+  BridgItEngine position; //the position at the root
+  BridgItEngine scratch; //where each iteration replays moves and plays out, undone back
+                         //to the position at the root after each
+  int[] open; //the open indices left in a playout
+  SplittableRandom rand;
+
+  //constructor for a tree searching the given game
+  MctsTree(BridgItEngine game, long seed) {
+    this.rand = new SplittableRandom(seed);
+    this.restart(game);
+  }
+
+  //EFFECT: throws the tree away and starts a new one at the given game
+  void restart(BridgItEngine game) {
+    this.position = new BridgItEngine(game.size);
+    this.position.copyFrom(game);
+    this.scratch = new BridgItEngine(game.size);
+    this.scratch.copyFrom(game);
+    this.open = new int[game.size * game.size];
+    this.root = new MctsNode(-1, 3 - game.turn, null, this.position);
+  }
+
+  //EFFECT: moves the root to the given game, keeping the subtree of the moves played
+  //since the last search if the game carried on from this tree's position
+  void sync(BridgItEngine game) {
+    if (this.position.size != game.size
+        || this.position.history.size() > game.history.size()) {
+      this.restart(game);
+      return;
+    }
+    for (int i = 0; i < this.position.history.size(); i++) {
+      if (this.position.history.get(i) != game.history.get(i)) {
+        this.restart(game);
+        return;
+      }
+    }
+    for (int i = this.position.history.size(); i < game.history.size(); i++) {
+      int move = game.history.get(i);
+      this.advance(move, game.board.owner(move));
+    }
+    //bridges placed without the history, or a turn changed by hand, start a new tree
+    if (this.position.turn != game.turn
+        || !Arrays.equals(this.position.board.cells, game.board.cells)) {
+      this.restart(game);
+    }
+  }
+
+  //EFFECT: plays the given player's move at the root, keeping the subtree under it
+  void advance(int move, int player) {
+    this.position.place(move, player);
+    this.scratch.place(move, player);
+    MctsNode next = this.root.child(move);
+    if (next == null || next.player != player) {
+      next = new MctsNode(move, player, null, this.position);
+    }
+    next.parent = null;
+    this.root = next;
+  }
+
+  //EFFECT: runs iterations until the deadline in nanoseconds, or until the given
+  //number of iterations is reached if it is more than 0
+  void search(long deadline, int iterations, double exploration) {
+    int done = 0;
+    while ((iterations <= 0 || done < iterations)
+        && (iterations > 0 || System.nanoTime() < deadline)) {
+      this.iterate(exploration);
+      done++;
+    }
+  }
+
+  //EFFECT: selects a leaf, expands it by one move, plays out to the end and
+  //records the result on the way back up, then undoes every move it placed on scratch
+  void iterate(double exploration) {
+    int base = this.scratch.history.size();
+    MctsNode node = this.root;
+    while (node.untriedCount == 0 && !node.children.isEmpty()) {
+      node = node.bestChild(exploration);
+      this.scratch.place(node.move, node.player);
+    }
+    if (node.untriedCount > 0) {
+      int pick = this.rand.nextInt(node.untriedCount);
+      int move = node.untried[pick];
+      node.untriedCount--;
+      node.untried[pick] = node.untried[node.untriedCount];
+      int player = this.scratch.turn;
+      this.scratch.place(move, player);
+      MctsNode child = new MctsNode(move, player, node, this.scratch);
+      node.children.add(child);
+      node = child;
+    }
+    int winner = this.playout();
+    for (MctsNode n = node; n != null; n = n.parent) {
+      n.visits++;
+      if (n.player == winner) {
+        n.wins++;
+      }
+    }
+    this.scratch.undoTo(base);
+  }
+
+  //plays uniformly random moves on the scratch engine until the board is full,
+  //without allocating, and returns the winner
+  //a win is never undone by more bridges and a full board always has exactly one winner,
+  //so checking once at the end finds the same winner as checking after every move
+  int playout() {
+    if (this.scratch.winner != 0) {
+      return this.scratch.winner;
+    }
+    int count = 0;
+    for (int i = 0; i < this.scratch.board.cells.length; i++) {
+      if (this.scratch.board.isOpen(i)) {
+        this.open[count] = i;
+        count++;
+      }
+    }
+    while (count > 0) {
+      int pick = this.rand.nextInt(count);
+      int move = this.open[pick];
+      count--;
+      this.open[pick] = this.open[count];
+      this.scratch.put(move, this.scratch.turn);
+    }
+    if (this.scratch.hasWon(1)) {
+      return 1;
+    }
+    return 2;
+  }
+}
+
+//represents a computer player choosing its moves by Monte Carlo tree search,
+//with one tree per thread whose results are added up, each kept between moves
+class MctsPlayer implements ComputerPlayer {
+  static final double EXPLORATION = 1.4;
+  int player; //the number of the player this one plays for
+  long budgetMillis; //time each move may take
+  int iterations; //if more than 0, the iterations per tree per move instead of a time budget
+  MctsTree[] trees;
+  ExecutorService pool;
+  long seed;
+
+  //constructor for a player thinking for the given time with the given number of threads
+  MctsPlayer(int player, long budgetMillis, int threads, long seed) {
+    this.player = player;
+    this.budgetMillis = budgetMillis;
+    this.trees = new MctsTree[threads];
+    this.seed = seed;
+    this.pool = Executors.newFixedThreadPool(threads, r -> {
+      Thread worker = new Thread(r, "mcts");
+      worker.setDaemon(true);
+      return worker;
+    });
+  }
+
+  //constructor for a player using every core
+  MctsPlayer(int player, long budgetMillis) {
+    this(player, budgetMillis, Runtime.getRuntime().availableProcessors(), System.nanoTime());
+  }
+
+  //returns the number of the player this one plays for
+  public int side() {
+    return this.player;
+  }
+
+  //returns the index this player would place a bridge at in the given game,
+  //or -1 if the game is over
+  //a board small enough to have a solution database is looked up in it before searching
+  public int chooseMove(BridgItEngine game) {
+    if (game.winner != 0) {
+      return -1;
+    }
+    SolutionDatabase database = SolutionDatabase.forSize(game.size);
+    if (database != null) {
+      int move = database.bestMove(game);
+      if (move >= 0) {
+        return move;
+      }
+    }
+    long deadline = System.nanoTime() + this.budgetMillis * 1000000;
+    ArrayList<Callable<Void>> searches = new ArrayList<Callable<Void>>();
+    for (int i = 0; i < this.trees.length; i++) {
+      if (this.trees[i] == null) {
+        this.trees[i] = new MctsTree(game, this.seed + i);
+      }
+      else {
+        this.trees[i].sync(game);
+      }
+      MctsTree tree = this.trees[i];
+      searches.add(() -> {
+        tree.search(deadline, this.iterations, EXPLORATION);
+        return null;
+      });
+    }
+    try {
+      for (Future<Void> search : this.pool.invokeAll(searches)) {
+        search.get();
+      }
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    }
+    return this.mostVisited(game);
+  }
+
+  //returns the move the trees visited the most from their roots, or the first open 
+  //index if none has been visited
+  int mostVisited(BridgItEngine game) {
+    int[] visits = new int[game.board.cells.length];
+    for (MctsTree tree : this.trees) {
+      for (MctsNode child : tree.root.children) {
+        visits[child.move] += child.visits;
+      }
+    }
+    int best = -1;
+    for (int i = 0; i < visits.length; i++) {
+      if (game.board.isOpen(i) && (best == -1 || visits[i] > visits[best])) {
+        best = i;
+      }
+    }
+    return best;
+  }
+
+  //EFFECT: stops the threads of this player
+  void shutdown() {
+    this.pool.shutdown();
+  }
+}
@@ -0,0 +1,284 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+//counts how often each value was recorded in buckets that grow with the value, exact up to
+//63 and within 1 part in 32 above that, the way HdrHistogram keeps latencies
+//values of 2^e up to 2^(e + 1) share 32 buckets, so all of a long fits in 1888
+class LatencyHistogram {
+  static final int SUB_BITS = 5;
+  static final int SUB_BUCKETS = 1 << SUB_BITS;
+  static final int EXACT = 2 * SUB_BUCKETS; //values below this have a bucket of their own
+  static final int BUCKETS = EXACT + (63 - SUB_BITS - 1) * SUB_BUCKETS;
+  String name;
+  AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  LongAdder count = new LongAdder();
+  LongAdder sum = new LongAdder();
+  AtomicLong max = new AtomicLong();
+
+  //constructor for an empty histogram with the given name
+  LatencyHistogram(String name) {
+    this.name = name;
+  }
+
+  //returns the bucket of the given value, which is at least 0
+  static int bucket(long value) {
+    if (value < EXACT) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int top = (int) (value >>> (exponent - SUB_BITS));
+    return EXACT + (exponent - SUB_BITS - 1) * SUB_BUCKETS + top - SUB_BUCKETS;
+  }
+
+  //returns the largest value that goes in the given bucket
+  static long highest(int bucket) {
+    if (bucket < EXACT) {
+      return bucket;
+    }
+    int exponent = (bucket - EXACT) / SUB_BUCKETS + SUB_BITS + 1;
+    long top = (bucket - EXACT) % SUB_BUCKETS + SUB_BUCKETS;
+    return ((top + 1) << (exponent - SUB_BITS)) - 1;
+  }
+
+  //EFFECT: counts the given value, negative values counting as 0
+  void record(long value) {
+    value = Math.max(0, value);
+    this.counts.incrementAndGet(bucket(value));
+    this.count.increment();
+    this.sum.add(value);
+    this.max.accumulateAndGet(value, Math::max);
+  }
+
+  //EFFECT: counts the nanoseconds since the given start of Metrics.start, if it was taken
+  //while metrics were turned on
+  void recordSince(long start) {
+    if (start != 0) {
+      this.record(System.nanoTime() - start);
+    }
+  }
+
+  //returns the number of values recorded
+  long count() {
+    return this.count.sum();
+  }
+
+  //returns the mean of the values recorded, 0 if there are none
+  double mean() {
+    return (double) this.sum.sum() / Math.max(1, this.count.sum());
+  }
+
+  //returns the value that the given percent of the values recorded are at or below,
+  //to the precision of its bucket, and 0 if there are none
+  long percentile(double percent) {
+    long total = this.count.sum();
+    long wanted = Math.max(1, (long) Math.ceil(percent / 100 * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS && total > 0; i++) {
+      seen += this.counts.get(i);
+      if (seen >= wanted) {
+        return Math.min(highest(i), this.max.get());
+      }
+    }
+    return this.max.get();
+  }
+
+  //EFFECT: forgets every value recorded
+  void reset() {
+    for (int i = 0; i < BUCKETS; i++) {
+      this.counts.set(i, 0);
+    }
+    this.count.reset();
+    this.sum.reset();
+    this.max.set(0);
+  }
+
+  //returns the count, mean, percentiles and max as one line of text
+  public String toString() {
+    return String.format("%-16s count=%d mean=%.1f p50=%d p90=%d p99=%d p99.9=%d max=%d",
+        this.name, this.count(), this.mean(), this.percentile(50), this.percentile(90),
+        this.percentile(99), this.percentile(99.9), this.max.get());
+  }
+
+  //returns the count, mean, percentiles and max as a JSON object
+  String toJson() {
+    return String.format("{\"count\":%d,\"mean\":%.1f,\"p50\":%d,\"p90\":%d,\"p99\":%d,"
+        + "\"p99.9\":%d,\"max\":%d}", this.count(), this.mean(), this.percentile(50),
+        this.percentile(90), this.percentile(99), this.percentile(99.9), this.max.get());
+  }
+}
+
+//the latencies and counters of the hot paths of the game, kept only while metrics are
+//turned on, so with them off each path pays for one read of a flag
+//start the game with -Dbridgit.metrics=file to turn them on and have them written to the
+//file every second, as JSON if it ends in .json and as text if not
+//pressing m in the game turns them on and off, writing them to that file, or to
+//bridgit-metrics.txt without the flag, while they are on
+class Metrics {
+  static volatile boolean enabled;
+  static final Metrics GLOBAL = new Metrics();
+  static MetricsReporter reporter;
+  static Path file = Paths.get("bridgit-metrics.txt"); //where the reporter writes
+  //latencies in nanoseconds
+  LatencyHistogram hasWon = new LatencyHistogram("hasWon");
+  LatencyHistogram winningPath = new LatencyHistogram("winningPath");
+  LatencyHistogram makeScene = new LatencyHistogram("makeScene");
+  LatencyHistogram onMouseClicked = new LatencyHistogram("onMouseClicked");
+  LatencyHistogram onMouseMoved = new LatencyHistogram("onMouseMoved");
+  //how many cells each frame drew, the whole board when it was drawn in full
+  LatencyHistogram cellsRedrawn = new LatencyHistogram("cellsRedrawn");
+  LongAdder nodesExpanded = new LongAdder(); //cells taken off the worklist of any search
+  AtomicLong queueHighWater = new AtomicLong(); //most cells ever waiting on a worklist
+
+  static {
+    String given = System.getProperty("bridgit.metrics");
+    if (given != null) {
+      file = Paths.get(given);
+      enabled = true;
+      reporter = new MetricsReporter(GLOBAL, file, 1000, given.endsWith(".json"));
+    }
+  }
+
+  //EFFECT: turns metrics on, starting the reporter writing them to the file, or turns
+  //them off, stopping the reporter once it has written them a last time
+  static void toggle() {
+    if (enabled) {
+      enabled = false;
+      if (reporter != null) {
+        reporter.stop();
+        reporter = null;
+      }
+    }
+    else {
+      enabled = true;
+      if (reporter == null) {
+        reporter = new MetricsReporter(GLOBAL, file, 1000,
+            file.toString().endsWith(".json"));
+      }
+      System.out.println("metrics on, written to " + file.toAbsolutePath() + " every second");
+    }
+  }
+
+  //returns the time to time a path from, or 0 if metrics are off
+  static long start() {
+    if (enabled) {
+      return System.nanoTime();
+    }
+    return 0;
+  }
+
+  //EFFECT: counts a search that took the given number of cells off its worklist and had
+  //at most the given number waiting on it, if metrics are on
+  void searched(int expanded, int highWater) {
+    if (enabled) {
+      this.nodesExpanded.add(expanded);
+      this.queueHighWater.accumulateAndGet(highWater, Math::max);
+    }
+  }
+
+  //returns every histogram of these metrics
+  LatencyHistogram[] histograms() {
+    return new LatencyHistogram[] {this.hasWon, this.winningPath, this.makeScene,
+        this.onMouseClicked, this.onMouseMoved, this.cellsRedrawn};
+  }
+
+  //EFFECT: forgets everything recorded
+  void reset() {
+    for (LatencyHistogram histogram : this.histograms()) {
+      histogram.reset();
+    }
+    this.nodesExpanded.reset();
+    this.queueHighWater.set(0);
+  }
+
+  //returns every histogram and counter, one to a line
+  String toText() {
+    StringBuilder result = new StringBuilder();
+    for (LatencyHistogram histogram : this.histograms()) {
+      result.append(histogram).append('\n');
+    }
+    result.append("nodesExpanded    ").append(this.nodesExpanded.sum()).append('\n');
+    result.append("queueHighWater   ").append(this.queueHighWater.get()).append('\n');
+    return result.toString();
+  }
+
+  //returns every histogram and counter as one JSON object
+  String toJson() {
+    StringBuilder result = new StringBuilder("{");
+    for (LatencyHistogram histogram : this.histograms()) {
+      result.append('"').append(histogram.name).append("\":").append(histogram.toJson())
+          .append(',');
+    }
+    result.append("\"nodesExpanded\":").append(this.nodesExpanded.sum());
+    result.append(",\"queueHighWater\":").append(this.queueHighWater.get()).append('}');
+    return result.toString();
+  }
+
+  //EFFECT: replaces the given file with these metrics, as JSON or as text, writing them
+  //beside it first so a reader never sees half of them
+  void writeTo(Path file, boolean json) throws IOException {
+    String text = this.toText();
+    if (json) {
+      text = this.toJson() + "\n";
+    }
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    Files.write(temporary, text.getBytes(StandardCharsets.UTF_8));
+    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+}
+
+//writes metrics to a file every so often on a daemon thread of its own
+class MetricsReporter {
+  ScheduledExecutorService timer;
+  IOException failure; //the last write that failed, null if none has
+  Metrics metrics;
+  Path file;
+  boolean json;
+
+  //constructor that starts writing the given metrics to the given file every given
+  //number of milliseconds, as JSON or as text, the first time right away
+  MetricsReporter(Metrics metrics, Path file, long periodMillis, boolean json) {
+    this.metrics = metrics;
+    this.file = file;
+    this.json = json;
+    this.timer = Executors.newSingleThreadScheduledExecutor(task -> {
+      Thread thread = new Thread(task, "metrics reporter");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.timer.scheduleAtFixedRate(this::write, 0, periodMillis, TimeUnit.MILLISECONDS);
+  }
+
+  //EFFECT: writes the metrics to the file, keeping the failure if it fails
+  void write() {
+    try {
+      this.metrics.writeTo(this.file, this.json);
+    }
+    catch (IOException e) {
+      this.failure = e;
+    }
+  }
+
+  //EFFECT: stops writing the metrics every so often, waiting for a write under way to
+  //finish, and writes them one last time so the file has everything recorded
+  void stop() {
+    this.timer.shutdown();
+    try {
+      this.timer.awaitTermination(1, TimeUnit.SECONDS);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    this.write();
+  }
+}
@@ -0,0 +1,309 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.SplittableRandom;
+
+//the layout of a file of recorded games: MAGIC and VERSION, then each game as the
+//varint length of the rest of it, the varint board size, both players' colors as
+//4 byte ARGB, a flags byte, the varint number of moves and each move as a varint index
+//moves take turns starting with player 1, unless the game has PLAYER_IN_MOVE set,
+//where each move is stored as index * 2 + player - 1 instead
+class GameRecords {
+  static final int MAGIC = 0x42524754; //"BRGT"
+  static final int VERSION = 1;
+  static final int PLAYER_IN_MOVE = 1;
+
+  //EFFECT: puts the given number on the buffer as a varint, 7 bits a byte, lowest first
+  static void putVarint(ByteBuffer buffer, int value) {
+    while ((value & ~0x7F) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  //reads a varint from the buffer
+  static int getVarint(ByteBuffer buffer) throws IOException {
+    int result = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      if (!buffer.hasRemaining()) {
+        throw new IOException("Game record is cut off in a varint");
+      }
+      int b = buffer.get();
+      result |= (b & 0x7F) << shift;
+      if (b >= 0) {
+        return result;
+      }
+    }
+    throw new IOException("Game record has a varint that is too long");
+  }
+}
+
+//writes games to a file of game records, a buffer at a time
+class GameRecordWriter implements AutoCloseable {
+  FileChannel channel;
+  ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+  ByteBuffer body = ByteBuffer.allocate(256); //one game, grown when a game needs it
+
+  //constructor that starts a new file at the given path, replacing any there
+  GameRecordWriter(Path file) throws IOException {
+    this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    this.buffer.putInt(GameRecords.MAGIC);
+    this.buffer.put((byte) GameRecords.VERSION);
+  }
+
+  //EFFECT: adds the moves of the given game, played by the given colors, to the file
+  void write(BridgItEngine game, int color1, int color2) throws IOException {
+    int moves = game.history.size();
+    boolean alternates = true;
+    for (int i = 0; i < moves && alternates; i++) {
+      alternates = game.board.owner(game.history.get(i)) == i % 2 + 1;
+    }
+    if (this.body.capacity() < 20 + 5 * moves) {
+      this.body = ByteBuffer.allocate(20 + 5 * moves);
+    }
+    this.body.clear();
+    GameRecords.putVarint(this.body, game.size);
+    this.body.putInt(color1);
+    this.body.putInt(color2);
+    this.body.put((byte) (alternates ? 0 : GameRecords.PLAYER_IN_MOVE));
+    GameRecords.putVarint(this.body, moves);
+    for (int i = 0; i < moves; i++) {
+      int move = game.history.get(i);
+      if (alternates) {
+        GameRecords.putVarint(this.body, move);
+      }
+      else {
+        GameRecords.putVarint(this.body, move * 2 + game.board.owner(move) - 1);
+      }
+    }
+    this.body.flip();
+    if (this.buffer.remaining() < 5 + this.body.remaining()) {
+      this.flush();
+    }
+    if (this.buffer.remaining() < 5 + this.body.remaining()) {
+      //too big for the buffer, so it goes straight to the file
+      ByteBuffer length = ByteBuffer.allocate(5);
+      GameRecords.putVarint(length, this.body.remaining());
+      length.flip();
+      this.writeAll(length);
+      this.writeAll(this.body);
+      return;
+    }
+    GameRecords.putVarint(this.buffer, this.body.remaining());
+    this.buffer.put(this.body);
+  }
+
+  //EFFECT: writes what is buffered to the file
+  void flush() throws IOException {
+    this.buffer.flip();
+    this.writeAll(this.buffer);
+    this.buffer.clear();
+  }
+
+  //EFFECT: writes every remaining byte of the given buffer to the file
+  void writeAll(ByteBuffer bytes) throws IOException {
+    while (bytes.hasRemaining()) {
+      this.channel.write(bytes);
+    }
+  }
+
+  //EFFECT: writes what is buffered and closes the file
+  public void close() throws IOException {
+    this.flush();
+    this.channel.close();
+  }
+}
+
+//replays the games of a file of game records one after another, reading the file
+//through memory mapped windows and playing each game on a reused engine
+class GameRecordReader implements AutoCloseable {
+  static final long WINDOW = 1L << 30; //most bytes mapped at once
+  FileChannel channel;
+  long fileSize;
+  long windowStart; //position in the file of the start of window
+  MappedByteBuffer window;
+  long windowSize; //most bytes mapped at once, smaller in tests
+  BridgItEngine engine; //the engine the last game was replayed on
+  int color1; //the colors of the players of the last game, as ARGB
+  int color2;
+  long games; //how many games have been replayed
+
+  //constructor that opens the file at the given path and checks its header
+  GameRecordReader(Path file) throws IOException {
+    this(file, WINDOW);
+  }
+
+  //constructor mapping at most the given number of bytes at a time
+  GameRecordReader(Path file, long windowSize) throws IOException {
+    this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    this.fileSize = this.channel.size();
+    this.windowSize = windowSize;
+    this.map(0);
+    if (this.fileSize < 5 || this.window.getInt() != GameRecords.MAGIC) {
+      this.channel.close();
+      throw new IOException("Not a file of BridgIt game records");
+    }
+    if (this.window.get() != GameRecords.VERSION) {
+      this.channel.close();
+      throw new IOException("Game records of an unknown version");
+    }
+  }
+
+  //EFFECT: maps the window starting at the given position of the file
+  void map(long position) throws IOException {
+    this.windowStart = position;
+    this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, position,
+        Math.min(this.windowSize, this.fileSize - position));
+  }
+
+  //EFFECT: maps a new window from the current position if fewer than the given
+  //number of bytes, or than are left in the file, are left in this one
+  void ensure(long bytes) throws IOException {
+    long position = this.windowStart + this.window.position();
+    if (this.window.remaining() < Math.min(bytes, this.fileSize - position)) {
+      if (bytes > this.windowSize) {
+        throw new IOException("Game record is larger than the mapped window");
+      }
+      this.map(position);
+    }
+  }
+
+  //determines if there are games left to replay
+  boolean hasNext() {
+    return this.windowStart + this.window.position() < this.fileSize;
+  }
+
+  //replays the next game, move by move, on an engine of its board size, the same
+  //engine as the last game's if it is the same size
+  //returns that engine, left at the end of the game
+  BridgItEngine replayNext() throws IOException {
+    this.ensure(5);
+    int length = GameRecords.getVarint(this.window);
+    this.ensure(length);
+    int end = this.window.position() + length;
+    if (length < 11 || end > this.window.limit()) {
+      throw new IOException("Game record " + this.games + " is corrupt");
+    }
+    int size = GameRecords.getVarint(this.window);
+    if (size % 2 == 0 || size < 3 || size > 46339) {
+      throw new IOException("Game record " + this.games + " has an invalid board size");
+    }
+    if (end - this.window.position() < 9) {
+      throw new IOException("Game record " + this.games + " is corrupt");
+    }
+    this.color1 = this.window.getInt();
+    this.color2 = this.window.getInt();
+    boolean withPlayer = (this.window.get() & GameRecords.PLAYER_IN_MOVE) != 0;
+    int moves = GameRecords.getVarint(this.window);
+    if (this.engine == null || this.engine.size != size) {
+      this.engine = new BridgItEngine(size);
+    }
+    else {
+      this.engine.reset();
+    }
+    for (int i = 0; i < moves; i++) {
+      if (this.window.position() >= end) {
+        throw new IOException("Game record " + this.games + " is corrupt");
+      }
+      int move = GameRecords.getVarint(this.window);
+      int player = this.engine.turn;
+      if (withPlayer) {
+        player = (move & 1) + 1;
+        move >>>= 1;
+      }
+      if (move < 0 || move >= size * size || !this.engine.board.isOpen(move)) {
+        throw new IOException("Game record " + this.games + " has an illegal move " + i);
+      }
+      this.engine.place(move, player);
+    }
+    if (this.window.position() != end) {
+      throw new IOException("Game record " + this.games + " is corrupt");
+    }
+    this.games++;
+    return this.engine;
+  }
+
+  //replays every game left in the file
+  //returns how many each player won, the size being that of the last game
+  SelfPlayStats replayAll() throws IOException {
+    long start = System.nanoTime();
+    SelfPlayStats result = new SelfPlayStats(0);
+    while (this.hasNext()) {
+      BridgItEngine game = this.replayNext();
+      result.size = game.size;
+      result.games++;
+      if (game.winner() == 1) {
+        result.wins1++;
+      }
+      else if (game.winner() == 2) {
+        result.wins2++;
+      }
+      result.moves += game.history.size();
+    }
+    result.nanos = System.nanoTime() - start;
+    return result;
+  }
+
+  //EFFECT: closes the file
+  public void close() throws IOException {
+    this.channel.close();
+  }
+}
+
+//the cases of writing random games to a file of records and replaying them from it, each
+//run writing or replaying the same batch of GAMES games, timed by RecordFileBenchmark in
+//the jmh source set
+//run with: gradle jmh -Pincludes=RecordFileBenchmark
+class GameRecordBenchmark {
+  static final int GAMES = 1000;
+
+  //returns every case on boards of the given size, by name
+  static LinkedHashMap<String, BenchmarkCase> cases(int size) throws IOException {
+    BridgItEngine[] games = new BridgItEngine[GAMES];
+    int[] allMoves = new BridgItEngine(size).legalMoves();
+    int[] moves = new int[allMoves.length];
+    SplittableRandom rand = new SplittableRandom(1);
+    for (int i = 0; i < GAMES; i++) {
+      games[i] = new BridgItEngine(size);
+      SelfPlayTask.playGame(games[i], new int[0], allMoves, moves, rand);
+    }
+    Path written = Files.createTempFile("bridgit", ".games");
+    Path replayed = Files.createTempFile("bridgit", ".games");
+    written.toFile().deleteOnExit();
+    replayed.toFile().deleteOnExit();
+    write(replayed, games);
+    LinkedHashMap<String, BenchmarkCase> result = new LinkedHashMap<String, BenchmarkCase>();
+    result.put("write", () -> write(written, games));
+    result.put("replay", () -> {
+      try (GameRecordReader reader = new GameRecordReader(replayed)) {
+        return reader.replayAll().moves;
+      }
+      catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+    return result;
+  }
+
+  //writes the given games to the given file
+  //returns the length of the file
+  static long write(Path file, BridgItEngine[] games) {
+    try (GameRecordWriter writer = new GameRecordWriter(file)) {
+      for (BridgItEngine game : games) {
+        writer.write(game, 0xFFFF0000, 0xFF0000FF);
+      }
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return file.toFile().length();
+  }
+}
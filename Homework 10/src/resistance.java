@@ -0,0 +1,431 @@
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.SplittableRandom;
+
+//one player's dots as a network of resistors, joined the same way Cell's toAddNeighbors
+//joins them: an open spot is a 1 ohm resistor, a bridge of the other player's does not
+//conduct at all and a bridge of the player's conducts perfectly, so the two dots it joins
+//are merged into one node, each node being a group of dots kept as a circular list
+//the nodes on the player's first side are held at 1 volt and those on the second at 0,
+//and the voltages of the rest are found with a conjugate gradient solver on arrays of
+//doubles, started from the voltages of the last solve since one move changes them little
+//a move changes only the rows of the nodes at its ends, so the network is kept up to
+//date one move at a time instead of being rebuilt from the board for every solve
+class ResistanceNetwork {
+  static final double TOLERANCE = 1e-9; //of the residual, relative to the right hand side
+  int size;
+  int player;
+  int rows; //dots in each line of the player's dots across the board
+  int count; //dots of the player
+  int[] dot; //board index of each dot
+  int[] neighbor; //the dot joined to dot k in direction d at k * 4 + d, -1 for none
+  int[] spot; //the spot between them at k * 4 + d
+  byte[] side; //0 for a dot to solve for, 1 on the first side, 2 on the second
+  int[] edgeOf; //for each board index, k * 4 + d of a spot joining dots k and its
+                //neighbor d, -1 if it joins none
+  int[] spots; //the board index of every spot joining two dots
+  byte[] owner; //the owner of the spot at each board index, as the network last saw it
+  int[] node; //the node each dot is in, one of its dots
+  int[] next; //the next dot in the same node, round in a circle
+  int[] members; //the number of dots in each node
+  byte[] held; //the sides each node is joined to, 1 and 2 for the first and second
+  double[] diagonal; //of each node, the number of open spots from it to other nodes
+  boolean won; //whether a node is joined to both sides
+  double[] voltage; //of each node
+  double[] residual;
+  double[] direction;
+  double[] product;
+  int iterations; //iterations of the last solve
+  long totalIterations;
+
+  //constructor for the network of the given player on an empty board of the given size,
+  //every voltage 0 until the first solve
+  ResistanceNetwork(int size, int player) {
+    this.size = BridgItEngine.checkSize(size);
+    this.player = player;
+    this.rows = (size - 1) / 2;
+    this.count = (size + 1) / 2 * this.rows;
+    this.dot = new int[this.count];
+    this.side = new byte[this.count];
+    this.neighbor = new int[this.count * 4];
+    this.spot = new int[this.count * 4];
+    this.edgeOf = new int[size * size];
+    this.owner = new byte[size * size];
+    this.node = new int[this.count];
+    this.next = new int[this.count];
+    this.members = new int[this.count];
+    this.held = new byte[this.count];
+    this.diagonal = new double[this.count];
+    this.voltage = new double[this.count];
+    this.residual = new double[this.count];
+    this.direction = new double[this.count];
+    this.product = new double[this.count];
+    for (int k = 0; k < this.count; k++) {
+      //the player's dots lie in lines of rows dots, from the first side to the second
+      int line = k / this.rows * 2;
+      int across = k % this.rows * 2 + 1;
+      int x = line;
+      int y = across;
+      if (player == 2) {
+        x = across;
+        y = line;
+      }
+      this.dot[k] = x * size + y;
+      if (line == 0) {
+        this.side[k] = 1;
+      }
+      else if (line == size - 1) {
+        this.side[k] = 2;
+      }
+    }
+    Arrays.fill(this.edgeOf, -1);
+    int joining = 0;
+    for (int k = 0; k < this.count; k++) {
+      int line = k / this.rows;
+      int across = k % this.rows;
+      this.link(k, 0, line < (size - 1) / 2, k + this.rows);
+      this.link(k, 1, line > 0, k - this.rows);
+      //dots next to each other on a side are joined by a spot on the edge, never played
+      this.link(k, 2, across < this.rows - 1 && this.side[k] == 0, k + 1);
+      this.link(k, 3, across > 0 && this.side[k] == 0, k - 1);
+      for (int d = 0; d < 4; d++) {
+        if (this.neighbor[k * 4 + d] > k) {
+          this.edgeOf[this.spot[k * 4 + d]] = k * 4 + d;
+          joining++;
+        }
+      }
+    }
+    this.spots = new int[joining];
+    joining = 0;
+    for (int i = 0; i < size * size; i++) {
+      if (this.edgeOf[i] >= 0) {
+        this.spots[joining] = i;
+        joining++;
+      }
+    }
+    this.reset();
+  }
+
+  //EFFECT: joins dot k in direction d to the given dot, if it has a neighbor that way
+  void link(int k, int d, boolean exists, int other) {
+    this.neighbor[k * 4 + d] = -1;
+    if (exists) {
+      this.neighbor[k * 4 + d] = other;
+      this.spot[k * 4 + d] = (this.dot[k] + this.dot[other]) / 2;
+    }
+  }
+
+  //EFFECT: makes the network that of the empty board, each dot a node of its own with
+  //every voltage 0
+  void reset() {
+    for (int spot : this.spots) {
+      this.owner[spot] = 0;
+    }
+    for (int k = 0; k < this.count; k++) {
+      this.node[k] = k;
+      this.next[k] = k;
+      this.members[k] = 1;
+      this.held[k] = this.side[k];
+      this.diagonal[k] = 0;
+      for (int d = 0; d < 4; d++) {
+        if (this.neighbor[k * 4 + d] >= 0) {
+          this.diagonal[k]++;
+        }
+      }
+    }
+    this.won = false;
+    Arrays.fill(this.voltage, 0);
+  }
+
+  //EFFECT: places a bridge of the given player at the given index, closing the spot if it
+  //is the other player's and merging the nodes at its ends if it is this one's
+  void place(int index, int player) {
+    int edge = this.edgeOf[index];
+    if (edge < 0 || this.owner[index] != 0) {
+      return;
+    }
+    this.owner[index] = (byte) player;
+    int a = this.node[edge / 4];
+    int b = this.node[this.neighbor[edge]];
+    if (a != b) {
+      this.diagonal[a]--;
+      this.diagonal[b]--;
+      if (player == this.player) {
+        this.merge(a, b);
+      }
+    }
+  }
+
+  //EFFECT: merges the two given nodes into one, the smaller into the larger, dropping
+  //the open spots between them from its diagonal since they now join a node to itself
+  void merge(int a, int b) {
+    if (this.members[a] > this.members[b]) {
+      int swap = a;
+      a = b;
+      b = swap;
+    }
+    int shared = 0;
+    int k = a;
+    do {
+      for (int d = 0; d < 4; d++) {
+        int other = this.neighbor[k * 4 + d];
+        if (other >= 0 && this.node[other] == b && this.isOpen(k * 4 + d)) {
+          shared++;
+        }
+      }
+      k = this.next[k];
+    } while (k != a);
+    do {
+      this.node[k] = b;
+      k = this.next[k];
+    } while (k != a);
+    int after = this.next[a];
+    this.next[a] = this.next[b];
+    this.next[b] = after;
+    this.members[b] += this.members[a];
+    this.diagonal[b] += this.diagonal[a] - 2 * shared;
+    this.held[b] |= this.held[a];
+    this.won = this.won || this.held[b] == 3;
+    //the larger node keeps its voltage as the start of the next solve
+  }
+
+  //determines if the spot at k * 4 + d is open
+  boolean isOpen(int edge) {
+    return this.owner[this.spot[edge]] == 0;
+  }
+
+  //EFFECT: makes the network that of the given board, placing only the bridges it has not
+  //seen yet, or starting over if a bridge it has seen was taken back
+  void sync(PackedBoard board) {
+    for (int spot : this.spots) {
+      int now = board.owner(spot);
+      if (now != this.owner[spot]) {
+        if (this.owner[spot] != 0) {
+          this.load(board);
+          return;
+        }
+        this.place(spot, now);
+      }
+    }
+  }
+
+  //EFFECT: makes the network that of the given board from the empty one
+  void load(PackedBoard board) {
+    this.reset();
+    for (int spot : this.spots) {
+      if (board.owner(spot) != 0) {
+        this.place(spot, board.owner(spot));
+      }
+    }
+  }
+
+  //returns the conductance between the player's sides on the given board, catching up
+  //with the moves made on it since the last call and solving for the voltages starting
+  //from the last ones, or from 0 if asked to start cold
+  double solve(PackedBoard board, boolean cold) {
+    this.sync(board);
+    return this.solve(cold);
+  }
+
+  //returns the conductance between the player's sides with the bridges placed so far,
+  //infinite once they are joined by the player's bridges
+  double solve(boolean cold) {
+    this.iterations = 0;
+    if (this.won) {
+      return Double.POSITIVE_INFINITY;
+    }
+    for (int k = 0; k < this.count; k++) {
+      if (this.held[k] == 1) {
+        this.voltage[k] = 1;
+      }
+      else if (cold || this.node[k] != k || !this.isFree(k)) {
+        this.voltage[k] = 0;
+      }
+    }
+    this.iterations = this.conjugateGradient();
+    this.totalIterations += this.iterations;
+    return this.current();
+  }
+
+  //determines if the voltage of node k is solved for, not held by a side or cut off
+  boolean isFree(int k) {
+    return this.node[k] == k && this.held[k] == 0 && this.diagonal[k] > 0;
+  }
+
+  //EFFECT: puts the product of the network's matrix and the given vector of the nodes'
+  //voltages in product, for the nodes solved for
+  void multiply(double[] vector) {
+    for (int k = 0; k < this.count; k++) {
+      this.product[k] = 0;
+      if (this.isFree(k)) {
+        this.product[k] = this.diagonal[k] * vector[k];
+      }
+    }
+    for (int k = 0; k < this.count; k++) {
+      int from = this.node[k];
+      for (int d = 0; d < 4 && this.isFree(from); d++) {
+        int other = this.neighbor[k * 4 + d];
+        if (other >= 0 && this.node[other] != from && this.isOpen(k * 4 + d)) {
+          this.product[from] -= vector[this.node[other]];
+        }
+      }
+    }
+  }
+
+  //returns the sum of the squares of the current pushed into each node solved for by the
+  //first side, the right hand side of the system the voltages solve
+  double pushed() {
+    Arrays.fill(this.product, 0);
+    for (int k = 0; k < this.count; k++) {
+      int from = this.node[k];
+      for (int d = 0; d < 4 && this.isFree(from); d++) {
+        int other = this.neighbor[k * 4 + d];
+        if (other >= 0 && this.held[this.node[other]] == 1 && this.isOpen(k * 4 + d)) {
+          this.product[from]++;
+        }
+      }
+    }
+    return this.norm(this.product);
+  }
+
+  //EFFECT: solves for the voltages by conjugate gradients, each step scaled by the
+  //diagonal, until the residual is small enough
+  //returns the number of iterations it took
+  int conjugateGradient() {
+    double limit = TOLERANCE * TOLERANCE * Math.max(this.pushed(), 1e-300);
+    //the held nodes' voltages are part of the product, so the residual comes out as the
+    //current pushed in less the product of the free ones
+    this.multiply(this.voltage);
+    double rz = 0;
+    for (int k = 0; k < this.count; k++) {
+      double r = 0;
+      if (this.isFree(k)) {
+        r = -this.product[k];
+        this.direction[k] = r / this.diagonal[k];
+        rz += r * this.direction[k];
+      }
+      else {
+        this.direction[k] = 0;
+      }
+      this.residual[k] = r;
+    }
+    int iteration = 0;
+    while (iteration < 10 * this.count && this.norm(this.residual) > limit) {
+      this.multiply(this.direction);
+      double pq = 0;
+      for (int k = 0; k < this.count; k++) {
+        pq += this.direction[k] * this.product[k];
+      }
+      if (pq <= 0) {
+        break;
+      }
+      double alpha = rz / pq;
+      double next = 0;
+      for (int k = 0; k < this.count; k++) {
+        this.voltage[k] += alpha * this.direction[k];
+        this.residual[k] -= alpha * this.product[k];
+        if (this.isFree(k)) {
+          next += this.residual[k] * this.residual[k] / this.diagonal[k];
+        }
+      }
+      double beta = next / rz;
+      rz = next;
+      for (int k = 0; k < this.count; k++) {
+        if (this.isFree(k)) {
+          this.direction[k] = this.residual[k] / this.diagonal[k] + beta * this.direction[k];
+        }
+      }
+      iteration++;
+    }
+    return iteration;
+  }
+
+  //returns the sum of the squares of the given vector
+  double norm(double[] vector) {
+    double sum = 0;
+    for (double v : vector) {
+      sum += v * v;
+    }
+    return sum;
+  }
+
+  //returns the current flowing out of the nodes on the first side at the voltages found
+  double current() {
+    double sum = 0;
+    for (int k = 0; k < this.count; k++) {
+      int from = this.node[k];
+      for (int d = 0; d < 4 && this.held[from] == 1; d++) {
+        int other = this.neighbor[k * 4 + d];
+        if (other >= 0 && this.node[other] != from && this.isOpen(k * 4 + d)) {
+          sum += 1 - this.voltage[this.node[other]];
+        }
+      }
+    }
+    return sum;
+  }
+}
+
+//judges positions by how well each player's network of dots conducts between their sides,
+//the log of the ratio of the two, keeping each network's voltages from one call to the next
+class ResistanceEvaluator {
+  static final double LEAST = 1e-9; //conductance of a player who is cut off
+  ResistanceNetwork[] networks;
+
+  //constructor for positions on boards of the given size
+  ResistanceEvaluator(int size) {
+    this.networks = new ResistanceNetwork[] {new ResistanceNetwork(size, 1),
+        new ResistanceNetwork(size, 2)};
+  }
+
+  //returns how much better the given player's position on the board is than the other
+  //player's, 0 if they are even, positive if the given player's is better
+  double evaluate(PackedBoard board, int player) {
+    double mine = this.networks[player - 1].solve(board, false);
+    double theirs = this.networks[2 - player].solve(board, false);
+    return Math.log((mine + LEAST) / (theirs + LEAST));
+  }
+}
+
+//the cases comparing solving both networks after every move of random games starting
+//from the last move's voltages against starting from nothing, each network placing the
+//move itself, each run playing one move of a game that starts over once won, timed by
+//ResistanceSolveBenchmark in the jmh source set
+//run with: gradle jmh -Pincludes=ResistanceSolveBenchmark
+class ResistanceBenchmark {
+
+  //returns every case on boards of the given size, by name
+  static LinkedHashMap<String, BenchmarkCase> cases(int size) {
+    LinkedHashMap<String, BenchmarkCase> result = new LinkedHashMap<String, BenchmarkCase>();
+    result.put("cold", move(size, true));
+    result.put("warm", move(size, false));
+    return result;
+  }
+
+  //returns a case playing the next move of random games on boards of the given size and
+  //solving both networks after it, starting each solve cold if asked to
+  static BenchmarkCase move(int size, boolean cold) {
+    SplittableRandom rand = new SplittableRandom(size);
+    BridgItEngine game = new BridgItEngine(size);
+    int[] open = game.legalMoves();
+    ResistanceNetwork[] networks = {new ResistanceNetwork(size, 1),
+        new ResistanceNetwork(size, 2)};
+    int[] left = {0};
+    return () -> {
+      if (game.winner() != 0 || left[0] == 0) {
+        game.reset();
+        networks[0].reset();
+        networks[1].reset();
+        left[0] = open.length;
+      }
+      int pick = rand.nextInt(left[0]);
+      int move = open[pick];
+      left[0]--;
+      open[pick] = open[left[0]];
+      open[left[0]] = move;
+      networks[0].place(move, game.turn);
+      networks[1].place(move, game.turn);
+      game.place(move, game.turn);
+      return Double.doubleToLongBits(networks[0].solve(cold) + networks[1].solve(cold));
+    };
+  }
+}
@@ -0,0 +1,185 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+//the win statistics of a batch of simulated games on one board size
+class SelfPlayStats {
+  int size;
+  long games;
+  long wins1;
+  long wins2;
+  long moves; //bridges placed over all the games
+  long nanos; //wall clock time of the whole batch, set by SelfPlaySimulator
+
+  //constructor for the statistics of no games yet
+  SelfPlayStats(int size) {
+    this.size = size;
+  }
+
+  //EFFECT: adds the counts of the given statistics to these
+  void add(SelfPlayStats other) {
+    this.games += other.games;
+    this.wins1 += other.wins1;
+    this.wins2 += other.wins2;
+    this.moves += other.moves;
+  }
+
+  //returns how many games were played per second of wall clock time
+  double gamesPerSecond() {
+    return this.games * 1e9 / Math.max(1, this.nanos);
+  }
+
+  //returns the statistics as one line of text
+  public String toString() {
+    return String.format("size %d: %d games, player 1 won %.1f%%, %.1f moves/game, "
+        + "%.0f games/s", this.size, this.games, 100.0 * this.wins1 / Math.max(1, this.games),
+        (double) this.moves / Math.max(1, this.games), this.gamesPerSecond());
+  }
+}
+
+//plays a range of numbered games, splitting itself in two until the range is small
+//enough for one thread, which then plays it on an engine of its own
+class SelfPlayTask extends RecursiveTask<SelfPlayStats> {
+  private static final long serialVersionUID = 1L;
+  static final int BATCH = 256; //most games played without splitting
+  int size;
+  int[] opening; //indices played first in every game, before the random moves
+  long seed;
+  long first; //number of the first game in the range
+  long count;
+
+  //constructor
+  SelfPlayTask(int size, int[] opening, long seed, long first, long count) {
+    this.size = size;
+    this.opening = opening;
+    this.seed = seed;
+    this.first = first;
+    this.count = count;
+  }
+
+  //plays the games, in this thread if there are few enough
+  protected SelfPlayStats compute() {
+    if (this.count <= BATCH) {
+      return this.playAll();
+    }
+    long half = this.count / 2;
+    SelfPlayTask left = new SelfPlayTask(this.size, this.opening, this.seed, this.first, half);
+    SelfPlayTask right = new SelfPlayTask(this.size, this.opening, this.seed,
+        this.first + half, this.count - half);
+    left.fork();
+    SelfPlayStats result = right.compute();
+    result.add(left.join());
+    return result;
+  }
+
+  //plays every game of the range one after another on a single engine
+  SelfPlayStats playAll() {
+    SelfPlayStats result = new SelfPlayStats(this.size);
+    BridgItEngine game = new BridgItEngine(this.size);
+    int[] allMoves = game.legalMoves();
+    int[] moves = new int[allMoves.length];
+    for (long i = this.first; i < this.first + this.count; i++) {
+      //each game has its own random numbers, so the results do not depend on the splitting
+      SplittableRandom rand = new SplittableRandom(this.seed + i * 0x9E3779B97F4A7C15L);
+      int winner = playGame(game, this.opening, allMoves, moves, rand);
+      result.games++;
+      if (winner == 1) {
+        result.wins1++;
+      }
+      else if (winner == 2) {
+        result.wins2++;
+      }
+      result.moves += game.history.size();
+    }
+    return result;
+  }
+
+  //plays one game from the start, the opening and then uniformly random moves until
+  //somebody wins, using moves as scratch space for the moves not yet tried
+  //returns the winner
+  static int playGame(BridgItEngine game, int[] opening, int[] allMoves, int[] moves,
+      SplittableRandom rand) {
+    game.reset();
+    for (int i = 0; i < opening.length && game.winner == 0; i++) {
+      if (game.board.isOpen(opening[i])) {
+        game.place(opening[i], game.turn);
+      }
+    }
+    System.arraycopy(allMoves, 0, moves, 0, allMoves.length);
+    int left = moves.length;
+    while (game.winner == 0 && left > 0) {
+      int pick = rand.nextInt(left);
+      int move = moves[pick];
+      left--;
+      moves[pick] = moves[left];
+      if (game.board.isOpen(move)) {
+        game.place(move, game.turn);
+      }
+    }
+    return game.winner;
+  }
+}
+
+//plays many games of random moves at once on a fork-join pool
+class SelfPlaySimulator {
+  ForkJoinPool pool;
+
+  //constructor for a simulator using the given number of threads
+  SelfPlaySimulator(int threads) {
+    this.pool = new ForkJoinPool(threads);
+  }
+
+  //plays the given number of games on boards of the given size, each starting with the
+  //given opening indices and going on at random
+  SelfPlayStats run(int size, long games, int[] opening, long seed) {
+    BridgItEngine.checkSize(size);
+    long start = System.nanoTime();
+    SelfPlayStats result = this.pool.invoke(new SelfPlayTask(size, opening, seed, 0, games));
+    result.nanos = System.nanoTime() - start;
+    return result;
+  }
+
+  //plays the given number of random games on each of the given board sizes
+  ArrayList<SelfPlayStats> runSizes(int[] sizes, long games, long seed) {
+    ArrayList<SelfPlayStats> result = new ArrayList<SelfPlayStats>();
+    for (int size : sizes) {
+      result.add(this.run(size, games, new int[0], seed));
+    }
+    return result;
+  }
+
+  //EFFECT: stops the threads of this simulator
+  void shutdown() {
+    this.pool.shutdown();
+  }
+}
+
+//the cases of a batch of GAMES random games on simulators of 1, 2, 4 and 8 threads and of
+//one thread per core, timed by SelfPlayScalingBenchmark in the jmh source set, whose times
+//show how games/second grows with the threads up to the number of cores
+//on a machine with one core every case plays the games one at a time, so the times stay
+//level and only show what splitting the batch costs
+//run with: gradle jmh -Pincludes=SelfPlayScalingBenchmark
+class SelfPlayBenchmark {
+  static final int GAMES = 10000;
+
+  //returns every case on boards of the given size, by name, the threads making the name
+  static LinkedHashMap<String, BenchmarkCase> cases(int size) {
+    LinkedHashMap<String, BenchmarkCase> result = new LinkedHashMap<String, BenchmarkCase>();
+    for (int threads = 1; threads <= 8; threads *= 2) {
+      add(result, threads + " threads", size, threads);
+    }
+    add(result, "cores", size, Runtime.getRuntime().availableProcessors());
+    return result;
+  }
+
+  //EFFECT: adds the case of the given name playing the batch on the given number of threads
+  static void add(LinkedHashMap<String, BenchmarkCase> cases, String name, int size,
+      int threads) {
+    SelfPlaySimulator simulator = new SelfPlaySimulator(threads);
+    long[] seed = {0};
+    cases.put(name, () -> simulator.run(size, GAMES, new int[0], seed[0]++).moves);
+  }
+}
@@ -0,0 +1,984 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+//the messages of the game server, each a type byte and then a fixed number of big endian
+//fields for its type, so a reader knows how long a message is from its first byte
+//from a client:
+//  NEW size:short             start a game on a board of the given size, as player 1
+//  JOIN game:int              join the given game as player 2
+//  MOVE game:int index:int    place a bridge at the given index of the board, x * size + y
+//from the server:
+//  CREATED game:int                                the game a NEW started
+//  START game:int player:byte                      both players have joined, sent to each
+//  MOVED game:int index:int player:byte winner:byte  a bridge was placed, sent to both
+//  REJECTED game:int index:int reason:byte         a message that broke the rules
+//  ABANDONED game:int                              the game ended with no winner: a player
+//                                                  disconnected, or it went unjoined or idle
+//a connection can be in any number of games at once, and can even be both their players
+class GameProtocol {
+  static final byte NEW = 1;
+  static final byte JOIN = 2;
+  static final byte MOVE = 3;
+  static final byte CREATED = 1;
+  static final byte START = 2;
+  static final byte MOVED = 3;
+  static final byte REJECTED = 4;
+  static final byte ABANDONED = 5;
+  //reasons a message is rejected
+  static final byte NO_GAME = 1; //no such game, or it is already full or over
+  static final byte NOT_STARTED = 2; //player 2 has not joined yet
+  static final byte NOT_YOUR_TURN = 3;
+  static final byte NOT_OPEN = 4; //off the board, a dot, on a border or already bridged
+  static final byte BAD_SIZE = 5;
+  static final byte FULL = 6; //the connection or the server has as many games as it can
+  //largest board size a game can be started on, so a game takes at most a few hundred KB
+  //and the keys and neighbors cached for each size hold at most 50 sizes, a few MB
+  static final int LARGEST = 101;
+  static final int LONGEST = 11; //bytes in the longest message
+
+  //returns the length of a message from a client of the given type, or -1 if there is
+  //no such type
+  static int clientLength(byte type) {
+    if (type == NEW) {
+      return 3;
+    }
+    else if (type == JOIN) {
+      return 5;
+    }
+    else if (type == MOVE) {
+      return 9;
+    }
+    return -1;
+  }
+
+  //returns the length of a message from the server of the given type, or -1 if there is
+  //no such type
+  static int serverLength(byte type) {
+    if (type == CREATED || type == ABANDONED) {
+      return 5;
+    }
+    else if (type == START) {
+      return 6;
+    }
+    else if (type == MOVED) {
+      return 11;
+    }
+    else if (type == REJECTED) {
+      return 10;
+    }
+    return -1;
+  }
+
+  //returns the next message from the server on the given blocking channel, whole, for
+  //clients that wait for each reply
+  static ByteBuffer receive(SocketChannel channel) throws IOException {
+    ByteBuffer type = ByteBuffer.allocate(1);
+    readFully(channel, type);
+    ByteBuffer message = ByteBuffer.allocate(serverLength(type.get(0)));
+    message.put(type.get(0));
+    readFully(channel, message);
+    message.flip();
+    return message;
+  }
+
+  //EFFECT: reads from the given blocking channel until the given buffer is full
+  static void readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer) < 0) {
+        throw new IOException("The server closed the connection");
+      }
+    }
+  }
+}
+
+//a game hosted by the server, on the rules of BridgItEngine, which are the rules
+//onMouseClicked plays by: only an open spot can be bridged, the direction of the bridge
+//follows from whose it is, and the game is won when a player's sides are connected
+class ServerGame {
+  int id;
+  BridgItEngine engine;
+  Connection[] players = new Connection[2];
+  long touched; //when the game was started, joined or last moved in
+
+  //constructor for a new game with the given id on a board of the given size
+  ServerGame(int id, int size, Connection creator) {
+    this.id = id;
+    this.engine = new BridgItEngine(size);
+    this.players[0] = creator;
+    this.touched = System.nanoTime();
+  }
+}
+
+//one client's socket, owned by the event loop its channel is registered with, which is
+//the only thread that reads it or writes it
+//a client that sends moves but does not read the replies stops being read once PAUSE_AT
+//bytes of replies are waiting or owed to it, and is closed if other players' moves would
+//leave more than LIMIT waiting, so no client can make the server hold more than LIMIT
+//bytes for it
+class Connection {
+  static final int PAUSE_AT = 1 << 16; //bytes waiting at which the socket stops being read
+  static final int LIMIT = 1 << 20; //most bytes that can be waiting
+  SocketChannel channel;
+  EventLoop loop;
+  SelectionKey key;
+  ByteBuffer in = ByteBuffer.allocate(4096);
+  ByteBuffer out = ByteBuffer.allocate(4096); //replies waiting to be written
+  ByteBuffer discard; //where replies to a closed connection go, made when first needed
+  boolean dirty; //whether out has replies the loop has not tried to write yet
+  boolean closed;
+  int unanswered; //messages read whose answer, one reply each, is not in out yet
+  int games; //games this connection started that are not over, all owned by its loop
+
+  //constructor for the given channel, owned by the given loop
+  Connection(SocketChannel channel, EventLoop loop) {
+    this.channel = channel;
+    this.loop = loop;
+  }
+
+  //returns the buffer to put the next reply of the given length in, grown if needed, or
+  //one that is thrown away if the connection is closed or the reply would leave more than
+  //LIMIT bytes waiting, which closes it
+  //EFFECT: marks the connection as having replies to write
+  ByteBuffer reply(int length) {
+    if (!this.closed && this.out.position() + length > LIMIT) {
+      this.loop.close(this);
+    }
+    if (this.closed) {
+      if (this.discard == null) {
+        this.discard = ByteBuffer.allocate(GameProtocol.LONGEST);
+      }
+      this.discard.clear();
+      return this.discard;
+    }
+    if (this.out.remaining() < length) {
+      ByteBuffer bigger = ByteBuffer.allocate(Math.min(this.out.capacity() * 2, LIMIT));
+      this.out.flip();
+      bigger.put(this.out);
+      this.out = bigger;
+    }
+    if (!this.dirty) {
+      this.dirty = true;
+      this.loop.dirty.add(this);
+    }
+    return this.out;
+  }
+
+  //EFFECT: writes as many of the waiting replies as the socket takes, watching for the
+  //socket to take the rest
+  void flush() throws IOException {
+    this.dirty = false;
+    this.out.flip();
+    this.channel.write(this.out);
+    this.out.compact();
+    this.watch();
+  }
+
+  //EFFECT: asks the loop to be told when the socket can take more, if replies are waiting,
+  //and when it has more to read, if fewer than PAUSE_AT bytes are waiting or owed
+  void watch() {
+    int interest = 0;
+    if (this.out.position() + this.unanswered * GameProtocol.LONGEST < PAUSE_AT) {
+      interest |= SelectionKey.OP_READ;
+    }
+    if (this.out.position() > 0) {
+      interest |= SelectionKey.OP_WRITE;
+    }
+    if (this.key.interestOps() != interest) {
+      this.key.interestOps(interest);
+    }
+  }
+}
+
+//one thread running a selector over its share of the connections and owning its share of
+//the games, the games whose ids leave its index when divided by the number of loops
+//a message for a game of another loop, or a reply to a connection of another loop, is
+//handed to that loop as a task, so no game or connection is ever touched by two threads
+//once a second it ends the games nobody joined or moved in for too long, and a message
+//whose handling throws closes only the connection that sent it
+class EventLoop implements Runnable {
+  static final long SWEEP_MILLIS = 1000; //how often games are checked for going idle
+  BridgItServer server;
+  int index;
+  Selector selector;
+  Thread thread;
+  ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+  AtomicBoolean awake = new AtomicBoolean(); //whether a wakeup is already on its way
+  HashMap<Integer, ServerGame> games = new HashMap<Integer, ServerGame>();
+  int nextGame; //how many games this loop has started
+  ArrayList<Connection> dirty = new ArrayList<Connection>(); //connections with replies
+  long nextSweep = System.nanoTime(); //when to next end the idle games
+  volatile boolean running = true;
+
+  //constructor for the given loop of the given server
+  EventLoop(BridgItServer server, int index) throws IOException {
+    this.server = server;
+    this.index = index;
+    this.selector = Selector.open();
+  }
+
+  //EFFECT: runs the given task on this loop's thread, now if this is that thread
+  void execute(Runnable task) {
+    if (Thread.currentThread() == this.thread) {
+      task.run();
+      return;
+    }
+    this.tasks.add(task);
+    if (this.awake.compareAndSet(false, true)) {
+      this.selector.wakeup();
+    }
+  }
+
+  //selects and handles ready channels, tasks from other loops and replies, until stopped
+  public void run() {
+    while (this.running) {
+      try {
+        this.selector.select(SWEEP_MILLIS);
+        this.awake.set(false);
+        Runnable task = this.tasks.poll();
+        while (task != null) {
+          try {
+            task.run();
+          }
+          catch (Throwable e) {
+            this.server.failure = e;
+          }
+          task = this.tasks.poll();
+        }
+        Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          SelectionKey key = keys.next();
+          keys.remove();
+          try {
+            this.handle(key);
+          }
+          catch (Throwable e) {
+            this.server.failure = e;
+            if (key.attachment() instanceof Connection) {
+              this.close((Connection) key.attachment());
+            }
+          }
+        }
+        long now = System.nanoTime();
+        if (now - this.nextSweep >= 0) {
+          this.sweep(now);
+          this.nextSweep = now + SWEEP_MILLIS * 1000000;
+        }
+        for (int i = 0; i < this.dirty.size(); i++) {
+          Connection connection = this.dirty.get(i);
+          if (connection.dirty && !connection.closed) {
+            this.flush(connection);
+          }
+        }
+        this.dirty.clear();
+      }
+      catch (IOException e) {
+        this.server.failure = e;
+      }
+    }
+    for (SelectionKey key : this.selector.keys()) {
+      try {
+        key.channel().close();
+      }
+      catch (IOException e) {
+        this.server.failure = e;
+      }
+    }
+    try {
+      this.selector.close();
+    }
+    catch (IOException e) {
+      this.server.failure = e;
+    }
+  }
+
+  //EFFECT: accepts, reads or writes whatever the given key is ready for
+  void handle(SelectionKey key) throws IOException {
+    if (!key.isValid()) {
+      return;
+    }
+    if (key.isAcceptable()) {
+      SocketChannel channel = ((ServerSocketChannel) key.channel()).accept();
+      if (channel != null) {
+        this.server.assign(channel);
+      }
+      return;
+    }
+    Connection connection = (Connection) key.attachment();
+    if (key.isWritable()) {
+      this.flush(connection);
+    }
+    if (key.isValid() && key.isReadable()) {
+      this.read(connection);
+    }
+  }
+
+  //EFFECT: registers a newly accepted channel with this loop
+  void register(SocketChannel channel) {
+    try {
+      channel.configureBlocking(false);
+      channel.socket().setTcpNoDelay(true);
+      Connection connection = new Connection(channel, this);
+      connection.key = channel.register(this.selector, SelectionKey.OP_READ, connection);
+    }
+    catch (IOException e) {
+      this.server.failure = e;
+    }
+  }
+
+  //EFFECT: writes the given connection's replies, closing it if that fails
+  void flush(Connection connection) {
+    try {
+      connection.flush();
+    }
+    catch (IOException e) {
+      this.close(connection);
+    }
+  }
+
+  //EFFECT: reads what the given connection has sent and handles every whole message in it,
+  //closing the connection at the end of its stream or on a message of an unknown type
+  void read(Connection connection) {
+    ByteBuffer in = connection.in;
+    int count;
+    try {
+      count = connection.channel.read(in);
+    }
+    catch (IOException e) {
+      count = -1;
+    }
+    if (count < 0) {
+      this.close(connection);
+      return;
+    }
+    in.flip();
+    while (in.remaining() > 0) {
+      int length = GameProtocol.clientLength(in.get(in.position()));
+      if (length < 0) {
+        this.close(connection);
+        return;
+      }
+      if (in.remaining() < length) {
+        break;
+      }
+      this.dispatch(connection, in);
+    }
+    in.compact();
+    if (!connection.closed) {
+      connection.watch();
+    }
+  }
+
+  //EFFECT: handles the message at the position of the given buffer, moving past it, and
+  //counts it as owed an answer until its reply to the connection is made
+  void dispatch(Connection connection, ByteBuffer in) {
+    connection.unanswered++;
+    byte type = in.get();
+    if (type == GameProtocol.NEW) {
+      this.create(connection, in.getShort());
+      return;
+    }
+    int game = in.getInt();
+    EventLoop owner = this.server.owner(game);
+    if (type == GameProtocol.JOIN) {
+      owner.execute(() -> owner.guard(connection, () -> owner.join(connection, game)));
+    }
+    else {
+      int index = in.getInt();
+      long start = System.nanoTime();
+      owner.execute(() -> owner.guard(connection, 
+          () -> owner.move(connection, game, index, start)));
+    }
+  }
+
+  //EFFECT: runs the given handling of a message of the given connection's, closing the
+  //connection, on its own loop, if the handling throws
+  void guard(Connection connection, Runnable handling) {
+    try {
+      handling.run();
+    }
+    catch (Throwable e) {
+      this.server.failure = e;
+      connection.loop.execute(() -> connection.loop.close(connection));
+    }
+  }
+
+  //EFFECT: starts a game on this loop for the given connection, or rejects the size, or
+  //rejects the game if the connection or the server has as many games as it can
+  void create(Connection connection, int size) {
+    if (size % 2 == 0 || size < 3 || size > GameProtocol.LARGEST) {
+      this.rejected(connection, -1, size, GameProtocol.BAD_SIZE);
+      return;
+    }
+    if (connection.games >= this.server.connectionGames || !this.server.reserve(size)) {
+      this.rejected(connection, -1, size, GameProtocol.FULL);
+      return;
+    }
+    int id = this.nextGame * this.server.loops.length + this.index;
+    this.nextGame++;
+    ServerGame game = null;
+    try {
+      game = new ServerGame(id, size, connection);
+    }
+    finally {
+      if (game == null) {
+        this.server.release(size);
+      }
+    }
+    this.games.put(id, game);
+    connection.games++;
+    connection.unanswered--;
+    connection.reply(5).put(GameProtocol.CREATED).putInt(id);
+  }
+
+  //EFFECT: frees what the given game of this loop's, just taken out of games, held
+  void end(ServerGame game) {
+    this.server.release(game.engine.size);
+    game.players[0].games--;
+  }
+
+  //EFFECT: ends every game of this loop's that has waited for player 2 longer than the
+  //server's joinNanos, or gone without a move longer than its idleNanos, telling the players
+  void sweep(long now) {
+    Iterator<ServerGame> games = this.games.values().iterator();
+    while (games.hasNext()) {
+      ServerGame game = games.next();
+      if (game.players[1] == null && now - game.touched > this.server.joinNanos
+          || now - game.touched > this.server.idleNanos) {
+        games.remove();
+        this.end(game);
+        for (int i = 0; i < 2; i++) {
+          Connection to = game.players[i];
+          if (to != null && (i == 0 || to != game.players[0])) {
+            this.send(to, () -> to.reply(5).put(GameProtocol.ABANDONED).putInt(game.id));
+          }
+        }
+      }
+    }
+  }
+
+  //EFFECT: makes the given connection player 2 of the given game of this loop's and tells
+  //both players the game has started, or rejects the join if the game is not waiting
+  void join(Connection connection, int id) {
+    ServerGame game = this.games.get(id);
+    if (game == null || game.players[1] != null) {
+      this.rejected(connection, id, -1, GameProtocol.NO_GAME);
+      return;
+    }
+    game.players[1] = connection;
+    game.touched = System.nanoTime();
+    this.send(game.players[0], () -> game.players[0].reply(6).put(GameProtocol.START)
+        .putInt(id).put((byte) 1));
+    this.answer(connection, () -> connection.reply(6).put(GameProtocol.START).putInt(id)
+        .put((byte) 2));
+  }
+
+  //EFFECT: places a bridge at the given index of the given game of this loop's for the
+  //given connection and tells both players, or rejects the move, checking it the way
+  //onMouseClicked does, and ends the game if the move won it
+  void move(Connection connection, int id, int index, long start) {
+    ServerGame game = this.games.get(id);
+    byte reason = 0;
+    if (game == null) {
+      reason = GameProtocol.NO_GAME;
+    }
+    else if (game.players[1] == null) {
+      reason = GameProtocol.NOT_STARTED;
+    }
+    else if (game.players[game.engine.turn - 1] != connection) {
+      reason = GameProtocol.NOT_YOUR_TURN;
+    }
+    else if (index < 0 || index >= game.engine.size * game.engine.size
+        || !game.engine.board.isOpen(index)) {
+      reason = GameProtocol.NOT_OPEN;
+    }
+    if (reason != 0) {
+      this.rejected(connection, id, index, reason);
+      return;
+    }
+    byte player = (byte) game.engine.turn;
+    game.engine.place(index, player);
+    game.touched = start;
+    byte winner = (byte) game.engine.winner();
+    //a game is forgotten once it is won, so a move after that is for no game
+    if (winner != 0) {
+      this.games.remove(id);
+      this.end(game);
+    }
+    for (int i = 0; i < 2; i++) {
+      Connection to = game.players[i];
+      Runnable moved = () -> to.reply(11).put(GameProtocol.MOVED).putInt(id).putInt(index)
+          .put(player).put(winner);
+      //a connection playing both sides is told once
+      if (i == 1 && to == game.players[0]) {
+        break;
+      }
+      if (to == connection) {
+        this.answer(to, moved);
+      }
+      else {
+        this.send(to, moved);
+      }
+    }
+    this.server.moveLatency.recordSince(start);
+  }
+
+  //EFFECT: tells the given connection its message about the given game and index broke
+  //the rules for the given reason
+  void rejected(Connection connection, int id, int index, byte reason) {
+    this.answer(connection, () -> connection.reply(10).put(GameProtocol.REJECTED).putInt(id)
+        .putInt(index).put(reason));
+  }
+
+  //EFFECT: runs the given reply on the loop that owns the given connection
+  void send(Connection connection, Runnable reply) {
+    connection.loop.execute(() -> {
+      if (!connection.closed) {
+        reply.run();
+      }
+    });
+  }
+
+  //EFFECT: runs the given reply to a message of the given connection's on the loop that
+  //owns the connection, which then no longer owes the message an answer
+  void answer(Connection connection, Runnable reply) {
+    connection.loop.execute(() -> {
+      connection.unanswered--;
+      if (!connection.closed) {
+        reply.run();
+      }
+    });
+  }
+
+  //EFFECT: closes the given connection of this loop's and has every loop end its games
+  void close(Connection connection) {
+    if (connection.closed) {
+      return;
+    }
+    connection.closed = true;
+    connection.key.cancel();
+    try {
+      connection.channel.close();
+    }
+    catch (IOException e) {
+      this.server.failure = e;
+    }
+    for (EventLoop loop : this.server.loops) {
+      loop.execute(() -> loop.abandon(connection));
+    }
+  }
+
+  //EFFECT: ends every game of this loop's the given connection was a player of, telling
+  //the other player
+  void abandon(Connection connection) {
+    Iterator<ServerGame> games = this.games.values().iterator();
+    while (games.hasNext()) {
+      ServerGame game = games.next();
+      if (game.players[0] == connection || game.players[1] == connection) {
+        games.remove();
+        this.end(game);
+        for (Connection other : game.players) {
+          if (other != null && other != connection) {
+            this.send(other, () -> other.reply(5).put(GameProtocol.ABANDONED)
+                .putInt(game.id));
+          }
+        }
+      }
+    }
+  }
+}
+
+//hosts many games at once over TCP, its connections and games shared out between a few
+//event loops, each a thread of its own
+//no client can make it run out of memory: a connection can have at most connectionGames
+//games it started open at once, and all the games' boards together at most cellBudget
+//cells, a quarter of the heap unless set, and games nobody joins or moves in are ended
+//run with: java -Djava.awt.headless=true BridgItServer [port] [loops] [address], the
+//address to listen on being 127.0.0.1 unless given, 0.0.0.0 for every interface
+class BridgItServer {
+  static final String LOOPBACK = "127.0.0.1";
+  static final int CONNECTION_GAMES = 1024; //games a connection can have open at once
+  static final int CELL_BYTES = 24; //about how much heap a game takes for each cell
+  EventLoop[] loops;
+  ServerSocketChannel acceptor;
+  int nextLoop; //the loop the next connection goes to
+  LatencyHistogram moveLatency = new LatencyHistogram("move"); //from read to reply
+  volatile Throwable failure; //the last error of any loop, null if there has been none
+  volatile int connectionGames = CONNECTION_GAMES;
+  volatile long cellBudget = Runtime.getRuntime().maxMemory() / 4 / CELL_BYTES;
+  AtomicLong cells = new AtomicLong(); //the cells of the boards of every open game
+  volatile long joinNanos = 60000000000L; //how long a game can wait for player 2
+  volatile long idleNanos = 600000000000L; //how long a game can go without a move
+
+  //constructor for a server with the given number of loops listening on the given port
+  //of the loopback address, 0 for any free port, started at once
+  BridgItServer(int port, int loops) throws IOException {
+    this(LOOPBACK, port, loops);
+  }
+
+  //constructor for a server with the given number of loops listening on the given port,
+  //0 for any free port, of the given address, started at once
+  BridgItServer(String address, int port, int loops) throws IOException {
+    if (loops < 1) {
+      throw new IllegalArgumentException("A server needs at least one event loop");
+    }
+    this.loops = new EventLoop[loops];
+    for (int i = 0; i < loops; i++) {
+      this.loops[i] = new EventLoop(this, i);
+    }
+    this.acceptor = ServerSocketChannel.open();
+    this.acceptor.bind(new InetSocketAddress(address, port), 1024);
+    this.acceptor.configureBlocking(false);
+    this.acceptor.register(this.loops[0].selector, SelectionKey.OP_ACCEPT);
+    for (EventLoop loop : this.loops) {
+      loop.thread = new Thread(loop, "event loop " + loop.index);
+      loop.thread.setDaemon(true);
+      loop.thread.start();
+    }
+  }
+
+  //returns the port the server is listening on
+  int port() throws IOException {
+    return ((InetSocketAddress) this.acceptor.getLocalAddress()).getPort();
+  }
+
+  //returns true, counting them, if a board of the given size fits in the cells left in the
+  //budget, and false if it does not
+  boolean reserve(int size) {
+    if (this.cells.addAndGet(size * size) <= this.cellBudget) {
+      return true;
+    }
+    this.release(size);
+    return false;
+  }
+
+  //EFFECT: gives the cells of a board of the given size back to the budget
+  void release(int size) {
+    this.cells.addAndGet(-size * size);
+  }
+
+  //returns the loop that owns the game with the given id
+  EventLoop owner(int game) {
+    return this.loops[Math.floorMod(game, this.loops.length)];
+  }
+
+  //EFFECT: gives a newly accepted channel to the next loop in turn
+  void assign(SocketChannel channel) {
+    EventLoop loop = this.loops[this.nextLoop];
+    this.nextLoop = (this.nextLoop + 1) % this.loops.length;
+    loop.execute(() -> loop.register(channel));
+  }
+
+  //EFFECT: stops every loop, closing every connection, and waits for them to finish
+  void stop() throws IOException, InterruptedException {
+    for (EventLoop loop : this.loops) {
+      loop.running = false;
+      loop.selector.wakeup();
+    }
+    for (EventLoop loop : this.loops) {
+      loop.thread.join();
+    }
+    this.acceptor.close();
+  }
+
+  //runs a server until the process is killed
+  public static void main(String[] args) throws IOException, InterruptedException {
+    int port = 7341;
+    int loops = Math.max(1, Runtime.getRuntime().availableProcessors());
+    String address = LOOPBACK;
+    if (args.length > 0) {
+      port = Integer.parseInt(args[0]);
+    }
+    if (args.length > 1) {
+      loops = Integer.parseInt(args[1]);
+    }
+    if (args.length > 2) {
+      address = args[2];
+    }
+    BridgItServer server = new BridgItServer(address, port, loops);
+    System.out.println("listening on " + server.acceptor.getLocalAddress() + " with " + loops
+        + " loops");
+    while (true) {
+      Thread.sleep(10000);
+      System.out.println(server.moveLatency);
+    }
+  }
+}
+
+//plays many games at once against a server from one thread, each game between two
+//connections of a pair, each side placing a random open bridge as soon as it is its turn,
+//and times every move from sending it to hearing it was placed
+//run with: java -Djava.awt.headless=true GameLoadGenerator [games] [seconds] [size]
+//[pairs] [loops] [host:port], starting a server of its own with the given number of loops
+//unless given the host and port of one already running, such as a BridgItServer in
+//another process or on another machine
+class GameLoadGenerator {
+  static final int PLAYING = 0; //states of a slot
+  static final int CREATING = 1;
+  static final int JOINING = 2;
+  Selector selector;
+  LoadConnection[] connections; //the first of each pair creates games, the second joins
+  HashMap<Integer, LoadSlot> byGame = new HashMap<Integer, LoadSlot>();
+  LatencyHistogram latency = new LatencyHistogram("move round trip");
+  SplittableRandom rand = new SplittableRandom(22);
+  int size;
+  long deadline; //when to stop starting games
+  long games; //games finished
+  long moves; //moves placed
+  long rejected; //moves the server rejected, 0 unless a rule was broken
+  int active; //slots with a game under way or on its way
+
+  //one game the generator keeps going, starting a new one each time the last ends
+  static class LoadSlot {
+    int pair;
+    int game;
+    BridgItEngine engine; //the generator's copy of the game, to choose moves from
+    int[] moves; //the open indices, in a random order, the first left of them unplayed
+    int left;
+    long sent; //when the last move was sent
+
+    //constructor for a slot of games between the given pair of connections
+    LoadSlot(int pair, int size) {
+      this.pair = pair;
+      this.engine = new BridgItEngine(size);
+      this.moves = this.engine.legalMoves();
+    }
+  }
+
+  //the client side of one connection, with the slots waiting for a CREATED in order
+  static class LoadConnection {
+    SocketChannel channel;
+    SelectionKey key;
+    ByteBuffer in = ByteBuffer.allocate(1 << 16);
+    ByteBuffer out = ByteBuffer.allocate(1 << 16);
+    java.util.ArrayDeque<LoadSlot> creating = new java.util.ArrayDeque<LoadSlot>();
+  }
+
+  //constructor connecting the given number of pairs of connections to the given port of
+  //the loopback address
+  GameLoadGenerator(int port, int pairs, int size) throws IOException {
+    this(new InetSocketAddress(BridgItServer.LOOPBACK, port), pairs, size);
+  }
+
+  //constructor connecting the given number of pairs of connections to the given address
+  GameLoadGenerator(InetSocketAddress server, int pairs, int size) throws IOException {
+    this.size = size;
+    this.selector = Selector.open();
+    this.connections = new LoadConnection[pairs * 2];
+    for (int i = 0; i < this.connections.length; i++) {
+      LoadConnection connection = new LoadConnection();
+      connection.channel = SocketChannel.open(server);
+      connection.channel.socket().setTcpNoDelay(true);
+      connection.channel.configureBlocking(false);
+      connection.key = connection.channel.register(this.selector, SelectionKey.OP_READ,
+          connection);
+      this.connections[i] = connection;
+    }
+  }
+
+  //EFFECT: keeps the given number of games going for the given number of milliseconds,
+  //then lets the games under way finish
+  void run(int concurrent, long millis) throws IOException {
+    this.deadline = System.nanoTime() + millis * 1000000;
+    for (int i = 0; i < concurrent; i++) {
+      this.create(new LoadSlot(i % (this.connections.length / 2), this.size));
+    }
+    while (this.active > 0) {
+      for (LoadConnection connection : this.connections) {
+        this.flush(connection);
+      }
+      this.selector.select(1000);
+      Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+      while (keys.hasNext()) {
+        SelectionKey key = keys.next();
+        keys.remove();
+        LoadConnection connection = (LoadConnection) key.attachment();
+        if (key.isReadable()) {
+          this.read(connection);
+        }
+      }
+    }
+  }
+
+  //EFFECT: has the given slot's creating connection start a new game
+  void create(LoadSlot slot) {
+    this.active++;
+    LoadConnection creator = this.connections[slot.pair * 2];
+    creator.creating.add(slot);
+    this.buffer(creator, 3).put(GameProtocol.NEW).putShort((short) this.size);
+  }
+
+  //returns the given connection's buffer of messages to send, with room for the given
+  //number of bytes, writing what is already in it if there is not
+  ByteBuffer buffer(LoadConnection connection, int length) {
+    if (connection.out.remaining() < length) {
+      this.flush(connection);
+      if (connection.out.remaining() < length) {
+        ByteBuffer bigger = ByteBuffer.allocate(connection.out.capacity() * 2);
+        connection.out.flip();
+        bigger.put(connection.out);
+        connection.out = bigger;
+      }
+    }
+    return connection.out;
+  }
+
+  //EFFECT: writes as much of the given connection's messages as its socket takes
+  void flush(LoadConnection connection) {
+    try {
+      connection.out.flip();
+      connection.channel.write(connection.out);
+      connection.out.compact();
+    }
+    catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  //EFFECT: handles every whole message the given connection has been sent
+  void read(LoadConnection connection) throws IOException {
+    if (connection.channel.read(connection.in) < 0) {
+      throw new IOException("The server closed a connection");
+    }
+    ByteBuffer in = connection.in;
+    in.flip();
+    while (in.remaining() > 0 && in.remaining() >= GameProtocol.serverLength(
+        in.get(in.position()))) {
+      byte type = in.get();
+      int game = in.getInt();
+      if (type == GameProtocol.CREATED) {
+        LoadSlot slot = connection.creating.poll();
+        slot.game = game;
+        this.byGame.put(game, slot);
+        this.buffer(this.connections[slot.pair * 2 + 1], 5).put(GameProtocol.JOIN)
+            .putInt(game);
+      }
+      else if (type == GameProtocol.START) {
+        if (in.get() == 1) {
+          this.play(this.byGame.get(game));
+        }
+      }
+      else if (type == GameProtocol.MOVED) {
+        int index = in.getInt();
+        byte player = in.get();
+        byte winner = in.get();
+        LoadSlot slot = this.byGame.get(game);
+        //both players hear of every move, the mover's copy is the one that counts, and
+        //the other copy of a winning move can come after the game is forgotten
+        if (slot != null && connection == this.connections[slot.pair * 2 + player - 1]) {
+          this.moved(slot, index, player, winner);
+        }
+      }
+      else if (type == GameProtocol.REJECTED) {
+        in.getInt();
+        in.get();
+        this.rejected++;
+      }
+    }
+    in.compact();
+  }
+
+  //EFFECT: records a move of the given slot's game the server has placed, and plays the
+  //next, or starts a new game if the move won this one and there is time left
+  void moved(LoadSlot slot, int index, byte player, byte winner) {
+    this.latency.recordSince(slot.sent);
+    this.moves++;
+    slot.engine.place(index, player);
+    if (winner == 0) {
+      this.play(slot);
+      return;
+    }
+    this.games++;
+    this.active--;
+    this.byGame.remove(slot.game);
+    if (System.nanoTime() < this.deadline) {
+      slot.engine.reset();
+      slot.left = 0;
+      this.create(slot);
+    }
+  }
+
+  //EFFECT: sends the move of whoever's turn it is in the given slot's game, a random one
+  //of the open indices
+  void play(LoadSlot slot) {
+    int count = slot.moves.length - slot.left;
+    int pick = slot.left + this.rand.nextInt(count);
+    int move = slot.moves[pick];
+    slot.moves[pick] = slot.moves[slot.left];
+    slot.moves[slot.left] = move;
+    slot.left++;
+    LoadConnection mover = this.connections[slot.pair * 2 + slot.engine.turn - 1];
+    slot.sent = System.nanoTime();
+    this.buffer(mover, 9).put(GameProtocol.MOVE).putInt(slot.game).putInt(move);
+  }
+
+  //EFFECT: closes every connection
+  void close() throws IOException {
+    for (LoadConnection connection : this.connections) {
+      connection.channel.close();
+    }
+    this.selector.close();
+  }
+
+  //starts a server, or connects to the one given, and keeps the given number of games
+  //going against it
+  public static void main(String[] args) throws IOException, InterruptedException {
+    int concurrent = 10000;
+    int seconds = 10;
+    int size = 11;
+    int pairs = 50;
+    int loops = Math.max(1, Runtime.getRuntime().availableProcessors());
+    int[] given = {concurrent, seconds, size, pairs, loops};
+    for (int i = 0; i < args.length && i < given.length; i++) {
+      given[i] = Integer.parseInt(args[i]);
+    }
+    BridgItServer server = null;
+    InetSocketAddress address;
+    if (args.length > given.length) {
+      int colon = args[given.length].lastIndexOf(':');
+      address = new InetSocketAddress(args[given.length].substring(0, colon),
+          Integer.parseInt(args[given.length].substring(colon + 1)));
+    }
+    else {
+      server = new BridgItServer(0, given[4]);
+      address = new InetSocketAddress(BridgItServer.LOOPBACK, server.port());
+    }
+    GameLoadGenerator generator = new GameLoadGenerator(address, given[3], given[2]);
+    //the first run only warms up the JIT
+    generator.run(given[0], 2000);
+    generator.latency.reset();
+    if (server != null) {
+      server.moveLatency.reset();
+    }
+    generator.games = 0;
+    generator.moves = 0;
+    long start = System.nanoTime();
+    generator.run(given[0], given[1] * 1000L);
+    double elapsed = (System.nanoTime() - start) / 1e9;
+    System.out.printf("%d concurrent games of size %d over %d connections to %s: "
+        + "%d games, %.0f moves/s, %d rejected%n", given[0], given[2], given[3] * 2, address,
+        generator.games, generator.moves / elapsed, generator.rejected);
+    System.out.println(generator.latency);
+    generator.close();
+    if (server == null) {
+      return;
+    }
+    System.out.println(server.moveLatency + " (" + given[4] + " loops)");
+    server.stop();
+    if (server.failure != null) {
+      throw new IOException("An event loop failed", server.failure);
+    }
+  }
+}
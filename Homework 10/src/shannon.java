@@ -0,0 +1,432 @@
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.SplittableRandom;
+
+//player 1's winning strategy, Bridg-It being a Shannon switching game that player 1
+//moves first in. Player 1's graph has a vertex for each dot, one vertex for each side
+//and an edge for each spot a bridge can go, and with an extra edge joining the sides
+//it splits into two spanning trees that share no edge. Player 2 placing a bridge cuts
+//an edge out of one tree, and player 1 answers by claiming an edge of the other tree
+//that joins the two halves again. A claimed edge counts as part of both trees, so both
+//stay spanning trees, until the claimed edges alone join the sides
+//the extra edge is cut before player 1's first move, which is the answer to that
+class ShannonSolver implements ComputerPlayer {
+  int size;
+  int left; //vertex standing for every dot on the left side
+  int right; //vertex standing for every dot on the right side
+  int joined; //the extra edge joining the sides
+  byte[] trees; //for each edge, bit 1 if it is in the first tree and bit 2 if in the second
+  int broken; //bit k set if tree k may have been cut in two since it was last checked
+  PackedBoard board; //the position the trees are kept for
+  IntDeque seen; //the moves that led to that position, in order
+  int[] component; //the component of each vertex in the last labelled tree
+  int[] reachedBy; //the edge each vertex was reached by in the last path search
+  int[] visited; //the number of the last search that reached each vertex
+  int search; //number of the current search
+  IntDeque queue; //worklist of the searches
+  int[] edges; //scratch space for the edges at a vertex
+
+  //constructor for a solver of the empty board of the given size
+  ShannonSolver(int size) {
+    this.size = BridgItEngine.checkSize(size);
+    this.left = size * size;
+    this.right = size * size + 1;
+    this.joined = size * size;
+    this.trees = new byte[size * size + 1];
+    this.board = new PackedBoard(size);
+    this.seen = new IntDeque(size * size);
+    this.component = new int[size * size + 2];
+    this.reachedBy = new int[size * size + 2];
+    this.visited = new int[size * size + 2];
+    this.queue = new IntDeque(size * size);
+    this.edges = new int[Math.max(4, size / 2 + 1)];
+    this.reset();
+  }
+
+  //EFFECT: goes back to the empty board, splitting player 1's graph into the two trees:
+  //the second tree has every vertical edge, the extra edge, and the horizontal edge at
+  //x = y of each column of dots to the next one, joining the columns in a staircase
+  //from the right side; the first tree has every other horizontal edge, joining each
+  //row to the left side, the top row to both
+  void reset() {
+    this.board.clear();
+    this.seen.clear();
+    for (int i = 0; i < this.size * this.size; i++) {
+      int x = this.board.x(i);
+      int y = this.board.y(i);
+      if (!this.isEdge(i)) {
+        this.trees[i] = 0;
+      }
+      else if (x % 2 == 0 || x == y && x >= 3) {
+        this.trees[i] = 2;
+      }
+      else {
+        this.trees[i] = 1;
+      }
+    }
+    this.trees[this.joined] = 2;
+    this.broken = 0;
+    this.cut(this.joined);
+  }
+
+  //determines if the given index is a spot a bridge can go, an edge of the graph
+  boolean isEdge(int index) {
+    return !this.board.isDot(index) && !this.board.onBorder(index);
+  }
+
+  //returns the vertex of the given dot of player 1, its side's if it is on one
+  int vertex(int dot) {
+    if (dot < this.size) {
+      return this.left;
+    }
+    if (dot >= this.size * (this.size - 1)) {
+      return this.right;
+    }
+    return dot;
+  }
+
+  //returns one end of the given edge
+  int from(int edge) {
+    if (edge == this.joined) {
+      return this.left;
+    }
+    if (this.board.y(edge) % 2 == 1) {
+      return this.vertex(edge - this.size);
+    }
+    return edge - 1;
+  }
+
+  //returns the other end of the given edge
+  int to(int edge) {
+    if (edge == this.joined) {
+      return this.right;
+    }
+    if (this.board.y(edge) % 2 == 1) {
+      return this.vertex(edge + this.size);
+    }
+    return edge + 1;
+  }
+
+  //EFFECT: fills edges with the edges at the given vertex
+  //returns how many there are
+  int edgesAt(int vertex) {
+    int count = 0;
+    if (vertex == this.left || vertex == this.right) {
+      int x = 1;
+      if (vertex == this.right) {
+        x = this.size - 2;
+      }
+      for (int y = 1; y < this.size; y += 2) {
+        this.edges[count] = this.board.index(x, y);
+        count++;
+      }
+      this.edges[count] = this.joined;
+      return count + 1;
+    }
+    int y = this.board.y(vertex);
+    this.edges[count] = vertex - this.size;
+    this.edges[count + 1] = vertex + this.size;
+    count += 2;
+    if (y >= 3) {
+      this.edges[count] = vertex - 1;
+      count++;
+    }
+    if (y <= this.size - 4) {
+      this.edges[count] = vertex + 1;
+      count++;
+    }
+    return count;
+  }
+
+  //returns the vertex at the other end of the given edge from the given vertex
+  int across(int edge, int vertex) {
+    int end = this.from(edge);
+    if (end == vertex) {
+      return this.to(edge);
+    }
+    return end;
+  }
+
+  //EFFECT: updates the trees for a bridge of the given player at the given index
+  void observe(int move, int player) {
+    this.board.place(move, player);
+    this.seen.addAtTail(move);
+    if (player == 1) {
+      this.claim(move);
+    }
+    else {
+      this.cut(move);
+    }
+  }
+
+  //EFFECT: takes the given edge, which player 1 can no longer use, out of both trees
+  void cut(int edge) {
+    this.broken |= this.trees[edge];
+    this.trees[edge] = 0;
+  }
+
+  //EFFECT: puts the given edge, now player 1's, into both trees, in place of an edge of
+  //the cycle it closes in a tree that already joins its ends
+  void claim(int edge) {
+    for (int k = 1; k <= 2; k++) {
+      if ((this.trees[edge] & k) == 0) {
+        if (this.findPath(k, this.from(edge), this.to(edge))) {
+          int dropped = this.unclaimedOnPath(k, this.from(edge), this.to(edge));
+          //a path of claimed edges only would be a cycle in the other tree with this one
+          if (dropped >= 0) {
+            this.trees[dropped] = 0;
+            this.trees[edge] |= k;
+          }
+        }
+        else {
+          this.trees[edge] |= k;
+        }
+      }
+    }
+  }
+
+  //searches tree k from the first vertex, recording how each vertex was reached
+  //returns true if the second vertex was reached
+  boolean findPath(int k, int start, int goal) {
+    this.search++;
+    this.queue.clear();
+    this.queue.addAtTail(start);
+    this.visited[start] = this.search;
+    this.reachedBy[start] = -1;
+    while (this.queue.size() > 0) {
+      int vertex = this.queue.removeFromHead();
+      if (vertex == goal) {
+        return true;
+      }
+      int count = this.edgesAt(vertex);
+      for (int i = 0; i < count; i++) {
+        int edge = this.edges[i];
+        int next = this.across(edge, vertex);
+        if ((this.trees[edge] & k) != 0 && this.visited[next] != this.search) {
+          this.visited[next] = this.search;
+          this.reachedBy[next] = edge;
+          this.queue.addAtTail(next);
+        }
+      }
+    }
+    return false;
+  }
+
+  //returns the last edge found by findPath between the given vertices that is in tree k
+  //only, or -1 if every one is in both trees
+  int unclaimedOnPath(int k, int start, int goal) {
+    int vertex = goal;
+    while (vertex != start) {
+      int edge = this.reachedBy[vertex];
+      if (this.trees[edge] == k) {
+        return edge;
+      }
+      vertex = this.across(edge, vertex);
+    }
+    return -1;
+  }
+
+  //EFFECT: numbers the components of tree k into component, from 1
+  //returns how many there are
+  int label(int k) {
+    this.search++;
+    int count = 0;
+    for (int vertex = 0; vertex < this.size * this.size + 2; vertex++) {
+      if (this.isVertex(vertex) && this.visited[vertex] != this.search) {
+        count++;
+        this.spread(k, vertex, count);
+      }
+    }
+    return count;
+  }
+
+  //determines if the given number is a vertex of player 1's graph
+  boolean isVertex(int vertex) {
+    if (vertex >= this.size * this.size) {
+      return true;
+    }
+    int x = this.board.x(vertex);
+    return x % 2 == 0 && x != 0 && x != this.size - 1 && this.board.y(vertex) % 2 == 1;
+  }
+
+  //EFFECT: gives the given component number to everything tree k joins to the vertex
+  void spread(int k, int start, int number) {
+    this.queue.clear();
+    this.queue.addAtTail(start);
+    this.visited[start] = this.search;
+    this.component[start] = number;
+    while (this.queue.size() > 0) {
+      int vertex = this.queue.removeFromHead();
+      int count = this.edgesAt(vertex);
+      for (int i = 0; i < count; i++) {
+        int edge = this.edges[i];
+        int next = this.across(edge, vertex);
+        if ((this.trees[edge] & k) != 0 && this.visited[next] != this.search) {
+          this.visited[next] = this.search;
+          this.component[next] = number;
+          this.queue.addAtTail(next);
+        }
+      }
+    }
+  }
+
+  //returns the edge player 1 should claim to join tree k back together, or -1 if it is
+  //whole, taking in for free any edge of the other tree player 1 already has that does
+  //returns -2 if nothing can join it any more
+  int repair(int k) {
+    while (this.label(k) > 1) {
+      int found = -2;
+      for (int edge = 0; edge <= this.joined && found == -2; edge++) {
+        if (this.trees[edge] == 3 - k
+            && this.component[this.from(edge)] != this.component[this.to(edge)]) {
+          found = edge;
+        }
+      }
+      if (found < 0 || this.board.owner(found) != 1) {
+        return found;
+      }
+      this.trees[found] = 3;
+    }
+    this.broken &= ~k;
+    return -1;
+  }
+
+  //returns the index player 1 should place a bridge at next to keep a won game won,
+  //or -1 if player 1 has already joined the sides or can no longer be sure to
+  int hint() {
+    for (int k = 1; k <= 2; k++) {
+      if ((this.broken & k) != 0) {
+        int move = this.repair(k);
+        if (move != -1) {
+          return Math.max(-1, move);
+        }
+      }
+    }
+    //with nothing to repair, the next edge across the first tree still to claim
+    if (!this.findPath(1, this.right, this.left)) {
+      return -1;
+    }
+    return this.unclaimedOnPath(1, this.right, this.left);
+  }
+
+  //EFFECT: brings the trees up to the given game, following the moves made since
+  //they were last brought up to date, or starting over if the game went another way
+  void sync(BridgItEngine game) {
+    if (game.size != this.size) {
+      throw new IllegalArgumentException("Solver is for boards of size " + this.size);
+    }
+    boolean follows = this.seen.size() <= game.history.size();
+    for (int i = 0; i < this.seen.size() && follows; i++) {
+      follows = this.seen.get(i) == game.history.get(i);
+    }
+    if (follows) {
+      for (int i = this.seen.size(); i < game.history.size(); i++) {
+        int move = game.history.get(i);
+        this.observe(move, game.board.owner(move));
+      }
+    }
+    if (!follows || !Arrays.equals(this.board.cells, game.board.cells)) {
+      this.rebuild(game);
+    }
+  }
+
+  //EFFECT: starts over and plays the whole of the given game, player 2's bridges that
+  //are not in its history first, then player 1's, and then the history
+  void rebuild(BridgItEngine game) {
+    this.reset();
+    BitSet played = new BitSet(this.size * this.size);
+    for (int i = 0; i < game.history.size(); i++) {
+      played.set(game.history.get(i));
+    }
+    for (int player = 2; player >= 1; player--) {
+      for (int i = 0; i < this.size * this.size; i++) {
+        if (this.isEdge(i) && game.board.owner(i) == player && !played.get(i)) {
+          this.observe(i, player);
+        }
+      }
+    }
+    this.seen.clear();
+    for (int i = 0; i < game.history.size(); i++) {
+      int move = game.history.get(i);
+      this.observe(move, game.board.owner(move));
+    }
+  }
+
+  //returns 1, this solver always plays player 1
+  public int side() {
+    return 1;
+  }
+
+  //returns the index the strategy plays next in the given game, -1 if it has none
+  public int chooseMove(BridgItEngine game) {
+    if (game.winner != 0) {
+      return -1;
+    }
+    this.sync(game);
+    return this.hint();
+  }
+}
+
+//the cases comparing a reply of the solver kept up to date against starting it over,
+//timed by ShannonReplyBenchmark in the jmh source set: each run of the first plays the
+//solver's reply and a random one in a game that starts over once won, and each run of the
+//second rebuilds a solver from a game a quarter played and asks for its reply
+//run with: gradle jmh -Pincludes=ShannonReplyBenchmark
+class ShannonBenchmark {
+
+  //returns every case on boards of the given size, by name
+  static LinkedHashMap<String, BenchmarkCase> cases(int size) {
+    BridgItEngine game = new BridgItEngine(size);
+    ShannonSolver solver = new ShannonSolver(size);
+    SplittableRandom rand = new SplittableRandom(size);
+    //player 2's moves, in a random order shuffled again for each game
+    int[] order = game.legalMoves();
+    int[] next = {order.length};
+    while (game.winner == 0 && game.history.size() < order.length / 4) {
+      reply(game, solver, order, next, rand);
+    }
+    BridgItEngine quarter = new BridgItEngine(size);
+    quarter.copyFrom(game);
+    ShannonSolver scratch = new ShannonSolver(size);
+    LinkedHashMap<String, BenchmarkCase> result = new LinkedHashMap<String, BenchmarkCase>();
+    result.put("incremental", () -> {
+      if (game.winner != 0) {
+        game.reset();
+        next[0] = order.length;
+      }
+      return reply(game, solver, order, next, rand);
+    });
+    result.put("from scratch", () -> {
+      scratch.rebuild(quarter);
+      return scratch.hint();
+    });
+    return result;
+  }
+
+  //EFFECT: places the solver's reply in the given game and then player 2's first move in
+  //the given order from the given position on that is still open, shuffling the order
+  //first if the position is past its end
+  //returns the solver's reply
+  static int reply(BridgItEngine game, ShannonSolver solver, int[] order, int[] next,
+      SplittableRandom rand) {
+    if (next[0] == order.length) {
+      for (int i = order.length - 1; i > 0; i--) {
+        int pick = rand.nextInt(i + 1);
+        int swap = order[i];
+        order[i] = order[pick];
+        order[pick] = swap;
+      }
+      next[0] = 0;
+    }
+    int move = solver.chooseMove(game);
+    game.place(move, 1);
+    while (game.winner == 0 && !game.board.isOpen(order[next[0]])) {
+      next[0]++;
+    }
+    if (game.winner == 0) {
+      game.place(order[next[0]], 2);
+    }
+    return move;
+  }
+}
@@ -0,0 +1,302 @@
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.SplittableRandom;
+
+//represents the playable state of a game packed into two bits per spot a bridge can go,
+//the number of its owner or 0 if it is open, so the whole position is one long[]
+//a board size is odd, so x * size + y is even exactly where x + y is, which is every
+//bridge spot and never a dot: the bits of the spot at index i are bits i and i + 1,
+//both in the same long, bit size * size + 1, just past the last spot, holds whose turn
+//it is and the last long is the Zobrist hash of the position, the same as the engine's
+class BitPosition {
+  int size;
+  long[] bits;
+  ZobristKeys keys;
+  Adjacency adjacency;
+  IntDeque made; //the indices made since the position was loaded or restored, last on top
+  RollbackUnionFind links; //the dots each player's bridges join, laid out as the engine's
+  boolean linked; //whether links is in step with the bridges, rebuilt lazily if not
+
+  //constructor for the empty board of the given size, player 1 to move
+  BitPosition(int size) {
+    this.size = BridgItEngine.checkSize(size);
+    this.bits = new long[longs(size)];
+    this.keys = ZobristKeys.of(size);
+    this.adjacency = Adjacency.of(size);
+    this.made = new IntDeque(16);
+    this.links = new RollbackUnionFind(size * size + 4);
+  }
+
+  //constructor for the position the given game is in
+  BitPosition(BridgItEngine game) {
+    this(game.size);
+    this.load(game);
+  }
+
+  //returns the number of longs in a snapshot of a board of the given size
+  static int longs(int size) {
+    return (size * size + 1) / 64 + 2;
+  }
+
+  //returns the number of the player owning the bridge spot at the given index, 0 if it
+  //is open or not a bridge spot
+  int owner(int index) {
+    return (int) (this.bits[index >> 6] >>> (index & 63)) & 3;
+  }
+
+  //returns the Zobrist hash of this position
+  long hash() {
+    return this.bits[this.bits.length - 1];
+  }
+
+  //EFFECT: makes the given player, 0 for nobody, the owner of the spot at the given index
+  void setOwner(int index, int player) {
+    int shift = index & 63;
+    this.bits[index >> 6] = this.bits[index >> 6] & ~(3L << shift) | (long) player << shift;
+  }
+
+  //returns the number of the player whose turn it is
+  int turn() {
+    int index = this.size * this.size + 1;
+    return (int) (this.bits[index >> 6] >>> (index & 63) & 1) + 1;
+  }
+
+  //EFFECT: gives the turn to the given player, leaving the hash as it is
+  void setTurn(int player) {
+    int index = this.size * this.size + 1;
+    this.bits[index >> 6] = this.bits[index >> 6] & ~(1L << (index & 63))
+        | (long) (player - 1) << (index & 63);
+  }
+
+  //determines if a bridge can still be placed at the given index
+  boolean isOpen(int index) {
+    int x = index / this.size;
+    int y = index % this.size;
+    return (index & 1) == 0 && x > 0 && y > 0 && x < this.size - 1 && y < this.size - 1
+        && this.owner(index) == 0;
+  }
+
+  //EFFECT: places a bridge of the player whose turn it is at the given open index,
+  //remembering it for unmake, and passes the turn
+  void make(int index) {
+    int player = this.turn();
+    this.setOwner(index, player);
+    this.made.addAtTail(index);
+    if (this.linked) {
+      this.link(index, player);
+    }
+    this.setTurn(3 - player);
+    this.bits[this.bits.length - 1] ^= this.keys.bridge(index, player) ^ this.keys.turn;
+  }
+
+  //EFFECT: takes back the last bridge made, giving the turn back to whoever made it
+  //returns the index it was at
+  int unmake() {
+    int index = this.made.removeFromTail();
+    if (this.linked) {
+      this.links.rollback(this.links.version() - 1);
+    }
+    this.bits[this.bits.length - 1] ^= this.keys.bridge(index, this.owner(index)) 
+        ^ this.keys.turn;
+    this.setTurn(this.owner(index));
+    this.setOwner(index, 0);
+    return index;
+  }
+
+  //returns a copy of this position
+  long[] snapshot() {
+    return this.bits.clone();
+  }
+
+  //EFFECT: copies this position into the given snapshot, made for a board of this size
+  void snapshot(long[] into) {
+    System.arraycopy(this.bits, 0, into, 0, this.bits.length);
+  }
+
+  //EFFECT: makes this the position of the given snapshot, forgetting the moves made
+  void restore(long[] from) {
+    if (from.length != this.bits.length) {
+      throw new IllegalArgumentException("Snapshot is not of a board of size " + this.size);
+    }
+    System.arraycopy(from, 0, this.bits, 0, this.bits.length);
+    this.made.clear();
+    this.linked = false;
+  }
+
+  //EFFECT: makes this the position of the given game, which must be of the same size
+  void load(BridgItEngine game) {
+    Arrays.fill(this.bits, 0);
+    for (int i = 0; i < this.size * this.size; i += 2) {
+      this.setOwner(i, game.board.owner(i));
+    }
+    this.setTurn(game.turn);
+    this.bits[this.bits.length - 1] = game.hash;
+    this.made.clear();
+    this.linked = false;
+  }
+
+  //EFFECT: makes the given game, which must be of the same size, this position, with the
+  //bridges in its history in the order of their indices since the real order is not kept
+  //so the game cannot be undone move by move: each undo takes back the bridge with the
+  //highest index left and gives the turn to its owner, keeping the board and links right
+  //but not going back through the positions the game was really in
+  void store(BridgItEngine game) {
+    game.board.clear();
+    game.history.clear();
+    for (int i = 0; i < this.size * this.size; i += 2) {
+      if (this.owner(i) != 0) {
+        game.board.place(i, this.owner(i));
+        game.history.addAtTail(i);
+      }
+    }
+    game.links.reset();
+    game.linkAll(game.links);
+    game.turn = this.turn();
+    game.hash = game.computeHash();
+    game.winner = 0;
+    if (game.hasWon(1)) {
+      game.winner = 1;
+    }
+    else if (game.hasWon(2)) {
+      game.winner = 2;
+    }
+  }
+
+  //returns the number of the player whose sides are connected, or 0 if neither are
+  int winner() {
+    if (this.hasWon(1)) {
+      return 1;
+    }
+    else if (this.hasWon(2)) {
+      return 2;
+    }
+    return 0;
+  }
+
+  //determines if the given player's sides are connected, by whether the virtual nodes of
+  //the player's two sides are in one set of the links
+  boolean hasWon(int player) {
+    if (!this.linked) {
+      this.relink();
+    }
+    int side = this.size * this.size;
+    if (player == 1) {
+      return this.links.connected(side, side + 1);
+    }
+    return this.links.connected(side + 2, side + 3);
+  }
+
+  //EFFECT: builds the links from scratch, the edge dots and the bridges placed before the
+  //moves made as a base no rollback takes back, then each move made on top of it, in
+  //order, so unmake can take them back one by one
+  //the moves made alternate, so the last was made by the player not to move
+  void relink() {
+    int side = this.size * this.size;
+    for (int i = 0; i < this.made.size(); i++) {
+      this.setOwner(this.made.get(i), 0);
+    }
+    this.links.reset();
+    for (int i = 1; i < this.size; i += 2) {
+      this.links.union(side, i);
+      this.links.union(side + 1, (this.size - 1) * this.size + i);
+      this.links.union(side + 2, i * this.size);
+      this.links.union(side + 3, i * this.size + this.size - 1);
+    }
+    for (int i = 0; i < side; i += 2) {
+      if (this.owner(i) != 0) {
+        this.link(i, this.owner(i));
+      }
+    }
+    this.links.forget();
+    int player = this.turn();
+    if (this.made.size() % 2 == 1) {
+      player = 3 - player;
+    }
+    for (int i = 0; i < this.made.size(); i++) {
+      this.setOwner(this.made.get(i), player);
+      this.link(this.made.get(i), player);
+      player = 3 - player;
+    }
+    this.linked = true;
+  }
+
+  //EFFECT: joins the two dots a bridge of the given player at the given index connects
+  //a bridge of the player's lies on the line between two of the player's dots, the ones a
+  //row before and after it when its x is odd for player 1 or even for player 2
+  void link(int index, int player) {
+    if ((index / this.size % 2 == 1) == (player == 1)) {
+      this.links.union(index - this.size, index + this.size);
+    }
+    else {
+      this.links.union(index - 1, index + 1);
+    }
+  }
+}
+
+//the cases of taking and restoring snapshots of positions, making and unmaking moves, and
+//the engine copy and rebuild that snapshots save a search from, on a game with half its
+//bridges placed at random, timed by PositionCopyBenchmark in the jmh source set
+//run with: gradle jmh -Pincludes=PositionCopyBenchmark
+class SnapshotBenchmark {
+
+  //returns every case on boards of the given size, by name
+  static LinkedHashMap<String, BenchmarkCase> cases(int size) {
+    BridgItEngine game = new BridgItEngine(size);
+    int[] moves = game.legalMoves();
+    SplittableRandom rand = new SplittableRandom(size);
+    for (int i = moves.length - 1; i > 0; i--) {
+      int pick = rand.nextInt(i + 1);
+      int swap = moves[i];
+      moves[i] = moves[pick];
+      moves[pick] = swap;
+    }
+    for (int i = 0; i < moves.length / 2; i++) {
+      game.place(moves[i], game.turn);
+    }
+    int[] open = new int[moves.length - moves.length / 2];
+    System.arraycopy(moves, moves.length / 2, open, 0, open.length);
+    BitPosition position = new BitPosition(game);
+    long[] saved = position.snapshot();
+    BridgItEngine copy = new BridgItEngine(size);
+
+    LinkedHashMap<String, BenchmarkCase> result = new LinkedHashMap<String, BenchmarkCase>();
+    result.put("snapshot clone", () -> position.snapshot().length);
+    result.put("snapshot into", () -> {
+      position.snapshot(saved);
+      return saved[0];
+    });
+    result.put("restore", () -> {
+      position.restore(saved);
+      return position.bits[0];
+    });
+    result.put("make+unmake", () -> makeUnmake(position, open));
+    result.put("hasWon", () -> position.winner());
+    result.put("load from engine", () -> {
+      position.load(game);
+      return position.bits[0];
+    });
+    result.put("store to engine", () -> {
+      position.store(copy);
+      return copy.winner;
+    });
+    result.put("engine copyFrom", () -> {
+      copy.copyFrom(game);
+      return copy.winner;
+    });
+    result.put("engine new", () -> new BridgItEngine(size).size);
+    return result;
+  }
+
+  //makes and then unmakes 16 of the open moves, as one line of a depth first search would
+  static long makeUnmake(BitPosition position, int[] open) {
+    int depth = Math.min(16, open.length);
+    for (int i = 0; i < depth; i++) {
+      position.make(open[i]);
+    }
+    long result = 0;
+    for (int i = 0; i < depth; i++) {
+      result += position.unmake();
+    }
+    return result;
+  }
+}
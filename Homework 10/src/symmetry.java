@@ -0,0 +1,211 @@
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+//the ways a board can be turned over onto itself without changing who wins, worked out
+//once for each board size and shared by every board of that size
+//a size is odd, so mirroring x or y keeps every dot of a player's a dot of theirs and only
+//swaps the two sides of one player, and transposing makes player 1's dots player 2's, so
+//it is a symmetry once the colors, and whose turn it is, are swapped too
+//symmetry g mirrors x if bit 0 is set, y if bit 1 is, and then transposes if bit 2 is:
+//0 is the identity, 3 the 180 degree rotation and 4 the transpose with colors swapped
+class Symmetry {
+  static final int COUNT = 8;
+  static final ConcurrentHashMap<Integer, Symmetry> BY_SIZE =
+      new ConcurrentHashMap<Integer, Symmetry>();
+  int size;
+  int[][] maps; //the index each index of the board goes to under each symmetry
+  int[] inverse; //the symmetry that takes each one back
+
+  //constructor working out every symmetry of a board of the given size
+  Symmetry(int size) {
+    this.size = size;
+    this.maps = new int[COUNT][size * size];
+    this.inverse = new int[COUNT];
+    for (int g = 0; g < COUNT; g++) {
+      for (int x = 0; x < size; x++) {
+        for (int y = 0; y < size; y++) {
+          int mappedX = x;
+          int mappedY = y;
+          if ((g & 1) != 0) {
+            mappedX = size - 1 - x;
+          }
+          if ((g & 2) != 0) {
+            mappedY = size - 1 - y;
+          }
+          if ((g & 4) != 0) {
+            int swap = mappedX;
+            mappedX = mappedY;
+            mappedY = swap;
+          }
+          this.maps[g][x * size + y] = mappedX * size + mappedY;
+        }
+      }
+    }
+    for (int g = 0; g < COUNT; g++) {
+      for (int h = 0; h < COUNT; h++) {
+        boolean back = true;
+        for (int i = 0; i < size * size; i++) {
+          back = back && this.maps[h][this.maps[g][i]] == i;
+        }
+        if (back) {
+          this.inverse[g] = h;
+        }
+      }
+    }
+  }
+
+  //returns the symmetries of boards of the given size
+  static Symmetry of(int size) {
+    return BY_SIZE.computeIfAbsent(size, Symmetry::new);
+  }
+
+  //determines if the given symmetry swaps the players' colors
+  static boolean swaps(int g) {
+    return g >= 4;
+  }
+
+  //returns the player the given player becomes under the given symmetry, 0 staying 0
+  static int player(int g, int player) {
+    if (swaps(g) && player != 0) {
+      return 3 - player;
+    }
+    return player;
+  }
+
+  //returns the index the given index goes to under the given symmetry
+  int map(int g, int index) {
+    return this.maps[g][index];
+  }
+
+  //returns the Zobrist hash of the given position turned over by the given symmetry,
+  //from scratch, the same as the position's own hash for the identity
+  long hash(BitPosition position, int g) {
+    ZobristKeys keys = position.keys;
+    long result = keys.turn(player(g, position.turn()));
+    for (int i = 0; i < this.size * this.size; i += 2) {
+      int owner = position.owner(i);
+      if (owner != 0) {
+        result ^= keys.bridge(this.maps[g][i], player(g, owner));
+      }
+    }
+    return result;
+  }
+}
+
+//the Zobrist hashes of a position under every symmetry, kept up to date one move at a time,
+//so the smallest of them names the position's whole class of symmetric positions and a
+//table keyed by it stores each class once
+//the symmetry that gives the smallest hash takes the position to the class's canonical
+//one, and moves and winners go to it and back through that symmetry and its inverse
+class CanonicalHash {
+  Symmetry symmetry;
+  ZobristKeys keys;
+  long[] hashes = new long[Symmetry.COUNT];
+
+  //constructor for the hashes of the given position
+  CanonicalHash(BitPosition position) {
+    this.symmetry = Symmetry.of(position.size);
+    this.keys = position.keys;
+    this.load(position);
+  }
+
+  //EFFECT: sets the hashes from scratch to those of the given position
+  void load(BitPosition position) {
+    for (int g = 0; g < Symmetry.COUNT; g++) {
+      this.hashes[g] = this.symmetry.hash(position, g);
+    }
+  }
+
+  //EFFECT: adds or takes away a bridge of the given player at the given index and passes
+  //the turn, as making or unmaking a move of the player to move does to a position
+  void toggle(int index, int player) {
+    int[][] maps = this.symmetry.maps;
+    long[] bridges = this.keys.bridges;
+    for (int g = 0; g < 4; g++) {
+      this.hashes[g] ^= bridges[maps[g][index] * 2 + player - 1] ^ this.keys.turn;
+    }
+    for (int g = 4; g < Symmetry.COUNT; g++) {
+      this.hashes[g] ^= bridges[maps[g][index] * 2 + 2 - player] ^ this.keys.turn;
+    }
+  }
+
+  //returns the hash of the canonical position of the class, the smallest of the hashes
+  long key() {
+    long result = this.hashes[0];
+    for (int g = 1; g < Symmetry.COUNT; g++) {
+      result = Math.min(result, this.hashes[g]);
+    }
+    return result;
+  }
+
+  //returns the symmetry taking the position to the canonical one, the first if several do
+  int canonical() {
+    int result = 0;
+    for (int g = 1; g < Symmetry.COUNT; g++) {
+      if (this.hashes[g] < this.hashes[result]) {
+        result = g;
+      }
+    }
+    return result;
+  }
+
+  //returns the index of the canonical position the given index of the position goes to
+  int toCanonical(int index) {
+    return this.symmetry.map(this.canonical(), index);
+  }
+
+  //returns the index of the position the given index of the canonical position comes from
+  int fromCanonical(int index) {
+    return this.symmetry.map(this.symmetry.inverse[this.canonical()], index);
+  }
+}
+
+//the cases counting the positions reachable from the empty board and their classes of
+//symmetric positions, and solving the empty board with a new table keyed by each
+//position's own hash against one keyed by its canonical hash, which stores each class
+//once, timed by SymmetrySolveBenchmark in the jmh source set
+//run with: gradle jmh -Pincludes=SymmetrySolveBenchmark
+class SymmetryBenchmark {
+  static final long TABLE_BYTES = 1 << 24; //big enough to keep every position of size 7
+
+  //returns every case on boards of the given size, by name
+  static LinkedHashMap<String, BenchmarkCase> cases(int size) {
+    LinkedHashMap<String, BenchmarkCase> result = new LinkedHashMap<String, BenchmarkCase>();
+    result.put("reach", () -> {
+      HashSet<Long> positions = new HashSet<Long>();
+      HashSet<Long> classes = new HashSet<Long>();
+      BitPosition position = new BitPosition(size);
+      reach(position, new CanonicalHash(position), positions, classes);
+      return classes.size();
+    });
+    result.put("solve by position", () -> new TableSolver(
+        new TranspositionTable(TABLE_BYTES), false).solve(new BitPosition(size)));
+    result.put("solve by canonical", () -> new TableSolver(
+        new TranspositionTable(TABLE_BYTES), true).solve(new BitPosition(size)));
+    return result;
+  }
+
+  //EFFECT: adds the hash of the given position and of every position reachable from it,
+  //stopping at won ones, to positions, and their canonical hashes to classes
+  static void reach(BitPosition position, CanonicalHash hashes, HashSet<Long> positions,
+      HashSet<Long> classes) {
+    if (!positions.add(position.hash())) {
+      return;
+    }
+    classes.add(hashes.key());
+    int player = position.turn();
+    if (position.hasWon(3 - player)) {
+      return;
+    }
+    for (int i = 0; i < position.size * position.size; i++) {
+      if (position.isOpen(i)) {
+        position.make(i);
+        hashes.toggle(i, player);
+        reach(position, hashes, positions, classes);
+        position.unmake();
+        hashes.toggle(i, player);
+      }
+    }
+  }
+}
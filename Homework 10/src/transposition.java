@@ -0,0 +1,319 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+//a table of fixed size of what searches found out about positions, keyed by their Zobrist
+//hashes, that any number of search threads can share without locks
+//an entry is its data and its hash XORed with its data, so an entry torn by two threads
+//writing it at once no longer matches any hash and only reads as a miss
+//entries go in buckets of two: the first keeps the deepest search of the positions that
+//land in it, unless it is from an older search, and the second takes whatever the first
+//turns away
+class TranspositionTable {
+  static final int ENTRY_BYTES = 16;
+  static final int EXACT = 1; //kinds of bound a value can be
+  static final int LOWER = 2;
+  static final int UPPER = 3;
+  long[] checks; //the hash XORed with the data of each entry
+  long[] entries; //the data of each entry as packed by pack, 0 if the entry is empty
+  long mask; //the number of buckets less one
+  volatile int generation; //the search entries are stored by, counting up to 63 and around
+  LongAdder probes = new LongAdder();
+  LongAdder hits = new LongAdder();
+  LongAdder stores = new LongAdder();
+  LongAdder overwrites = new LongAdder(); //stores that pushed out another position
+
+  //constructor for a table taking up at most the given number of bytes, rounded down to
+  //a power of two entries
+  TranspositionTable(long budgetBytes) {
+    if (budgetBytes < 2 * ENTRY_BYTES) {
+      throw new IllegalArgumentException("A transposition table needs at least 32 bytes");
+    }
+    long buckets = Math.min(Long.highestOneBit(budgetBytes / (2 * ENTRY_BYTES)), 1L << 29);
+    this.checks = new long[(int) buckets * 2];
+    this.entries = new long[(int) buckets * 2];
+    this.mask = buckets - 1;
+  }
+
+  //returns the data of an entry, the value being at most 16 bits and the depth 8 bits
+  static long pack(int move, int value, int depth, int bound, int generation) {
+    return (move & 0xFFFFFFFFL) | (value & 0xFFFFL) << 32 | (long) (depth & 0xFF) << 48
+        | (long) bound << 56 | (long) generation << 58;
+  }
+
+  //returns the move of the given entry
+  static int move(long entry) {
+    return (int) entry;
+  }
+
+  //returns the value of the given entry
+  static int value(long entry) {
+    return (short) (entry >>> 32);
+  }
+
+  //returns how deep the search that stored the given entry went
+  static int depth(long entry) {
+    return (int) (entry >>> 48) & 0xFF;
+  }
+
+  //returns the kind of bound the value of the given entry is
+  static int bound(long entry) {
+    return (int) (entry >>> 56) & 3;
+  }
+
+  //returns the search the given entry was stored by
+  static int generation(long entry) {
+    return (int) (entry >>> 58);
+  }
+
+  //returns the entry of the position with the given hash, or 0 if it is not in the table
+  long probe(long hash) {
+    this.probes.increment();
+    int slot = (int) (hash & this.mask) * 2;
+    for (int i = slot; i < slot + 2; i++) {
+      long entry = this.entries[i];
+      if (entry != 0 && (this.checks[i] ^ entry) == hash) {
+        this.hits.increment();
+        return entry;
+      }
+    }
+    return 0;
+  }
+
+  //EFFECT: stores what a search of the given depth found out about the position with the
+  //given hash, in the first entry of its bucket if that holds the same position, nothing,
+  //a shallower search or one from an older generation, and in the second otherwise
+  void store(long hash, int move, int value, int depth, int bound) {
+    int slot = (int) (hash & this.mask) * 2;
+    long entry = pack(move, value, depth, bound, this.generation);
+    long first = this.entries[slot];
+    int i = slot + 1;
+    if (first == 0 || (this.checks[slot] ^ first) == hash || depth >= depth(first)
+        || generation(first) != generation(entry)) {
+      i = slot;
+    }
+    long old = this.entries[i];
+    if (old != 0 && (this.checks[i] ^ old) != hash) {
+      this.overwrites.increment();
+    }
+    //data first, so a thread reading between the two writes sees a mismatch and a miss
+    this.entries[i] = entry;
+    this.checks[i] = hash ^ entry;
+    this.stores.increment();
+  }
+
+  //EFFECT: starts a new search, so the entries of older ones give way to its entries
+  void newSearch() {
+    this.generation = (this.generation + 1) & 63;
+  }
+
+  //EFFECT: empties the table and sets its counters back to 0
+  void clear() {
+    Arrays.fill(this.checks, 0);
+    Arrays.fill(this.entries, 0);
+    this.probes.reset();
+    this.hits.reset();
+    this.stores.reset();
+    this.overwrites.reset();
+  }
+
+  //returns the share of probes that found their position
+  double hitRate() {
+    return (double) this.hits.sum() / Math.max(1, this.probes.sum());
+  }
+
+  //returns the number of entries holding a position
+  long used() {
+    long result = 0;
+    for (long entry : this.entries) {
+      if (entry != 0) {
+        result++;
+      }
+    }
+    return result;
+  }
+
+  //returns the counters of the table as one line of text
+  public String toString() {
+    return String.format("%d probes, %.1f%% hits, %d stores, %d overwrites, %.1f%% full",
+        this.probes.sum(), 100 * this.hitRate(), this.stores.sum(), this.overwrites.sum(),
+        100.0 * this.used() / this.entries.length);
+  }
+}
+
+//solves small boards exactly, with a depth first search over a BitPosition that remembers
+//the winner of every position it solves in a transposition table
+//keyed by canonical hashes, it stores a position and every position symmetric to it once,
+//with the winner and move as they are in the canonical position
+class TableSolver {
+  TranspositionTable table;
+  boolean symmetric; //whether positions are keyed by their canonical hashes
+  CanonicalHash canonical; //the hashes of the position being solved, if they are
+
+  //constructor for a solver remembering positions in the given table
+  TableSolver(TranspositionTable table) {
+    this(table, false);
+  }
+
+  //constructor for a solver remembering positions in the given table, under their
+  //canonical hashes if asked to
+  TableSolver(TranspositionTable table, boolean symmetric) {
+    this.table = table;
+    this.symmetric = symmetric;
+  }
+
+  //returns the winner with best play from the given position, which nobody has won yet
+  //EFFECT: makes and unmakes moves on the position, leaving it as it was
+  int solve(BitPosition position) {
+    if (this.symmetric) {
+      this.canonical = new CanonicalHash(position);
+    }
+    int open = 0;
+    for (int i = 0; i < position.size * position.size; i++) {
+      if (position.isOpen(i)) {
+        open++;
+      }
+    }
+    return this.solve(position, open);
+  }
+
+  //returns the winner with best play from the given position, which has the given number
+  //of open spots left, stored in the table as the depth of its search
+  int solve(BitPosition position, int open) {
+    long entry = this.table.probe(this.key(position));
+    if (entry != 0) {
+      return this.fromTable(TranspositionTable.value(entry));
+    }
+    int player = position.turn();
+    int size = position.size;
+    for (int x = 1; x < size - 1; x++) {
+      for (int y = 2 - x % 2; y < size - 1; y += 2) {
+        int move = x * size + y;
+        if (position.owner(move) == 0) {
+          this.make(position, move, player);
+          boolean wins = position.hasWon(player) || this.solve(position, open - 1) == player;
+          this.make(position, -1, player);
+          if (wins) {
+            this.store(position, move, player, open);
+            return player;
+          }
+        }
+      }
+    }
+    this.store(position, -1, 3 - player, open);
+    return 3 - player;
+  }
+
+  //returns the hash the given position is stored under
+  long key(BitPosition position) {
+    if (this.symmetric) {
+      return this.canonical.key();
+    }
+    return position.hash();
+  }
+
+  //EFFECT: makes a move of the given player at the given index of the position, or
+  //unmakes the last if the index is -1, keeping the canonical hashes up to date
+  void make(BitPosition position, int index, int player) {
+    if (index < 0) {
+      index = position.unmake();
+    }
+    else {
+      position.make(index);
+    }
+    if (this.symmetric) {
+      this.canonical.toggle(index, player);
+    }
+  }
+
+  //EFFECT: stores the given winner and move of the position, which has the given number
+  //of open spots left, turning them into the canonical position's if keyed by it
+  void store(BitPosition position, int move, int winner, int open) {
+    if (this.symmetric) {
+      int g = this.canonical.canonical();
+      winner = Symmetry.player(g, winner);
+      if (move >= 0) {
+        move = this.canonical.symmetry.map(g, move);
+      }
+    }
+    this.table.store(this.key(position), move, winner, open, TranspositionTable.EXACT);
+  }
+
+  //returns the winner of the position being solved, from the winner stored in the table
+  int fromTable(int winner) {
+    if (this.symmetric) {
+      return Symmetry.player(this.canonical.canonical(), winner);
+    }
+    return winner;
+  }
+
+  //returns the open indices of the given position that win for the player to move,
+  //solving the position after each of them on its own thread of the given pool
+  static int[] winningMoves(BitPosition position, TranspositionTable table,
+      ExecutorService pool) throws Exception {
+    long[] start = position.snapshot();
+    int player = position.turn();
+    ArrayList<Integer> moves = new ArrayList<Integer>();
+    ArrayList<Future<Boolean>> wins = new ArrayList<Future<Boolean>>();
+    for (int i = 0; i < position.size * position.size; i++) {
+      if (position.isOpen(i)) {
+        int move = i;
+        Callable<Boolean> task = () -> {
+          BitPosition child = new BitPosition(position.size);
+          child.restore(start);
+          child.make(move);
+          return child.hasWon(player) || new TableSolver(table).solve(child) == player;
+        };
+        moves.add(move);
+        wins.add(pool.submit(task));
+      }
+    }
+    int count = 0;
+    int[] result = new int[moves.size()];
+    for (int i = 0; i < moves.size(); i++) {
+      if (wins.get(i).get()) {
+        result[count] = moves.get(i);
+        count++;
+      }
+    }
+    return Arrays.copyOf(result, count);
+  }
+}
+
+//the cases finding every winning first move of the empty board with transposition
+//tables of 4 KB, 256 KB and 16 MB, each shared by 1, 2 or 4 threads, timed by
+//TableSolveBenchmark in the jmh source set
+//run with: gradle jmh -Pincludes=TableSolveBenchmark
+class TranspositionBenchmark {
+
+  //returns every case on boards of the given size, by name, the table's size and the
+  //threads making the name
+  static LinkedHashMap<String, BenchmarkCase> cases(int size) {
+    LinkedHashMap<String, BenchmarkCase> result = new LinkedHashMap<String, BenchmarkCase>();
+    for (long budget = 1 << 12; budget <= 1 << 24; budget <<= 6) {
+      for (int threads = 1; threads <= 4; threads *= 2) {
+        long bytes = budget;
+        int count = threads;
+        result.put((budget >> 10) + " KB, " + threads + " threads", () -> {
+          ExecutorService pool = Executors.newFixedThreadPool(count);
+          try {
+            return TableSolver.winningMoves(new BitPosition(size),
+                new TranspositionTable(bytes), pool).length;
+          }
+          catch (Exception e) {
+            throw new RuntimeException(e);
+          }
+          finally {
+            pool.shutdown();
+          }
+        });
+      }
+    }
+    return result;
+  }
+}